@@ -0,0 +1,247 @@
+package com.jsbs.casemall.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class OrderAdmissionInterceptor implements HandlerInterceptor {
+    // 주문 생성 요청 유입 제어
+    // 주문이 몰리면 주문 처리가 커넥션 풀을 다 차지해서 상품 목록 등 다른 화면까지 같이 멈춘다
+    // 1. 상품별 / 전체 토큰 버킷으로 초당 유입량 제한 -> 넘치면 429 + Retry-After
+    // 2. 통과한 요청은 동시 처리 수(커넥션 풀보다 작게)만큼만 실행하고, 나머지는 공정(FIFO) 대기열에서 잠깐 기다린다
+    //    기다리는 동안 요청 스레드를 붙잡으므로 대기열 크기와 대기 시간은 짧게 두고
+    // 3. 대기열이 가득 찼거나 대기 시간을 넘기면 503 + 대기 순번 / 예상 대기 시간 + Retry-After
+    // 장바구니/바로구매는 폼 전송(화면 이동)이므로 HTML 을 받는 요청에는 JSON 대신 대기 화면(order/queue)을 보여주고,
+    // 대기 화면이 예상 시간 뒤에 같은 입력값으로 다시 주문한다 (서버 스레드 대신 브라우저가 기다린다)
+
+    private static final String PERMIT_ATTRIBUTE = OrderAdmissionInterceptor.class.getName() + ".permit";
+    private static final int MAX_SKU_BUCKETS = 10_000;
+
+    private final ObjectMapper objectMapper;
+    private final ITemplateEngine templateEngine;
+
+    private final TokenBucket globalBucket;
+    private final Map<Long, TokenBucket> skuBuckets = new ConcurrentHashMap<>(); // 상품 ID -> 버킷
+    private final double skuRate;
+    private final int skuBurst;
+
+    private final int maxConcurrent;
+    private final Semaphore permits; // 공정 모드 - 먼저 기다린 요청이 먼저 들어간다
+    private final int queueSize;
+    private final Duration maxWait;
+
+    private final AtomicInteger waiting = new AtomicInteger(); // 대기열 길이
+    private final AtomicLong issued = new AtomicLong(); // 대기 번호표 발급 수
+    private final AtomicLong admitted = new AtomicLong(); // 대기 후 입장한 수
+    private volatile double avgServiceMillis = 200; // 주문 처리 시간 이동 평균 (예상 대기 시간 계산용)
+
+    public OrderAdmissionInterceptor(ObjectMapper objectMapper, ITemplateEngine templateEngine,
+                                     @Value("${order.admission.rate:50}") double rate,
+                                     @Value("${order.admission.burst:100}") int burst,
+                                     @Value("${order.admission.sku-rate:10}") double skuRate,
+                                     @Value("${order.admission.sku-burst:20}") int skuBurst,
+                                     @Value("${order.admission.max-concurrent:4}") int maxConcurrent,
+                                     @Value("${order.admission.queue-size:20}") int queueSize,
+                                     @Value("${order.admission.max-wait:PT0.5S}") Duration maxWait) {
+        this.objectMapper = objectMapper;
+        this.templateEngine = templateEngine;
+        this.globalBucket = new TokenBucket(rate, burst);
+        this.skuRate = skuRate;
+        this.skuBurst = skuBurst;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.queueSize = queueSize;
+        this.maxWait = maxWait;
+    }
+
+    // 초당 rate 개씩 채워지고 최대 burst 개까지 쌓이는 토큰 버킷
+    static final class TokenBucket {
+        private final double ratePerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double ratePerSecond, int burst) {
+            this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = burst;
+            this.tokens = burst;
+            this.lastRefill = System.nanoTime();
+        }
+
+        // 토큰을 얻으면 0, 못 얻으면 다음 토큰까지 남은 시간(ms)
+        synchronized long tryAcquire() {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / ratePerNano / TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+
+        // 다른 버킷에서 거절된 경우 가져간 토큰을 돌려준다
+        synchronized void release() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull() {
+            refill();
+            return tokens >= capacity;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerNano);
+            lastRefill = now;
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!"POST".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+
+        // 1. 유입량 제한 (바로구매는 상품별 버킷도 확인)
+        TokenBucket skuBucket = skuBucket(request.getParameter("prId"));
+        if (skuBucket != null) {
+            long retryAfterMillis = skuBucket.tryAcquire();
+            if (retryAfterMillis > 0) {
+                return reject(request, response, HttpStatus.TOO_MANY_REQUESTS, retryAfterMillis,
+                        "해당 상품에 주문이 몰리고 있습니다. 잠시 후 다시 시도해주세요.", null, null);
+            }
+        }
+        long retryAfterMillis = globalBucket.tryAcquire();
+        if (retryAfterMillis > 0) {
+            if (skuBucket != null) {
+                skuBucket.release();
+            }
+            return reject(request, response, HttpStatus.TOO_MANY_REQUESTS, retryAfterMillis,
+                    "주문이 몰리고 있습니다. 잠시 후 다시 시도해주세요.", null, null);
+        }
+
+        // 2. 동시 처리 수 제한 - 자리가 있으면 바로 입장
+        if (permits.tryAcquire()) {
+            admit(request);
+            return true;
+        }
+
+        // 3. 대기열 - 가득 찼으면 바로 거절
+        if (waiting.incrementAndGet() > queueSize) {
+            waiting.decrementAndGet();
+            long position = queueSize + 1L;
+            long etaMillis = estimateWaitMillis(position);
+            return reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, etaMillis,
+                    "주문 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.", position, etaMillis);
+        }
+        long ticket = issued.incrementAndGet();
+        try {
+            if (permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                admitted.incrementAndGet();
+                admit(request);
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        admitted.incrementAndGet(); // 포기한 번호표도 앞 순번에서 빠진다
+        long position = Math.max(1, ticket - admitted.get() + 1);
+        long etaMillis = estimateWaitMillis(position);
+        return reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, etaMillis,
+                "주문 대기 중입니다. 잠시 후 다시 시도해주세요.", position, etaMillis);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object startedAt = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (startedAt == null) {
+            return;
+        }
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        permits.release();
+        double elapsed = (System.nanoTime() - (Long) startedAt) / 1_000_000.0;
+        avgServiceMillis = avgServiceMillis * 0.9 + elapsed * 0.1;
+    }
+
+    private void admit(HttpServletRequest request) {
+        request.setAttribute(PERMIT_ATTRIBUTE, System.nanoTime());
+    }
+
+    // 앞에 position 명이 있을 때 예상 대기 시간 (동시 처리 수만큼 나눠서 처리)
+    private long estimateWaitMillis(long position) {
+        return Math.max(1, (long) Math.ceil(position * avgServiceMillis / maxConcurrent));
+    }
+
+    private TokenBucket skuBucket(String prId) {
+        if (prId == null) {
+            return null; // 장바구니 주문은 상품 ID 를 알려면 DB 조회가 필요하므로 전체 버킷만 적용
+        }
+        Long productId;
+        try {
+            productId = Long.valueOf(prId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (skuBuckets.size() >= MAX_SKU_BUCKETS) {
+            skuBuckets.values().removeIf(TokenBucket::isFull); // 한동안 주문이 없던 상품 정리
+        }
+        return skuBuckets.computeIfAbsent(productId, id -> new TokenBucket(skuRate, skuBurst));
+    }
+
+    private boolean reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                           long retryAfterMillis, String message, Long position, Long etaMillis) throws IOException {
+        long retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", message);
+        body.put("retryAfter", retryAfterSeconds);
+        if (position != null) {
+            body.put("position", position);
+            body.put("eta", Math.max(1, (etaMillis + 999) / 1000));
+        }
+        log.info("주문 요청 거절 ({}): {}", status.value(), body);
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setCharacterEncoding("UTF-8");
+        if (acceptsHtml(request)) {
+            Context context = new Context(Locale.KOREAN, body);
+            context.setVariable("action", request.getRequestURI()); // 쿼리 문자열 값도 params 에 들어 있다
+            context.setVariable("params", request.getParameterMap());
+            response.setContentType(MediaType.TEXT_HTML_VALUE);
+            templateEngine.process("order/queue", context, response.getWriter());
+            return false;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getWriter(), body);
+        return false;
+    }
+
+    // 브라우저 폼 전송 (fetch/XHR 로 JSON 을 받는 호출은 Accept 에 text/html 이 없다)
+    private static boolean acceptsHtml(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_HTML_VALUE);
+    }
+}
@@ -22,7 +22,7 @@ public class SecurityConfig {
                 // 요청에 따른 인가 설정
                 .authorizeHttpRequests((request) -> request
                         .requestMatchers("/user/**", "/order/**","/pay/**","/cart/**","/userEdit","/myPage","/qnas/create","/qnas/edit","qnas/new").authenticated() // 로그인성공한 사람만  user /밑에 모든  경로에 접근 가능 예를 들면 마이페이지 구매 진행 이런거
-                        .requestMatchers("/admin/**") // 관리자로 저장된 회원만 admin / 아래 모든 모든곳에 접근 가능
+                        .requestMatchers("/admin/**", "/actuator/metrics/**") // 관리자로 저장된 회원만 admin / 아래 모든 모든곳에 접근 가능
                         .hasRole("ADMIN")
                         .anyRequest().permitAll() // 그 외에 는 접근 허용
                 )
@@ -1,8 +1,10 @@
 package com.jsbs.casemall.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -16,6 +18,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Value("${productImgLocation}")
     private String productImgLocation;
 
+    @Autowired
+    private OrderAdmissionInterceptor orderAdmissionInterceptor;
+
     @Value("${reviewuploadPath}")
     String reviewuploadPath;
     @Value("${reviewImgLocation}")
@@ -47,5 +52,10 @@ public class WebMvcConfig implements WebMvcConfigurer {
         // 브라우저가 리소스를 10분 동안 캐시하도록 설정
     }
 
-
+    // 주문 생성(장바구니 주문, 바로구매)만 유입 제어
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(orderAdmissionInterceptor)
+                .addPathPatterns("/order", "/order/now");
+    }
 }
\ No newline at end of file
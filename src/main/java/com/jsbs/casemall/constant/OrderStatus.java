@@ -1,11 +1,40 @@
 package com.jsbs.casemall.constant;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
-    // 결제대기 /  주문완료 /  주문 취소 / 배송중 / 배송완료
+    // 결제대기 / 결제 확인중(결제사 장애로 승인 재시도 대기) / 주문완료 /  주문 취소 / 배송중 / 배송완료
     STAY,
+    PAYMENT_PENDING,
     ORDER,
     CANCEL,
     SHIPPED,
-    COMPLETED
+    COMPLETED;
+
+    // 결제가 끝난 주문 (주문내역, 마이페이지 통계, 매출 집계 대상)
+    public static final Set<OrderStatus> PAID = EnumSet.of(ORDER, SHIPPED, COMPLETED);
+
+    // 상태 변경 규칙
+    // 결제대기 -> 결제 확인중 / 주문완료 / 취소, 결제 확인중 -> 주문완료 / 취소, 주문완료 -> 배송중 -> 배송완료
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case STAY -> next == PAYMENT_PENDING || next == ORDER || next == CANCEL;
+            case PAYMENT_PENDING -> next == ORDER || next == CANCEL;
+            case ORDER -> next == SHIPPED;
+            case SHIPPED -> next == COMPLETED;
+            case CANCEL, COMPLETED -> false;
+        };
+    }
 
+    // next 로 바꿀 수 있는 이전 상태 목록
+    public static Set<OrderStatus> sourcesOf(OrderStatus next) {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : values()) {
+            if (status.canTransitionTo(next)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
 }
@@ -0,0 +1,8 @@
+package com.jsbs.casemall.constant;
+
+public enum OutboxEventType {
+    // 결제 완료 (주문 상태 ORDER 로 변경)
+    ORDER_PAID,
+    // 결제 취소 필요 (결제사 승인은 됐지만 주문이 만료/검증 실패로 완료되지 못함)
+    PAYMENT_REFUND
+}
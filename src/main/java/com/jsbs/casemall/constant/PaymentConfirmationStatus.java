@@ -0,0 +1,10 @@
+package com.jsbs.casemall.constant;
+
+public enum PaymentConfirmationStatus {
+    // 결제 승인 처리중 / 결제사 장애로 확인 대기 (백그라운드 재시도) / 처리 완료 (결과 저장됨)
+    // / 재시도 한도를 넘어 확인 포기 (주문 취소 + 결제 취소 요청, 결제 취소도 실패하면 outbox_event 를 보고 수동 처리)
+    IN_PROGRESS,
+    PENDING,
+    COMPLETED,
+    EXPIRED
+}
@@ -0,0 +1,132 @@
+package com.jsbs.casemall.controller;
+
+import com.jsbs.casemall.constant.OrderStatus;
+import com.jsbs.casemall.service.OrderArchiveService;
+import com.jsbs.casemall.service.OrderExportService;
+import com.jsbs.casemall.service.OrderStatusService;
+import com.jsbs.casemall.service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+@RequestMapping("/admin/order")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminOrderController {
+
+    private final OrderExportService orderExportService;
+    private final SalesRollupService salesRollupService;
+    private final OrderStatusService orderStatusService;
+    private final OrderArchiveService orderArchiveService;
+
+    // 주문 상태 일괄 변경 (SHIPPED / COMPLETED) - 본문 : {"orderNos": [1, 2, ...], "status": "SHIPPED"}
+    @PostMapping("/status")
+    @ResponseBody
+    public ResponseEntity<?> changeStatus(@RequestBody Map<String, Object> request, Principal principal) {
+        try {
+            OrderStatus status = OrderStatus.valueOf(String.valueOf(request.get("status")));
+            Object rawOrderNos = request.get("orderNos");
+            if (!(rawOrderNos instanceof List<?> values) || values.isEmpty()) {
+                return ResponseEntity.badRequest().body("주문 번호 목록이 없습니다.");
+            }
+            List<Long> orderNos = values.stream().map(value -> Long.valueOf(String.valueOf(value))).toList();
+            int changed = orderStatusService.transition(orderNos, status, principal.getName());
+            return ResponseEntity.ok(Map.of("status", status, "requested", orderNos.size(), "changed", changed));
+        } catch (IllegalArgumentException e) { // 잘못된 상태 이름, 주문 번호 포함
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 주문일 기준 일괄 변경 - 하루치(또는 기간) 결제 완료 주문을 한번에 배송중으로
+    @PostMapping("/status/by-date")
+    @ResponseBody
+    public ResponseEntity<?> changeStatusByDate(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam("status") OrderStatus status, Principal principal) {
+        try {
+            int changed = orderStatusService.transitionByOrderDate(startDate, endDate, status, principal.getName());
+            return ResponseEntity.ok(Map.of("status", status, "changed", changed));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 주문 상태 변경 이력
+    @GetMapping("/{orderNo}/status-events")
+    @ResponseBody
+    public ResponseEntity<?> statusEvents(@PathVariable("orderNo") Long orderNo) {
+        return ResponseEntity.ok(orderStatusService.getHistory(orderNo));
+    }
+
+    // 기간별 매출 (일별 / 카테고리별 / 매출 상위 상품) - 일별 집계 테이블에서 조회
+    @GetMapping("/sales")
+    @ResponseBody
+    public ResponseEntity<?> sales(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().body("종료일이 시작일보다 빠릅니다.");
+        }
+        return ResponseEntity.ok(salesRollupService.getSalesSummary(startDate, endDate));
+    }
+
+    // 기간의 일별 집계를 주문 데이터로 다시 계산 (최초 도입시 과거 데이터 채우기, 집계 보정)
+    @PostMapping("/sales/rebuild")
+    @ResponseBody
+    public ResponseEntity<?> rebuildSales(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            return ResponseEntity.ok(Map.of("days", salesRollupService.rebuild(startDate, endDate)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 오래된 배송완료/취소 주문 보관 즉시 실행 (평소에는 order.archive.cron 으로 실행)
+    @PostMapping("/archive")
+    @ResponseBody
+    public ResponseEntity<?> archiveOrders() {
+        return ResponseEntity.ok(Map.of("archived", orderArchiveService.archive()));
+    }
+
+    // 기간별 주문 내보내기 - format=csv(기본) 또는 jsonl, 응답을 만들면서 바로 내려보낸다
+    @GetMapping("/export")
+    public ResponseEntity<?> export(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().body("종료일이 시작일보다 빠릅니다.");
+        }
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("지원하지 않는 형식입니다. (csv, jsonl)");
+        }
+
+        boolean csv = exportFormat == OrderExportService.Format.CSV;
+        String fileName = "orders_" + startDate + "_" + endDate + (csv ? ".csv" : ".jsonl");
+        StreamingResponseBody body = out -> orderExportService.export(startDate, endDate, exportFormat, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .body(body);
+    }
+}
@@ -1,6 +1,7 @@
 package com.jsbs.casemall.controller;
 
 import com.jsbs.casemall.dto.CartDto;
+import com.jsbs.casemall.dto.CursorPageDto;
 import com.jsbs.casemall.dto.OrderDto;
 import com.jsbs.casemall.dto.OrderItemDto;
 import com.jsbs.casemall.entity.Order;
@@ -10,7 +11,6 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -94,21 +94,18 @@ public class OrderController {
 
     // 주문확인
     @GetMapping("/history")
-    public String history(@RequestParam(value = "page", defaultValue = "0") int page,
+    public String history(@RequestParam(value = "cursor", required = false) String cursor,
                           Model model, Principal principal) {
-        if (page < 0) {
-            page = 0;
-        }
-
         String userId = principal.getName();
-        List<OrderDto> order = orderService.history(userId);
-        Page<OrderDto> orderPage = orderService.orderPage(order, page);
-        log.info("orderPage = {}", orderPage);
-//        model.addAttribute("orders", order);
+        CursorPageDto<OrderDto> orderPage;
+        try {
+            orderPage = orderService.getOrderHistory(userId, cursor);
+        } catch (IllegalArgumentException e) { // 잘못된 커서면 첫 페이지
+            orderPage = orderService.getOrderHistory(userId, null);
+        }
         model.addAttribute("orders", orderPage.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", orderPage.getTotalPages());
-        model.addAttribute("maxPage", 5);
+        model.addAttribute("nextCursor", orderPage.getNextCursor());
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
         return "order/orderHistory";
     }
 
@@ -128,11 +125,20 @@ public class OrderController {
     public String searchOrders(
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "cursor", required = false) String cursor,
             Model model
     ) {
-//        log.info("{},{}",startDate,endDate);
-        List<OrderDto> orders = orderService.findOrdersByDateRange(startDate, endDate);
-        model.addAttribute("orders", orders);
+        CursorPageDto<OrderDto> orderPage;
+        try {
+            orderPage = orderService.findOrdersByDateRange(startDate, endDate, cursor);
+        } catch (IllegalArgumentException e) { // 잘못된 커서면 첫 페이지
+            orderPage = orderService.findOrdersByDateRange(startDate, endDate, null);
+        }
+        model.addAttribute("orders", orderPage.getContent());
+        model.addAttribute("nextCursor", orderPage.getNextCursor());
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
+        model.addAttribute("startDate", startDate);
+        model.addAttribute("endDate", endDate);
         return "order/orderHistory";
     }
 
@@ -1,13 +1,14 @@
 package com.jsbs.casemall.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsbs.casemall.constant.OrderStatus;
 import com.jsbs.casemall.dto.OrderDto;
-import com.jsbs.casemall.service.CartService;
 import com.jsbs.casemall.service.OrderService;
+import com.jsbs.casemall.service.PaymentConfirmService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -18,17 +19,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.Reader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.security.Principal;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Log4j2
 @Controller
@@ -36,23 +30,21 @@ import java.util.Map;
 public class PaymentController {
 
     private final OrderService orderService;
-    private final CartService cartService;
+    private final PaymentConfirmService paymentConfirmService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping(value = "/confirm")
-    public String confirmPayment(@RequestBody String jsonBody) {
+    public CompletableFuture<String> confirmPayment(@RequestBody String jsonBody) {
         log.info("confirmPayment called with body: {}", jsonBody);  // 요청이 들어오는지 로그 확인
-        JSONParser parser = new JSONParser();
         String orderId;
         String amount;
         String paymentKey;
-        String paymentMethod;
-        String payInfo;
 
         try {
-            JSONObject requestData = (JSONObject) parser.parse(jsonBody);
-            paymentKey = (String) requestData.get("paymentKey");
-            orderId = (String) requestData.get("orderId");
-            amount = (String) requestData.get("amount");
+            JsonNode requestData = objectMapper.readTree(jsonBody);
+            paymentKey = requestData.path("paymentKey").asText();
+            orderId = requestData.path("orderId").asText();
+            amount = requestData.path("amount").asText();
 
             log.info("결제 정보: paymentKey={}, orderId={}, amount={}", paymentKey, orderId, amount);
 
@@ -60,89 +52,34 @@ public class PaymentController {
                 throw new IllegalArgumentException("결제 정보가 잘못되었습니다.");
             }
 
-        } catch (ParseException e) {
+        } catch (JsonProcessingException e) {
             log.error("Error parsing JSON request body", e);
-            return "redirect:/fail?message=Invalid JSON format&code=400";
+            return CompletableFuture.completedFuture("redirect:/fail?message=Invalid JSON format&code=400");
         } catch (IllegalArgumentException e) {
             log.error("Invalid payment information", e);
-            return "redirect:/fail?message=" + e.getMessage() + "&code=400";
+            return CompletableFuture.completedFuture("redirect:/fail?message=" + e.getMessage() + "&code=400");
         }
 
-        JSONObject obj = new JSONObject();
-        obj.put("orderId", orderId);
-        obj.put("amount", amount);
-        obj.put("paymentKey", paymentKey);
-
-        String widgetSecretKey = "test_gsk_docs_OaPz8L5KdmQXkzRz3y47BMw6";
-        Base64.Encoder encoder = Base64.getEncoder();
-        byte[] encodedBytes = encoder.encode((widgetSecretKey + ":").getBytes(StandardCharsets.UTF_8));
-        String authorizations = "Basic " + new String(encodedBytes);
-
-        URL url;
-        HttpURLConnection connection;
-        try {
-            url = new URL("https://api.tosspayments.com/v1/payments/confirm");
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestProperty("Authorization", authorizations);
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setRequestMethod("POST");
-            connection.setDoOutput(true);
-
-            try (OutputStream outputStream = connection.getOutputStream()) {
-                outputStream.write(obj.toString().getBytes(StandardCharsets.UTF_8));
-            }
-        } catch (Exception e) {
-            log.error("Error connecting to payment API", e);
-            return "redirect:/fail?message=Payment API connection failed&code=500";
-        }
+        // 결제사 응답을 기다리는 동안 요청 스레드는 반납된다
+        return paymentConfirmService.confirm(paymentKey, orderId, amount);
+    }
 
-        int code;
-        try {
-            code = connection.getResponseCode();
-        } catch (Exception e) {
-            log.error("Error getting response from payment API", e);
-            return "redirect:/fail?message=Payment API response failed&code=500";
+    // 결제사 장애로 승인 결과를 아직 모르는 경우 - 주문 상태를 보여주고 확인될 때까지 새로고침
+    @GetMapping(value = "/pay/pending")
+    public String pendingPayment(@RequestParam String orderId, Model model) {
+        OrderStatus status = orderService.getOrderStatus(orderId);
+        if (OrderStatus.PAID.contains(status)) {
+            return "redirect:/success?orderId=" + orderId;
         }
-
-        boolean isSuccess = code == 200;
-        try (InputStream responseStream = isSuccess ? connection.getInputStream() : connection.getErrorStream();
-             Reader reader = new InputStreamReader(responseStream, StandardCharsets.UTF_8)) {
-
-            JSONObject jsonObject = (JSONObject) parser.parse(reader);
-            if (isSuccess) {
-                JSONObject easyPayObject = (JSONObject) jsonObject.get("easyPay");
-                paymentMethod = (String) easyPayObject.get("provider");
-                payInfo = (String) jsonObject.get("method");
-
-                log.info("성공 로그: paymentMethod={}, payInfo={}", paymentMethod, payInfo);
-
-                // 검증시작
-                if (orderService.validatePayment(orderId, Integer.parseInt(amount))) {
-                    orderService.updateOrderWithPaymentInfo(orderId, paymentMethod, payInfo);
-                    cartService.clearCart(orderId);
-                    return "redirect:/success?orderId=" + orderId + "&amount=" + amount + "&paymentKey=" + paymentKey;
-                } else {
-                    log.error("Payment validation failed for orderId: {}", orderId);
-                    orderService.failOrder(orderId); // 결제 검증 실패 시 주문을 실패 처리합니다.
-                    return "redirect:/fail?message=Payment validation failed&code=400";
-                }
-            } else {
-                String errorMessage = (String) jsonObject.get("message");
-                String errorCode = (String) jsonObject.get("code");
-                log.error("Payment API error: {} - {}", errorCode, errorMessage);
-                orderService.failOrder(orderId);
-                return "redirect:/fail?message=" + errorMessage + "&code=" + errorCode;
-            }
-        } catch (ParseException e) {
-            log.error("Error parsing JSON response from payment API", e);
-            return "redirect:/fail?message=Invalid JSON response&code=500";
-        } catch (Exception e) {
-            log.error("Unexpected error during payment confirmation", e);
-            return "redirect:/fail?message=Unexpected error&code=500";
+        if (status == OrderStatus.CANCEL) {
+            return "redirect:/fail?message=Payment failed&code=400";
         }
+        OrderDto orderDto = orderService.getOrderByOrderId(orderId);
+        model.addAttribute("order", orderDto);
+        model.addAttribute("orderId", orderId);
+        return "pay/pending";
     }
 
-
     @GetMapping(value = "/success")
     public String paymentRequest(HttpServletRequest request, Model model) {
         // 결제 성공시 주문 한 객체를 쏴준다
@@ -1,13 +1,23 @@
 package com.jsbs.casemall.controller;
 
 import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
 import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.dto.CursorPageDto;
+import com.jsbs.casemall.dto.HomeProductDto;
+import com.jsbs.casemall.dto.ProductListDto;
+import com.jsbs.casemall.dto.MainProductDto;
+import com.jsbs.casemall.dto.ProductDto;
+import com.jsbs.casemall.dto.ProductFacetDto;
 import com.jsbs.casemall.dto.ProductFormDto;
 import com.jsbs.casemall.dto.ProductImgDto;
 import com.jsbs.casemall.dto.ProductModelDto;
 import com.jsbs.casemall.dto.ProductSearchDto;
 import com.jsbs.casemall.entity.Product;
+import com.jsbs.casemall.service.FlashSaleInventory;
 import com.jsbs.casemall.service.ProductImgService;
+import com.jsbs.casemall.service.ProductImportJob;
+import com.jsbs.casemall.service.ProductImportService;
 import com.jsbs.casemall.service.ProductService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -23,7 +33,11 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Controller
 @RequiredArgsConstructor
@@ -32,6 +46,8 @@ public class ProductController {
 
     private final ProductService productService;
     private final ProductImgService productImgService; // 필드 추가
+    private final ProductImportService productImportService;
+    private final FlashSaleInventory flashSaleInventory;
 
     @GetMapping("/admin/product/new")
     public String productForm(Model model) {
@@ -126,6 +142,123 @@ public class ProductController {
         return "product/productManagement";
     }
 
+    // 관리자 상품 목록 키셋 페이징 (깊은 페이지도 일정한 속도로 조회)
+    @GetMapping("/admin/product/management/cursor")
+    @ResponseBody
+    public ResponseEntity<?> productManageByCursor(ProductSearchDto productSearchDto,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false, defaultValue = "id") String sortBy,
+                                                   @RequestParam(required = false, defaultValue = "desc") String direction,
+                                                   @RequestParam(required = false, defaultValue = "false") boolean withCount) {
+        try {
+            CursorPageDto<Product> management = productService.getAdminProductCursorPage(productSearchDto, cursor, sortBy, direction, withCount);
+            // 엔티티를 그대로 내보내면 양방향 연관관계 때문에 순환 참조가 생기므로 dto 로 변환
+            CursorPageDto<ProductDto> result = management.map(product -> {
+                ProductDto productDto = ProductDto.of(product);
+                productDto.setPrId(product.getId());
+                return productDto;
+            });
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.info("잘못된 커서 요청: {}", cursor);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 메인 상품 목록 키셋 페이징
+    @GetMapping("/products/cursor")
+    @ResponseBody
+    public ResponseEntity<?> mainProductsByCursor(ProductSearchDto productSearchDto,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false, defaultValue = "id") String sortBy,
+                                                  @RequestParam(required = false, defaultValue = "desc") String direction,
+                                                  @RequestParam(required = false, defaultValue = "20") int size,
+                                                  @RequestParam(required = false, defaultValue = "false") boolean withCount) {
+        try {
+            CursorPageDto<MainProductDto> products = productService.getMainProductCursorPage(productSearchDto, cursor, sortBy, direction, size, withCount);
+            return ResponseEntity.ok(products);
+        } catch (IllegalArgumentException e) {
+            log.info("잘못된 커서 요청: {}", cursor);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 카테고리/종류/기종 필터 조회 + 필터별 상품 개수
+    @GetMapping("/products/facets")
+    @ResponseBody
+    public ResponseEntity<ProductFacetDto> productFacets(@RequestParam(required = false) ProductCategory category,
+                                                         @RequestParam(required = false) ProductType type,
+                                                         @RequestParam(required = false) ProductModelSelect model,
+                                                         @RequestParam(required = false, defaultValue = "true") boolean inStock,
+                                                         @RequestParam(required = false, defaultValue = "0") int page,
+                                                         @RequestParam(required = false, defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.getProductFacets(category, type, model, inStock, page, size));
+    }
+
+    // 상품 대량 등록 (CSV / JSON Lines) - 작업 ID 를 바로 돌려주고 백그라운드에서 저장
+    @PostMapping("/admin/product/import")
+    @ResponseBody
+    public ResponseEntity<?> importProducts(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("파일이 비어 있습니다.");
+        }
+        try {
+            ProductImportJob job = productImportService.startImport(file);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            log.error("상품 대량 등록 파일 저장 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("파일을 저장하지 못했습니다.");
+        }
+    }
+
+    // 상품 대량 등록 진행 상황 / 행 오류 조회
+    @GetMapping("/admin/product/import/{jobId}")
+    @ResponseBody
+    public ResponseEntity<ProductImportJob> importStatus(@PathVariable String jobId) {
+        return productImportService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // 플래시 세일 시작 - 해당 기종 재고를 메모리 장부로 옮긴다
+    @PostMapping("/admin/flash-sale/{modelId}/start")
+    @ResponseBody
+    public ResponseEntity<?> startFlashSale(@PathVariable Long modelId) {
+        try {
+            return ResponseEntity.ok(Map.of("modelId", modelId, "stock", flashSaleInventory.activate(modelId)));
+        } catch (IllegalArgumentException | EntityNotFoundException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // 플래시 세일 종료 - 진행 중 주문이 끝나면 장부를 DB 에 반영하고 남은 재고 반환 (기다리는 동안 요청 스레드는 반납)
+    @PostMapping("/admin/flash-sale/{modelId}/stop")
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<?>> stopFlashSale(@PathVariable Long modelId) {
+        return flashSaleInventory.deactivate(modelId)
+                .<ResponseEntity<?>>thenApply(stock -> ResponseEntity.ok(Map.of("modelId", modelId, "stock", stock)))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof IllegalArgumentException) {
+                        return ResponseEntity.badRequest().body(cause.getMessage());
+                    }
+                    if (cause instanceof IllegalStateException) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(cause.getMessage());
+                    }
+                    log.error("플래시 세일 종료 중 오류, 기종 ID: {}", modelId, cause);
+                    return ResponseEntity.internalServerError().body(cause.getMessage());
+                });
+    }
+
+    // 플래시 세일 중인 기종별 남은 재고
+    @GetMapping("/admin/flash-sale")
+    @ResponseBody
+    public ResponseEntity<Map<Long, Long>> flashSaleStatus() {
+        return ResponseEntity.ok(flashSaleInventory.status());
+    }
+
     @PostMapping(value = "/admin/product/delete/{prId}")
     public String deleteProduct(@PathVariable("prId") Long prId, Model model) {
         log.info("상품 삭제 요청 받음, 상품 ID: {}", prId);
@@ -144,7 +277,7 @@ public class ProductController {
     @ResponseBody
     public ResponseEntity<?> deleteImage(@PathVariable Long imageId) {
         try {
-            productImgService.deleteProductImg(imageId); // 이미지 삭제
+            productService.deleteProductImage(imageId); // 이미지 삭제 (메인 스냅샷도 갱신)
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
@@ -153,9 +286,8 @@ public class ProductController {
 
     @GetMapping(value="/product/{prId}")
     public String productDtl(Model model, @PathVariable("prId") Long prId) {
-        ProductFormDto productFormDto = productService.getProductDtl(prId);
-        List<ProductModelDto> productModelDtoList = productService.getProductModelsByProductId(prId);
-        productFormDto.setProductModelDtoList(productModelDtoList);
+        // 기종 목록은 getProductDtl 에서 이미 채워지므로 다시 조회하지 않는다
+        ProductFormDto productFormDto = productService.getCachedProductDtl(prId);
         model.addAttribute("product", productFormDto);
         return "product/productDetail";
     }
@@ -200,7 +332,7 @@ public class ProductController {
 
     @GetMapping("/")
     public String getAllProducts(Model model) {
-        List<Product> indexProducts = productService.getAllListProducts();
+        List<HomeProductDto> indexProducts = productService.getHomeProducts();
         model.addAttribute("indexProducts", indexProducts);
         return "index";
     }
@@ -232,7 +364,7 @@ public class ProductController {
                                   Model model) {
         Sort sort = direction.equals("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
 
-        List<Product> listProducts = productService.findAllByCategoryAndType(category, type, sort);
+        List<ProductListDto> listProducts = productService.getListProducts(category, type, sort);
 
 
         model.addAttribute("listProducts", listProducts);
@@ -0,0 +1,38 @@
+package com.jsbs.casemall.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Getter
+@ToString
+public class CursorPageDto<T> {
+    // 커서(키셋) 기반 페이지 결과
+    // offset 없이 마지막으로 본 행 기준으로 다음 페이지를 가져온다
+
+    private final List<T> content; // 현재 페이지 데이터
+
+    private final String nextCursor; // 다음 페이지 요청시 넘길 커서 (마지막 페이지면 null)
+
+    private final boolean hasNext; // 다음 페이지 존재 여부
+
+    private final Long totalCount; // 전체 개수 (요청한 경우에만 계산, 아니면 null)
+
+    public CursorPageDto(List<T> content, String nextCursor, boolean hasNext, Long totalCount) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.totalCount = totalCount;
+    }
+
+    // 내용만 다른 타입으로 변환 (커서 정보는 그대로 유지)
+    public <R> CursorPageDto<R> map(Function<T, R> converter) {
+        List<R> converted = content.stream()
+                .map(converter)
+                .collect(Collectors.toList());
+        return new CursorPageDto<>(converted, nextCursor, hasNext, totalCount);
+    }
+}
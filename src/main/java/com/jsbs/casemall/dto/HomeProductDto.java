@@ -0,0 +1,28 @@
+package com.jsbs.casemall.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class HomeProductDto {
+    // 메인(index) 화면에 보여줄 상품 정보
+    // 스냅샷으로 여러 요청이 같이 읽기 때문에 변경할 수 없도록 setter 없이 둔다
+
+    private final Long id;
+
+    private final String prName;
+
+    private final Integer prPrice;
+
+    private final String imgUrl; // 대표 이미지 URL
+
+    @QueryProjection
+    public HomeProductDto(Long id, String prName, Integer prPrice, String imgUrl) {
+        this.id = id;
+        this.prName = prName;
+        this.prPrice = prPrice;
+        this.imgUrl = imgUrl;
+    }
+}
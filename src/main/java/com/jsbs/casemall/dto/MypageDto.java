@@ -1,14 +1,42 @@
 package com.jsbs.casemall.dto;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
+@NoArgsConstructor
 public class MypageDto {
-    private int totalPay; // 총금액
+    private long totalPay; // 총금액
     private int count; // 주문횟수
+    private LocalDateTime lastOrderDate; // 마지막 주문일 (주문이 없으면 null)
 
+    // 집계 쿼리 결과용 (COUNT / SUM 은 Long 으로 넘어온다)
+    public MypageDto(Long count, Long totalPay, LocalDateTime lastOrderDate) {
+        this.count = count == null ? 0 : count.intValue();
+        this.totalPay = totalPay == null ? 0 : totalPay;
+        this.lastOrderDate = lastOrderDate;
+    }
 
+    // 보관 주문 통계 합치기
+    public MypageDto plus(MypageDto other) {
+        MypageDto sum = copy();
+        sum.totalPay += other.totalPay;
+        sum.count += other.count;
+        if (lastOrderDate == null || (other.lastOrderDate != null && other.lastOrderDate.isAfter(lastOrderDate))) {
+            sum.lastOrderDate = other.lastOrderDate;
+        }
+        return sum;
+    }
 
+    public MypageDto copy() {
+        MypageDto copy = new MypageDto();
+        copy.totalPay = totalPay;
+        copy.count = count;
+        copy.lastOrderDate = lastOrderDate;
+        return copy;
+    }
 }
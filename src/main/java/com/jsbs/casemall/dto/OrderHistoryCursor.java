@@ -0,0 +1,58 @@
+package com.jsbs.casemall.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter
+@ToString
+public class OrderHistoryCursor {
+    // 주문내역 키셋 페이징용 커서
+    // 주문 번호 내림차순 -> 주문 항목 번호 내림차순으로 정렬하고, 마지막으로 본 항목의 두 번호를 토큰으로 전달한다
+    // 토큰 형식(인코딩 전) : 마지막주문번호:마지막주문항목번호
+
+    private final Long lastOrderNo; // 첫 페이지면 null
+
+    private final Long lastOrderItemId; // 첫 페이지면 null
+
+    private OrderHistoryCursor(Long lastOrderNo, Long lastOrderItemId) {
+        this.lastOrderNo = lastOrderNo;
+        this.lastOrderItemId = lastOrderItemId;
+    }
+
+    public static OrderHistoryCursor first() {
+        return new OrderHistoryCursor(null, null);
+    }
+
+    public OrderHistoryCursor next(Long lastOrderNo, Long lastOrderItemId) {
+        return new OrderHistoryCursor(lastOrderNo, lastOrderItemId);
+    }
+
+    public boolean isFirstPage() {
+        return lastOrderNo == null;
+    }
+
+    public String encode() {
+        String raw = lastOrderNo + ":" + lastOrderItemId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 토큰이 없으면 첫 페이지
+    public static OrderHistoryCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return first();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+            return new OrderHistoryCursor(Long.valueOf(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException e) { // NumberFormatException 포함
+            throw new IllegalArgumentException("잘못된 커서입니다.", e);
+        }
+    }
+}
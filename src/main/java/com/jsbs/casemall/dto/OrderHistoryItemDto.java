@@ -0,0 +1,55 @@
+package com.jsbs.casemall.dto;
+
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+public class OrderHistoryItemDto {
+    // 주문내역 화면의 주문 항목 한 줄
+    // 주문/주문상세/상품/기종/대표 이미지를 조인해서 화면에 필요한 값만 SQL 에서 바로 담는다
+
+    private final Long orderNo; // 주문 번호
+
+    private final Long orderItemId; // 주문 항목 번호 (같은 주문 안에서의 정렬 기준)
+
+    private final String orderId; // 주문 아이디 (uuid)
+
+    private final LocalDateTime orderDate;
+
+    private final Long productId;
+
+    private final String productName;
+
+    private final ProductModelSelect productModelSelect;
+
+    private final String imgUrl; // 대표 이미지 URL
+
+    private final int count;
+
+    private final int price; // 주문 당시 가격
+
+    @QueryProjection
+    public OrderHistoryItemDto(Long orderNo, Long orderItemId, String orderId, LocalDateTime orderDate,
+                               Long productId, String productName, ProductModelSelect productModelSelect,
+                               String imgUrl, int count, int price) {
+        this.orderNo = orderNo;
+        this.orderItemId = orderItemId;
+        this.orderId = orderId;
+        this.orderDate = orderDate;
+        this.productId = productId;
+        this.productName = productName;
+        this.productModelSelect = productModelSelect;
+        this.imgUrl = imgUrl;
+        this.count = count;
+        this.price = price;
+    }
+
+    public String getModelName() {
+        return productModelSelect == null ? null : productModelSelect.getDisplayName();
+    }
+}
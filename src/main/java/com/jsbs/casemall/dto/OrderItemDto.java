@@ -2,6 +2,7 @@ package com.jsbs.casemall.dto;
 
 import com.jsbs.casemall.entity.CartItem;
 import com.jsbs.casemall.entity.OrderDetail;
+import com.jsbs.casemall.entity.OrderDetailArchive;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -35,4 +36,16 @@ public class OrderItemDto {
         // 대표사진만 필요
         this.imgUrl = orderItem.getProduct().getProductImgList().get(0).getImgUrl();
     }
+
+    // 보관 주문 항목
+    public OrderItemDto(OrderDetailArchive orderItem) {
+        this.orderItemId = orderItem.getId();
+        this.productName = orderItem.getProduct().getPrName();
+        this.modelName = orderItem.getProductModel().getProductModelSelect().getDisplayName();
+        this.productId = orderItem.getProduct().getId();
+        this.modelId = orderItem.getProductModel().getId();
+        this.count = orderItem.getCount();
+        this.price = orderItem.getOrderPrice();
+        this.imgUrl = orderItem.getProduct().getProductImgList().get(0).getImgUrl();
+    }
 }
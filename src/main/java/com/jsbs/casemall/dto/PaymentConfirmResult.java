@@ -0,0 +1,34 @@
+package com.jsbs.casemall.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class PaymentConfirmResult {
+    // 결제사 승인/취소/조회 응답 중 주문 처리에 필요한 값
+
+    private final boolean success;
+
+    private final int httpStatus;
+
+    private final String status; // 결제 상태 (DONE, CANCELED 등, 실패 응답이면 null)
+
+    private final String method; // 결제 수단 (카드, 간편결제 등)
+
+    private final String provider; // 간편결제 제공사 (간편결제가 아니면 null)
+
+    private final String code; // 실패 코드
+
+    private final String message; // 실패 메시지
+
+    public PaymentConfirmResult(int httpStatus, String status, String method, String provider, String code, String message) {
+        this.success = httpStatus == 200;
+        this.httpStatus = httpStatus;
+        this.status = status;
+        this.method = method;
+        this.provider = provider;
+        this.code = code;
+        this.message = message;
+    }
+}
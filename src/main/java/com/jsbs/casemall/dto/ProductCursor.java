@@ -0,0 +1,72 @@
+package com.jsbs.casemall.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter
+@ToString
+public class ProductCursor {
+    // 상품 목록 키셋 페이징용 커서
+    // 정렬 컬럼 값 + 상품 ID 를 묶어서 클라이언트에는 불투명한 토큰으로 전달한다
+    // 토큰 형식(인코딩 전) : 정렬기준:방향:마지막정렬값:마지막상품ID
+
+    public static final String SORT_ID = "id";
+    public static final String SORT_PRICE = "prPrice";
+
+    private final String sortBy; // id 또는 prPrice
+
+    private final boolean asc; // 오름차순 여부
+
+    private final Long lastValue; // 마지막으로 본 행의 정렬 컬럼 값 (첫 페이지면 null)
+
+    private final Long lastId; // 마지막으로 본 행의 상품 ID (첫 페이지면 null)
+
+    private ProductCursor(String sortBy, boolean asc, Long lastValue, Long lastId) {
+        this.sortBy = sortBy;
+        this.asc = asc;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    // 첫 페이지 커서 생성 (기본값 : 최신순)
+    public static ProductCursor first(String sortBy, String direction) {
+        String sort = SORT_PRICE.equals(sortBy) ? SORT_PRICE : SORT_ID;
+        boolean asc = "asc".equalsIgnoreCase(direction);
+        return new ProductCursor(sort, asc, null, null);
+    }
+
+    // 마지막 행을 기준으로 다음 페이지 커서 생성
+    public ProductCursor next(Long lastValue, Long lastId) {
+        return new ProductCursor(sortBy, asc, lastValue, lastId);
+    }
+
+    public boolean isFirstPage() {
+        return lastId == null;
+    }
+
+    public boolean isPriceSort() {
+        return SORT_PRICE.equals(sortBy);
+    }
+
+    public String encode() {
+        String raw = sortBy + ":" + (asc ? "asc" : "desc") + ":" + lastValue + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+            ProductCursor base = first(parts[0], parts[1]);
+            return base.next(Long.valueOf(parts[2]), Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException e) { // NumberFormatException 포함
+            throw new IllegalArgumentException("잘못된 커서입니다.", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.jsbs.casemall.dto;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.jsbs.casemall.constant.ProductType;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@ToString
+public class ProductFacetDto {
+    // 필터 조회 결과 - 현재 페이지 상품 + 필터 값별 상품 개수
+
+    private final List<MainProductDto> content; // 현재 페이지 상품
+
+    private final int totalCount; // 조건에 맞는 전체 상품 수
+
+    private final Map<ProductCategory, Integer> categoryCounts; // 카테고리별 개수
+
+    private final Map<ProductType, Integer> typeCounts; // 상품 종류별 개수
+
+    private final Map<ProductModelSelect, Integer> modelCounts; // 기종별 개수
+
+    public ProductFacetDto(List<MainProductDto> content, int totalCount,
+                           Map<ProductCategory, Integer> categoryCounts,
+                           Map<ProductType, Integer> typeCounts,
+                           Map<ProductModelSelect, Integer> modelCounts) {
+        this.content = content;
+        this.totalCount = totalCount;
+        this.categoryCounts = categoryCounts;
+        this.typeCounts = typeCounts;
+        this.modelCounts = modelCounts;
+    }
+}
@@ -0,0 +1,31 @@
+package com.jsbs.casemall.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ToString
+public class ProductImportRow {
+    // 상품 대량 등록 파일의 한 행 (CSV 한 줄 또는 JSON Lines 한 줄)
+
+    private String prName;
+
+    private String prDetail;
+
+    private Integer prPrice;
+
+    private String productCategory; // ProductCategory 이름
+
+    private String productType; // ProductType 이름
+
+    private Map<String, Integer> models = new LinkedHashMap<>(); // 기종(ProductModelSelect 이름) -> 재고
+
+    private List<String> imgUrls = new ArrayList<>(); // 첫 번째 이미지가 대표 이미지
+}
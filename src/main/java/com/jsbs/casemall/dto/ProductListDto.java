@@ -0,0 +1,32 @@
+package com.jsbs.casemall.dto;
+
+import com.jsbs.casemall.constant.ProductSellStatus;
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class ProductListDto {
+    // 카테고리 상품 목록(/listProducts) 화면용
+    // 엔티티를 넘기면 화면에서 이미지/기종 목록을 상품마다 지연로딩하므로 필요한 값만 담는다
+
+    private final Long id;
+
+    private final String prName;
+
+    private final Integer prPrice;
+
+    private final ProductSellStatus productSellStatus;
+
+    private final String imgUrl; // 대표 이미지 URL
+
+    @QueryProjection
+    public ProductListDto(Long id, String prName, Integer prPrice, ProductSellStatus productSellStatus, String imgUrl) {
+        this.id = id;
+        this.prName = prName;
+        this.prPrice = prPrice;
+        this.productSellStatus = productSellStatus;
+        this.imgUrl = imgUrl;
+    }
+}
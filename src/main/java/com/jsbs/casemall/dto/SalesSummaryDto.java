@@ -0,0 +1,91 @@
+package com.jsbs.casemall.dto;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@ToString
+public class SalesSummaryDto {
+    // 관리자 매출 조회 결과 (일별 집계 테이블 기준)
+
+    private final LocalDate startDate;
+
+    private final LocalDate endDate;
+
+    private final long quantity; // 기간 전체 판매 수량
+
+    private final long revenue; // 기간 전체 매출
+
+    private final List<Daily> daily; // 일별 (전체 상품)
+
+    private final List<Category> categories; // 카테고리별 (카테고리가 있는 상품만)
+
+    private final List<ProductSales> topProducts; // 매출 상위 상품
+
+    public SalesSummaryDto(LocalDate startDate, LocalDate endDate, List<Daily> daily,
+                           List<Category> categories, List<ProductSales> topProducts) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.quantity = daily.stream().mapToLong(Daily::getQuantity).sum();
+        this.revenue = daily.stream().mapToLong(Daily::getRevenue).sum();
+        this.daily = daily;
+        this.categories = categories;
+        this.topProducts = topProducts;
+    }
+
+    @Getter
+    @ToString
+    public static class Daily {
+        private final LocalDate date;
+        private final long quantity;
+        private final long revenue;
+        private final long unpaidCancelQuantity; // 결제 전에 취소된 수량
+
+        public Daily(LocalDate date, long quantity, long revenue, long unpaidCancelQuantity) {
+            this.date = date;
+            this.quantity = quantity;
+            this.revenue = revenue;
+            this.unpaidCancelQuantity = unpaidCancelQuantity;
+        }
+    }
+
+    @Getter
+    @ToString
+    public static class Category {
+        private final ProductCategory category;
+        private final long orderCount;
+        private final long quantity;
+        private final long revenue;
+        private final long unpaidCancelQuantity; // 결제 전에 취소된 수량
+
+        public Category(ProductCategory category, long orderCount, long quantity, long revenue, long unpaidCancelQuantity) {
+            this.category = category;
+            this.orderCount = orderCount;
+            this.quantity = quantity;
+            this.revenue = revenue;
+            this.unpaidCancelQuantity = unpaidCancelQuantity;
+        }
+    }
+
+    @Getter
+    @ToString
+    public static class ProductSales {
+        private final Long productId;
+        private final String productName;
+        private final long orderCount;
+        private final long quantity;
+        private final long revenue;
+
+        public ProductSales(Long productId, String productName, long orderCount, long quantity, long revenue) {
+            this.productId = productId;
+            this.productName = productName;
+            this.orderCount = orderCount;
+            this.quantity = quantity;
+            this.revenue = revenue;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.jsbs.casemall.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@Entity
+@Table(name = "flash_sale_checkpoint")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class FlashSaleCheckpoint {
+    // 재고 저널 중 DB 에 반영된 마지막 번호 (행은 하나만 사용)
+    // 재고 반영과 같은 트랜잭션에서 갱신하므로, 재시작시 이 번호 이후의 저널만 다시 반영하면 된다
+
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    public static FlashSaleCheckpoint create() {
+        FlashSaleCheckpoint checkpoint = new FlashSaleCheckpoint();
+        checkpoint.id = ID;
+        return checkpoint;
+    }
+
+    public void advance(long seq) {
+        this.lastSeq = Math.max(this.lastSeq, seq);
+    }
+}
@@ -0,0 +1,43 @@
+package com.jsbs.casemall.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@Entity
+@Table(name = "flash_sale_ledger")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class FlashSaleLedger {
+    // 플래시 세일 중인 기종 (행이 있는 동안 재고는 메모리 장부에서 차감되고 DB 에는 주기적으로 반영)
+    // 재고 차감 SQL 은 이 테이블에 있는 기종을 건너뛰므로 DB 경로와 장부 경로가 같은 재고를 두 번 팔지 않는다
+    // 메모리 재고는 세일을 시작한 서버(owner) 한 곳만 들고, 그 서버가 lease 를 계속 연장한다
+    // (서버마다 전체 재고를 올리면 서버 수만큼 초과 판매되므로 다른 서버는 이 기종을 팔지 않는다)
+
+    @Id
+    @Column(name = "model_id")
+    private Long modelId; // 기종 ID (product_model.model_id)
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "owner", nullable = false, length = 100)
+    private String owner; // 메모리 재고를 가진 서버 (flash-sale.instance-id)
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil; // 이 시각까지 연장이 없으면 owner 가 죽은 것으로 본다
+
+    public static FlashSaleLedger start(Long modelId, String owner, LocalDateTime leaseUntil) {
+        FlashSaleLedger ledger = new FlashSaleLedger();
+        ledger.modelId = modelId;
+        ledger.startedAt = LocalDateTime.now();
+        ledger.owner = owner;
+        ledger.leaseUntil = leaseUntil;
+        return ledger;
+    }
+}
@@ -7,12 +7,16 @@ import lombok.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Getter
 @Entity
 @Setter
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // 주문내역 조회 (회원 + 상태, 주문 번호 역순 키셋 페이징)
+        @Index(name = "idx_orders_user_status_no", columnList = "user_id, order_status, order_no"),
+        // 관리자 기간 검색 / 내보내기
+        @Index(name = "idx_orders_order_date", columnList = "order_date")
+})
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // 다른곳에서 new 생성자를 막기 위해
 public class Order {
     // 주문 저장 테이블
@@ -33,6 +37,7 @@ public class Order {
 
 
     @Enumerated(EnumType.STRING)
+    @Column(name = "order_status")
     private OrderStatus orderStatus; // 주문상태 저장
 
 
@@ -43,7 +48,9 @@ public class Order {
     private String paymentMethod; // 결제 방법
 
 
-    @Column(name = "order_id", nullable = false, unique = true)
+    // 새 주문은 시간순 ULID(26자), 이전 주문은 UUID(36자) 가 섞여 있으므로 길이는 36 으로 둔다
+    // (운영 DB 전환은 resources/db/order_id_ulid.sql)
+    @Column(name = "order_id", nullable = false, unique = true, length = 36)
     private String orderId; // 주문 고유 ID
 
 
@@ -74,13 +81,21 @@ public class Order {
 
         order.setOrderStatus(OrderStatus.STAY); // 주문 상태
         order.setOrderDate(LocalDateTime.now()); // 결제 날짜
-        order.setOrderId(UUID.randomUUID().toString()); // 고유한 주문 ID 생성
+        order.setOrderId(OrderIdGenerator.next()); // 고유한 주문 ID 생성 (시간순)
 
         return order;
     }
 
+    // 상태 변경 - OrderStatus 의 변경 규칙에 맞지 않으면 예외
+    public void changeStatus(OrderStatus next) {
+        if (!orderStatus.canTransitionTo(next)) {
+            throw new IllegalStateException("주문 상태를 " + orderStatus + " 에서 " + next + " 로 바꿀 수 없습니다. (주문번호 : " + id + ")");
+        }
+        this.orderStatus = next;
+    }
+
     public void updatePaymentInfo(String paymentMethod,String payInfo) {
-        this.orderStatus = OrderStatus.ORDER; // 성공시 결제 상태를 변경
+        changeStatus(OrderStatus.ORDER); // 성공시 결제 상태를 변경
         this.payInfo = payInfo; // 결제 방식 추가
         this.paymentMethod = paymentMethod; // 결제 수단을 업데이트
     }
@@ -0,0 +1,55 @@
+package com.jsbs.casemall.entity;
+
+import com.jsbs.casemall.constant.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Entity
+@Immutable // 보관 주문은 읽기만 한다 (행은 OrderArchiveService 가 INSERT ... SELECT 로 옮긴다)
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_user_no", columnList = "user_id, order_no"),
+        @Index(name = "idx_orders_archive_order_date", columnList = "order_date")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderArchive {
+    // 보관 주문 (orders 와 같은 컬럼)
+    // 오래된 배송완료/취소 주문을 옮겨 두어 orders 테이블과 인덱스를 작게 유지한다
+    // 주문 번호/주문 항목 번호는 그대로 옮기므로 orders 와 번호가 겹치지 않고 키셋 커서를 그대로 쓸 수 있다
+
+    @Id
+    @Column(name = "order_no")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId; // 탈퇴 회원 주문도 남도록 외래키 없이 아이디만 보관
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status")
+    private OrderStatus orderStatus;
+
+    @Column(name = "payInfo")
+    private String payInfo;
+
+    @Column(name = "payment_method")
+    private String paymentMethod;
+
+    @Column(name = "order_id", nullable = false, unique = true, length = 36)
+    private String orderId;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt; // 보관 시각
+
+    @OneToMany(mappedBy = "order", fetch = FetchType.LAZY)
+    private List<OrderDetailArchive> orderItems = new ArrayList<>();
+}
@@ -46,7 +46,7 @@ public class OrderDetail {
         orderDetail.setProductModel(productModel);
         orderDetail.setCount(count);
         orderDetail.setOrderPrice(product.getPrPrice());
-        productModel.removeStock(count);
+        // 재고 차감은 주문 항목을 모두 만든 뒤 ProductStockService 에서 한 번에 (조건부 UPDATE)
         return orderDetail;
     }
 
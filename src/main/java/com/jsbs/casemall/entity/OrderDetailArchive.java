@@ -0,0 +1,43 @@
+package com.jsbs.casemall.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+@Getter
+@Entity
+@Immutable
+@Table(name = "order_detail_archive", indexes = {
+        @Index(name = "idx_order_detail_archive_order", columnList = "order_id")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderDetailArchive {
+    // 보관 주문 항목 (order_detail 과 같은 컬럼)
+    // 상품 삭제 등을 막지 않도록 외래키는 만들지 않는다
+
+    @Id
+    @Column(name = "order_item_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pr_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "model_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private ProductModel productModel;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private OrderArchive order;
+
+    private int orderPrice;
+
+    private int count;
+
+    public int getTotalPrice() {
+        return orderPrice * count;
+    }
+}
@@ -0,0 +1,61 @@
+package com.jsbs.casemall.entity;
+
+import java.security.SecureRandom;
+
+public final class OrderIdGenerator {
+    // 주문 아이디 생성기 (ULID - 26자 Crockford Base32, 앞 10자는 밀리초 시각 + 뒤 16자는 80비트 난수)
+    // 1. 시간순으로 커지므로 새 주문이 order_id 인덱스 끝쪽에 모여 들어간다 (UUID 는 B-tree 전체에 흩어져 페이지 분할이 잦음)
+    // 2. 난수 80비트라 서버끼리 조정 없이 만들어도 겹치지 않는다
+    // 3. 같은 밀리초 안에서는 난수 부분을 1씩 늘려서 이 서버에서 만든 아이디는 항상 증가한다 (시계가 뒤로 가도 유지)
+    // 영문 대문자/숫자만 쓰므로 토스 결제 주문 아이디 형식(6~64자, 영문/숫자/-/_)에 맞는다
+
+    public static final int LENGTH = 26;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final long RANDOM_HIGH_MASK = 0xFFFFL; // 난수 상위 16비트
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private static long lastTime = -1;
+    private static long randomHigh; // 난수 상위 16비트
+    private static long randomLow; // 난수 하위 64비트
+
+    private OrderIdGenerator() {
+    }
+
+    public static String next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static synchronized String next(long now) {
+        if (now > lastTime) {
+            lastTime = now;
+            randomHigh = random.nextInt() & RANDOM_HIGH_MASK;
+            randomLow = random.nextLong();
+        } else {
+            // 같은 밀리초(또는 시계가 뒤로 감) - 직전 값 + 1
+            randomLow++;
+            if (randomLow == 0) {
+                randomHigh = (randomHigh + 1) & RANDOM_HIGH_MASK;
+                if (randomHigh == 0) {
+                    lastTime++; // 80비트를 다 쓴 경우 (사실상 없음) 다음 밀리초로 넘긴다
+                }
+            }
+        }
+        return encode(lastTime, randomHigh, randomLow);
+    }
+
+    private static String encode(long time, long high, long low) {
+        char[] chars = new char[LENGTH];
+        for (int i = 9; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (time & 31)];
+            time >>>= 5;
+        }
+        for (int i = LENGTH - 1; i >= 10; i--) {
+            chars[i] = ALPHABET[(int) (low & 31)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+}
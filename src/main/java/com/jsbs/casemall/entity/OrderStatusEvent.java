@@ -0,0 +1,45 @@
+package com.jsbs.casemall.entity;
+
+import com.jsbs.casemall.constant.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@Entity
+@Immutable // 추가만 하고 수정/삭제하지 않는다
+@Table(name = "order_status_event", indexes = {
+        @Index(name = "idx_order_status_event_order", columnList = "order_no, id")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderStatusEvent {
+    // 주문 상태 변경 이력 (결제/결제 확인중/취소, 배송 처리 등 관리자 일괄 변경 기록)
+    // 행은 StockReservationService(결제, 취소, 만료) 와 OrderStatusService(배송) 가 JDBC 배치로 넣는다
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_no", nullable = false)
+    private Long orderNo; // 주문 번호 (orders.order_no)
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", nullable = false, length = 20)
+    private OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 20)
+    private OrderStatus toStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "changed_by", length = 50)
+    private String changedBy; // 변경한 관리자 아이디 (결제 처리면 payment, 결제 대기 만료면 reservation-expiry)
+}
@@ -0,0 +1,66 @@
+package com.jsbs.casemall.entity;
+
+import com.jsbs.casemall.constant.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_due", columnList = "processed_at, next_attempt_at"),
+        @Index(name = "idx_outbox_event_claim", columnList = "claim_token")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent {
+    // 주문 상태 변경과 같은 트랜잭션에서 남기는 후속 처리 요청 (트랜잭셔널 아웃박스)
+    // 커밋된 이벤트만 남으므로 주문은 바뀌었는데 후속 처리가 빠지는 일이 없고,
+    // OutboxDispatcher 가 모아서 처리하므로 결제 요청은 후속 처리 수만큼 느려지지 않는다
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId; // 대상 (주문 이벤트면 orders.order_id)
+
+    @Lob
+    @Column(nullable = false)
+    private String payload; // JSON
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // 다음 처리 시각 (null 이면 재시도 한도를 넘어 중단된 이벤트)
+
+    private int attempts; // 처리 시도 횟수
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken; // 마지막으로 가져간 처리기 (여러 서버가 같은 이벤트를 동시에 가져가지 않도록)
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt; // 처리 완료 시각
+
+    public static OutboxEvent create(OutboxEventType eventType, String aggregateId, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.eventType = eventType;
+        event.aggregateId = aggregateId;
+        event.payload = payload;
+        event.createdAt = LocalDateTime.now();
+        event.nextAttemptAt = event.createdAt;
+        return event;
+    }
+}
@@ -0,0 +1,99 @@
+package com.jsbs.casemall.entity;
+
+import com.jsbs.casemall.constant.PaymentConfirmationStatus;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@Entity
+@Table(name = "payment_confirmation", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payment_confirmation_key", columnNames = {"payment_key", "order_id"})
+}, indexes = {
+        @Index(name = "idx_payment_confirmation_retry", columnList = "status, next_attempt_at")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PaymentConfirmation {
+    // 결제 승인 요청 기록 (중복 승인 방지)
+    // 같은 결제 키 + 주문 아이디로 먼저 행을 넣은 요청만 결제사 승인과 주문 처리를 하고,
+    // 새로고침/재시도/중복 클릭으로 들어온 요청은 저장된 결과(이동할 화면)를 그대로 돌려받는다
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payment_key", nullable = false, length = 200)
+    private String paymentKey; // 결제사 결제 키
+
+    @Column(name = "order_id", nullable = false)
+    private String orderId; // 주문 아이디 (orders.order_id)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentConfirmationStatus status;
+
+    @Column(length = 1000)
+    private String outcome; // 처리 결과 (이동할 화면)
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt; // 처리 시작 (처리 중 서버가 죽은 경우 판단용)
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(length = 20)
+    private String amount; // 결제 금액 (확인 대기 건을 다시 승인 요청할 때 사용)
+
+    private int attempts; // 확인 대기 중 재시도 횟수
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // 다음 재시도 시각
+
+    public static PaymentConfirmation start(String paymentKey, String orderId) {
+        PaymentConfirmation confirmation = new PaymentConfirmation();
+        confirmation.paymentKey = paymentKey;
+        confirmation.orderId = orderId;
+        confirmation.status = PaymentConfirmationStatus.IN_PROGRESS;
+        confirmation.startedAt = LocalDateTime.now();
+        return confirmation;
+    }
+
+    public void complete(String outcome) {
+        this.status = PaymentConfirmationStatus.COMPLETED;
+        this.outcome = outcome;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    // 결제사에 닿지 못해 결과를 확정하지 못함 - 재시도 대기로 두고 그동안 돌려줄 결과 저장
+    public void defer(String amount, String outcome, LocalDateTime nextAttemptAt) {
+        this.status = PaymentConfirmationStatus.PENDING;
+        this.amount = amount;
+        this.outcome = outcome;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    // 재시도 한도를 넘어 결제 여부를 끝내 확인하지 못함 - 이후 중복 요청에는 outcome 을 돌려준다
+    public void expire(String outcome) {
+        this.status = PaymentConfirmationStatus.EXPIRED;
+        this.outcome = outcome;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    public boolean isInProgress() {
+        return status == PaymentConfirmationStatus.IN_PROGRESS;
+    }
+
+    public boolean isPending() {
+        return status == PaymentConfirmationStatus.PENDING;
+    }
+
+    // 중복 요청에 저장된 결과를 돌려줄 수 있는 상태 (확인 대기면 대기 화면)
+    public boolean isResolved() {
+        return status != PaymentConfirmationStatus.IN_PROGRESS;
+    }
+}
@@ -2,6 +2,7 @@ package com.jsbs.casemall.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
 import com.jsbs.casemall.constant.ProductSellStatus;
 import com.jsbs.casemall.constant.ProductType;
 import com.jsbs.casemall.dto.ProductFormDto;
@@ -9,11 +10,13 @@ import com.jsbs.casemall.dto.ProductModelDto;
 import com.jsbs.casemall.exception.OutOfStockException;
 import jakarta.persistence.*;
 import jdk.jfr.Enabled;
+import org.hibernate.annotations.BatchSize;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -22,7 +25,11 @@ import java.util.stream.Collectors;
 @Setter
 @ToString(exclude = {"productModelList", "productImgList"}) // 순환 참조 방지를 위해 제외
 @Entity
-@Table(name = "product")
+@NamedEntityGraph(name = "Product.withImages", attributeNodes = @NamedAttributeNode("productImgList"))
+@NamedEntityGraph(name = "Product.withModels", attributeNodes = @NamedAttributeNode("productModelList"))
+@Table(name = "product", indexes = {
+        @Index(name = "idx_product_price_id", columnList = "pr_price, pr_id") // 가격순 키셋 페이징용
+})
 public class Product extends BaseEntity{
 
     @Id
@@ -49,6 +56,11 @@ public class Product extends BaseEntity{
     @Column(name = "product_sell_status", nullable = false)
     private ProductSellStatus productSellStatus; //상품 판매 상태
 
+    // 재고가 1개 이상인 기종 수 - 기종 재고가 바뀔 때마다 증감해서 판매 상태를 바로 계산한다
+    // 컬럼 추가 전에 등록된 상품은 null 이며 처음 재고가 바뀔 때 한 번만 계산
+    @Column(name = "in_stock_model_count")
+    private Integer inStockModelCount;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "product_category")
     private ProductCategory productCategory; //카테고리
@@ -57,15 +69,58 @@ public class Product extends BaseEntity{
     @Column(name = "product_type")
     private ProductType productType; //상품 종류
 
+    // 여러 상품의 목록을 순회할 때 상품마다 쿼리가 나가지 않도록 IN 절로 묶어서 로딩
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<ProductModel> productModelList = new ArrayList<>();
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<ProductImg> productImgList = new ArrayList<>();
 
     public void addProductModel(ProductModel productModel) {
+        int count = inStockModelCount();
         productModelList.add(productModel);
         productModel.setProduct(this);
+        if (productModel.isInStock()) {
+            changeInStockModelCount(count + 1);
+        }
+    }
+
+    // 기종 재고가 바뀌기 직전에 ProductModel 에서 호출 (재고 있음 <-> 없음이 바뀔 때만 판매 상태 변경)
+    public void modelStockChanging(ProductModel productModel, int newStock) {
+        int count = inStockModelCount();
+        int delta = (newStock > 0 ? 1 : 0) - (productModel.isInStock() ? 1 : 0);
+        if (delta != 0) {
+            changeInStockModelCount(count + delta);
+        }
+    }
+
+    private void removeProductModel(ProductModel productModel) {
+        int count = inStockModelCount();
+        productModelList.remove(productModel);
+        if (productModel.isInStock()) {
+            changeInStockModelCount(count - 1);
+        }
+    }
+
+    // 재고가 있는 기종이 하나라도 있으면 판매, 없으면 품절
+    public void updateSellStatus() {
+        this.productSellStatus = inStockModelCount() > 0 ? ProductSellStatus.SELL : ProductSellStatus.SOLD_OUT;
+    }
+
+    private void changeInStockModelCount(int count) {
+        this.inStockModelCount = count;
+        updateSellStatus();
+    }
+
+    private int inStockModelCount() {
+        if (inStockModelCount == null) {
+            inStockModelCount = (int) productModelList.stream()
+                    .filter(ProductModel::isInStock)
+                    .count();
+        }
+        return inStockModelCount;
     }
 
     public void addProductImg(ProductImg productImg) {
@@ -81,12 +136,34 @@ public class Product extends BaseEntity{
         this.productSellStatus = productFormDto.getProductSellStatus();
         this.productType = productFormDto.getProductType();
 
-        // Update product models
-        this.productModelList.clear();
-        for (ProductModelDto modelDto : productFormDto.getProductModelDtoList()) {
+        updateProductModels(productFormDto.getProductModelDtoList());
+    }
+
+    // 기종 목록을 기종(ProductModelSelect) 기준으로 비교해서 바뀐 부분만 반영
+    // 같은 기종은 기존 행(ID)을 그대로 두고 재고가 다를 때만 수정, 빠진 기종은 orphanRemoval 로 삭제, 새 기종만 추가
+    // 장바구니/주문상세가 참조하는 기종 ID 가 수정할 때마다 바뀌지 않도록 하기 위함
+    public void updateProductModels(List<ProductModelDto> productModelDtoList) {
+        Map<ProductModelSelect, Integer> requested = new LinkedHashMap<>();
+        for (ProductModelDto modelDto : productModelDtoList) {
+            //기종이 선택되지 않았으면 기본 모델 (같은 기종이 여러 번 오면 마지막 값 사용)
+            ProductModelSelect select = modelDto.getProductModelSelect() != null
+                    ? modelDto.getProductModelSelect() : ProductModelSelect.DEFAULT_MODEL;
+            requested.put(select, modelDto.getPrStock() != null ? modelDto.getPrStock() : 0);
+        }
+
+        for (ProductModel productModel : new ArrayList<>(productModelList)) {
+            Integer stock = requested.remove(productModel.getProductModelSelect());
+            if (stock == null) {
+                removeProductModel(productModel); // 삭제
+            } else if (!stock.equals(productModel.getPrStock())) {
+                productModel.changeStock(stock); // 재고만 수정
+            }
+        }
+
+        for (Map.Entry<ProductModelSelect, Integer> entry : requested.entrySet()) { // 추가
             ProductModel productModel = new ProductModel();
-            productModel.setProductModelSelect(modelDto.getProductModelSelect());
-            productModel.setPrStock(modelDto.getPrStock());
+            productModel.setProductModelSelect(entry.getKey());
+            productModel.setPrStock(entry.getValue());
             this.addProductModel(productModel);
         }
     }
@@ -36,10 +36,22 @@ public class ProductModel {
             throw new OutOfStockException("상품의 재고가 부족합니다. " +
                     "(현재 재고 수량 : "+ this.prStock + ")" );
         }
-        this.prStock = restStock;
+        changeStock(restStock);
     }
 
     public void addStock(int prStock){
-        this.prStock += prStock;
+        changeStock(this.prStock + prStock);
+    }
+
+    // 재고 변경 - 상품의 재고 있는 기종 수와 판매 상태도 같은 트랜잭션에서 같이 바뀐다
+    public void changeStock(int prStock) {
+        if (product != null) {
+            product.modelStockChanging(this, prStock);
+        }
+        this.prStock = prStock;
+    }
+
+    public boolean isInStock() {
+        return prStock != null && prStock > 0;
     }
 }
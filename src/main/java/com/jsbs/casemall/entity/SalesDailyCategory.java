@@ -0,0 +1,54 @@
+package com.jsbs.casemall.entity;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@ToString
+@Entity
+@Table(name = "sales_daily_category")
+@IdClass(SalesDailyCategory.Key.class)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SalesDailyCategory {
+    // 일별 + 카테고리 판매 집계 (SalesDailyModel 과 같은 방식으로 유지)
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate; // 주문일
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "product_category")
+    private ProductCategory productCategory;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount; // 카테고리 상품이 포함된 결제 완료 주문 수
+
+    @Column(nullable = false)
+    private long quantity; // 결제 완료 수량
+
+    @Column(nullable = false)
+    private long revenue; // 결제 완료 금액
+
+    @Column(name = "unpaid_cancel_count", nullable = false)
+    private long unpaidCancelCount; // 결제 전에 취소된 주문 수 (결제 대기 만료, 사용자 취소, 승인 후 처리 실패로 환불)
+
+    @Column(name = "unpaid_cancel_quantity", nullable = false)
+    private long unpaidCancelQuantity; // 결제 전에 취소된 수량
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private ProductCategory productCategory;
+    }
+}
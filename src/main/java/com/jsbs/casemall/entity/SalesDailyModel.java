@@ -0,0 +1,59 @@
+package com.jsbs.casemall.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@ToString
+@Entity
+@Table(name = "sales_daily_model")
+@IdClass(SalesDailyModel.Key.class)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SalesDailyModel {
+    // 일별 + 상품 + 기종 판매 집계
+    // 결제 완료 / 취소시 같은 트랜잭션에서 증감하고 (SalesRollupService), 과거 데이터는 일 단위로 다시 계산한다
+    // 매출 조회는 orders/order_detail 대신 이 테이블만 읽는다
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate; // 주문일
+
+    @Id
+    @Column(name = "pr_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "model_id")
+    private Long modelId;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount; // 결제 완료 주문 수
+
+    @Column(nullable = false)
+    private long quantity; // 결제 완료 수량
+
+    @Column(nullable = false)
+    private long revenue; // 결제 완료 금액 (주문 당시 가격 x 수량)
+
+    @Column(name = "unpaid_cancel_count", nullable = false)
+    private long unpaidCancelCount; // 결제 전에 취소된 주문 수 (결제 대기 만료, 사용자 취소, 승인 후 처리 실패로 환불)
+
+    @Column(name = "unpaid_cancel_quantity", nullable = false)
+    private long unpaidCancelQuantity; // 결제 전에 취소된 수량
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private Long productId;
+        private Long modelId;
+    }
+}
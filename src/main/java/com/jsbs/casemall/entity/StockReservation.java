@@ -0,0 +1,41 @@
+package com.jsbs.casemall.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@Entity
+@Table(name = "stock_reservation", indexes = {
+        @Index(name = "idx_stock_reservation_expires_at", columnList = "expires_at") // 만료 조회용
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StockReservation {
+    // 결제 대기(STAY) 주문이 잡고 있는 재고
+    // 주문 생성시 재고를 먼저 차감하므로, 만료 시각까지 결제되지 않으면 주문을 취소하고 재고를 돌려준다
+    // 잡고 있는 수량은 주문 상세(order_detail)의 기종/수량과 같으므로 주문 단위로 만료 시각만 저장
+
+    @Id
+    @Column(name = "order_no")
+    private Long orderNo; // 주문번호 (orders.order_no)
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt; // 만료 시각
+
+    public static StockReservation create(Long orderNo, LocalDateTime expiresAt) {
+        StockReservation reservation = new StockReservation();
+        reservation.orderNo = orderNo;
+        reservation.expiresAt = expiresAt;
+        return reservation;
+    }
+
+    // 주문 항목이 바뀌면 만료 시각 연장
+    public void extend(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
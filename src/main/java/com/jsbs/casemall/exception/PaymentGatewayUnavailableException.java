@@ -0,0 +1,9 @@
+package com.jsbs.casemall.exception;
+
+public class PaymentGatewayUnavailableException extends RuntimeException {
+    public PaymentGatewayUnavailableException(String message){
+        super(message);
+    }
+    //결제사 호출이 차단(서킷 열림, 동시 호출 한도 초과)되었거나 결제사가 장애 응답을 보냈을 때 발생시킬 exception 정의
+    //주문은 실패 처리하지 않고 결제 확인 대기로 두었다가 나중에 다시 승인 요청한다
+}
@@ -2,6 +2,8 @@ package com.jsbs.casemall.repository;
 
 import com.jsbs.casemall.entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,4 +11,9 @@ import java.util.Optional;
 public interface CartItemRepository extends JpaRepository<CartItem,Long> {
     Optional<CartItem> findByProductAndProductModel(Product product, ProductModel productModel);
 
+    // 주문 생성용 - 선택한 장바구니 항목을 상품, 기종, 상품 이미지와 함께 한 번에 조회
+    @Query("SELECT DISTINCT ci FROM CartItem ci JOIN FETCH ci.product p JOIN FETCH ci.productModel " +
+            "LEFT JOIN FETCH p.productImgList WHERE ci.id IN :ids")
+    List<CartItem> findAllWithProductByIdIn(@Param("ids") List<Long> ids);
+
 }
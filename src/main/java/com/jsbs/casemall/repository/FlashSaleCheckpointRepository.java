@@ -0,0 +1,7 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.entity.FlashSaleCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FlashSaleCheckpointRepository extends JpaRepository<FlashSaleCheckpoint, Long> {
+}
@@ -0,0 +1,7 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.entity.FlashSaleLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FlashSaleLedgerRepository extends JpaRepository<FlashSaleLedger, Long> {
+}
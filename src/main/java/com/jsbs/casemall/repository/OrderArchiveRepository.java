@@ -0,0 +1,28 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.constant.OrderStatus;
+import com.jsbs.casemall.dto.MypageDto;
+import com.jsbs.casemall.entity.OrderArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderArchiveRepository extends JpaRepository<OrderArchive, Long> {
+
+    boolean existsByUserId(String userId);
+
+    List<OrderArchive> findByUserIdAndOrderStatusIn(String userId, Collection<OrderStatus> orderStatuses);
+
+    // 보관된 주문 중 가장 늦은 주문일 - 이보다 뒤의 기간만 조회하면 보관 테이블을 읽지 않는다
+    @Query("SELECT MAX(o.orderDate) FROM OrderArchive o")
+    LocalDateTime findMaxOrderDate();
+
+    // 마이페이지 통계 중 보관 주문 몫
+    @Query("SELECT new com.jsbs.casemall.dto.MypageDto(COUNT(DISTINCT o.id), SUM(i.orderPrice * i.count), MAX(o.orderDate)) " +
+            "FROM OrderArchive o LEFT JOIN o.orderItems i WHERE o.userId = :userId AND o.orderStatus IN :statuses")
+    MypageDto getOrderStats(@Param("userId") String userId, @Param("statuses") Collection<OrderStatus> orderStatuses);
+}
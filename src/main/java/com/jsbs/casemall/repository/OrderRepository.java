@@ -1,21 +1,35 @@
 package com.jsbs.casemall.repository;
 
 import com.jsbs.casemall.constant.OrderStatus;
+import com.jsbs.casemall.dto.MypageDto;
 import com.jsbs.casemall.entity.Order;
 import com.jsbs.casemall.entity.OrderDetail;
 import com.jsbs.casemall.entity.Users;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order,Long> {
+public interface OrderRepository extends JpaRepository<Order,Long>, OrderRepositoryCustom {
     Optional<Order> findByOrderId(String orderId); // 주문아이디로 찾기
     List<Order> findByUsersAndOrderStatus(Users user, OrderStatus orderStatus);//
+    List<Order> findByUsersAndOrderStatusIn(Users user, Collection<OrderStatus> orderStatuses);
+    // 주문 생성용 - 주문 항목과 상품, 기종을 함께 조회 (상품 이미지는 @BatchSize 로 묶어서 로딩)
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.product " +
+            "LEFT JOIN FETCH i.productModel WHERE o.users = :user AND o.orderStatus = :status ORDER BY o.id")
+    List<Order> findWithItemsByUsersAndOrderStatus(@Param("user") Users user, @Param("status") OrderStatus orderStatus);
     List<Order> findByOrderIdAndOrderStatus(String orderId, OrderStatus orderStatus);//
 
+    // 마이페이지 통계 - 주문 횟수, 총 결제 금액, 마지막 주문일을 쿼리 한 번으로 집계
+    @Query("SELECT new com.jsbs.casemall.dto.MypageDto(COUNT(DISTINCT o.id), SUM(i.orderPrice * i.count), MAX(o.orderDate)) " +
+            "FROM Order o LEFT JOIN o.orderItems i WHERE o.users.userId = :userId AND o.orderStatus IN :statuses")
+    MypageDto getOrderStats(@Param("userId") String userId, @Param("statuses") Collection<OrderStatus> orderStatuses);
+
     List<Order> findAllByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 }
@@ -0,0 +1,33 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.dto.CursorPageDto;
+import com.jsbs.casemall.dto.OrderHistoryCursor;
+import com.jsbs.casemall.dto.OrderHistoryItemDto;
+
+import com.jsbs.casemall.constant.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface OrderRepositoryCustom {
+
+    // 주문내역 - 결제 완료 주문의 항목을 한 페이지 분량만 키셋 페이징으로 조회
+    // includeArchive 면 보관 주문(orders_archive)도 같은 순서로 합쳐서 조회
+    CursorPageDto<OrderHistoryItemDto> getOrderHistoryPage(String userId, OrderHistoryCursor cursor, int size, boolean includeArchive);
+
+    // 기간 검색 - 주문일이 [from, to) 인 주문의 항목을 한 페이지 분량만 키셋 페이징으로 조회
+    CursorPageDto<OrderHistoryItemDto> getOrderLinePageByDate(LocalDateTime from, LocalDateTime to, OrderHistoryCursor cursor, int size,
+                                                              boolean includeArchive);
+
+    // 상태 일괄 변경용 - 주문 중 현재 상태가 sources 인 주문을 잠그고 주문 번호 -> 현재 상태 반환
+    Map<Long, OrderStatus> lockByIdsAndStatus(Collection<Long> orderNos, Collection<OrderStatus> sources);
+
+    // 상태 일괄 변경용 - 주문일이 [from, to) 이고 상태가 sources 인 주문을 주문 번호 순으로 afterOrderNo 다음부터 limit 건 잠그고 반환
+    Map<Long, OrderStatus> lockByOrderDateAndStatus(LocalDateTime from, LocalDateTime to, Collection<OrderStatus> sources,
+                                                   Long afterOrderNo, int limit);
+
+    // 상태가 from 인 주문만 to 로 변경 (UPDATE 한 번), 바뀐 건수 반환
+    long updateStatus(List<Long> orderNos, OrderStatus from, OrderStatus to);
+}
@@ -0,0 +1,227 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.constant.OrderStatus;
+import com.jsbs.casemall.dto.CursorPageDto;
+import com.jsbs.casemall.dto.OrderHistoryCursor;
+import com.jsbs.casemall.dto.OrderHistoryItemDto;
+import com.jsbs.casemall.dto.QOrderHistoryItemDto;
+import com.jsbs.casemall.entity.QOrder;
+import com.jsbs.casemall.entity.QOrderArchive;
+import com.jsbs.casemall.entity.QOrderDetail;
+import com.jsbs.casemall.entity.QOrderDetailArchive;
+import com.jsbs.casemall.entity.QProduct;
+import com.jsbs.casemall.entity.QProductImg;
+import com.jsbs.casemall.entity.QProductModel;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    // 주문내역 정렬 순서 (주문 번호 내림차순, 같은 주문이면 주문 항목 번호 내림차순)
+    private static final Comparator<OrderHistoryItemDto> LINE_ORDER = Comparator
+            .comparing(OrderHistoryItemDto::getOrderNo, Comparator.reverseOrder())
+            .thenComparing(OrderHistoryItemDto::getOrderItemId, Comparator.reverseOrder());
+
+    private final JPAQueryFactory queryFactory;
+
+    public OrderRepositoryCustomImpl(EntityManager em) {
+        this.queryFactory = new JPAQueryFactory(em);
+    }
+
+    @Override
+    public CursorPageDto<OrderHistoryItemDto> getOrderHistoryPage(String userId, OrderHistoryCursor cursor, int size,
+                                                                  boolean includeArchive) {
+        QOrder order = QOrder.order;
+        List<OrderHistoryItemDto> rows = getOrderLines(order.users.userId.eq(userId).and(order.orderStatus.in(OrderStatus.PAID)), cursor, size);
+        if (includeArchive) {
+            QOrderArchive archive = QOrderArchive.orderArchive;
+            rows = merge(rows, getArchivedOrderLines(archive.userId.eq(userId).and(archive.orderStatus.in(OrderStatus.PAID)), cursor, size), size);
+        }
+        return toPage(rows, cursor, size);
+    }
+
+    @Override
+    public CursorPageDto<OrderHistoryItemDto> getOrderLinePageByDate(LocalDateTime from, LocalDateTime to,
+                                                                     OrderHistoryCursor cursor, int size, boolean includeArchive) {
+        QOrder order = QOrder.order;
+        List<OrderHistoryItemDto> rows = getOrderLines(order.orderDate.goe(from).and(order.orderDate.lt(to)), cursor, size);
+        if (includeArchive) {
+            QOrderArchive archive = QOrderArchive.orderArchive;
+            rows = merge(rows, getArchivedOrderLines(archive.orderDate.goe(from).and(archive.orderDate.lt(to)), cursor, size), size);
+        }
+        return toPage(rows, cursor, size);
+    }
+
+    @Override
+    public Map<Long, OrderStatus> lockByIdsAndStatus(Collection<Long> orderNos, Collection<OrderStatus> sources) {
+        QOrder order = QOrder.order;
+        return toStatusMap(queryFactory
+                .select(order.id, order.orderStatus)
+                .from(order)
+                .where(order.id.in(orderNos), order.orderStatus.in(sources))
+                .orderBy(order.id.asc())
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch());
+    }
+
+    @Override
+    public Map<Long, OrderStatus> lockByOrderDateAndStatus(LocalDateTime from, LocalDateTime to, Collection<OrderStatus> sources,
+                                                          Long afterOrderNo, int limit) {
+        QOrder order = QOrder.order;
+        return toStatusMap(queryFactory
+                .select(order.id, order.orderStatus)
+                .from(order)
+                .where(order.orderDate.goe(from), order.orderDate.lt(to), order.orderStatus.in(sources),
+                        afterOrderNo == null ? null : order.id.gt(afterOrderNo))
+                .orderBy(order.id.asc())
+                .limit(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch());
+    }
+
+    @Override
+    public long updateStatus(List<Long> orderNos, OrderStatus from, OrderStatus to) {
+        QOrder order = QOrder.order;
+        return queryFactory
+                .update(order)
+                .set(order.orderStatus, to)
+                .where(order.id.in(orderNos), order.orderStatus.eq(from))
+                .execute();
+    }
+
+    private static Map<Long, OrderStatus> toStatusMap(List<Tuple> rows) {
+        QOrder order = QOrder.order;
+        Map<Long, OrderStatus> statuses = new LinkedHashMap<>();
+        for (Tuple row : rows) {
+            statuses.put(row.get(order.id), row.get(order.orderStatus));
+        }
+        return statuses;
+    }
+
+    // 다음 페이지 여부 확인을 위해 size + 1 개 조회
+    private List<OrderHistoryItemDto> getOrderLines(BooleanExpression condition, OrderHistoryCursor cursor, int size) {
+        QOrder order = QOrder.order;
+        QOrderDetail orderDetail = QOrderDetail.orderDetail;
+        QProduct product = QProduct.product;
+        QProductModel productModel = QProductModel.productModel;
+
+        return queryFactory
+                .select(new QOrderHistoryItemDto(
+                        order.id,
+                        orderDetail.id,
+                        order.orderId,
+                        order.orderDate,
+                        product.id,
+                        product.prName,
+                        productModel.productModelSelect,
+                        mainImgUrl(product),
+                        orderDetail.count,
+                        orderDetail.orderPrice))
+                .from(orderDetail)
+                .join(orderDetail.order, order)
+                .join(orderDetail.product, product)
+                .join(orderDetail.productModel, productModel)
+                .where(condition, seekAfter(cursor))
+                .orderBy(order.id.desc(), orderDetail.id.desc())
+                .limit(size + 1)
+                .fetch();
+    }
+
+    // 보관 주문에서 같은 조건/순서로 size + 1 개 조회
+    private List<OrderHistoryItemDto> getArchivedOrderLines(BooleanExpression condition, OrderHistoryCursor cursor, int size) {
+        QOrderArchive order = QOrderArchive.orderArchive;
+        QOrderDetailArchive orderDetail = QOrderDetailArchive.orderDetailArchive;
+        QProduct product = QProduct.product;
+        QProductModel productModel = QProductModel.productModel;
+
+        return queryFactory
+                .select(new QOrderHistoryItemDto(
+                        order.id,
+                        orderDetail.id,
+                        order.orderId,
+                        order.orderDate,
+                        product.id,
+                        product.prName,
+                        productModel.productModelSelect,
+                        mainImgUrl(product),
+                        orderDetail.count,
+                        orderDetail.orderPrice))
+                .from(orderDetail)
+                .join(orderDetail.order, order)
+                .join(orderDetail.product, product)
+                .join(orderDetail.productModel, productModel)
+                .where(condition, seekAfterArchived(cursor))
+                .orderBy(order.id.desc(), orderDetail.id.desc())
+                .limit(size + 1)
+                .fetch();
+    }
+
+    // 상품의 대표 이미지 URL 한 개 (대표 이미지가 여러 개여도 주문 항목이 중복되지 않게 조인 대신 서브쿼리)
+    private static JPQLQuery<String> mainImgUrl(QProduct product) {
+        QProductImg productImg = new QProductImg("mainImg");
+        return JPAExpressions
+                .select(productImg.imgUrl.min())
+                .from(productImg)
+                .where(productImg.product.eq(product), productImg.prMainImg.eq("Y"));
+    }
+
+    // 두 테이블은 주문 번호가 겹치지 않으므로 각각 정렬된 size + 1 개를 합쳐서 앞에서부터 size + 1 개만 남긴다
+    private static List<OrderHistoryItemDto> merge(List<OrderHistoryItemDto> hot, List<OrderHistoryItemDto> archived, int size) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<OrderHistoryItemDto> rows = new ArrayList<>(hot.size() + archived.size());
+        rows.addAll(hot);
+        rows.addAll(archived);
+        rows.sort(LINE_ORDER);
+        return rows.size() > size + 1 ? rows.subList(0, size + 1) : rows;
+    }
+
+    private static CursorPageDto<OrderHistoryItemDto> toPage(List<OrderHistoryItemDto> rows, OrderHistoryCursor cursor, int size) {
+        boolean hasNext = rows.size() > size;
+        List<OrderHistoryItemDto> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            OrderHistoryItemDto last = content.get(content.size() - 1);
+            nextCursor = cursor.next(last.getOrderNo(), last.getOrderItemId()).encode();
+        }
+        return new CursorPageDto<>(content, nextCursor, hasNext, null);
+    }
+
+    // 마지막으로 본 항목 다음부터 (주문 번호가 같으면 주문 항목 번호로 순서를 정한다)
+    private BooleanExpression seekAfter(OrderHistoryCursor cursor) {
+        if (cursor.isFirstPage()) {
+            return null;
+        }
+        QOrder order = QOrder.order;
+        QOrderDetail orderDetail = QOrderDetail.orderDetail;
+        Long lastOrderNo = cursor.getLastOrderNo();
+        return order.id.lt(lastOrderNo)
+                .or(order.id.eq(lastOrderNo).and(orderDetail.id.lt(cursor.getLastOrderItemId())));
+    }
+
+    private BooleanExpression seekAfterArchived(OrderHistoryCursor cursor) {
+        if (cursor.isFirstPage()) {
+            return null;
+        }
+        QOrderArchive order = QOrderArchive.orderArchive;
+        QOrderDetailArchive orderDetail = QOrderDetailArchive.orderDetailArchive;
+        Long lastOrderNo = cursor.getLastOrderNo();
+        return order.id.lt(lastOrderNo)
+                .or(order.id.eq(lastOrderNo).and(orderDetail.id.lt(cursor.getLastOrderItemId())));
+    }
+}
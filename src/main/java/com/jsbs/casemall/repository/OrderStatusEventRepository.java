@@ -0,0 +1,11 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.entity.OrderStatusEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OrderStatusEventRepository extends JpaRepository<OrderStatusEvent, Long> {
+
+    List<OrderStatusEvent> findByOrderNoOrderByIdAsc(Long orderNo);
+}
@@ -0,0 +1,41 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 처리할 차례가 된 이벤트 ID (오래된 순)
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // 처리기 하나가 선점 - 처리 중 서버가 죽으면 lease 시각이 지난 뒤 다시 잡힌다
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimToken = :token, e.nextAttemptAt = :lease, e.attempts = e.attempts + 1 " +
+            "WHERE e.id IN :ids AND e.processedAt IS NULL AND e.nextAttemptAt <= :now")
+    int claim(@Param("ids") List<Long> ids, @Param("token") String token,
+              @Param("now") LocalDateTime now, @Param("lease") LocalDateTime lease);
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.claimToken = :token AND e.processedAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> findClaimed(@Param("token") String token);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :now, e.lastError = NULL WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    // 실패 - 다음 처리 시각 지정 (null 이면 더 이상 시도하지 않음)
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.nextAttemptAt = :next, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("next") LocalDateTime next, @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
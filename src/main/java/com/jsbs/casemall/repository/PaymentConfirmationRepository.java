@@ -0,0 +1,35 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.entity.PaymentConfirmation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface PaymentConfirmationRepository extends JpaRepository<PaymentConfirmation, Long> {
+
+    Optional<PaymentConfirmation> findByPaymentKeyAndOrderId(String paymentKey, String orderId);
+
+    // 처리 중 상태로 오래 남은 기록(처리하던 서버가 죽은 경우)을 이어받는다 - 한 요청만 성공
+    @Modifying
+    @Query("UPDATE PaymentConfirmation p SET p.startedAt = :now WHERE p.id = :id " +
+            "AND p.status = com.jsbs.casemall.constant.PaymentConfirmationStatus.IN_PROGRESS AND p.startedAt < :staleBefore")
+    int takeOver(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    // 재시도 시각이 된 확인 대기 건
+    @Query("SELECT p FROM PaymentConfirmation p " +
+            "WHERE p.status = com.jsbs.casemall.constant.PaymentConfirmationStatus.PENDING AND p.nextAttemptAt <= :now " +
+            "ORDER BY p.nextAttemptAt")
+    List<PaymentConfirmation> findDueForRetry(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // 재시도할 서버 하나만 선점 - 다음 재시도 시각을 미리 밀어 둔다
+    @Modifying
+    @Query("UPDATE PaymentConfirmation p SET p.attempts = p.attempts + 1, p.nextAttemptAt = :next WHERE p.id = :id " +
+            "AND p.status = com.jsbs.casemall.constant.PaymentConfirmationStatus.PENDING AND p.nextAttemptAt <= :now")
+    int claimRetry(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("next") LocalDateTime next);
+}
@@ -19,4 +19,8 @@ public interface ProductModelRepository extends JpaRepository<ProductModel, Long
     void deleteByPrIdIsNull();
 
     void deleteByProduct(Product product);
+
+    // 필터 색인 생성용 - 상품 ID, 기종 ID, 기종, 재고
+    @Query("SELECT pm.product.id, pm.id, pm.productModelSelect, pm.prStock FROM ProductModel pm WHERE pm.product.id IS NOT NULL")
+    List<Object[]> findAllForFacetIndex();
 }
@@ -4,6 +4,7 @@ import com.jsbs.casemall.constant.ProductCategory;
 import com.jsbs.casemall.constant.ProductType;
 import com.jsbs.casemall.entity.Product;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
@@ -17,11 +18,24 @@ public interface ProductRepository extends JpaRepository<Product, Long>,
 
     List<Product> findByProductCategory(ProductCategory productCategory);
     List<Product> findByProductType(ProductType productType);
+    @EntityGraph(value = "Product.withImages")
     List<Product> findAll(Sort sort);
 
+    // 목록 조회시 이미지는 fetch join, 기종 목록은 @BatchSize 로 묶어서 로딩 (N+1 방지)
+    @EntityGraph(value = "Product.withImages")
     List<Product> findByProductCategoryAndProductType(ProductCategory category, ProductType type, Sort sort);
 
+    @EntityGraph(value = "Product.withImages")
     List<Product> findByProductCategory(ProductCategory category, Sort sort);
 
+    @EntityGraph(value = "Product.withImages")
     List<Product> findByProductType(ProductType type, Sort sort);
+
+    // 검색 색인 생성용 - 엔티티 대신 필요한 컬럼만 조회
+    @Query("SELECT p.id, p.prName FROM Product p")
+    List<Object[]> findAllForSearchIndex();
+
+    // 필터 색인 생성용
+    @Query("SELECT p.id, p.productCategory, p.productType FROM Product p")
+    List<Object[]> findAllForFacetIndex();
 }
@@ -1,12 +1,34 @@
 package com.jsbs.casemall.repository;
 
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.dto.CursorPageDto;
+import com.jsbs.casemall.dto.HomeProductDto;
 import com.jsbs.casemall.dto.MainProductDto;
+import com.jsbs.casemall.dto.ProductCursor;
+import com.jsbs.casemall.dto.ProductListDto;
 import com.jsbs.casemall.dto.ProductSearchDto;
 import com.jsbs.casemall.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
 
 public interface ProductRepositoryCustom {
     Page<Product> getAdminProductPage(ProductSearchDto productSearchDto, Pageable pageable);
     Page<MainProductDto> getMainProductPage(ProductSearchDto productSearchDto, Pageable pageable);
+
+    // 메인 화면 스냅샷용 - 화면에 필요한 컬럼과 대표 이미지만 한 번에 조회
+    List<HomeProductDto> getHomeProducts();
+
+    // 카테고리 목록 화면용 - 상품 수와 상관없이 쿼리 한 번으로 조회
+    List<ProductListDto> getListProducts(ProductCategory category, ProductType type, Sort sort);
+
+    // 검색 색인에서 찾은 ID 한 페이지 분량만 조회
+    List<MainProductDto> getMainProductsByIds(List<Long> productIds);
+
+    // 키셋(커서) 페이징 - offset 없이 마지막 행 기준으로 조회, count 쿼리는 withCount 일때만 실행
+    CursorPageDto<Product> getAdminProductCursorPage(ProductSearchDto productSearchDto, ProductCursor cursor, int size, boolean withCount);
+    CursorPageDto<MainProductDto> getMainProductCursorPage(ProductSearchDto productSearchDto, ProductCursor cursor, int size, boolean withCount);
 }
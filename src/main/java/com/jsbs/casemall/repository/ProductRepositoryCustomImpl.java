@@ -3,28 +3,48 @@ package com.jsbs.casemall.repository;
 import com.jsbs.casemall.constant.ProductCategory;
 import com.jsbs.casemall.constant.ProductSellStatus;
 import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.dto.CursorPageDto;
+import com.jsbs.casemall.dto.HomeProductDto;
 import com.jsbs.casemall.dto.MainProductDto;
+import com.jsbs.casemall.dto.ProductCursor;
+import com.jsbs.casemall.dto.ProductListDto;
 import com.jsbs.casemall.dto.ProductSearchDto;
+import com.jsbs.casemall.dto.QHomeProductDto;
 import com.jsbs.casemall.dto.QMainProductDto;
+import com.jsbs.casemall.dto.QProductListDto;
 import com.jsbs.casemall.entity.Product;
 import com.jsbs.casemall.entity.QProduct;
 import com.jsbs.casemall.entity.QProductImg;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Coalesce;
+import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.thymeleaf.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 public class ProductRepositoryCustomImpl implements ProductRepositoryCustom{
 
     private JPAQueryFactory queryFactory;
 
+    // 목록 정렬에 허용하는 컬럼
+    private static final Set<String> LIST_SORT_PROPERTIES = Set.of("id", "prName", "prPrice", "regTime", "createdBy");
+
     public ProductRepositoryCustomImpl(EntityManager em){
         this.queryFactory = new JPAQueryFactory(em);
     }
@@ -150,4 +170,226 @@ public class ProductRepositoryCustomImpl implements ProductRepositoryCustom{
         // 페이지 정보를 포함한 PageImpl 객체를 생성하여 반환합니다.
         return new PageImpl<>(content, pageable, total);
     }
+
+    @Override
+    public List<HomeProductDto> getHomeProducts() {
+        QProduct product = QProduct.product;
+
+        // 상품 기준으로 조회 (대표 이미지가 없거나 여러 개여도 상품당 한 행)
+        // 이미지가 하나도 없는 상품은 imgUrl 이 null 이고 화면에서 뺀다
+        return queryFactory
+                .select(
+                        new QHomeProductDto(
+                                product.id,
+                                product.prName,
+                                product.prPrice,
+                                displayImgUrl(product)
+                        )
+                )
+                .from(product)
+                .orderBy(product.id.asc()) // 기존 findAll() 과 같은 등록 순서
+                .fetch();
+    }
+
+    //Sort 를 QueryDSL 정렬 조건으로 변환합니다. (허용된 컬럼만, 마지막에 ID 로 순서 고정)
+    private OrderSpecifier<?>[] listOrder(Sort sort) {
+        PathBuilder<Product> path = new PathBuilder<>(Product.class, QProduct.product.getMetadata());
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (!LIST_SORT_PROPERTIES.contains(order.getProperty())) {
+                continue;
+            }
+            Order direction = order.isAscending() ? Order.ASC : Order.DESC;
+            orders.add(new OrderSpecifier<>(direction, path.getComparable(order.getProperty(), Comparable.class)));
+        }
+        orders.add(QProduct.product.id.asc());
+        return orders.toArray(new OrderSpecifier<?>[0]);
+    }
+
+    @Override
+    public List<ProductListDto> getListProducts(ProductCategory category, ProductType type, Sort sort) {
+        QProduct product = QProduct.product;
+
+        // 대표 이미지를 서브쿼리로 같이 읽어서 화면에 필요한 값만 한 번에 가져온다 (대표 이미지가 여러 개여도 상품당 한 행)
+        return queryFactory
+                .select(
+                        new QProductListDto(
+                                product.id,
+                                product.prName,
+                                product.prPrice,
+                                product.productSellStatus,
+                                displayImgUrl(product)
+                        )
+                )
+                .from(product)
+                .where(searchCategoryEq(category), searchPrTypeEq(type))
+                .orderBy(listOrder(sort))
+                .fetch();
+    }
+
+    @Override
+    public List<MainProductDto> getMainProductsByIds(List<Long> productIds) {
+        QProduct product = QProduct.product;
+
+        // 검색 색인이 ID 내림차순으로 돌려주므로 같은 순서로 정렬
+        // 색인이 센 상품 수와 맞도록 상품 기준으로 조회 (대표 이미지가 없거나 여러 개여도 상품당 한 행)
+        return queryFactory
+                .select(
+                        new QMainProductDto(
+                                product.id,
+                                product.prName,
+                                product.prDetail,
+                                mainImgUrl(product),
+                                product.prPrice
+                        )
+                )
+                .from(product)
+                .where(product.id.in(productIds))
+                .orderBy(product.id.desc())
+                .fetch();
+    }
+
+    //상품의 대표 이미지 URL 한 개 (없으면 null)
+    private static JPQLQuery<String> mainImgUrl(QProduct product) {
+        QProductImg productImg = new QProductImg("mainImg");
+        return JPAExpressions
+                .select(productImg.imgUrl.min())
+                .from(productImg)
+                .where(productImg.product.eq(product), productImg.prMainImg.eq("Y"));
+    }
+
+    //목록에 보여줄 이미지 URL - 대표 이미지, 없으면 첫 번째로 등록된 이미지 (이미지가 없으면 null)
+    //대표 이미지를 지운 상품도 예전 화면(productImgList[0])처럼 남은 이미지로 보여준다
+    private static Expression<String> displayImgUrl(QProduct product) {
+        QProductImg firstImg = new QProductImg("firstImg");
+        QProductImg anyImg = new QProductImg("anyImg");
+        JPQLQuery<String> firstImgUrl = JPAExpressions
+                .select(firstImg.imgUrl)
+                .from(firstImg)
+                .where(firstImg.id.eq(JPAExpressions
+                        .select(anyImg.id.min())
+                        .from(anyImg)
+                        .where(anyImg.product.eq(product))));
+        return new Coalesce<>(String.class, mainImgUrl(product), firstImgUrl);
+    }
+
+    //커서 이후의 행만 조회하는 조건을 반환합니다. (정렬 컬럼 + 상품 ID 로 비교)
+    private BooleanExpression seekAfter(ProductCursor cursor) {
+        if (cursor.isFirstPage()) {
+            return null;
+        }
+        QProduct product = QProduct.product;
+        Long lastId = cursor.getLastId();
+
+        if (cursor.isPriceSort()) {
+            int lastPrice = cursor.getLastValue().intValue();
+            // 가격이 같은 상품은 ID 로 순서를 정해서 중복/누락이 없도록 한다
+            return cursor.isAsc()
+                    ? product.prPrice.gt(lastPrice).or(product.prPrice.eq(lastPrice).and(product.id.gt(lastId)))
+                    : product.prPrice.lt(lastPrice).or(product.prPrice.eq(lastPrice).and(product.id.lt(lastId)));
+        }
+        return cursor.isAsc() ? product.id.gt(lastId) : product.id.lt(lastId);
+    }
+
+    //커서의 정렬 기준에 맞는 정렬 조건을 반환합니다.
+    private OrderSpecifier<?>[] seekOrder(ProductCursor cursor) {
+        QProduct product = QProduct.product;
+        if (cursor.isPriceSort()) {
+            return cursor.isAsc()
+                    ? new OrderSpecifier<?>[]{product.prPrice.asc(), product.id.asc()}
+                    : new OrderSpecifier<?>[]{product.prPrice.desc(), product.id.desc()};
+        }
+        return new OrderSpecifier<?>[]{cursor.isAsc() ? product.id.asc() : product.id.desc()};
+    }
+
+    // size + 1 개를 조회한 결과로 다음 페이지 여부와 다음 커서를 만든다
+    private <T> CursorPageDto<T> toCursorPage(List<T> rows, int size, ProductCursor cursor, Long total,
+                                              Function<T, Long> idOf, Function<T, Long> priceOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.get(content.size() - 1);
+            Long lastId = idOf.apply(last);
+            Long lastValue = cursor.isPriceSort() ? priceOf.apply(last) : lastId;
+            nextCursor = cursor.next(lastValue, lastId).encode();
+        }
+        return new CursorPageDto<>(content, nextCursor, hasNext, total);
+    }
+
+    @Override
+    public CursorPageDto<Product> getAdminProductCursorPage(ProductSearchDto productSearchDto, ProductCursor cursor,
+                                                            int size, boolean withCount) {
+        // offset 대신 커서 조건으로 시작 위치를 잡기 때문에 뒤쪽 페이지도 앞쪽과 같은 비용으로 조회된다
+        List<Product> rows = queryFactory
+                .selectFrom(QProduct.product)
+                .where(
+                        regDtsAfter(productSearchDto.getSearchDateType()),
+                        searchSellStatusEq(productSearchDto.getSearchSellStatus()),
+                        searchByLike(productSearchDto.getSearchBy(), productSearchDto.getSearchQuery()),
+                        searchCategoryEq(productSearchDto.getSearchCategory()),
+                        searchPrTypeEq(productSearchDto.getSearchPrType()),
+                        seekAfter(cursor) // 커서 이후 행만
+                )
+                .orderBy(seekOrder(cursor))
+                .limit(size + 1) // 다음 페이지 존재 여부 확인용으로 한 개 더
+                .fetch();
+
+        Long total = null;
+        if (withCount) {
+            total = queryFactory
+                    .select(Wildcard.count)
+                    .from(QProduct.product)
+                    .where(
+                            regDtsAfter(productSearchDto.getSearchDateType()),
+                            searchSellStatusEq(productSearchDto.getSearchSellStatus()),
+                            searchByLike(productSearchDto.getSearchBy(), productSearchDto.getSearchQuery()),
+                            searchCategoryEq(productSearchDto.getSearchCategory()),
+                            searchPrTypeEq(productSearchDto.getSearchPrType())
+                    )
+                    .fetchOne();
+        }
+
+        return toCursorPage(rows, size, cursor, total, Product::getId, p -> (long) p.getPrPrice());
+    }
+
+    @Override
+    public CursorPageDto<MainProductDto> getMainProductCursorPage(ProductSearchDto productSearchDto, ProductCursor cursor,
+                                                                  int size, boolean withCount) {
+        QProduct product = QProduct.product;
+        QProductImg productImg = QProductImg.productImg;
+
+        List<MainProductDto> rows = queryFactory
+                .select(
+                        new QMainProductDto(
+                                product.id,
+                                product.prName,
+                                product.prDetail,
+                                productImg.imgUrl,
+                                product.prPrice
+                        )
+                )
+                .from(productImg)
+                .join(productImg.product, product)
+                .where(productImg.prMainImg.eq("Y")) // 메인 이미지가 'Y'인 경우만 필터링
+                .where(searchByLike(productSearchDto.getSearchBy(), productSearchDto.getSearchQuery())) // 검색 조건 필터링
+                .where(seekAfter(cursor)) // 커서 이후 행만
+                .orderBy(seekOrder(cursor))
+                .limit(size + 1) // 다음 페이지 존재 여부 확인용으로 한 개 더
+                .fetch();
+
+        Long total = null;
+        if (withCount) {
+            total = queryFactory
+                    .select(Wildcard.count)
+                    .from(productImg)
+                    .join(productImg.product, product)
+                    .where(productImg.prMainImg.eq("Y"))
+                    .where(searchByLike(productSearchDto.getSearchBy(), productSearchDto.getSearchQuery()))
+                    .fetchOne();
+        }
+
+        return toCursorPage(rows, size, cursor, total, MainProductDto::getId, dto -> (long) dto.getPrPrice());
+    }
 }
@@ -0,0 +1,18 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.entity.SalesDailyCategory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesDailyCategoryRepository extends JpaRepository<SalesDailyCategory, SalesDailyCategory.Key> {
+
+    // 기간 내 카테고리별 판매 - 카테고리, 주문 수, 수량, 금액, 결제 전 취소 수량 (카테고리가 없는 상품은 빠진다)
+    @Query("SELECT s.productCategory, SUM(s.orderCount), SUM(s.quantity), SUM(s.revenue), SUM(s.unpaidCancelQuantity) " +
+            "FROM SalesDailyCategory s WHERE s.salesDate BETWEEN :from AND :to " +
+            "GROUP BY s.productCategory ORDER BY SUM(s.revenue) DESC")
+    List<Object[]> sumByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,25 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.entity.SalesDailyModel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesDailyModelRepository extends JpaRepository<SalesDailyModel, SalesDailyModel.Key> {
+
+    // 기간 내 일별 판매 - 날짜, 수량, 금액, 결제 전 취소 수량 (카테고리가 없는 상품까지 모두 포함)
+    @Query("SELECT s.salesDate, SUM(s.quantity), SUM(s.revenue), SUM(s.unpaidCancelQuantity) " +
+            "FROM SalesDailyModel s WHERE s.salesDate BETWEEN :from AND :to " +
+            "GROUP BY s.salesDate ORDER BY s.salesDate")
+    List<Object[]> sumByDate(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // 기간 내 상품별 판매 - 상품 ID, 상품명, 주문 수, 수량, 금액 (금액 내림차순)
+    @Query("SELECT s.productId, p.prName, SUM(s.orderCount), SUM(s.quantity), SUM(s.revenue) " +
+            "FROM SalesDailyModel s, Product p WHERE p.id = s.productId AND s.salesDate BETWEEN :from AND :to " +
+            "GROUP BY s.productId, p.prName ORDER BY SUM(s.revenue) DESC")
+    List<Object[]> sumByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.entity.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // 만료된 주문번호 (오래된 것부터)
+    @Query("SELECT r.orderNo FROM StockReservation r WHERE r.expiresAt <= :now ORDER BY r.expiresAt")
+    List<Long> findExpiredOrderNos(@Param("now") LocalDateTime now, Pageable pageable);
+}
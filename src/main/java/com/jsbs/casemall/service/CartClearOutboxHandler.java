@@ -0,0 +1,24 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.OutboxEventType;
+import com.jsbs.casemall.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CartClearOutboxHandler implements OutboxHandler {
+    // 결제 완료 후 장바구니에서 주문한 상품 비우기 (이미 지웠으면 아무 일도 없으므로 다시 처리해도 안전)
+
+    private final CartService cartService;
+
+    @Override
+    public OutboxEventType eventType() {
+        return OutboxEventType.ORDER_PAID;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        cartService.clearCart(event.getAggregateId());
+    }
+}
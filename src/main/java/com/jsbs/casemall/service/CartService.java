@@ -11,7 +11,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -81,18 +85,34 @@ public class CartService {
 
 //
 
-    // 비우기 메소드
-    public void clearCart(String orderId) {
+    // 결제한 상품 비우기
+    // 결제 완료 이벤트로 호출되며 같은 주문으로 다시 호출될 수 있다
+    // 장바구니 전체가 아니라 주문에 담긴 (상품, 기종) 과 같은 항목만 지우므로, 이벤트가 다시 처리돼도
+    // 주문 이후에 새로 담은 다른 상품은 남는다
+    public int clearCart(String orderId) {
         Order order = orderRepository.findByOrderId(orderId).orElseThrow(()-> new IllegalArgumentException("주문 정보가 없습니다!"));
         String userId = order.getUsers().getUserId();
         Users user = userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("해당 유저를 찾을수 없습니다"));
         Cart cart = cartRepository.findByUser(user);
-        if (cart != null) {
-            cart.getCartItems().clear();
+        if (cart == null || cart.getCartItems().isEmpty()) {
+            return 0;
+        }
+
+        Set<List<Long>> ordered = new HashSet<>(); // 주문한 (상품 번호, 기종 번호)
+        for (OrderDetail orderDetail : order.getOrderItems()) {
+            ordered.add(List.of(orderDetail.getProduct().getId(), orderDetail.getProductModel().getId()));
+        }
+        List<CartItem> removed = new ArrayList<>();
+        for (CartItem cartItem : cart.getCartItems()) {
+            if (ordered.contains(List.of(cartItem.getProduct().getId(), cartItem.getProductModel().getId()))) {
+                removed.add(cartItem);
+            }
+        }
+        removed.forEach(cart::removeItems);
+        if (!removed.isEmpty()) {
             cartRepository.save(cart);
-        }else {
-            throw new IllegalArgumentException("장바구니가 없습니다");
         }
+        return removed.size();
     }
 
     // 장바구니에서 삭제
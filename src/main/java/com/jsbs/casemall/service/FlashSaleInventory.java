@@ -0,0 +1,498 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.entity.FlashSaleCheckpoint;
+import com.jsbs.casemall.entity.FlashSaleLedger;
+import com.jsbs.casemall.exception.OutOfStockException;
+import com.jsbs.casemall.repository.FlashSaleCheckpointRepository;
+import com.jsbs.casemall.repository.FlashSaleLedgerRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlashSaleInventory {
+    // 플래시 세일 기종의 메모리 재고 장부
+    // 인기 기종 하나에 주문이 몰리면 product_model 한 행의 잠금을 모든 주문이 차례로 기다리게 된다
+    // 세일 중인 기종은 재고를 여러 칸(stripe)으로 나눠 메모리에서 CAS 로 차감하고,
+    // 주문 커밋 직전에 저널 파일에 기록(fsync)한 뒤 스케줄러가 모아서 DB 에 반영한다 (write-behind)
+    // 주문 커밋 전에 서버가 죽으면 저널에는 차감이 남으므로 재고는 적게 잡히는 쪽(과소 판매)으로만 틀어진다
+    // 메모리 재고는 세일을 시작한 서버 한 곳(장부 행의 owner)만 들고 lease 를 연장한다
+    // 다른 서버는 그 기종을 팔지 않으므로(DB 차감 SQL 이 건너뛰어 재고 부족) 세일 기종 주문은 owner 서버로 보내야 한다
+    // owner 는 flash-sale.instance-id 로 구분하므로 재시작해도 같은 값을 써야 자기 세일을 다시 가져간다
+
+    private static final int STRIPES = 16;
+
+    private static final String LOCK_STOCK_SQL =
+            "SELECT pr_stock FROM product_model WHERE model_id = ? FOR UPDATE";
+
+    private static final String STOCK_SQL =
+            "SELECT pr_stock FROM product_model WHERE model_id = ?";
+
+    private static final String RENEW_LEASE_SQL =
+            "UPDATE flash_sale_ledger SET lease_until = :leaseUntil WHERE owner = :owner AND model_id IN (:modelIds)";
+
+    private static final String OWNED_SQL =
+            "SELECT model_id FROM flash_sale_ledger WHERE owner = ?";
+
+    // 재시작 전의 lease 가 끝난 뒤에만 다시 가져간다 (같은 instance-id 로 뜬 다른 서버와 겹치지 않게)
+    private static final String CLAIM_LEASE_SQL =
+            "UPDATE flash_sale_ledger SET lease_until = ? WHERE model_id = ? AND owner = ? AND lease_until < ?";
+
+    private static final String DELETE_EXPIRED_LEDGER_SQL =
+            "DELETE FROM flash_sale_ledger WHERE model_id = ? AND owner = ? AND lease_until < ?";
+
+    private final InventoryJournal inventoryJournal;
+    private final ProductStockService productStockService;
+    private final FlashSaleLedgerRepository flashSaleLedgerRepository;
+    private final FlashSaleCheckpointRepository flashSaleCheckpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, StripedStock> hot = new ConcurrentHashMap<>(); // 기종 ID -> 메모리 재고
+    private final Map<Long, Closing> closing = new ConcurrentHashMap<>(); // 종료 요청 후 진행 중 주문을 기다리는 기종
+
+    // 반영 순서가 뒤바뀌면 체크포인트가 앞서 나갈 수 있으므로 한 번에 하나만 (시작/종료/lease 연장도 같이 묶음)
+    private final Object flushLock = new Object();
+
+    @Value("${flash-sale.instance-id:${HOSTNAME:local}}")
+    private String instanceId;
+
+    @Value("${flash-sale.lease:PT15S}")
+    private Duration lease;
+
+    @Value("${flash-sale.deactivate-timeout:PT30S}")
+    private Duration deactivateTimeout;
+
+    private volatile boolean recovered; // 저널 복구 전에는 DB 재고가 아직 틀릴 수 있으므로 세일을 다시 올리지 않는다
+
+    private record Closing(StripedStock stock, long deadline, CompletableFuture<Long> result) {
+    }
+
+    private static final class StripedStock {
+        private final AtomicLongArray stripes = new AtomicLongArray(STRIPES);
+        private final AtomicInteger inFlight = new AtomicInteger(); // 커밋/롤백을 기다리는 트랜잭션 수
+
+        private StripedStock(long stock) {
+            for (int i = 0; i < STRIPES; i++) {
+                stripes.set(i, stock / STRIPES + (i < stock % STRIPES ? 1 : 0));
+            }
+        }
+
+        // 임의의 칸부터 돌면서 0 아래로 내려가지 않게 차감, 모자라면 가져온 만큼 되돌리고 false
+        // 재고가 거의 바닥난 순간에는 다른 요청이 잠깐 들고 있는 수량 때문에 부족으로 판단될 수 있다
+        private boolean tryTake(int quantity) {
+            int start = ThreadLocalRandom.current().nextInt(STRIPES);
+            long[] taken = new long[STRIPES];
+            long remaining = quantity;
+            for (int n = 0; n < STRIPES && remaining > 0; n++) {
+                int i = (start + n) % STRIPES;
+                long current;
+                while ((current = stripes.get(i)) > 0) {
+                    long take = Math.min(current, remaining);
+                    if (stripes.compareAndSet(i, current, current - take)) {
+                        taken[i] = take;
+                        remaining -= take;
+                        break;
+                    }
+                }
+            }
+            if (remaining > 0) {
+                for (int i = 0; i < STRIPES; i++) {
+                    if (taken[i] > 0) {
+                        stripes.addAndGet(i, taken[i]);
+                    }
+                }
+                return false;
+            }
+            return true;
+        }
+
+        private void give(long quantity) {
+            stripes.addAndGet(ThreadLocalRandom.current().nextInt(STRIPES), quantity);
+        }
+
+        private long total() {
+            long total = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                total += stripes.get(i);
+            }
+            return total;
+        }
+    }
+
+    public boolean isHot(Long modelId) {
+        return hot.containsKey(modelId);
+    }
+
+    // 기종 ID -> 세일 중 남은 재고
+    public Map<Long, Long> status() {
+        Map<Long, Long> status = new TreeMap<>();
+        hot.forEach((modelId, stock) -> status.put(modelId, stock.total()));
+        return status;
+    }
+
+    // 세일 중인 기종은 메모리에서 차감하고, 나머지(DB 에서 차감할 항목)를 반환
+    // 주문 트랜잭션이 롤백되면 차감한 재고를 되돌린다
+    public Map<Long, Integer> takeHot(Map<Long, Integer> quantities) {
+        Map<Long, Integer> cold = new HashMap<>();
+        Map<Long, Integer> taken = new TreeMap<>();
+        Map<Long, StripedStock> stocks = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long modelId = entry.getKey();
+            int quantity = entry.getValue() == null ? 0 : entry.getValue();
+            StripedStock stock = enter(modelId);
+            if (stock == null || quantity <= 0) {
+                if (stock != null) {
+                    stock.inFlight.decrementAndGet();
+                }
+                cold.put(modelId, quantity);
+                continue;
+            }
+            if (!stock.tryTake(quantity)) {
+                stock.inFlight.decrementAndGet();
+                taken.forEach((id, q) -> {
+                    stocks.get(id).give(q);
+                    stocks.get(id).inFlight.decrementAndGet();
+                });
+                log.info("플래시 세일 재고 부족으로 주문 실패, 기종 ID: {}", modelId);
+                throw new OutOfStockException("상품의 재고가 부족합니다. (기종 번호 : " + modelId + ")");
+            }
+            taken.put(modelId, quantity);
+            stocks.put(modelId, stock);
+        }
+        if (taken.isEmpty()) {
+            return cold;
+        }
+
+        Map<Long, Integer> decrements = new TreeMap<>();
+        taken.forEach((modelId, quantity) -> decrements.put(modelId, -quantity));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean journaled;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // 실패하면 주문 트랜잭션이 롤백된다 (저널/미반영 증감에 남지 않으므로 메모리 재고만 되돌림)
+                inventoryJournal.append(decrements);
+                journaled = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status != STATUS_COMMITTED) {
+                        taken.forEach((modelId, quantity) -> stocks.get(modelId).give(quantity));
+                        if (journaled) {
+                            inventoryJournal.append(taken); // 저널에 남긴 차감을 되돌림
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    log.error("플래시 세일 재고 복구 기록 실패: {}", taken, e);
+                } finally {
+                    stocks.values().forEach(stock -> stock.inFlight.decrementAndGet());
+                }
+            }
+        });
+        return cold;
+    }
+
+    // 세일 중인 기종은 커밋 후 메모리 재고에 되돌리고, 나머지(DB 에 복구할 항목)를 반환
+    public Map<Long, Integer> giveHot(Map<Long, Integer> quantities) {
+        Map<Long, Integer> cold = new HashMap<>();
+        Map<Long, Integer> given = new TreeMap<>();
+        Map<Long, StripedStock> stocks = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            StripedStock stock = enter(entry.getKey());
+            if (stock == null) {
+                cold.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                stock.inFlight.decrementAndGet();
+                continue;
+            }
+            given.put(entry.getKey(), entry.getValue());
+            stocks.put(entry.getKey(), stock);
+        }
+        if (given.isEmpty()) {
+            return cold;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        inventoryJournal.append(given);
+                        given.forEach((modelId, quantity) -> stocks.get(modelId).give(quantity));
+                    }
+                } catch (RuntimeException e) {
+                    log.error("플래시 세일 재고 복구 기록 실패: {}", given, e);
+                } finally {
+                    stocks.values().forEach(stock -> stock.inFlight.decrementAndGet());
+                }
+            }
+        });
+        return cold;
+    }
+
+    // 진행 중 트랜잭션 수를 올린 뒤에도 세일 중인지 다시 확인 (종료 처리와 겹치는 경우)
+    private StripedStock enter(Long modelId) {
+        StripedStock stock = hot.get(modelId);
+        if (stock == null) {
+            return null;
+        }
+        stock.inFlight.incrementAndGet();
+        if (hot.get(modelId) != stock) {
+            stock.inFlight.decrementAndGet();
+            return null;
+        }
+        return stock;
+    }
+
+    // 세일 시작 - 기종 행을 잠근 상태에서 장부 행(owner = 이 서버)을 넣고 현재 재고를 메모리로 옮긴다
+    // 잠금을 기다리던 DB 차감은 커밋 후 장부 행을 보고 건너뛰고, 메모리 장부에서 다시 차감한다
+    public long activate(Long modelId) {
+        synchronized (flushLock) {
+            if (hot.containsKey(modelId) || closing.containsKey(modelId) || flashSaleLedgerRepository.existsById(modelId)) {
+                throw new IllegalArgumentException("이미 플래시 세일 중인 기종입니다.");
+            }
+            return transactionTemplate.execute(status -> {
+                List<Integer> rows = jdbcTemplate.queryForList(LOCK_STOCK_SQL, Integer.class, modelId);
+                if (rows.isEmpty()) {
+                    throw new EntityNotFoundException("해당 기종을 찾을 수 없습니다. (기종 번호 : " + modelId + ")");
+                }
+                // 다른 서버가 먼저 잠금을 잡고 시작했으면 잠금을 얻은 뒤에 보인다
+                if (flashSaleLedgerRepository.existsById(modelId)) {
+                    throw new IllegalArgumentException("이미 플래시 세일 중인 기종입니다.");
+                }
+                flashSaleLedgerRepository.saveAndFlush(
+                        FlashSaleLedger.start(modelId, instanceId, LocalDateTime.now().plus(lease)));
+
+                StripedStock stock = new StripedStock(rows.get(0));
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        hot.put(modelId, stock);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            hot.remove(modelId, stock);
+                        }
+                    }
+                });
+                log.info("플래시 세일 시작, 기종 ID: {}, 재고: {}, owner: {}", modelId, rows.get(0), instanceId);
+                return (long) rows.get(0);
+            });
+        }
+    }
+
+    // 세일 종료 - 새 주문을 막고, 진행 중 주문이 끝나면 DB 에 반영하고 장부 행 삭제, 남은 재고로 완료
+    // 요청 스레드에서 기다리지 않고 반영 스케줄러(flush)가 마무리한다 (deactivate-timeout 안에 끝나지 않으면 세일 계속)
+    // 종료 처리 중(장부 행 삭제 전)에 들어온 주문은 재고 부족으로 실패한다
+    public CompletableFuture<Long> deactivate(Long modelId) {
+        Closing pending;
+        synchronized (flushLock) {
+            StripedStock stock = hot.remove(modelId);
+            if (stock == null) {
+                return closing.containsKey(modelId)
+                        ? CompletableFuture.failedFuture(new IllegalStateException("이미 종료 처리 중인 플래시 세일입니다."))
+                        : releaseAbandoned(modelId);
+            }
+            pending = new Closing(stock, System.currentTimeMillis() + deactivateTimeout.toMillis(), new CompletableFuture<>());
+            closing.put(modelId, pending);
+            finishClosing(); // 진행 중 주문이 없으면 바로 끝난다
+        }
+        return pending.result();
+    }
+
+    // 이 서버가 가진 세일이 아님 - 다른 서버가 lease 를 연장하고 있으면 그 서버에서 종료해야 하고,
+    // lease 가 끝났으면(owner 서버 중단) 장부 행만 지워서 DB 재고로 판매를 되돌린다
+    // (owner 의 DB 미반영 차감은 그 서버가 재시작할 때 저널에서 반영되므로 그 사이 DB 재고가 실제보다 많을 수 있다)
+    private CompletableFuture<Long> releaseAbandoned(Long modelId) {
+        FlashSaleLedger ledger = flashSaleLedgerRepository.findById(modelId).orElse(null);
+        if (ledger == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("플래시 세일 중인 기종이 아닙니다."));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (ledger.getLeaseUntil().isAfter(now)
+                || jdbcTemplate.update(DELETE_EXPIRED_LEDGER_SQL, modelId, ledger.getOwner(), Timestamp.valueOf(now)) == 0) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "다른 서버(" + ledger.getOwner() + ")에서 진행 중인 플래시 세일입니다. 그 서버에서 종료하세요."));
+        }
+        Integer dbStock = jdbcTemplate.queryForObject(STOCK_SQL, Integer.class, modelId);
+        log.warn("lease 가 끝난 플래시 세일 강제 종료, 기종 ID: {}, owner: {}, DB 재고: {}", modelId, ledger.getOwner(), dbStock);
+        return CompletableFuture.completedFuture(dbStock == null ? 0L : dbStock);
+    }
+
+    // 종료 대기 중인 기종 마무리 - 진행 중 주문이 끝났으면 반영 후 장부 행 삭제, 시간이 지났으면 세일 계속
+    private void finishClosing() {
+        synchronized (flushLock) {
+            for (Map.Entry<Long, Closing> entry : closing.entrySet()) {
+                Long modelId = entry.getKey();
+                Closing pending = entry.getValue();
+                if (pending.stock().inFlight.get() > 0) {
+                    if (System.currentTimeMillis() > pending.deadline()) {
+                        closing.remove(modelId);
+                        hot.put(modelId, pending.stock());
+                        pending.result().completeExceptionally(
+                                new IllegalStateException("진행 중인 주문이 끝나지 않아 플래시 세일을 종료하지 못했습니다."));
+                    }
+                    continue;
+                }
+                closing.remove(modelId);
+                try {
+                    pending.result().complete(close(modelId, pending.stock()));
+                } catch (RuntimeException e) {
+                    hot.put(modelId, pending.stock()); // 장부 행이 남아 있으므로 세일 계속
+                    log.error("플래시 세일 종료 실패, 기종 ID: {}", modelId, e);
+                    pending.result().completeExceptionally(new IllegalStateException("플래시 세일 종료 중 DB 반영에 실패했습니다.", e));
+                }
+            }
+        }
+    }
+
+    // 미반영 증감을 모두 DB 에 반영한 뒤에만 장부 행을 지운다 (반영 전에 지우면 DB 재고가 많게 남아 초과 판매)
+    private long close(Long modelId, StripedStock stock) {
+        if (!applyPending()) {
+            throw new IllegalStateException("플래시 세일 재고를 DB 에 반영하지 못했습니다.");
+        }
+        transactionTemplate.executeWithoutResult(status -> flashSaleLedgerRepository.deleteById(modelId));
+
+        long remaining = stock.total();
+        Integer dbStock = jdbcTemplate.queryForObject(STOCK_SQL, Integer.class, modelId);
+        if (dbStock == null || dbStock != remaining) {
+            log.warn("플래시 세일 재고 불일치, 기종 ID: {}, 장부: {}, DB: {}", modelId, remaining, dbStock);
+        } else {
+            log.info("플래시 세일 종료, 기종 ID: {}, 남은 재고: {}", modelId, remaining);
+        }
+        return remaining;
+    }
+
+    // 저널에 쌓인 증감을 기종별로 합쳐 DB 에 반영하고, 종료 대기 중인 기종을 마무리
+    @Scheduled(fixedDelayString = "${flash-sale.flush-interval:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            applyPending();
+            finishClosing();
+        }
+    }
+
+    // 재고 반영 + 체크포인트를 한 트랜잭션으로, 반영할 것이 없거나 반영했으면 true
+    private boolean applyPending() {
+        InventoryJournal.Pending pending = inventoryJournal.drainPending();
+        if (pending.isEmpty()) {
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                productStockService.applyLedgerDeltas(pending.deltas());
+                advanceCheckpoint(pending.upToSeq());
+            });
+        } catch (RuntimeException e) {
+            inventoryJournal.restorePending(pending);
+            log.error("플래시 세일 재고 DB 반영 실패, 다음 주기에 다시 시도", e);
+            return false;
+        }
+        inventoryJournal.truncateIfApplied(pending.upToSeq());
+        return true;
+    }
+
+    // 이 서버가 가진 세일의 lease 연장
+    // 장부 행이 사라진 기종(lease 가 끝나 다른 서버가 강제 종료)은 메모리에서 내리고,
+    // 이 서버 것인데 아직 올리지 않은 기종(재시작)은 이전 lease 가 끝난 뒤 DB 재고로 다시 올린다
+    @Scheduled(fixedDelayString = "${flash-sale.lease-renew-interval:3000}")
+    public void renewLeases() {
+        if (!recovered) {
+            return;
+        }
+        synchronized (flushLock) {
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp leaseUntil = Timestamp.valueOf(now.plus(lease));
+            Set<Long> held = new HashSet<>(hot.keySet());
+            held.addAll(closing.keySet());
+            if (!held.isEmpty()) {
+                namedParameterJdbcTemplate.update(RENEW_LEASE_SQL,
+                        Map.of("leaseUntil", leaseUntil, "owner", instanceId, "modelIds", held));
+            }
+
+            Set<Long> owned = new HashSet<>(jdbcTemplate.queryForList(OWNED_SQL, Long.class, instanceId));
+            for (Long modelId : held) {
+                if (!owned.contains(modelId) && hot.remove(modelId) != null) {
+                    log.error("플래시 세일 장부 행이 사라져 메모리 재고를 내림, 기종 ID: {}", modelId);
+                }
+            }
+            for (Long modelId : owned) {
+                if (!held.contains(modelId)
+                        && jdbcTemplate.update(CLAIM_LEASE_SQL, leaseUntil, modelId, instanceId, Timestamp.valueOf(now)) > 0) {
+                    List<Integer> rows = jdbcTemplate.queryForList(STOCK_SQL, Integer.class, modelId);
+                    hot.put(modelId, new StripedStock(rows.isEmpty() ? 0 : rows.get(0)));
+                    log.info("플래시 세일 재개, 기종 ID: {}, 재고: {}", modelId, rows.isEmpty() ? 0 : rows.get(0));
+                }
+            }
+        }
+    }
+
+    // 재시작시 체크포인트 이후의 저널을 DB 에 반영하고, 이 서버가 owner 인 세일은 다시 메모리로 올린다
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() throws IOException {
+        synchronized (flushLock) {
+            long checkpointSeq = flashSaleCheckpointRepository.findById(FlashSaleCheckpoint.ID)
+                    .map(FlashSaleCheckpoint::getLastSeq)
+                    .orElse(0L);
+            Map<Long, Long> deltas = new HashMap<>();
+            long lastSeq = checkpointSeq;
+            for (InventoryJournal.Entry entry : inventoryJournal.readAll()) {
+                if (entry.seq() > checkpointSeq) {
+                    deltas.merge(entry.modelId(), entry.delta(), Long::sum);
+                }
+                lastSeq = Math.max(lastSeq, entry.seq());
+            }
+
+            long upToSeq = lastSeq;
+            if (!deltas.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    productStockService.applyLedgerDeltas(deltas);
+                    advanceCheckpoint(upToSeq);
+                });
+                log.info("플래시 세일 저널 복구: 기종 {}개, 마지막 번호 {}", deltas.size(), upToSeq);
+            }
+            inventoryJournal.startAfter(upToSeq);
+            inventoryJournal.truncateIfApplied(upToSeq);
+            recovered = true;
+            renewLeases(); // 이 서버가 owner 인 세일만 다시 올린다
+        }
+    }
+
+    private void advanceCheckpoint(long seq) {
+        FlashSaleCheckpoint checkpoint = flashSaleCheckpointRepository.findById(FlashSaleCheckpoint.ID)
+                .orElseGet(FlashSaleCheckpoint::create);
+        checkpoint.advance(seq);
+        flashSaleCheckpointRepository.save(checkpoint);
+    }
+}
@@ -0,0 +1,80 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.dto.HomeProductDto;
+import com.jsbs.casemall.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class HomeCatalogSnapshot {
+    // 메인 화면(GET /) 상품 목록 스냅샷
+    // 요청마다 전체 상품 + 이미지를 조회하지 않고, 상품이 바뀔 때만 백그라운드에서 새로 만들어 통째로 교체한다
+
+    private final ProductRepository productRepository;
+
+    private final AtomicReference<List<HomeProductDto>> snapshot = new AtomicReference<>();
+
+    // 다시 만들기 요청이 몰려도 한 번만 실행되도록
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean(false);
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "home-catalog-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rebuild();
+    }
+
+    // 현재 스냅샷 (아직 없으면 이번 요청에서 한 번 만든다)
+    public List<HomeProductDto> getProducts() {
+        List<HomeProductDto> products = snapshot.get();
+        if (products == null) {
+            products = rebuild();
+        }
+        return products;
+    }
+
+    // 상품 등록/수정/삭제 후 호출 - 백그라운드에서 다시 만든다
+    public void requestRebuild() {
+        if (rebuildRequested.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                // 조회 시작 전에 플래그를 내려서, 조회 중에 들어온 변경은 다음 번 재생성에 반영되도록 한다
+                rebuildRequested.set(false);
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.error("메인 상품 스냅샷 재생성 실패 (기존 스냅샷 유지)", e);
+                }
+            });
+        }
+    }
+
+    private List<HomeProductDto> rebuild() {
+        long start = System.currentTimeMillis();
+        List<HomeProductDto> products = Collections.unmodifiableList(productRepository.getHomeProducts());
+        snapshot.set(products);
+        log.info("메인 상품 스냅샷 생성: {}건, {}ms", products.size(), System.currentTimeMillis() - start);
+        return products;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,195 @@
+package com.jsbs.casemall.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class InventoryJournal {
+    // 플래시 세일 재고 변경 저널 (파일)
+    // 한 줄에 "번호 TAB 기종ID TAB 증감" 을 기록하고 fsync 까지 끝난 뒤에 반환한다
+    // 여러 요청이 동시에 기록하면 먼저 fsync 하는 요청이 쌓여 있던 기록을 한 번에 내려쓴다 (group commit)
+    // DB 에 아직 반영되지 않은 증감은 fsync 가 끝난 것만 기종별로 합쳐서 들고 있다가 drainPending 으로 넘겨준다
+    // (기록에 실패한 증감은 DB 에도 반영되지 않으므로 호출한 쪽은 되돌릴 필요가 없다)
+    // 쓰기/fsync 가 한 번 실패하면 파일에 무엇이 남았는지 알 수 없으므로 이후 기록은 모두 거부한다 (재시작 필요)
+
+    private final Path path;
+
+    private FileChannel channel;
+
+    private final Object bufferLock = new Object(); // 버퍼, 번호, 미반영 증감
+    private final Object syncLock = new Object(); // 파일 쓰기 + fsync
+
+    private final StringBuilder buffer = new StringBuilder();
+    private Map<Long, Long> buffered = new HashMap<>(); // 버퍼에 들어간 기록의 기종별 증감 합계
+    private long nextSeq = 1;
+    private long lastSeq = 0; // 버퍼에 들어간 마지막 번호
+    private volatile long durableSeq = 0; // fsync 가 끝난 마지막 번호
+    private volatile boolean broken; // 쓰기/fsync 실패 후 기록 중단
+    private Map<Long, Long> pending = new HashMap<>(); // 기종 ID -> DB 미반영 증감 합계 (fsync 끝난 것만)
+
+    public record Entry(long seq, long modelId, long delta) {
+    }
+
+    // DB 에 반영할 증감 묶음 (이 묶음을 반영하면 upToSeq 까지 반영된 것)
+    public record Pending(Map<Long, Long> deltas, long upToSeq) {
+        public boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+    }
+
+    public InventoryJournal(@Value("${flash-sale.journal-path:data/flash-sale.journal}") String path) {
+        this.path = Paths.get(path);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // 재시작시 파일에 남아 있는 기록 (마지막 줄이 쓰다 만 줄이면 무시)
+    public List<Entry> readAll() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length != 3) {
+                    log.warn("재고 저널의 잘못된 줄 무시: {}", line);
+                    continue;
+                }
+                try {
+                    entries.add(new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+                } catch (NumberFormatException e) {
+                    log.warn("재고 저널의 잘못된 줄 무시: {}", line);
+                }
+            }
+        }
+        return entries;
+    }
+
+    // 복구가 끝난 뒤 번호를 이어서 사용
+    public void startAfter(long seq) {
+        synchronized (bufferLock) {
+            nextSeq = Math.max(nextSeq, seq + 1);
+            lastSeq = Math.max(lastSeq, seq);
+            durableSeq = Math.max(durableSeq, seq);
+        }
+    }
+
+    // 증감 기록 - 디스크에 내려간 뒤 반환, 실패하면 UncheckedIOException (기록도 미반영 증감도 남지 않음)
+    public void append(Map<Long, Integer> deltas) {
+        long seq;
+        synchronized (bufferLock) {
+            if (broken) {
+                throw new UncheckedIOException(new IOException("재고 저널 기록이 중단된 상태입니다. (재시작 필요)"));
+            }
+            for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                seq = nextSeq++;
+                buffer.append(seq).append('\t').append(delta.getKey()).append('\t').append(delta.getValue()).append('\n');
+                buffered.merge(delta.getKey(), (long) delta.getValue(), Long::sum);
+                lastSeq = seq;
+            }
+            seq = lastSeq;
+        }
+        sync(seq);
+    }
+
+    private void sync(long seq) {
+        synchronized (syncLock) {
+            if (durableSeq >= seq) {
+                return; // 다른 요청이 같이 내려씀
+            }
+            if (broken) {
+                throw new UncheckedIOException(new IOException("재고 저널 기록 실패 (다른 요청과 같이 내려쓰던 중)"));
+            }
+            String chunk;
+            Map<Long, Long> chunkDeltas;
+            long upTo;
+            synchronized (bufferLock) {
+                chunk = buffer.toString();
+                buffer.setLength(0);
+                chunkDeltas = buffered;
+                buffered = new HashMap<>();
+                upTo = lastSeq;
+            }
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(chunk.getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                broken = true;
+                log.error("재고 저널 기록 실패, 이후 플래시 세일 재고 기록 중단 (번호 {} 까지)", upTo, e);
+                throw new UncheckedIOException("재고 저널 기록 실패", e);
+            }
+            synchronized (bufferLock) {
+                chunkDeltas.forEach((modelId, delta) -> pending.merge(modelId, delta, Long::sum));
+                durableSeq = upTo;
+            }
+        }
+    }
+
+    public boolean isBroken() {
+        return broken;
+    }
+
+    // DB 반영용으로 미반영 증감을 넘겨받는다 (반영에 실패하면 restorePending 으로 되돌린다)
+    public Pending drainPending() {
+        synchronized (bufferLock) {
+            Map<Long, Long> drained = pending;
+            pending = new HashMap<>();
+            return new Pending(drained, durableSeq);
+        }
+    }
+
+    public void restorePending(Pending drained) {
+        synchronized (bufferLock) {
+            drained.deltas().forEach((modelId, delta) -> pending.merge(modelId, delta, Long::sum));
+        }
+    }
+
+    // 모든 기록이 DB 에 반영됐으면 파일을 비운다
+    public void truncateIfApplied(long checkpointSeq) {
+        synchronized (syncLock) {
+            synchronized (bufferLock) {
+                if (broken || !pending.isEmpty() || buffer.length() > 0 || lastSeq > checkpointSeq) {
+                    return;
+                }
+                try {
+                    channel.truncate(0);
+                    channel.force(false);
+                } catch (IOException e) {
+                    log.warn("재고 저널 정리 실패", e);
+                }
+            }
+        }
+    }
+}
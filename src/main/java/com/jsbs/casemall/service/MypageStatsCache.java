@@ -0,0 +1,85 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.dto.MypageDto;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+public class MypageStatsCache {
+    // 마이페이지 주문 통계 캐시 (회원별 주문 횟수, 총 결제 금액, 마지막 주문일)
+    // 결제 완료 / 주문 취소시 해당 회원의 버전을 올려서 이전 버전으로 만든 캐시는 쓰지 않는다
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final int VERSION_STRIPES = 16_384;
+
+    private final StripedVersions versions = new StripedVersions(VERSION_STRIPES); // 회원 수와 상관없이 크기 고정
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private static class Entry {
+        private final long version;
+        private final MypageDto stats;
+
+        private Entry(long version, MypageDto stats) {
+            this.version = version;
+            this.stats = stats;
+        }
+    }
+
+    // 캐시에 있으면 복사본 반환, 없으면 loader 로 조회
+    public MypageDto get(String userId, Function<String, MypageDto> loader) {
+        long version = version(userId);
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.version == version) {
+            return entry.stats.copy();
+        }
+
+        MypageDto stats = loader.apply(userId);
+        // 조회하는 동안 결제/취소가 있었으면 캐시에 넣지 않는다
+        if (version(userId) == version) {
+            evictIfFull();
+            entries.put(userId, new Entry(version, stats));
+        }
+        return stats.copy();
+    }
+
+    // 지금 바로 + 트랜잭션 커밋 후에 한 번 더 무효화 (커밋 전에 다른 요청이 이전 값으로 다시 채우는 경우)
+    public void invalidate(String userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(String userId) {
+        versions.bump(userId);
+        entries.remove(userId);
+    }
+
+    private long version(String userId) {
+        return versions.current(userId);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // 가득 차면 전체를 비우지 않고 넣을 자리만큼만 뺀다
+    private void evictIfFull() {
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= MAX_ENTRIES && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
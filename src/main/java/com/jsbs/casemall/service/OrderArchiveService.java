@@ -0,0 +1,124 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.repository.OrderArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 묶음마다 트랜잭션을 따로 열어서 잠금을 짧게 유지
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiveService {
+    // 오래된 주문 보관 (orders / order_detail -> orders_archive / order_detail_archive)
+    // 주문 조회, 상태 변경, 재고 만료 정리는 모두 최근 주문만 다루므로
+    // 배송완료/취소로 끝난 지 오래된 주문은 보관 테이블로 옮겨서 orders 테이블과 인덱스를 작게 유지한다
+    // batch-size 건씩 한 트랜잭션에서 잠금 -> 보관 테이블에 복사 -> 원본 삭제 (중간에 실패해도 묶음 단위로 되돌아간다)
+    // 주문 번호/주문 항목 번호는 그대로 옮기므로 주문내역 키셋 커서는 두 테이블에 그대로 쓸 수 있다
+
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT order_no FROM orders " +
+            "WHERE order_status IN ('COMPLETED', 'CANCEL') AND order_date < ? " +
+            "ORDER BY order_no LIMIT ? FOR UPDATE";
+
+    private static final String COPY_ORDERS_SQL =
+            "INSERT INTO orders_archive (order_no, user_id, order_date, order_status, pay_info, payment_method, order_id, archived_at) " +
+            "SELECT order_no, user_id, order_date, order_status, pay_info, payment_method, order_id, :archivedAt " +
+            "FROM orders WHERE order_no IN (:orderNos)";
+
+    private static final String COPY_ORDER_DETAIL_SQL =
+            "INSERT INTO order_detail_archive (order_item_id, order_id, pr_id, model_id, order_price, count) " +
+            "SELECT order_item_id, order_id, pr_id, model_id, order_price, count " +
+            "FROM order_detail WHERE order_id IN (:orderNos)";
+
+    private static final String DELETE_ORDER_DETAIL_SQL = "DELETE FROM order_detail WHERE order_id IN (:orderNos)";
+
+    private static final String DELETE_ORDERS_SQL = "DELETE FROM orders WHERE order_no IN (:orderNos)";
+
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // 같은 서버에서 스케줄러와 관리자 실행이 겹치지 않도록 (다른 서버와는 FOR UPDATE 잠금으로 나뉜다)
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${order.archive.age:P180D}")
+    private Duration age; // 주문일로부터 이 기간이 지난 배송완료/취소 주문을 보관
+
+    @Value("${order.archive.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${order.archive.cron:0 0 4 * * *}")
+    public void archiveScheduled() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.error("주문 보관 중 오류", e);
+        }
+    }
+
+    // 보관 대상 주문을 모두 옮기고 옮긴 주문 수 반환 (이미 실행 중이면 0)
+    public int archive() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("주문 보관이 이미 실행 중입니다.");
+            return 0;
+        }
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(age));
+            long start = System.currentTimeMillis();
+            int archived = 0;
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> moveChunk(cutoff));
+                archived += moved;
+            } while (moved == batchSize);
+            log.info("주문 보관 완료: {} 이전 주문 {}건, {}ms", cutoff, archived, System.currentTimeMillis() - start);
+            return archived;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // 옮긴 주문은 원본에서 지워지므로 매번 처음부터 다시 찾으면 다음 묶음이 나온다
+    private int moveChunk(Timestamp cutoff) {
+        List<Long> orderNos = jdbcTemplate.queryForList(SELECT_CHUNK_SQL, Long.class, cutoff, batchSize);
+        if (orderNos.isEmpty()) {
+            return 0;
+        }
+        Map<String, Object> params = Map.of("orderNos", orderNos, "archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        namedParameterJdbcTemplate.update(COPY_ORDERS_SQL, params);
+        namedParameterJdbcTemplate.update(COPY_ORDER_DETAIL_SQL, params);
+        namedParameterJdbcTemplate.update(DELETE_ORDER_DETAIL_SQL, params);
+        namedParameterJdbcTemplate.update(DELETE_ORDERS_SQL, params);
+        return orderNos.size();
+    }
+
+    // 주문일이 from 이후인 주문만 찾을 때는 보관 테이블을 읽지 않아도 된다
+    // (가장 늦게 보관된 주문일은 order_date 인덱스 끝에서 바로 읽는다)
+    @Transactional(readOnly = true)
+    public boolean covers(LocalDateTime from) {
+        LocalDateTime latest = orderArchiveRepository.findMaxOrderDate();
+        return latest != null && !from.isAfter(latest);
+    }
+
+    // 보관된 주문이 있는 회원인지
+    @Transactional(readOnly = true)
+    public boolean hasArchive(String userId) {
+        return orderArchiveRepository.existsByUserId(userId);
+    }
+}
@@ -0,0 +1,236 @@
+package com.jsbs.casemall.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsbs.casemall.constant.ProductModelSelect;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportService {
+    // 관리자 주문 내보내기 (CSV / JSON Lines)
+    // 기간이 길면 주문 항목이 수십만 건이 되므로 엔티티/DTO 목록을 만들지 않고
+    // 읽기 전용 전방향 커서로 한 행씩 읽어서 바로 응답 스트림에 쓴다 (메모리 사용량은 기간과 무관)
+
+    public enum Format {
+        CSV, JSONL
+    }
+
+    private static final String EXPORT_SQL =
+            "SELECT o.order_no, o.order_id, o.order_date, o.order_status, o.user_id, " +
+            "od.order_item_id, p.pr_id, p.pr_name, pm.product_model_select, od.count, od.order_price " +
+            "FROM orders o " +
+            "JOIN order_detail od ON od.order_id = o.order_no " +
+            "JOIN product p ON p.pr_id = od.pr_id " +
+            "JOIN product_model pm ON pm.model_id = od.model_id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? " +
+            "ORDER BY o.order_no, od.order_item_id";
+
+    // 기간이 보관된 주문까지 거슬러 올라갈 때만 - 보관 테이블을 UNION ALL 로 붙인다 (주문 번호가 겹치지 않으므로 중복 없음)
+    private static final String EXPORT_WITH_ARCHIVE_SQL =
+            "SELECT o.order_no, o.order_id, o.order_date, o.order_status, o.user_id, " +
+            "od.order_item_id, p.pr_id, p.pr_name, pm.product_model_select, od.count, od.order_price " +
+            "FROM orders o " +
+            "JOIN order_detail od ON od.order_id = o.order_no " +
+            "JOIN product p ON p.pr_id = od.pr_id " +
+            "JOIN product_model pm ON pm.model_id = od.model_id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? " +
+            "UNION ALL " +
+            "SELECT o.order_no, o.order_id, o.order_date, o.order_status, o.user_id, " +
+            "od.order_item_id, p.pr_id, p.pr_name, pm.product_model_select, od.count, od.order_price " +
+            "FROM orders_archive o " +
+            "JOIN order_detail_archive od ON od.order_id = o.order_no " +
+            "JOIN product p ON p.pr_id = od.pr_id " +
+            "JOIN product_model pm ON pm.model_id = od.model_id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? " +
+            "ORDER BY 1, 6";
+
+    private static final String[] COLUMNS = {
+            "orderNo", "orderId", "orderDate", "orderStatus", "userId",
+            "orderItemId", "productId", "productName", "modelName", "count", "orderPrice"
+    };
+
+    private static final int FLUSH_EVERY = 1000; // 행 수
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OrderArchiveService orderArchiveService;
+
+    // MySQL 은 Integer.MIN_VALUE 일 때 행 단위 스트리밍, 그 외 드라이버는 양수 사용
+    @Value("${order.export.fetch-size:500}")
+    private int fetchSize;
+
+    // 기간 [startDate, endDate] 의 주문 항목을 out 으로 출력, 출력한 행 수 반환
+    public long export(LocalDate startDate, LocalDate endDate, Format format, OutputStream out) throws IOException {
+        Timestamp from = Timestamp.valueOf(startDate.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(endDate.plusDays(1).atStartOfDay());
+        boolean includeArchive = orderArchiveService.covers(startDate.atStartOfDay());
+        long start = System.currentTimeMillis();
+
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new JsonLinesRowWriter(out);
+        long[] count = {0};
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(includeArchive ? EXPORT_WITH_ARCHIVE_SQL : EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setTimestamp(1, from);
+                ps.setTimestamp(2, to);
+                if (includeArchive) {
+                    ps.setTimestamp(3, from);
+                    ps.setTimestamp(4, to);
+                }
+                return ps;
+            }, rs -> {
+                try {
+                    writer.write(rs);
+                    if (++count[0] % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // 클라이언트가 연결을 끊은 경우 등 - 쿼리 중단
+                }
+            });
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("주문 내보내기 완료: {} ~ {}, {}, {}행{}, {}ms", startDate, endDate, format, count[0],
+                includeArchive ? " (보관 주문 포함)" : "", System.currentTimeMillis() - start);
+        return count[0];
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static String modelName(String productModelSelect) {
+        if (productModelSelect == null) {
+            return null;
+        }
+        try {
+            return ProductModelSelect.valueOf(productModelSelect).getDisplayName();
+        } catch (IllegalArgumentException e) {
+            return productModelSelect;
+        }
+    }
+
+    static final class CsvRowWriter implements RowWriter {
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write('\uFEFF'); // 엑셀에서 한글이 깨지지 않도록 BOM
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            writer.write(String.valueOf(rs.getLong(1)));
+            writer.write(',');
+            writer.write(escape(rs.getString(2)));
+            writer.write(',');
+            writer.write(String.valueOf(rs.getTimestamp(3).toLocalDateTime()));
+            writer.write(',');
+            writer.write(escape(rs.getString(4)));
+            writer.write(',');
+            writer.write(escape(rs.getString(5)));
+            writer.write(',');
+            writer.write(String.valueOf(rs.getLong(6)));
+            writer.write(',');
+            writer.write(String.valueOf(rs.getLong(7)));
+            writer.write(',');
+            writer.write(escape(rs.getString(8)));
+            writer.write(',');
+            writer.write(escape(modelName(rs.getString(9))));
+            writer.write(',');
+            writer.write(String.valueOf(rs.getInt(10)));
+            writer.write(',');
+            writer.write(String.valueOf(rs.getInt(11)));
+            writer.write("\r\n");
+        }
+
+        // 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싼다
+        // 상품명/회원 아이디는 사용자가 입력한 값 - 엑셀이 수식으로 실행하지 않도록 수식 시작 문자 앞에 ' 를 붙인다
+        static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class JsonLinesRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        private JsonLinesRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // 응답 스트림은 컨테이너가 닫는다
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField(COLUMNS[0], rs.getLong(1));
+            generator.writeStringField(COLUMNS[1], rs.getString(2));
+            generator.writeStringField(COLUMNS[2], String.valueOf(rs.getTimestamp(3).toLocalDateTime()));
+            generator.writeStringField(COLUMNS[3], rs.getString(4));
+            generator.writeStringField(COLUMNS[4], rs.getString(5));
+            generator.writeNumberField(COLUMNS[5], rs.getLong(6));
+            generator.writeNumberField(COLUMNS[6], rs.getLong(7));
+            generator.writeStringField(COLUMNS[7], rs.getString(8));
+            generator.writeStringField(COLUMNS[8], modelName(rs.getString(9)));
+            generator.writeNumberField(COLUMNS[9], rs.getInt(10));
+            generator.writeNumberField(COLUMNS[10], rs.getInt(11));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.jsbs.casemall.service;
 
 import com.jsbs.casemall.constant.OrderStatus;
+import com.jsbs.casemall.constant.OutboxEventType;
 import com.jsbs.casemall.dto.CartDto;
 import com.jsbs.casemall.dto.CartItemDto;
+import com.jsbs.casemall.dto.CursorPageDto;
+import com.jsbs.casemall.dto.OrderHistoryCursor;
+import com.jsbs.casemall.dto.OrderHistoryItemDto;
 import com.jsbs.casemall.dto.OrderDto;
 import com.jsbs.casemall.dto.OrderItemDto;
 import com.jsbs.casemall.entity.*;
@@ -10,16 +14,21 @@ import com.jsbs.casemall.repository.*;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,6 +44,19 @@ public class OrderService {
     private final CartService cartService;
     private final ProductRepository productRepository;
     private final ProductModelRepository productModelRepository;
+    private final ProductStockService productStockService;
+    private final StockReservationService stockReservationService;
+    private final SalesRollupService salesRollupService;
+    private final MypageStatsCache mypageStatsCache;
+    private final OutboxService outboxService;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final int HISTORY_PAGE_SIZE = 5; // 주문내역 한 페이지에 표시할 항목 수
+
+    private static final String INSERT_ORDER_DETAIL_SQL =
+            "INSERT INTO order_detail (order_id, pr_id, model_id, order_price, count) VALUES (?, ?, ?, ?, ?)";
 
     // 주문 목록 가져오기
     @Transactional(readOnly = true)
@@ -49,6 +71,13 @@ public class OrderService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public OrderStatus getOrderStatus(String orderId) {
+        return orderRepository.findByOrderId(orderId)
+                .map(Order::getOrderStatus)
+                .orElseThrow(() -> new IllegalArgumentException("찾는 주문이 없습니다"));
+    }
+
     @Transactional(readOnly = true)
     public OrderDto getOrderByOrderId(String orderId) {
         // 최정 주문 완료한것 만 보여주기
@@ -78,40 +107,54 @@ public class OrderService {
         return dto;
     }
 
-    // 결재 성공 내역
+    // 결재 성공 내역 (보관된 주문이 있는 회원이면 보관 주문도 뒤에 붙인다)
     @Transactional(readOnly = true)
     public List<OrderDto> history(String userId){
         Users users = userRepository.findById(userId).orElseThrow(()->new IllegalArgumentException("회원을 찾을 수 없습니다"));
-        List<Order> findStatuesOrders = orderRepository.findByUsersAndOrderStatus(users,OrderStatus.ORDER);
+        List<Order> findStatuesOrders = orderRepository.findByUsersAndOrderStatusIn(users, OrderStatus.PAID); // 배송중/배송완료 포함
         List<OrderDto> orderDtos = new ArrayList<>();
 
         for (Order order : findStatuesOrders) {
             List<OrderItemDto> orderItemDtos = order.getOrderItems().stream()
                     .map(OrderItemDto::new)
                     .collect(Collectors.toList());
+            int totalPrice = order.getOrderItems().stream().mapToInt(OrderDetail::getTotalPrice).sum();
+            orderDtos.add(toHistoryDto(users, order.getId(), order.getOrderId(), order.getOrderDate(), orderItemDtos, totalPrice));
+        }
 
-            OrderDto dto = OrderDto.builder()
-                    .orderNo(order.getId())
-                    .totalPrice(order.getOrderItems().stream().mapToInt(OrderDetail::getTotalPrice).sum())
-                    .items(orderItemDtos)
-                    .userName(order.getUsers().getName())
-                    .orderId(order.getOrderId())
-                    .email(order.getUsers().getEmail())
-                    .phone(order.getUsers().getPhone())
-                    .pCode(order.getUsers().getPCode())
-                    .loadAddress(order.getUsers().getLoadAddr())
-                    .lotAddress(order.getUsers().getLotAddr())
-                    .detailAddress(order.getUsers().getDetailAddr())
-                    .orderTime(order.getOrderDate().toLocalDate())
-                    .build();
-            dto.tranceOther(dto.getPhone(), dto.getEmail());
-
-            orderDtos.add(dto);
+        if (orderArchiveService.hasArchive(userId)) {
+            for (OrderArchive order : orderArchiveRepository.findByUserIdAndOrderStatusIn(userId, OrderStatus.PAID)) {
+                List<OrderItemDto> orderItemDtos = order.getOrderItems().stream()
+                        .map(OrderItemDto::new)
+                        .collect(Collectors.toList());
+                int totalPrice = order.getOrderItems().stream().mapToInt(OrderDetailArchive::getTotalPrice).sum();
+                orderDtos.add(toHistoryDto(users, order.getId(), order.getOrderId(), order.getOrderDate(), orderItemDtos, totalPrice));
+            }
         }
         log.info("사이즈 확인 : {} " , orderDtos.size());
         return orderDtos;
     }
 
+    private static OrderDto toHistoryDto(Users users, Long orderNo, String orderId, LocalDateTime orderDate,
+                                         List<OrderItemDto> items, int totalPrice) {
+        OrderDto dto = OrderDto.builder()
+                .orderNo(orderNo)
+                .totalPrice(totalPrice)
+                .items(items)
+                .userName(users.getName())
+                .orderId(orderId)
+                .email(users.getEmail())
+                .phone(users.getPhone())
+                .pCode(users.getPCode())
+                .loadAddress(users.getLoadAddr())
+                .lotAddress(users.getLotAddr())
+                .detailAddress(users.getDetailAddr())
+                .orderTime(orderDate.toLocalDate())
+                .build();
+        dto.tranceOther(dto.getPhone(), dto.getEmail());
+        return dto;
+    }
+
     // 기존에 있는 오더 있는지 확인
     @Transactional(readOnly = true)
     public OrderDto getExistingOrderDto(Users user) {
@@ -147,14 +190,17 @@ public class OrderService {
     }
 
     // 주문 생성
+    // 장바구니 항목은 fetch join 한 번으로 읽고, 기존 주문 항목은 (상품 ID, 기종 ID) 맵으로 찾고,
+    // 새 주문 항목은 JDBC 배치 INSERT 한 번으로 저장한다 (장바구니 항목 수와 관계없이 쿼리 수 일정)
     public OrderDto createOrder(String userId, List<Long> itemIds) {
         Users user = userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("해당 유저를 찾을 수 없습니다"));
 
-        List<OrderDetail> orderDetails = new ArrayList<>();
         int totalAmount = 0;
+        Map<Long, Integer> decrease = new HashMap<>(); // 기종 ID -> 차감 수량
+        Map<Long, Integer> increase = new HashMap<>(); // 기종 ID -> 복구 수량
 
         // 기존 주문이 있는지 확인하고, 있는 경우 기존 주문에 항목 추가
-        List<Order> existingOrders = findExistingOrders(user);
+        List<Order> existingOrders = orderRepository.findWithItemsByUsersAndOrderStatus(user, OrderStatus.STAY);
         Order order;
         if (!existingOrders.isEmpty()) {
             order = existingOrders.get(0);
@@ -163,37 +209,49 @@ public class OrderService {
             orderRepository.save(order);
         }
 
+        // (상품 ID, 기종 ID) -> 주문 항목
+        Map<List<Long>, OrderDetail> orderItems = new LinkedHashMap<>();
+        for (OrderDetail item : order.getOrderItems()) {
+            orderItems.put(List.of(item.getProduct().getId(), item.getProductModel().getId()), item);
+        }
+
+        Map<Long, CartItem> cartItems = new HashMap<>();
+        for (CartItem cartItem : cartItemRepository.findAllWithProductByIdIn(itemIds)) {
+            cartItems.put(cartItem.getId(), cartItem);
+        }
+
+        List<OrderDetail> newItems = new ArrayList<>();
         for (Long cartItemId : itemIds) {
-            CartItem cartItem = cartItemRepository.findById(cartItemId).orElseThrow(() -> new IllegalArgumentException("찾는 아이템이 없습니다"));
+            CartItem cartItem = cartItems.get(cartItemId);
+            if (cartItem == null) {
+                throw new IllegalArgumentException("찾는 아이템이 없습니다");
+            }
             Product product = cartItem.getProduct();
             ProductModel productModel = cartItem.getProductModel();
 
             // 기존 주문 항목 중 동일한 제품 및 모델이 있는지 확인
-            boolean exists = order.getOrderItems().stream()
-                    .anyMatch(item -> item.getProduct().getId().equals(product.getId()) &&
-                            item.getProductModel().getId().equals(productModel.getId()));
+            List<Long> key = List.of(product.getId(), productModel.getId());
+            OrderDetail existingOrderDetail = orderItems.get(key);
 
-            if (!exists) {
-                // 기존 주문 항목이 없는 경우 새로 추가
+            if (existingOrderDetail == null) {
+                // 기존 주문 항목이 없는 경우 새로 추가 (저장은 아래에서 배치로)
                 OrderDetail orderDetail = OrderDetail.createOrderDetails(product, productModel, cartItem.getCount());
-                order.addOrderItem(orderDetail); // OrderDetail 객체를 Order 객체에 추가
+                orderDetail.setOrder(order);
+                decrease.merge(productModel.getId(), cartItem.getCount(), Integer::sum);
+                orderItems.put(key, orderDetail);
+                newItems.add(orderDetail);
                 totalAmount += orderDetail.getTotalPrice();
             } else {
                 // 기존 주문 항목에 있고 수량의 차이가 있다면
-                OrderDetail existingOrderDetail = order.getOrderItems().stream()
-                        .filter(item -> item.getProduct().getId().equals(product.getId()) &&
-                                item.getProductModel().getId().equals(productModel.getId()))
-                        .findFirst()
-                        .orElseThrow(() -> new IllegalArgumentException("주문 항목을 찾을 수 없습니다."));
-
                 int newCount = cartItem.getCount();
                 int oldCount = existingOrderDetail.getCount();
                 int difference = newCount - oldCount;
 
+                Long modelId = productModel.getId();
                 if (difference > 0) {
-                    existingOrderDetail.getProductModel().removeStock(difference);
+                    decrease.merge(modelId, difference, Integer::sum);
                 } else {
-                    existingOrderDetail.getProductModel().addStock(Math.abs(difference));
+                    increase.merge(modelId, Math.abs(difference), Integer::sum);
                 }
 
                 existingOrderDetail.setCount(newCount);
@@ -201,9 +259,14 @@ public class OrderService {
             }
         }
 
-        orderRepository.save(order);
+        // 주문의 모든 항목 재고를 한 번에 반영 (하나라도 부족하면 OutOfStockException 으로 주문 전체 롤백)
+        productStockService.increaseStocks(increase);
+        productStockService.decreaseStocks(decrease);
 
-        List<OrderItemDto> orderItemDtos = order.getOrderItems().stream()
+        insertOrderDetails(order.getId(), newItems);
+        stockReservationService.hold(order.getId()); // 결제 대기 시간 동안만 재고 점유
+
+        List<OrderItemDto> orderItemDtos = orderItems.values().stream()
                 .map(OrderItemDto::new)
                 .collect(Collectors.toList());
         OrderDto dto = OrderDto.builder()
@@ -224,6 +287,37 @@ public class OrderService {
         return dto;
     }
 
+    // 새 주문 항목을 배치 INSERT 한 번으로 저장하고 생성된 ID 를 채운다
+    // 주문 항목 ID 가 IDENTITY 라서 JPA 로 저장하면 항목마다 INSERT 가 따로 나가므로 JDBC 로 직접 저장
+    // (주문의 orderItems 컬렉션에는 넣지 않으므로 같은 트랜잭션 안에서 다시 저장되지 않는다)
+    private void insertOrderDetails(Long orderNo, List<OrderDetail> details) {
+        if (details.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_ORDER_DETAIL_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (OrderDetail detail : details) {
+                    ps.setLong(1, orderNo);
+                    ps.setLong(2, detail.getProduct().getId());
+                    ps.setLong(3, detail.getProductModel().getId());
+                    ps.setInt(4, detail.getOrderPrice());
+                    ps.setInt(5, detail.getCount());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (OrderDetail detail : details) {
+                        if (!keys.next()) {
+                            break;
+                        }
+                        detail.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
     // 주문 아이템 삭제
     public void removeOrderDetail(Long orderId, Long orderDetailId, String userId) {
         Users user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("유저를 찾을 수 없습니다"));
@@ -242,7 +336,7 @@ public class OrderService {
                 .orElseThrow(() -> new IllegalArgumentException("주문 항목을 찾을 수 없습니다."));
 
         // 재고 롤백
-        orderDetail.getProductModel().addStock(orderDetail.getCount());
+        productStockService.increaseStocks(Map.of(orderDetail.getProductModel().getId(), orderDetail.getCount()));
 
         // 주문 항목 삭제
         order.getOrderItems().remove(orderDetail);
@@ -250,8 +344,10 @@ public class OrderService {
         // 주문 항목이 없으면 주문 삭제
         if (order.getOrderItems().isEmpty()) {
             orderRepository.delete(order);
+            stockReservationService.release(order.getId());
         } else {
             orderRepository.save(order);
+            stockReservationService.hold(order.getId());
         }
     }
 
@@ -263,10 +359,11 @@ public class OrderService {
         int oldCount = orderDetail.getCount();
         int difference = newCount - oldCount;
 
+        Long modelId = orderDetail.getProductModel().getId();
         if (difference > 0) {
-            orderDetail.getProductModel().removeStock(difference);
+            productStockService.decreaseStocks(Map.of(modelId, difference));
         } else {
-            orderDetail.getProductModel().addStock(Math.abs(difference));
+            productStockService.increaseStocks(Map.of(modelId, Math.abs(difference)));
         }
         // 장바구니 항목도 업데이트
         CartItem cartItem = cartItemRepository.findByProductAndProductModel(orderDetail.getProduct(), orderDetail.getProductModel())
@@ -276,6 +373,7 @@ public class OrderService {
 
         orderDetail.setCount(newCount);
         orderDetailRepository.save(orderDetail);
+        stockReservationService.hold(orderDetail.getOrder().getId());
     }
 
 
@@ -314,9 +412,16 @@ public class OrderService {
     public void updateOrderWithPaymentInfo(String orderId, String paymentMethod, String payInfo) {
         try {
             Order order = orderRepository.findByOrderId(orderId).orElseThrow(() -> new EntityNotFoundException("주문정보를 찾을수 없습니다"));
+            // 결제 대기 중인 주문만 완료 처리 (만료되어 이미 취소/재고 복구된 주문이면 예외)
+            stockReservationService.confirm(order.getId());
             order.updatePaymentInfo(paymentMethod, payInfo);
             orderRepository.save(order);
-//            cartService.clearCart(orderId); // 결제가 다 되면 장바구니 비우기  > 주문한것만 지워야 하겠지
+            salesRollupService.recordPaid(order.getId()); // 일별 판매 집계 반영 (한 번만 더해야 하므로 같은 트랜잭션에서)
+            mypageStatsCache.invalidate(order.getUsers().getUserId()); // 마이페이지 통계 갱신
+            // 장바구니 비우기 등 후속 처리는 같은 트랜잭션에 이벤트만 남기고 OutboxDispatcher 가 결제 응답과 별개로 처리
+            outboxService.publish(OutboxEventType.ORDER_PAID, orderId, Map.of(
+                    "orderNo", order.getId(),
+                    "userId", order.getUsers().getUserId()));
 
         } catch (EntityNotFoundException e) {
             log.error("updateOrderWithPaymentInfo 에서 발생: {}", e.getMessage());
@@ -327,18 +432,22 @@ public class OrderService {
         }
     }
 
+    // 결제사 장애로 승인 결과를 확인하지 못한 주문 - 결제 확인중으로 두고 재시도를 기다린다
+    // 이미 만료/취소된 주문이면 false
+    public boolean markPaymentPending(String orderId) {
+        Order order = orderRepository.findByOrderId(orderId).orElseThrow(() -> new EntityNotFoundException("주문정보를 찾을수 없습니다"));
+        boolean pending = stockReservationService.markPending(order.getId());
+        log.info("결제 확인 대기 {}, 주문번호: {}", pending ? "전환" : "대상 아님(이미 처리됨)", order.getId());
+        return pending;
+    }
+
     public void failOrder(String orderId) {
         try {
             // 실패시 해당 주문아이디로 주문을 찾고 상태를 캔슬로 변경 > 재고 다시 원상복구
+            // 만료 스케줄러와 같은 경로 사용 (STAY/결제 확인중인 경우에만 취소되므로 재고가 두 번 복구되지 않음)
             Order order = orderRepository.findByOrderId(orderId).orElseThrow(() -> new EntityNotFoundException("주문정보를 찾을수 없습니다"));
-            order.setOrderStatus(OrderStatus.CANCEL);
-
-            for (OrderDetail orderDetail : order.getOrderItems()) {
-
-                orderDetail.getProductModel().addStock(orderDetail.getOrderPrice());
-            }
-
-            orderRepository.save(order);
+            int cancelled = stockReservationService.cancel(List.of(order.getId()));
+            log.info("주문 취소 {}, 주문번호: {}", cancelled > 0 ? "완료" : "대상 아님(이미 처리됨)", order.getId());
         } catch (EntityNotFoundException e) {
             log.error("failOrder 에서 발생: {}", e.getMessage());
             throw e;
@@ -348,10 +457,29 @@ public class OrderService {
         }
     }
 
+    // 결제사 승인은 됐지만 주문을 완료하지 못함 (결제 대기 시간 만료, 금액 불일치 등)
+    // 주문 취소와 결제 취소 이벤트를 한 트랜잭션에 남기고, 실제 결제사 취소는 PaymentRefundOutboxHandler 가 재시도하며 처리
+    // 이미 결제 완료된 주문(같은 결제의 중복 처리)이면 환불하지 않고 false
+    public boolean refundOrder(String orderId, String paymentKey, String reason) {
+        Order order = orderRepository.findByOrderId(orderId).orElseThrow(() -> new EntityNotFoundException("주문정보를 찾을수 없습니다"));
+        int cancelled = stockReservationService.cancel(List.of(order.getId()));
+        if (cancelled == 0 && order.getOrderStatus() != OrderStatus.CANCEL) {
+            log.error("결제 취소 대상 아님, 확인 필요: 주문번호={}, 상태={}, paymentKey={}", order.getId(), order.getOrderStatus(), paymentKey);
+            return false;
+        }
+        outboxService.publish(OutboxEventType.PAYMENT_REFUND, orderId, Map.of(
+                "paymentKey", paymentKey,
+                "reason", reason));
+        log.warn("결제 취소 요청 등록: 주문번호={}, 사유={}", order.getId(), reason);
+        return true;
+    }
+
     public OrderDto createOrderByNow(CartDto cartDto, long prId, String userid) {
         Users user = userRepository.findById(userid).orElseThrow(() -> new EntityNotFoundException("해당 유저를 찾을 수 없습니다"));
 
         int totalAmount = (int)cartDto.getTotalPrice();
+        Map<Long, Integer> decrease = new HashMap<>(); // 기종 ID -> 차감 수량
+        Map<Long, Integer> increase = new HashMap<>(); // 기종 ID -> 복구 수량
 
         // 기존 주문이 있는지 확인하고, 있는 경우 기존 주문에 항목 추가
         List<Order> existingOrders = findExistingOrders(user);
@@ -379,6 +507,7 @@ public class OrderService {
             if (!exists) {
                 // 기존 주문 항목이 없는 경우 새로 추가
                 OrderDetail orderDetail = OrderDetail.createOrderDetails(product, productModel, cartItemDto.getCount());
+                decrease.merge(productModel.getId(), cartItemDto.getCount(), Integer::sum);
                 order.addOrderItem(orderDetail); // OrderDetail 객체를 Order 객체에 추가
             } else {
                 // 기존 주문 항목에 있고 수량의 차이가 있다면
@@ -392,17 +521,23 @@ public class OrderService {
                 int oldCount = existingOrderDetail.getCount();
                 int difference = newCount - oldCount;
 
+                Long modelId = existingOrderDetail.getProductModel().getId();
                 if (difference > 0) {
-                    existingOrderDetail.getProductModel().removeStock(difference);
+                    decrease.merge(modelId, difference, Integer::sum);
                 } else {
-                    existingOrderDetail.getProductModel().addStock(Math.abs(difference));
+                    increase.merge(modelId, Math.abs(difference), Integer::sum);
                 }
 
                 existingOrderDetail.setCount(newCount);
             }
         }
 
+        // 주문의 모든 항목 재고를 한 번에 반영 (하나라도 부족하면 OutOfStockException 으로 주문 전체 롤백)
+        productStockService.increaseStocks(increase);
+        productStockService.decreaseStocks(decrease);
+
         orderRepository.save(order);
+        stockReservationService.hold(order.getId()); // 결제 대기 시간 동안만 재고 점유
 
         List<OrderItemDto> orderItemDtos = order.getOrderItems().stream()
                 .map(OrderItemDto::new)
@@ -425,57 +560,42 @@ public class OrderService {
         return dto;
     }
 
-    public List<OrderDto> findOrdersByDateRange(LocalDate startDate, LocalDate endDate) {
-        log.info("{}", orderRepository.findAllByOrderDateBetween(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()).size());
-        List<Order> orders = orderRepository.findAllByOrderDateBetween(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
-        List<OrderDto> orderDtos = new ArrayList<>();
-        for (Order order : orders) {
-            List<OrderItemDto> orderItemDtos = order.getOrderItems().stream()
-                    .map(OrderItemDto::new)
-                    .collect(Collectors.toList());
-
-            OrderDto dto = OrderDto.builder()
-                    .orderNo(order.getId())
-                    .totalPrice(order.getOrderItems().stream().mapToInt(OrderDetail::getTotalPrice).sum())
-                    .items(orderItemDtos)
-                    .userName(order.getUsers().getName())
-                    .orderId(order.getOrderId())
-                    .email(order.getUsers().getEmail())
-                    .phone(order.getUsers().getPhone())
-                    .pCode(order.getUsers().getPCode())
-                    .loadAddress(order.getUsers().getLoadAddr())
-                    .lotAddress(order.getUsers().getLotAddr())
-                    .detailAddress(order.getUsers().getDetailAddr())
-                    .orderTime(order.getOrderDate().toLocalDate())
-                    .build();
-            dto.tranceOther(dto.getPhone(), dto.getEmail());
-
-            orderDtos.add(dto);
-        }
-        return orderDtos;
+    // 기간 검색 한 페이지 - 기간 안의 주문 항목을 SQL 에서 한 페이지 분량만 조회 (키셋 페이징)
+    // 기간이 보관된 주문까지 거슬러 올라갈 때만 보관 테이블도 함께 조회
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> findOrdersByDateRange(LocalDate startDate, LocalDate endDate, String cursor) {
+        LocalDateTime from = startDate.atStartOfDay();
+        CursorPageDto<OrderHistoryItemDto> page = orderRepository.getOrderLinePageByDate(
+                from, endDate.plusDays(1).atStartOfDay(), OrderHistoryCursor.decode(cursor), HISTORY_PAGE_SIZE,
+                orderArchiveService.covers(from));
+        return page.map(OrderService::toOrderLineDto);
     }
 
+    // 주문내역 한 페이지 - 결제 완료 주문의 항목을 SQL 에서 한 페이지 분량만 조회 (키셋 페이징)
+    // 화면은 주문 하나에 항목 하나씩 담긴 OrderDto 목록을 그대로 사용
+    // 보관된 주문이 있는 회원만 보관 테이블도 함께 조회
     @Transactional(readOnly = true)
-    public Page<OrderDto> orderPage(List<OrderDto> orderDtos, int page) {
-        Pageable pageable = PageRequest.of(page, 5); // 한 페이지에 표시할 항목 수 5로 고정
-
-        // OrderDto 리스트를 펼쳐서 개별 OrderItemDto로 변환
-        List<OrderDto> allItems = orderDtos.stream()
-                .flatMap(orderDto -> orderDto.getItems().stream().map(item -> {
-                    return OrderDto.builder()
-                            .orderNo(orderDto.getOrderNo())
-                            .orderTime(orderDto.getOrderTime())
-                            .orderId(orderDto.getOrderId())
-                            .items(List.of(item))
-
-                            .build();
-                }))
-                .collect(Collectors.toList());
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), allItems.size());
+    public CursorPageDto<OrderDto> getOrderHistory(String userId, String cursor) {
+        CursorPageDto<OrderHistoryItemDto> page = orderRepository.getOrderHistoryPage(
+                userId, OrderHistoryCursor.decode(cursor), HISTORY_PAGE_SIZE, orderArchiveService.hasArchive(userId));
+        return page.map(OrderService::toOrderLineDto);
+    }
 
-        List<OrderDto> subList = allItems.subList(start, end);
-        return new PageImpl<>(subList, pageable, allItems.size());
+    // 주문 항목 한 줄을 화면용 OrderDto (항목 하나짜리) 로 변환
+    private static OrderDto toOrderLineDto(OrderHistoryItemDto line) {
+        OrderItemDto item = new OrderItemDto();
+        item.setOrderItemId(line.getOrderItemId());
+        item.setProductId(line.getProductId());
+        item.setProductName(line.getProductName());
+        item.setModelName(line.getModelName());
+        item.setCount(line.getCount());
+        item.setPrice(line.getPrice());
+        item.setImgUrl(line.getImgUrl());
+        return OrderDto.builder()
+                .orderNo(line.getOrderNo())
+                .orderId(line.getOrderId())
+                .orderTime(line.getOrderDate().toLocalDate())
+                .items(List.of(item))
+                .build();
     }
 }
@@ -0,0 +1,132 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.OrderStatus;
+import com.jsbs.casemall.entity.OrderStatusEvent;
+import com.jsbs.casemall.repository.OrderRepository;
+import com.jsbs.casemall.repository.OrderStatusEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 묶음마다 트랜잭션을 따로 열어서 잠금을 짧게 유지
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatusService {
+    // 주문 상태 일괄 변경 (배송중 / 배송완료 처리)
+    // 주문 엔티티를 하나씩 읽고 저장하지 않고, batch-size 건씩
+    // 1. 바꿀 수 있는 상태(OrderStatus 변경 규칙)의 주문만 잠그고
+    // 2. 이전 상태별로 UPDATE 한 번으로 바꾸고
+    // 3. 바뀐 주문의 변경 이력을 JDBC 배치로 추가한다
+    // 규칙에 맞지 않는 주문(결제 전, 취소, 이미 처리됨)은 건너뛰고 건수만 돌려준다
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO order_status_event (order_no, from_status, to_status, changed_at, changed_by) VALUES (?, ?, ?, ?, ?)";
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusEventRepository orderStatusEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.status.batch-size:1000}")
+    private int batchSize;
+
+    // 지정한 주문들을 target 상태로 변경, 실제로 바뀐 건수 반환
+    public int transition(List<Long> orderNos, OrderStatus target, String changedBy) {
+        Set<OrderStatus> sources = sourcesOf(target);
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(orderNos));
+        int changed = 0;
+        for (int from = 0; from < distinct.size(); from += batchSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + batchSize, distinct.size()));
+            Integer count = transactionTemplate.execute(status ->
+                    apply(orderRepository.lockByIdsAndStatus(chunk, sources), target, changedBy));
+            changed += count;
+        }
+        log.info("주문 상태 일괄 변경: {} {}건 요청, {}건 변경 ({})", target, distinct.size(), changed, changedBy);
+        return changed;
+    }
+
+    // 주문일이 [startDate, endDate] 인 주문 중 바꿀 수 있는 주문을 모두 target 상태로 변경 (하루치 출고 처리 등)
+    public int transitionByOrderDate(LocalDate startDate, LocalDate endDate, OrderStatus target, String changedBy) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("종료일이 시작일보다 빠릅니다.");
+        }
+        Set<OrderStatus> sources = sourcesOf(target);
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+
+        int changed = 0;
+        Long afterOrderNo = null;
+        while (true) {
+            Long after = afterOrderNo;
+            long[] result = transactionTemplate.execute(status -> {
+                Map<Long, OrderStatus> locked = orderRepository.lockByOrderDateAndStatus(from, to, sources, after, batchSize);
+                if (locked.isEmpty()) {
+                    return new long[]{0, 0, 0};
+                }
+                long last = Collections.max(locked.keySet()); // 주문 번호 순으로 잠갔으므로 다음 묶음은 이 다음부터
+                return new long[]{locked.size(), apply(locked, target, changedBy), last};
+            });
+            changed += (int) result[1];
+            if (result[0] < batchSize) {
+                break;
+            }
+            afterOrderNo = result[2];
+        }
+        log.info("주문 상태 기간 일괄 변경: {} ~ {} -> {} {}건 ({})", startDate, endDate, target, changed, changedBy);
+        return changed;
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderStatusEvent> getHistory(Long orderNo) {
+        return orderStatusEventRepository.findByOrderNoOrderByIdAsc(orderNo);
+    }
+
+    private static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        if (target != OrderStatus.SHIPPED && target != OrderStatus.COMPLETED) {
+            // 결제/취소는 재고, 매출 집계와 함께 바뀌어야 하므로 결제/주문 처리 경로에서만 변경
+            throw new IllegalArgumentException("일괄 변경할 수 없는 상태입니다. (" + target + ")");
+        }
+        return OrderStatus.sourcesOf(target);
+    }
+
+    // 잠근 주문을 이전 상태별로 UPDATE 하고 변경 이력 추가 - 호출한 트랜잭션 안에서 실행
+    private int apply(Map<Long, OrderStatus> locked, OrderStatus target, String changedBy) {
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        Map<OrderStatus, List<Long>> bySource = new EnumMap<>(OrderStatus.class);
+        locked.forEach((orderNo, status) -> bySource.computeIfAbsent(status, key -> new ArrayList<>()).add(orderNo));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int changed = 0;
+        for (Map.Entry<OrderStatus, List<Long>> entry : bySource.entrySet()) {
+            OrderStatus source = entry.getKey();
+            List<Long> orderNos = entry.getValue();
+            // 잠근 상태라 건수가 다를 수 없지만, 다르면 이력이 어긋나므로 되돌린다
+            long updated = orderRepository.updateStatus(orderNos, source, target);
+            if (updated != orderNos.size()) {
+                throw new IllegalStateException("주문 상태 변경 건수가 맞지 않습니다. (" + updated + " / " + orderNos.size() + ")");
+            }
+            jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, orderNos, orderNos.size(), (ps, orderNo) -> {
+                ps.setLong(1, orderNo);
+                ps.setString(2, source.name());
+                ps.setString(3, target.name());
+                ps.setTimestamp(4, now);
+                ps.setString(5, changedBy);
+            });
+            changed += orderNos.size();
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,158 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.OutboxEventType;
+import com.jsbs.casemall.entity.OutboxEvent;
+import com.jsbs.casemall.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@Slf4j
+public class OutboxDispatcher {
+    // 아웃박스 이벤트를 모아서 처리기(OutboxHandler)에 전달
+    // 1. 처리할 차례가 된 이벤트를 batch-size 건씩 선점 (선점 토큰 + 조건부 UPDATE 라 여러 서버가 같은 이벤트를 잡지 않음)
+    // 2. 이벤트 종류별 처리기를 모두 호출하고, 성공한 이벤트는 한번에 처리 완료 표시
+    // 3. 실패하면 재시도 간격을 두 배씩 늘리고, max-attempts 를 넘으면 멈춰 두고 로그를 남긴다
+    // 처리 완료 표시 전에 서버가 죽으면 lease 시간이 지난 뒤 다시 처리되므로 처리기는 여러 번 불려도 안전해야 한다
+    // 처리는 전용 스레드 하나에서만 돌므로 커밋 알림과 주기 확인이 겹쳐도 같은 서버에서 동시에 돌지 않는다
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<OutboxEventType, List<OutboxHandler>> handlers = new EnumMap<>(OutboxEventType.class);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.lease:PT1M}")
+    private Duration lease; // 선점 후 이 시간 안에 끝나지 않으면 다른 처리기가 다시 가져간다
+
+    @Value("${outbox.retry-backoff:PT5S}")
+    private Duration retryBackoff;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.retention:P7D}")
+    private Duration retention; // 처리 완료된 이벤트 보관 기간
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, TransactionTemplate transactionTemplate,
+                            List<OutboxHandler> handlerList) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        for (OutboxHandler handler : handlerList) {
+            handlers.computeIfAbsent(handler.eventType(), type -> new ArrayList<>()).add(handler);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // 이벤트가 커밋되면 호출 - 이미 처리 예약이 있으면 그 처리에서 함께 가져간다
+    public void wakeUp() {
+        if (wakeUpQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                wakeUpQueued.set(false);
+                dispatch();
+            });
+        }
+    }
+
+    // 커밋 알림을 놓친 이벤트(다른 서버 장애, 재시도 대기 등) 확인
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:5000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @Scheduled(cron = "${outbox.purge-cron:0 30 4 * * *}")
+    public void purge() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention)));
+        log.info("처리 완료된 아웃박스 이벤트 {}건 정리", deleted);
+    }
+
+    void dispatch() {
+        try {
+            int claimed;
+            do {
+                claimed = dispatchBatch();
+            } while (claimed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("아웃박스 처리 중 오류", e);
+        }
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        String token = UUID.randomUUID().toString();
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<Long> ids = outboxEventRepository.findDueIds(now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return Collections.<OutboxEvent>emptyList();
+            }
+            outboxEventRepository.claim(ids, token, now, now.plus(lease));
+            return outboxEventRepository.findClaimed(token);
+        });
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> processed = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            try {
+                for (OutboxHandler handler : handlers.getOrDefault(event.getEventType(), Collections.emptyList())) {
+                    handler.handle(event);
+                }
+                processed.add(event.getId());
+            } catch (RuntimeException e) {
+                fail(event, e);
+            }
+        }
+        if (!processed.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxEventRepository.markProcessed(processed, LocalDateTime.now()));
+        }
+        log.debug("아웃박스 이벤트 {}건 중 {}건 처리", events.size(), processed.size());
+        return events.size();
+    }
+
+    private void fail(OutboxEvent event, RuntimeException e) {
+        int attempts = event.getAttempts(); // 선점할 때 이미 1 증가
+        LocalDateTime next = null;
+        if (attempts < maxAttempts) {
+            next = LocalDateTime.now().plus(retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 10)));
+            log.warn("아웃박스 이벤트 처리 실패, {} 에 재시도: id={}, type={}, 시도 {}회", next, event.getId(),
+                    event.getEventType(), attempts, e);
+        } else {
+            log.error("아웃박스 이벤트 재시도 한도 초과, 처리 중단: id={}, type={}, aggregateId={}", event.getId(),
+                    event.getEventType(), event.getAggregateId(), e);
+        }
+        String error = String.valueOf(e.getMessage());
+        String message = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        LocalDateTime nextAttemptAt = next;
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.markFailed(event.getId(), nextAttemptAt, message));
+    }
+}
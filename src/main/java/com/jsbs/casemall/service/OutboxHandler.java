@@ -0,0 +1,14 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.OutboxEventType;
+import com.jsbs.casemall.entity.OutboxEvent;
+
+public interface OutboxHandler {
+    // 아웃박스 이벤트 후속 처리기
+    // 같은 이벤트가 두 번 이상 들어올 수 있으므로(최소 한 번 전달) 여러 번 처리해도 결과가 같아야 한다
+    // 예외를 던지면 이벤트의 모든 처리기가 나중에 다시 호출된다
+
+    OutboxEventType eventType();
+
+    void handle(OutboxEvent event);
+}
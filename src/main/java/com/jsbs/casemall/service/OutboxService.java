@@ -0,0 +1,45 @@
+package com.jsbs.casemall.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsbs.casemall.constant.OutboxEventType;
+import com.jsbs.casemall.entity.OutboxEvent;
+import com.jsbs.casemall.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+@Service
+@Transactional(propagation = Propagation.MANDATORY) // 주문 상태 변경과 같은 트랜잭션에서만 기록
+@RequiredArgsConstructor
+public class OutboxService {
+    // 후속 처리 이벤트 기록 - 호출한 트랜잭션이 커밋되면 디스패처를 바로 깨우고,
+    // 놓치더라도 디스패처가 주기적으로 테이블을 확인한다
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<OutboxDispatcher> outboxDispatcher; // 처리기 -> 서비스 -> 아웃박스 순환 참조 방지
+
+    public void publish(OutboxEventType eventType, String aggregateId, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("이벤트 내용을 JSON 으로 바꿀 수 없습니다.", e);
+        }
+        outboxEventRepository.save(OutboxEvent.create(eventType, aggregateId, json));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.getObject().wakeUp();
+            }
+        });
+    }
+}
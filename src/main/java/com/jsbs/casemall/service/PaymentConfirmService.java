@@ -0,0 +1,184 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.dto.PaymentConfirmResult;
+import com.jsbs.casemall.entity.PaymentConfirmation;
+import com.jsbs.casemall.exception.PaymentGatewayUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 결제사 호출 동안 트랜잭션/커넥션을 잡지 않는다
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentConfirmService {
+    // 결제 승인 처리 (결제사 승인 요청 + 검증 + 주문 완료)
+    // 결제사가 느리거나 장애일 때(서킷 열림, 동시 호출 한도 초과, 연결 실패, 시간 초과, 5xx) 결제를 실패시키지 않고
+    // 주문을 결제 확인중으로 돌려놓은 뒤 대기 화면으로 보내고, 스케줄러가 결제사가 회복되면 다시 승인 요청한다
+    // 재시도 한도(payment.retry.max-attempts)를 넘으면 주문을 취소하고 결제 취소를 요청한다 (승인됐다면 환불)
+
+    private static final int RETRY_BATCH_SIZE = 20;
+
+    // 이미 승인된 결제 - 시간 초과로 응답을 못 받았던 요청을 재시도하면 받는 코드
+    private static final String ALREADY_PROCESSED = "ALREADY_PROCESSED_PAYMENT";
+
+    // 승인이 끝난 결제 상태
+    private static final String DONE = "DONE";
+
+    private static final String EXPIRED_OUTCOME = "redirect:/fail?message=Payment could not be confirmed, cancelled&code=504";
+
+    private final TossPaymentClient tossPaymentClient;
+    private final PaymentIdempotencyService paymentIdempotencyService;
+    private final OrderService orderService;
+
+    @Value("${payment.retry.max-attempts:20}")
+    private int maxAttempts; // 확인 대기 건 재시도 한도
+
+    // 결제 승인 요청 - 이동할 화면 반환
+    // 새로고침/중복 클릭으로 같은 결제가 다시 들어오면 결제사를 다시 호출하지 않고 처음 결과를 돌려준다
+    public CompletableFuture<String> confirm(String paymentKey, String orderId, String amount) {
+        return paymentIdempotencyService.execute(paymentKey, orderId,
+                () -> confirmWithGateway(paymentKey, orderId, amount)
+                        .exceptionally(e -> {
+                            Throwable cause = unwrap(e);
+                            if (isGatewayUnavailable(cause)) {
+                                log.warn("결제사 호출 실패, 결제 확인 대기로 전환: orderId={}, {}", orderId, cause.toString());
+                                return defer(paymentKey, orderId, amount);
+                            }
+                            log.error("Unexpected error during payment confirmation", cause);
+                            return "redirect:/fail?message=Unexpected error&code=500";
+                        }),
+                "redirect:/fail?message=Payment confirmation in progress&code=409");
+    }
+
+    // 결제 확인 대기 건 재시도 - 서킷이 열려 있으면 다음 주기로 미룬다
+    @Scheduled(fixedDelayString = "${payment.retry.interval:10000}")
+    public void retryPending() {
+        if (!tossPaymentClient.isCallPermitted()) {
+            return;
+        }
+        List<PaymentConfirmation> due = paymentIdempotencyService.claimDueForRetry(RETRY_BATCH_SIZE);
+        for (PaymentConfirmation confirmation : due) {
+            String orderId = confirmation.getOrderId();
+            if (confirmation.getAttempts() >= maxAttempts) {
+                giveUp(confirmation);
+                continue;
+            }
+            confirmWithGateway(confirmation.getPaymentKey(), orderId, confirmation.getAmount())
+                    .whenComplete((outcome, e) -> {
+                        if (e == null) {
+                            paymentIdempotencyService.resolve(confirmation.getId(), outcome);
+                            log.info("결제 확인 대기 건 처리 완료: orderId={}, 재시도 {}회", orderId, confirmation.getAttempts() + 1);
+                            return;
+                        }
+                        Throwable cause = unwrap(e);
+                        if (isGatewayUnavailable(cause)) {
+                            log.warn("결제 확인 대기 건 재시도 실패, 다음 주기에 다시 시도: orderId={}, {}", orderId, cause.toString());
+                        } else {
+                            log.error("결제 확인 대기 건 처리 중 오류: orderId={}", orderId, cause);
+                        }
+                    });
+        }
+    }
+
+    // 재시도 한도를 넘은 확인 대기 건 - 결제 여부를 끝내 확인하지 못했으므로 주문을 취소하고 결제 취소를 요청
+    // (승인되지 않은 결제면 결제사가 NOT_FOUND_PAYMENT 로 응답하고 그대로 끝난다)
+    // 그 사이 다른 경로로 결제가 완료된 주문이면 취소하지 않고 완료 결과를 저장
+    private void giveUp(PaymentConfirmation confirmation) {
+        String orderId = confirmation.getOrderId();
+        String paymentKey = confirmation.getPaymentKey();
+        try {
+            if (orderService.refundOrder(orderId, paymentKey, "결제 확인 시간 초과")) {
+                paymentIdempotencyService.expire(confirmation.getId(), EXPIRED_OUTCOME);
+                log.error("결제 확인 대기 건 재시도 {}회 초과, 주문 취소 + 결제 취소 요청: orderId={}", maxAttempts, orderId);
+            } else {
+                paymentIdempotencyService.resolve(confirmation.getId(),
+                        "redirect:/success?orderId=" + orderId + "&amount=" + confirmation.getAmount() + "&paymentKey=" + paymentKey);
+            }
+        } catch (RuntimeException e) {
+            log.error("결제 확인 대기 건 종료 처리 실패, 다음 주기에 다시 시도: orderId={}", orderId, e);
+        }
+    }
+
+    // 결제사 승인 요청 + 검증 + 주문 완료 처리, 이동할 화면 반환
+    // 결제사 응답을 기다리는 동안 호출한 스레드는 반납되고, 이후 주문 처리는 결제 클라이언트 스레드에서 이어진다
+    // 이미 승인된 결제(시간 초과 후 재시도)는 승인 응답에 있던 결제 수단을 결제 조회로 다시 읽는다
+    private CompletableFuture<String> confirmWithGateway(String paymentKey, String orderId, String amount) {
+        return tossPaymentClient.confirm(paymentKey, orderId, amount)
+                .thenCompose(result -> ALREADY_PROCESSED.equals(result.getCode())
+                        ? tossPaymentClient.getPayment(paymentKey).thenApply(PaymentConfirmService::requireApproved)
+                        : CompletableFuture.completedFuture(result))
+                .thenApplyAsync(result -> {
+                    if (!result.isSuccess()) {
+                        log.error("Payment API error: {} - {}", result.getCode(), result.getMessage());
+                        orderService.failOrder(orderId);
+                        return "redirect:/fail?message=" + result.getMessage() + "&code=" + result.getCode();
+                    }
+
+                    String paymentMethod = result.getProvider();
+                    String payInfo = result.getMethod();
+                    log.info("성공 로그: paymentMethod={}, payInfo={}", paymentMethod, payInfo);
+
+                    // 검증시작 - 여기부터는 결제사 승인이 끝난 상태이므로 주문을 완료하지 못하면 결제도 취소한다
+                    if (!orderService.validatePayment(orderId, Integer.parseInt(amount))) {
+                        log.error("Payment validation failed for orderId: {}", orderId);
+                        orderService.refundOrder(orderId, paymentKey, "결제 금액 불일치"); // 주문 취소 + 결제 취소
+                        return "redirect:/fail?message=Payment validation failed&code=400";
+                    }
+                    try {
+                        // 장바구니 비우기 등 후속 처리는 아웃박스 이벤트로 결제 응답 이후에 처리된다
+                        orderService.updateOrderWithPaymentInfo(orderId, paymentMethod, payInfo);
+                    } catch (RuntimeException e) {
+                        // 결제 대기 시간이 지나 이미 취소되고 재고가 풀린 주문 등 (주문 완료 트랜잭션은 롤백됨)
+                        log.error("결제 승인 후 주문 완료 실패, 결제 취소: orderId={}", orderId, e);
+                        orderService.refundOrder(orderId, paymentKey, "주문 처리 실패");
+                        return "redirect:/fail?message=Order expired, payment cancelled&code=409";
+                    }
+                    return "redirect:/success?orderId=" + orderId + "&amount=" + amount + "&paymentKey=" + paymentKey;
+                }, tossPaymentClient.executor());
+    }
+
+    // 결제 조회 결과가 승인 완료가 아니면 주문을 완료하지 않는다 (재시도하다 한도를 넘으면 giveUp)
+    private static PaymentConfirmResult requireApproved(PaymentConfirmResult payment) {
+        if (!payment.isSuccess() || !DONE.equals(payment.getStatus())) {
+            throw new IllegalStateException("이미 승인된 결제를 확인하지 못했습니다: status=" + payment.getStatus()
+                    + ", " + payment.getCode() + " - " + payment.getMessage());
+        }
+        return payment;
+    }
+
+    // 주문을 결제 확인중으로 바꾸고 재시도 대기 등록
+    // 주문이 이미 만료/취소됐으면 결제사가 승인했을 수도 있으므로 결제 취소를 요청하고 실패 화면
+    // (승인되지 않은 결제면 결제사가 NOT_FOUND_PAYMENT 로 응답하고 그대로 끝난다)
+    private String defer(String paymentKey, String orderId, String amount) {
+        if (!orderService.markPaymentPending(orderId)) {
+            if (!orderService.refundOrder(orderId, paymentKey, "결제 확인 전 주문 만료")) {
+                // 그 사이 다른 경로로 결제가 완료된 주문
+                return "redirect:/success?orderId=" + orderId + "&amount=" + amount + "&paymentKey=" + paymentKey;
+            }
+            log.error("결제 확인 대기 전환 전에 주문이 만료됨, 결제 취소 요청: orderId={}", orderId);
+            return "redirect:/fail?message=Order expired, payment cancelled&code=409";
+        }
+        String outcome = "redirect:/pay/pending?orderId=" + orderId;
+        paymentIdempotencyService.defer(paymentKey, orderId, amount, outcome);
+        return outcome;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    // 결제사에 닿지 못했거나 결제사 장애 - 승인 여부를 모르므로 실패 처리하지 않는다
+    private static boolean isGatewayUnavailable(Throwable cause) {
+        return cause instanceof PaymentGatewayUnavailableException || cause instanceof IOException;
+    }
+}
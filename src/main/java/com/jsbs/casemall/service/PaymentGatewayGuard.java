@@ -0,0 +1,211 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.exception.PaymentGatewayUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@Slf4j
+public class PaymentGatewayGuard {
+    // 결제사 호출 보호 (벌크헤드 + 서킷 브레이커)
+    // 1. 벌크헤드 : 동시에 결제사로 나가는 호출 수를 제한하고, 한도를 넘으면 기다리지 않고 바로 거절한다
+    // 2. 서킷 브레이커 : 최근 호출 중 실패(연결 실패, 시간 초과, 5xx, 느린 응답) 비율이 기준을 넘으면 일정 시간 호출을 막고,
+    //    시간이 지나면 몇 건만 시험 삼아 보내서 모두 성공하면 다시 연다
+    // 거절된 결제는 PaymentConfirmService 가 결제 확인 대기로 돌려놓고 나중에 다시 승인 요청한다
+    // 상태/거절 수/호출 시간은 payment.gateway.* 지표로 내보낸다 (/actuator/metrics)
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final Semaphore bulkhead;
+    private final int maxConcurrent;
+    private final boolean[] window; // 최근 호출 결과 (true = 실패)
+    private final int minimumCalls;
+    private final int failureRateThreshold; // %
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Counter openRejections;
+    private final Counter bulkheadRejections;
+
+    // 아래 값은 this 로 동기화
+    private State state = State.CLOSED;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private long openUntil;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    public PaymentGatewayGuard(MeterRegistry meterRegistry,
+                               @Value("${payment.gateway.bulkhead.max-concurrent:20}") int maxConcurrent,
+                               @Value("${payment.gateway.circuit.window-size:20}") int windowSize,
+                               @Value("${payment.gateway.circuit.minimum-calls:10}") int minimumCalls,
+                               @Value("${payment.gateway.circuit.failure-rate-threshold:50}") int failureRateThreshold,
+                               @Value("${payment.gateway.circuit.slow-call-threshold:PT3S}") Duration slowCallThreshold,
+                               @Value("${payment.gateway.circuit.open-duration:PT30S}") Duration openDuration,
+                               @Value("${payment.gateway.circuit.half-open-calls:3}") int halfOpenCalls) {
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+
+        this.successTimer = Timer.builder("payment.gateway.calls").tag("outcome", "success")
+                .description("결제사 호출 시간").register(meterRegistry);
+        this.failureTimer = Timer.builder("payment.gateway.calls").tag("outcome", "failure")
+                .description("결제사 호출 시간").register(meterRegistry);
+        this.openRejections = Counter.builder("payment.gateway.rejected").tag("reason", "circuit_open")
+                .description("결제사 호출 거절 수").register(meterRegistry);
+        this.bulkheadRejections = Counter.builder("payment.gateway.rejected").tag("reason", "bulkhead_full")
+                .description("결제사 호출 거절 수").register(meterRegistry);
+        Gauge.builder("payment.gateway.circuit.state", this, guard -> guard.getState().ordinal())
+                .description("서킷 상태 (0 닫힘, 1 시험 중, 2 열림)").register(meterRegistry);
+        Gauge.builder("payment.gateway.bulkhead.in-use", this, guard -> guard.maxConcurrent - guard.bulkhead.availablePermits())
+                .description("진행 중인 결제사 호출 수").register(meterRegistry);
+    }
+
+    // 호출 허가 - 막혀 있으면 PaymentGatewayUnavailableException
+    // 받은 Permit 은 호출이 끝나면 반드시 success / failure 중 하나로 반납한다
+    public Permit acquire() {
+        boolean trial;
+        synchronized (this) {
+            refreshState();
+            if (state == State.OPEN) {
+                openRejections.increment();
+                throw new PaymentGatewayUnavailableException("결제사 호출이 일시적으로 차단되었습니다.");
+            }
+            trial = state == State.HALF_OPEN;
+            if (trial) {
+                if (halfOpenInFlight >= halfOpenCalls) {
+                    openRejections.increment();
+                    throw new PaymentGatewayUnavailableException("결제사 호출이 일시적으로 차단되었습니다.");
+                }
+                halfOpenInFlight++;
+            }
+        }
+        if (!bulkhead.tryAcquire()) {
+            if (trial) {
+                synchronized (this) {
+                    halfOpenInFlight--;
+                }
+            }
+            bulkheadRejections.increment();
+            throw new PaymentGatewayUnavailableException("결제사 동시 호출 한도를 초과했습니다.");
+        }
+        return new Permit(trial);
+    }
+
+    // 호출해도 되는 상태인지 (재시도 스케줄러가 막힌 동안 대기 건을 건드리지 않도록)
+    public synchronized boolean isCallPermitted() {
+        refreshState();
+        return state != State.OPEN;
+    }
+
+    public synchronized State getState() {
+        refreshState();
+        return state;
+    }
+
+    private void refreshState() {
+        if (state == State.OPEN && System.nanoTime() - openUntil >= 0) {
+            transition(State.HALF_OPEN);
+        }
+    }
+
+    private synchronized void record(boolean trial, boolean failed) {
+        if (trial) {
+            halfOpenInFlight--;
+            if (state != State.HALF_OPEN) {
+                return; // 다른 시험 호출 결과로 이미 상태가 바뀜
+            }
+            if (failed) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return; // 열리기 전에 나간 호출 결과는 반영하지 않는다
+        }
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+
+        if (windowCount >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCount) {
+            open();
+        }
+    }
+
+    private void open() {
+        openUntil = System.nanoTime() + openNanos;
+        transition(State.OPEN);
+    }
+
+    private void transition(State next) {
+        log.warn("결제사 서킷 상태 변경: {} -> {} (최근 {}건 중 실패 {}건)", state, next, windowCount, windowFailures);
+        state = next;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    public class Permit {
+        private final boolean trial;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(boolean trial) {
+            this.trial = trial;
+        }
+
+        // 응답을 받은 호출 - 느린 응답이면 실패로 센다
+        public void success() {
+            long elapsed = System.nanoTime() - start;
+            release(elapsed > slowCallNanos, elapsed);
+        }
+
+        // 연결 실패, 시간 초과, 5xx 응답
+        public void failure() {
+            release(true, System.nanoTime() - start);
+        }
+
+        private void release(boolean failed, long elapsed) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            bulkhead.release();
+            (failed ? failureTimer : successTimer).record(elapsed, TimeUnit.NANOSECONDS);
+            record(trial, failed);
+        }
+    }
+}
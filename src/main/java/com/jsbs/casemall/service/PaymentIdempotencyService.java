@@ -0,0 +1,242 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.entity.PaymentConfirmation;
+import com.jsbs.casemall.repository.PaymentConfirmationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 결제사 호출 동안 트랜잭션/커넥션을 잡지 않는다
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentIdempotencyService {
+    // 결제 승인 중복 처리 방지
+    // 1. (결제 키, 주문 아이디) 유니크 행을 먼저 넣은 요청만 실제 처리 (결제사 승인 + 주문 완료 + 장바구니 정리)
+    // 2. 처리가 끝나면 결과(이동할 화면)를 저장하고, 이후 같은 요청은 결제사 호출 없이 저장된 결과를 돌려준다
+    // 3. 처리 중에 들어온 중복 요청은 먼저 들어온 요청이 끝날 때까지 기다렸다가 같은 결과를 받는다
+    //    (같은 서버면 메모리에서 바로 기다리고, 다른 서버면 기록을 주기적으로 다시 읽는다)
+    // 4. 결제사 장애로 결과를 확정하지 못한 요청은 확인 대기(PENDING)로 두고 PaymentConfirmService 가 나중에 다시 승인 요청한다
+    //    (재시도 한도를 넘으면 EXPIRED 로 끝낸다)
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final PaymentConfirmationRepository paymentConfirmationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, CompletableFuture<String>> running = new ConcurrentHashMap<>(); // 이 서버에서 처리 중인 요청
+
+    // 다른 서버의 처리 결과를 기다릴 때 스레드를 재우지 않고 다시 확인할 작업을 예약한다
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-confirm-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${payment.confirm.wait-timeout:PT30S}")
+    private Duration waitTimeout; // 중복 요청이 먼저 들어온 요청을 기다리는 최대 시간
+
+    @Value("${payment.confirm.stale-after:PT2M}")
+    private Duration staleAfter; // 처리 중 상태가 이 시간보다 오래되면 처리하던 서버가 죽은 것으로 본다
+
+    @Value("${payment.retry.backoff:PT10S}")
+    private Duration retryBackoff; // 확인 대기 건 첫 재시도 간격 (재시도마다 두 배)
+
+    @Value("${payment.retry.max-backoff:PT5M}")
+    private Duration retryMaxBackoff;
+
+    // 처음 들어온 요청이면 action 을 실행하고 결과를 저장, 중복 요청이면 저장된(또는 기다린) 결과 반환
+    // 기다리다 시간이 지나면 timeoutOutcome 반환
+    // 결제사 응답이나 먼저 들어온 요청을 기다리는 동안 호출한 스레드를 붙잡지 않도록 결과는 비동기로 돌려준다
+    public CompletableFuture<String> execute(String paymentKey, String orderId,
+                                             Supplier<CompletableFuture<String>> action, String timeoutOutcome) {
+        String key = paymentKey + ":" + orderId;
+
+        Optional<Long> claimed = claim(paymentKey, orderId);
+        if (claimed.isPresent()) {
+            return run(key, claimed.get(), action);
+        }
+
+        long deadline = System.currentTimeMillis() + waitTimeout.toMillis();
+
+        // 중복 요청 - 같은 서버에서 처리 중이면 그 결과를 기다린다
+        CompletableFuture<String> local = running.get(key);
+        if (local != null) {
+            return local.copy()
+                    .completeOnTimeout(timeoutOutcome, waitTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .handle((outcome, e) -> e == null
+                            ? CompletableFuture.completedFuture(outcome)
+                            // 먼저 들어온 요청이 실패해서 기록을 지웠으면 기록을 다시 확인
+                            : poll(paymentKey, orderId, action, timeoutOutcome, deadline))
+                    .thenCompose(Function.identity());
+        }
+
+        // 다른 서버에서 처리 중이거나 이미 끝난 요청 - 기록을 주기적으로 다시 읽으면서 기다린다
+        return poll(paymentKey, orderId, action, timeoutOutcome, deadline);
+    }
+
+    // 결제사 장애로 결과를 확정하지 못한 요청 - 확인 대기로 두고, 그동안 중복 요청에는 outcome 을 돌려준다
+    public void defer(String paymentKey, String orderId, String amount, String outcome) {
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(retryBackoff);
+        transactionTemplate.executeWithoutResult(status ->
+                paymentConfirmationRepository.findByPaymentKeyAndOrderId(paymentKey, orderId)
+                        .ifPresent(confirmation -> confirmation.defer(amount, outcome, nextAttemptAt)));
+    }
+
+    // 재시도 시각이 된 확인 대기 건을 최대 limit 건 선점 (다른 서버와 겹치지 않게 하나씩 조건부 UPDATE)
+    // 선점할 때 다음 재시도 시각을 지수적으로 늘려 두므로, 재시도 중 서버가 죽어도 나중에 다시 잡힌다
+    public List<PaymentConfirmation> claimDueForRetry(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentConfirmation> claimed = new ArrayList<>();
+        for (PaymentConfirmation confirmation : paymentConfirmationRepository.findDueForRetry(now, PageRequest.of(0, limit))) {
+            long factor = 1L << Math.min(confirmation.getAttempts(), 10);
+            Duration backoff = retryBackoff.multipliedBy(factor);
+            LocalDateTime next = now.plus(backoff.compareTo(retryMaxBackoff) > 0 ? retryMaxBackoff : backoff);
+            Integer updated = transactionTemplate.execute(status ->
+                    paymentConfirmationRepository.claimRetry(confirmation.getId(), now, next));
+            if (updated != null && updated > 0) {
+                claimed.add(confirmation);
+            }
+        }
+        return claimed;
+    }
+
+    // 확인 대기 건의 최종 결과 저장 - 이후 중복 요청은 이 결과를 받는다
+    public void resolve(Long id, String outcome) {
+        transactionTemplate.executeWithoutResult(status ->
+                paymentConfirmationRepository.findById(id)
+                        .filter(PaymentConfirmation::isPending)
+                        .ifPresent(confirmation -> confirmation.complete(outcome)));
+    }
+
+    // 재시도 한도를 넘은 확인 대기 건 종료 - 이후 중복 요청은 이 결과를 받는다
+    public void expire(Long id, String outcome) {
+        transactionTemplate.executeWithoutResult(status ->
+                paymentConfirmationRepository.findById(id)
+                        .filter(PaymentConfirmation::isPending)
+                        .ifPresent(confirmation -> confirmation.expire(outcome)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private CompletableFuture<String> poll(String paymentKey, String orderId, Supplier<CompletableFuture<String>> action,
+                                           String timeoutOutcome, long deadline) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        pollOnce(paymentKey, orderId, action, timeoutOutcome, deadline, result);
+        return result;
+    }
+
+    private void pollOnce(String paymentKey, String orderId, Supplier<CompletableFuture<String>> action,
+                          String timeoutOutcome, long deadline, CompletableFuture<String> result) {
+        String key = paymentKey + ":" + orderId;
+        try {
+            Optional<PaymentConfirmation> confirmation = paymentConfirmationRepository.findByPaymentKeyAndOrderId(paymentKey, orderId);
+            if (confirmation.isEmpty()) {
+                // 먼저 들어온 요청이 실패해서 기록을 지운 경우 - 이번 요청이 다시 처리
+                Optional<Long> retried = claim(paymentKey, orderId);
+                if (retried.isPresent()) {
+                    propagate(run(key, retried.get(), action), result);
+                    return;
+                }
+            } else if (confirmation.get().isResolved()) {
+                log.info("중복 결제 승인 요청, 저장된 결과 반환: orderId={}", orderId);
+                result.complete(confirmation.get().getOutcome());
+                return;
+            } else if (takeOverIfStale(confirmation.get())) {
+                log.warn("처리 중 상태로 남은 결제 승인 이어서 처리: orderId={}", orderId);
+                propagate(run(key, confirmation.get().getId(), action), result);
+                return;
+            }
+
+            if (System.currentTimeMillis() > deadline) {
+                log.warn("결제 승인 대기 시간 초과: orderId={}", orderId);
+                result.complete(timeoutOutcome);
+                return;
+            }
+            scheduler.schedule(() -> pollOnce(paymentKey, orderId, action, timeoutOutcome, deadline, result),
+                    POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static void propagate(CompletableFuture<String> source, CompletableFuture<String> target) {
+        source.whenComplete((outcome, e) -> {
+            if (e == null) {
+                target.complete(outcome);
+            } else {
+                target.completeExceptionally(e);
+            }
+        });
+    }
+
+    // 처리 중 기록을 넣는다 - 유니크 제약에 걸리면 이미 다른 요청이 처리 중이거나 처리한 것
+    private Optional<Long> claim(String paymentKey, String orderId) {
+        try {
+            Long id = transactionTemplate.execute(status ->
+                    paymentConfirmationRepository.saveAndFlush(PaymentConfirmation.start(paymentKey, orderId)).getId());
+            return Optional.of(id);
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean takeOverIfStale(PaymentConfirmation confirmation) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = transactionTemplate.execute(status ->
+                paymentConfirmationRepository.takeOver(confirmation.getId(), now, now.minus(staleAfter)));
+        return updated != null && updated > 0;
+    }
+
+    private CompletableFuture<String> run(String key, Long id, Supplier<CompletableFuture<String>> action) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        running.put(key, future);
+        CompletableFuture<String> started;
+        try {
+            started = action.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((outcome, e) -> {
+            try {
+                if (e == null) {
+                    // 처리 중 확인 대기(defer)로 바뀌었으면 그 상태 그대로 둔다
+                    transactionTemplate.executeWithoutResult(status ->
+                            paymentConfirmationRepository.findById(id)
+                                    .filter(PaymentConfirmation::isInProgress)
+                                    .ifPresent(confirmation -> confirmation.complete(outcome)));
+                    future.complete(outcome);
+                } else {
+                    // 결과를 만들지 못했으면 기록을 지워서 재시도할 수 있게 한다
+                    transactionTemplate.executeWithoutResult(status -> paymentConfirmationRepository.deleteById(id));
+                    future.completeExceptionally(e);
+                }
+            } catch (RuntimeException ex) {
+                future.completeExceptionally(ex);
+            } finally {
+                running.remove(key, future);
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,53 @@
+package com.jsbs.casemall.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsbs.casemall.constant.OutboxEventType;
+import com.jsbs.casemall.dto.PaymentConfirmResult;
+import com.jsbs.casemall.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentRefundOutboxHandler implements OutboxHandler {
+    // 승인됐지만 주문을 완료하지 못한 결제를 결제사에 취소 요청
+    // 이미 취소된 결제나 승인되지 않은 결제(결제 확인을 포기한 주문)면 처리 완료로 보고,
+    // 그 밖의 실패는 예외를 던져 디스패처가 다시 시도하게 한다
+    // (재시도 한도를 넘은 이벤트는 outbox_event 에 남으므로 관리자가 직접 환불 처리)
+
+    private static final String ALREADY_CANCELED = "ALREADY_CANCELED_PAYMENT";
+
+    private static final String NOT_FOUND = "NOT_FOUND_PAYMENT";
+
+    private final TossPaymentClient tossPaymentClient;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public OutboxEventType eventType() {
+        return OutboxEventType.PAYMENT_REFUND;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("결제 취소 이벤트 내용을 읽을 수 없습니다. (id : " + event.getId() + ")", e);
+        }
+        String paymentKey = payload.get("paymentKey").asText();
+        PaymentConfirmResult result = tossPaymentClient.cancel(paymentKey, payload.get("reason").asText()).join();
+        if (NOT_FOUND.equals(result.getCode())) {
+            log.info("승인되지 않은 결제, 취소할 금액 없음: orderId={}, paymentKey={}", event.getAggregateId(), paymentKey);
+            return;
+        }
+        if (!result.isSuccess() && !ALREADY_CANCELED.equals(result.getCode())) {
+            throw new IllegalStateException("결제 취소 실패: " + result.getCode() + " - " + result.getMessage());
+        }
+        log.info("결제 취소 완료: orderId={}, paymentKey={}", event.getAggregateId(), paymentKey);
+    }
+}
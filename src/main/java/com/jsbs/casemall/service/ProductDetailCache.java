@@ -0,0 +1,125 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.dto.ProductFormDto;
+import com.jsbs.casemall.dto.ProductImgDto;
+import com.jsbs.casemall.dto.ProductModelDto;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ProductDetailCache {
+    // 상품 상세 화면용 캐시 (상품 + 이미지 목록 + 기종 목록)
+    // 수정/삭제/재고 변경시 상품의 버전을 올려서 이전 버전으로 만든 캐시는 쓰지 않는다 (버전은 StripedVersions 로 크기 고정)
+    // 같은 상품을 동시에 여러 요청이 조회하면 DB 조회는 한 번만 하고 나머지는 그 결과를 기다린다
+
+    private static final int MAX_ENTRIES = 1000;
+    private static final int VERSION_STRIPES = 4096;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final StripedVersions versions = new StripedVersions(VERSION_STRIPES);
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<ProductFormDto>> loading = new ConcurrentHashMap<>();
+
+    private static final ModelMapper modelMapper = new ModelMapper();
+
+    private static class Entry {
+        private final long version;
+        private final ProductFormDto product;
+
+        private Entry(long version, ProductFormDto product) {
+            this.version = version;
+            this.product = product;
+        }
+    }
+
+    public ProductDetailCache(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // 캐시에 있으면 복사본 반환, 없으면 loader 로 조회 (화면에서 값을 바꿔도 캐시는 그대로 유지되도록 복사)
+    public ProductFormDto get(Long prId, Function<Long, ProductFormDto> loader) {
+        long version = version(prId);
+        Entry entry = entries.get(prId);
+        if (entry != null && entry.version == version) {
+            return copy(entry.product);
+        }
+
+        CompletableFuture<ProductFormDto> future = new CompletableFuture<>();
+        CompletableFuture<ProductFormDto> running = loading.putIfAbsent(prId, future);
+        if (running != null) {
+            return copy(await(running)); // 다른 요청이 조회 중이면 그 결과 사용
+        }
+
+        try {
+            ProductFormDto product = readOnlyTransaction.execute(status -> loader.apply(prId));
+            // 조회하는 동안 버전이 바뀌었으면(수정/재고 변경) 캐시에 넣지 않는다
+            if (version(prId) == version) {
+                evictIfFull();
+                entries.put(prId, new Entry(version, product));
+            }
+            future.complete(product);
+            return copy(product);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(prId, future);
+        }
+    }
+
+    // 상품 수정/삭제/재고 변경시 호출
+    public void invalidate(Long prId) {
+        versions.bump(prId);
+        entries.remove(prId);
+    }
+
+    private long version(Long prId) {
+        return versions.current(prId);
+    }
+
+    private ProductFormDto await(CompletableFuture<ProductFormDto> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause; // EntityNotFoundException 등은 그대로 전달
+            }
+            throw e;
+        }
+    }
+
+    private void evictIfFull() {
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() >= MAX_ENTRIES && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static ProductFormDto copy(ProductFormDto source) {
+        ProductFormDto copied = modelMapper.map(source, ProductFormDto.class);
+        copied.setProductModelDtoList(source.getProductModelDtoList().stream()
+                .map(model -> modelMapper.map(model, ProductModelDto.class))
+                .collect(Collectors.toList()));
+        copied.setProductImgDtoList(source.getProductImgDtoList().stream()
+                .map(img -> modelMapper.map(img, ProductImgDto.class))
+                .collect(Collectors.toList()));
+        copied.setProductImgIds(new ArrayList<>(source.getProductImgIds()));
+        return copied;
+    }
+}
@@ -0,0 +1,311 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.entity.Product;
+import com.jsbs.casemall.entity.ProductModel;
+import com.jsbs.casemall.repository.ProductModelRepository;
+import com.jsbs.casemall.repository.ProductRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductFacetIndex {
+    // 카테고리 / 상품 종류 / 기종 필터용 메모리 비트맵 색인
+    // 상품마다 슬롯 번호를 하나 주고, 조건(enum 값)마다 해당 상품 슬롯에 비트를 켠다
+    // 필터 조합은 비트 AND, 필터별 개수는 AND 후 cardinality 로 계산하므로 COUNT 쿼리가 필요 없다
+
+    private final ProductRepository productRepository;
+    private final ProductModelRepository productModelRepository;
+
+    // 상품 ID <-> 슬롯
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final List<Long> slotProductIds = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>(); // 삭제된 상품 슬롯 재사용
+
+    // 상품별 색인 정보 (재고 변경시 비트 다시 계산용)
+    private final Map<Long, FacetProduct> products = new HashMap<>();
+
+    private final BitSet live = new BitSet(); // 색인된 상품 전체
+    private final BitSet inStock = new BitSet(); // 재고가 있는 기종이 하나라도 있는 상품
+    private final Map<ProductCategory, BitSet> categoryBits = newBitSets(ProductCategory.class);
+    private final Map<ProductType, BitSet> typeBits = newBitSets(ProductType.class);
+    private final Map<ProductModelSelect, BitSet> modelBits = newBitSets(ProductModelSelect.class); // 기종 판매 여부
+    private final Map<ProductModelSelect, BitSet> modelInStockBits = newBitSets(ProductModelSelect.class); // 기종 재고 여부
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static class FacetProduct {
+        private final ProductCategory category;
+        private final ProductType type;
+        private final Map<Long, ModelStock> models = new HashMap<>(); // 기종 ID -> 재고
+
+        private FacetProduct(ProductCategory category, ProductType type) {
+            this.category = category;
+            this.type = type;
+        }
+    }
+
+    private static class ModelStock {
+        private final ProductModelSelect modelSelect;
+        private final int stock;
+
+        private ModelStock(ProductModelSelect modelSelect, Integer stock) {
+            this.modelSelect = modelSelect;
+            this.stock = stock != null ? stock : 0;
+        }
+    }
+
+    // 필터 조회 결과 (상품 ID 는 최신순)
+    @Getter
+    public static class Result {
+        private final List<Long> productIds;
+        private final Map<ProductCategory, Integer> categoryCounts;
+        private final Map<ProductType, Integer> typeCounts;
+        private final Map<ProductModelSelect, Integer> modelCounts;
+
+        private Result(List<Long> productIds, Map<ProductCategory, Integer> categoryCounts,
+                       Map<ProductType, Integer> typeCounts, Map<ProductModelSelect, Integer> modelCounts) {
+            this.productIds = productIds;
+            this.categoryCounts = categoryCounts;
+            this.typeCounts = typeCounts;
+            this.modelCounts = modelCounts;
+        }
+    }
+
+    // 애플리케이션 시작시 전체 상품/기종으로 색인 생성
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        long start = System.currentTimeMillis();
+        Map<Long, FacetProduct> loaded = new HashMap<>();
+        for (Object[] row : productRepository.findAllForFacetIndex()) {
+            loaded.put((Long) row[0], new FacetProduct((ProductCategory) row[1], (ProductType) row[2]));
+        }
+        for (Object[] row : productModelRepository.findAllForFacetIndex()) {
+            FacetProduct product = loaded.get((Long) row[0]);
+            if (product != null) {
+                product.models.put((Long) row[1], new ModelStock((ProductModelSelect) row[2], (Integer) row[3]));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            loaded.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("상품 필터 색인 생성 완료: {}건, {}ms", loaded.size(), System.currentTimeMillis() - start);
+    }
+
+    // 상품 등록/수정 커밋 후 호출 - DB 에서 상품과 기종을 다시 읽어서 색인
+    // 커밋 후 콜백에서 호출되므로 기존 트랜잭션에 참여하지 않도록 새 트랜잭션 사용
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void refresh(Long productId) {
+        Optional<Product> found = productRepository.findById(productId);
+        if (found.isEmpty()) {
+            remove(productId);
+            return;
+        }
+        Product product = found.get();
+        index(productId, product, productModelRepository.findByProductId(productId));
+    }
+
+    // 기종 목록이 이미 채워진 상품으로 색인 (대량 등록 등에서 커밋 후 호출)
+    public void index(Product product) {
+        index(product.getId(), product, product.getProductModelList());
+    }
+
+    private void index(Long productId, Product product, List<ProductModel> productModels) {
+        FacetProduct facetProduct = new FacetProduct(product.getProductCategory(), product.getProductType());
+        for (ProductModel productModel : productModels) {
+            facetProduct.models.put(productModel.getId(),
+                    new ModelStock(productModel.getProductModelSelect(), productModel.getPrStock()));
+        }
+
+        lock.writeLock().lock();
+        try {
+            put(productId, facetProduct);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 기종 재고 변경 - 색인에 없는 상품(등록 중인 상품)은 refresh 에서 반영되므로 무시
+    public void updateStock(Long productId, Long modelId, ProductModelSelect modelSelect, Integer stock) {
+        lock.writeLock().lock();
+        try {
+            FacetProduct product = products.get(productId);
+            if (product == null) {
+                return;
+            }
+            product.models.put(modelId, new ModelStock(modelSelect, stock));
+            markModels(slots.get(productId), product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeModel(Long productId, Long modelId) {
+        lock.writeLock().lock();
+        try {
+            FacetProduct product = products.get(productId);
+            if (product == null || product.models.remove(modelId) == null) {
+                return;
+            }
+            markModels(slots.get(productId), product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 상품 삭제시 호출
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(productId);
+            if (slot == null) {
+                return;
+            }
+            products.remove(productId);
+            clearSlot(slot);
+            slotProductIds.set(slot, null);
+            freeSlots.push(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 조건에 맞는 상품 ID 목록과 필터별 개수 (null 인 조건은 전체)
+    // 필터별 개수는 해당 필터를 제외한 나머지 조건으로 계산 (다른 값을 골랐을 때 나올 개수)
+    public Result query(ProductCategory category, ProductType type, ProductModelSelect model, boolean inStockOnly) {
+        lock.readLock().lock();
+        try {
+            BitSet categoryFilter = category != null ? categoryBits.get(category) : live;
+            BitSet typeFilter = type != null ? typeBits.get(type) : live;
+            BitSet modelFilter = modelFilter(model, inStockOnly);
+
+            BitSet matched = and(categoryFilter, typeFilter, modelFilter);
+            List<Long> productIds = new ArrayList<>(matched.cardinality());
+            for (int slot = matched.nextSetBit(0); slot >= 0; slot = matched.nextSetBit(slot + 1)) {
+                productIds.add(slotProductIds.get(slot));
+            }
+            productIds.sort(Comparator.reverseOrder());
+
+            Map<ProductCategory, Integer> categoryCounts = counts(categoryBits, and(typeFilter, modelFilter));
+            Map<ProductType, Integer> typeCounts = counts(typeBits, and(categoryFilter, modelFilter));
+            Map<ProductModelSelect, Integer> modelCounts =
+                    counts(inStockOnly ? modelInStockBits : modelBits, and(categoryFilter, typeFilter));
+
+            return new Result(productIds, categoryCounts, typeCounts, modelCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet modelFilter(ProductModelSelect model, boolean inStockOnly) {
+        if (model != null) {
+            return inStockOnly ? modelInStockBits.get(model) : modelBits.get(model);
+        }
+        return inStockOnly ? inStock : live;
+    }
+
+    // writeLock 안에서 호출
+    private void put(Long productId, FacetProduct product) {
+        Integer slot = slots.get(productId);
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? slotProductIds.size() : freeSlots.pop();
+            if (slot == slotProductIds.size()) {
+                slotProductIds.add(productId);
+            } else {
+                slotProductIds.set(slot, productId);
+            }
+            slots.put(productId, slot);
+        } else {
+            clearSlot(slot);
+        }
+        products.put(productId, product);
+
+        live.set(slot);
+        if (product.category != null) {
+            categoryBits.get(product.category).set(slot);
+        }
+        if (product.type != null) {
+            typeBits.get(product.type).set(slot);
+        }
+        markModels(slot, product);
+    }
+
+    // 기종/재고 비트만 다시 계산
+    private void markModels(int slot, FacetProduct product) {
+        inStock.clear(slot);
+        modelBits.values().forEach(bits -> bits.clear(slot));
+        modelInStockBits.values().forEach(bits -> bits.clear(slot));
+
+        for (ModelStock model : product.models.values()) {
+            if (model.modelSelect == null) {
+                continue;
+            }
+            modelBits.get(model.modelSelect).set(slot);
+            if (model.stock > 0) {
+                modelInStockBits.get(model.modelSelect).set(slot);
+                inStock.set(slot);
+            }
+        }
+    }
+
+    private void clearSlot(int slot) {
+        live.clear(slot);
+        categoryBits.values().forEach(bits -> bits.clear(slot));
+        typeBits.values().forEach(bits -> bits.clear(slot));
+        markModels(slot, new FacetProduct(null, null));
+    }
+
+    private static BitSet and(BitSet... filters) {
+        BitSet result = (BitSet) filters[0].clone();
+        for (int i = 1; i < filters.length; i++) {
+            result.and(filters[i]);
+        }
+        return result;
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> counts(Map<E, BitSet> facet, BitSet base) {
+        Map<E, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<E, BitSet> entry : facet.entrySet()) {
+            BitSet bits = (BitSet) entry.getValue().clone();
+            bits.and(base);
+            counts.put(entry.getKey(), bits.cardinality());
+        }
+        return counts;
+    }
+
+    private static <E extends Enum<E>> Map<E, BitSet> newBitSets(Class<E> type) {
+        Map<E, BitSet> bitSets = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            bitSets.put(value, new BitSet());
+        }
+        return bitSets;
+    }
+}
@@ -0,0 +1,87 @@
+package com.jsbs.casemall.service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Getter
+public class ProductImportJob {
+    // 상품 대량 등록 작업 진행 상황 (조회 API 에서 그대로 JSON 으로 내려준다)
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private static final int MAX_ERRORS = 1000; // 오류가 많아도 메모리를 계속 쓰지 않도록 제한
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final String fileName;
+
+    private volatile Status status = Status.RUNNING;
+
+    private final AtomicInteger processed = new AtomicInteger(); // 읽은 행 수
+
+    private final AtomicInteger succeeded = new AtomicInteger(); // 저장된 상품 수
+
+    private final AtomicInteger failed = new AtomicInteger(); // 실패한 행 수
+
+    private final List<RowError> errors = new CopyOnWriteArrayList<>(); // 실패한 행 (최대 MAX_ERRORS 건)
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private volatile LocalDateTime finishedAt;
+
+    private volatile String message; // 작업 전체가 중단된 경우 사유
+
+    @Getter
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        private RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+    }
+
+    ProductImportJob(String fileName) {
+        this.fileName = fileName;
+    }
+
+    // 초당 저장 상품 수
+    public long getProductsPerSecond() {
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return succeeded.get() * 1000L / millis;
+    }
+
+    void rowFailed(long line, String message) {
+        processed.incrementAndGet();
+        failed.incrementAndGet();
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    void rowsSaved(int count) {
+        processed.addAndGet(count);
+        succeeded.addAndGet(count);
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void abort(String message) {
+        this.message = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+}
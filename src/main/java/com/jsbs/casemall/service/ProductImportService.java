@@ -0,0 +1,413 @@
+package com.jsbs.casemall.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.dto.ProductImportRow;
+import com.jsbs.casemall.entity.Product;
+import com.jsbs.casemall.entity.ProductImg;
+import com.jsbs.casemall.entity.ProductModel;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.thymeleaf.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductImportService {
+    // 공급사 상품 목록 대량 등록
+    // 파일을 한 줄씩 읽어서 CHUNK_SIZE 개씩 한 트랜잭션으로 저장한다 (메모리에는 한 청크만 유지)
+    // 상품/기종/이미지 ID 가 시퀀스(테이블) 방식이라 hibernate.jdbc.batch_size 설정으로 INSERT 가 묶여서 나간다
+    //
+    // CSV : 첫 줄은 헤더 (prName,prDetail,prPrice,productCategory,productType,models,imgUrls)
+    //       models = IPHONE15:10|GALAXYS24:5 , imgUrls = /images/a.jpg|/images/b.jpg
+    // JSON Lines : 한 줄에 ProductImportRow 하나 ({"prName":..., "models":{"IPHONE15":10}, "imgUrls":[...]})
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final int MAX_FINISHED_JOBS = 100; // 끝난 작업은 최근 것만 남긴다
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("prName", "prDetail", "prPrice", "productCategory", "productType", "models", "imgUrls");
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final HomeCatalogSnapshot homeCatalogSnapshot;
+
+    private final Map<String, ProductImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${product.import.job-retention:PT1H}")
+    private Duration jobRetention; // 끝난 작업 결과를 조회할 수 있는 시간
+
+    // 등록 작업은 한 번에 하나씩 (동시에 여러 파일을 올려도 DB 에 몰리지 않도록)
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private enum Format {
+        CSV, JSON_LINES
+    }
+
+    private static class PendingRow {
+        private final long line;
+        private final ProductImportRow row;
+
+        private PendingRow(long line, ProductImportRow row) {
+            this.line = line;
+            this.row = row;
+        }
+    }
+
+    // 업로드 파일을 임시 파일로 옮기고 백그라운드에서 등록 시작
+    public ProductImportJob startImport(MultipartFile file) throws IOException {
+        String fileName = Objects.requireNonNullElse(file.getOriginalFilename(), "");
+        Format format = formatOf(fileName);
+
+        Path tempFile = Files.createTempFile("product-import-", ".tmp");
+        file.transferTo(tempFile);
+
+        evictFinishedJobs();
+        ProductImportJob job = new ProductImportJob(fileName);
+        jobs.put(job.getId(), job);
+        executor.submit(() -> run(job, tempFile, format));
+        log.info("상품 대량 등록 시작: {}, 작업 ID: {}", fileName, job.getId());
+        return job;
+    }
+
+    public Optional<ProductImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    // 보관 시간이 지난 작업 정리 (진행 중인 작업은 남긴다)
+    @Scheduled(fixedDelayString = "${product.import.evict-interval:600000}")
+    public void evictFinishedJobs() {
+        evictFinished(jobs, LocalDateTime.now().minus(jobRetention), MAX_FINISHED_JOBS);
+    }
+
+    // expiredBefore 이전에 끝난 작업을 지우고, 끝난 작업이 maxFinished 를 넘으면 오래된 것부터 지운다
+    static void evictFinished(Map<String, ProductImportJob> jobs, LocalDateTime expiredBefore, int maxFinished) {
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(expiredBefore));
+
+        List<ProductImportJob> finished = new ArrayList<>();
+        for (ProductImportJob job : jobs.values()) {
+            if (job.getFinishedAt() != null) {
+                finished.add(job);
+            }
+        }
+        if (finished.size() > maxFinished) {
+            finished.sort(Comparator.comparing(ProductImportJob::getFinishedAt));
+            for (ProductImportJob job : finished.subList(0, finished.size() - maxFinished)) {
+                jobs.remove(job.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Format formatOf(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return Format.CSV;
+        }
+        if (lower.endsWith(".jsonl") || lower.endsWith(".ndjson")) {
+            return Format.JSON_LINES;
+        }
+        throw new IllegalArgumentException("지원하지 않는 파일 형식입니다. (csv, jsonl)");
+    }
+
+    private void run(ProductImportJob job, Path file, Format format) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            Map<String, Integer> header = null;
+            long lineNo = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (lineNo == 1) {
+                    line = stripBom(line); // 엑셀에서 저장한 UTF-8 CSV 는 BOM 으로 시작
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && header == null) {
+                    header = csvHeader(line);
+                    continue;
+                }
+                try {
+                    ProductImportRow row = format == Format.CSV ? csvRow(header, line) : jsonRow(line);
+                    validate(row);
+                    chunk.add(new PendingRow(lineNo, row));
+                } catch (IllegalArgumentException e) {
+                    job.rowFailed(lineNo, e.getMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    saveChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            saveChunk(job, chunk);
+            job.complete();
+            log.info("상품 대량 등록 완료: {}건 저장, {}건 실패, 초당 {}건",
+                    job.getSucceeded(), job.getFailed(), job.getProductsPerSecond());
+        } catch (Exception e) {
+            log.error("상품 대량 등록 중단, 작업 ID: {}", job.getId(), e);
+            job.abort(e.getMessage());
+        } finally {
+            homeCatalogSnapshot.requestRebuild();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("임시 파일 삭제 실패: {}", file);
+            }
+        }
+    }
+
+    // 한 청크를 한 트랜잭션으로 저장, 실패하면 어느 행이 문제인지 찾기 위해 행 단위로 다시 저장
+    private void saveChunk(ProductImportJob job, List<PendingRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Product> saved = transactionTemplate.execute(status -> persist(chunk));
+            job.rowsSaved(saved.size());
+            index(saved);
+        } catch (RuntimeException e) {
+            log.warn("청크 저장 실패, 행 단위로 다시 저장합니다: {}", e.getMessage());
+            for (PendingRow pendingRow : chunk) {
+                try {
+                    List<Product> saved = transactionTemplate.execute(status -> persist(List.of(pendingRow)));
+                    job.rowsSaved(saved.size());
+                    index(saved);
+                } catch (RuntimeException rowError) {
+                    job.rowFailed(pendingRow.line, rootMessage(rowError));
+                }
+            }
+        }
+    }
+
+    private List<Product> persist(List<PendingRow> rows) {
+        List<Product> products = new ArrayList<>(rows.size());
+        for (PendingRow pendingRow : rows) {
+            Product product = toProduct(pendingRow.row);
+            em.persist(product); // 기종, 이미지는 cascade 로 같이 저장
+            products.add(product);
+        }
+        em.flush();
+        em.clear(); // 다음 청크를 위해 영속성 컨텍스트 비우기
+        return products;
+    }
+
+    // 검색/필터 색인에 바로 반영 (커밋된 상품만)
+    private void index(List<Product> products) {
+        for (Product product : products) {
+            productSearchIndex.index(product.getId(), product.getPrName());
+            productFacetIndex.index(product);
+        }
+    }
+
+    private Product toProduct(ProductImportRow row) {
+        Product product = new Product();
+        product.setPrName(row.getPrName());
+        product.setPrDetail(row.getPrDetail());
+        product.setPrPrice(row.getPrPrice());
+        product.setProductCategory(ProductCategory.valueOf(row.getProductCategory()));
+        product.setProductType(ProductType.valueOf(row.getProductType()));
+
+        //기종이 없으면 saveProduct 와 같이 기본 모델로 저장
+        Map<String, Integer> models = row.getModels().isEmpty()
+                ? Map.of(ProductModelSelect.DEFAULT_MODEL.name(), 0)
+                : row.getModels();
+        for (Map.Entry<String, Integer> model : models.entrySet()) {
+            ProductModel productModel = new ProductModel();
+            productModel.setProductModelSelect(ProductModelSelect.valueOf(model.getKey()));
+            productModel.setPrStock(model.getValue() != null ? model.getValue() : 0);
+            product.addProductModel(productModel);
+        }
+        product.updateSellStatus(); // 재고 있는 기종 수로 판매/품절 결정
+
+        for (int i = 0; i < row.getImgUrls().size(); i++) {
+            ProductImg productImg = new ProductImg();
+            productImg.setImgUrl(row.getImgUrls().get(i));
+            productImg.setPrMainImg(i == 0 ? "Y" : "N");
+            product.addProductImg(productImg);
+        }
+        return product;
+    }
+
+    // 저장 전에 걸러낼 수 있는 오류는 여기서 (IllegalArgumentException 메시지가 행 오류로 기록됨)
+    static void validate(ProductImportRow row) {
+        if (StringUtils.isEmptyOrWhitespace(row.getPrName())) {
+            throw new IllegalArgumentException("상품명은 필수 입력 값입니다.");
+        }
+        if (StringUtils.isEmptyOrWhitespace(row.getPrDetail())) {
+            throw new IllegalArgumentException("상품 설명는 필수 입력 값입니다.");
+        }
+        if (row.getPrPrice() == null || row.getPrPrice() <= 0) {
+            throw new IllegalArgumentException("가격은 양수이어야 합니다.");
+        }
+        parseEnum(ProductCategory.class, row.getProductCategory(), "카테고리");
+        parseEnum(ProductType.class, row.getProductType(), "상품 종류");
+        for (Map.Entry<String, Integer> model : row.getModels().entrySet()) {
+            parseEnum(ProductModelSelect.class, model.getKey(), "기종");
+            if (model.getValue() != null && model.getValue() < 0) {
+                throw new IllegalArgumentException("재고는 0 또는 양수이어야 합니다. (" + model.getKey() + ")");
+            }
+        }
+        for (String imgUrl : row.getImgUrls()) {
+            if (StringUtils.isEmptyOrWhitespace(imgUrl)) {
+                throw new IllegalArgumentException("이미지 URL 이 비어 있습니다.");
+            }
+        }
+    }
+
+    private static <E extends Enum<E>> void parseEnum(Class<E> type, String value, String label) {
+        try {
+            Enum.valueOf(type, value);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("잘못된 " + label + " 값입니다: " + value);
+        }
+    }
+
+    ProductImportRow jsonRow(String line) {
+        try {
+            ProductImportRow row = objectMapper.readValue(line, ProductImportRow.class);
+            if (row.getModels() == null) {
+                row.setModels(new LinkedHashMap<>());
+            }
+            if (row.getImgUrls() == null) {
+                row.setImgUrls(new ArrayList<>());
+            }
+            return row;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON 형식이 올바르지 않습니다: " + e.getOriginalMessage());
+        }
+    }
+
+    static Map<String, Integer> csvHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> columns = splitCsv(line);
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim(), i);
+        }
+        for (String column : CSV_COLUMNS.subList(0, 5)) {
+            if (!header.containsKey(column)) {
+                throw new IllegalArgumentException("CSV 헤더에 " + column + " 컬럼이 없습니다.");
+            }
+        }
+        return header;
+    }
+
+    static ProductImportRow csvRow(Map<String, Integer> header, String line) {
+        List<String> values = splitCsv(line);
+        ProductImportRow row = new ProductImportRow();
+        row.setPrName(csvValue(header, values, "prName"));
+        row.setPrDetail(csvValue(header, values, "prDetail"));
+        row.setProductCategory(csvValue(header, values, "productCategory"));
+        row.setProductType(csvValue(header, values, "productType"));
+
+        String price = csvValue(header, values, "prPrice");
+        try {
+            row.setPrPrice(price == null ? null : Integer.valueOf(price.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("가격이 숫자가 아닙니다: " + price);
+        }
+
+        String models = csvValue(header, values, "models");
+        if (!StringUtils.isEmptyOrWhitespace(models)) {
+            for (String model : models.split("\\|")) {
+                String[] parts = model.split(":");
+                try {
+                    row.getModels().put(parts[0].trim(), parts.length > 1 ? Integer.valueOf(parts[1].trim()) : 0);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("재고가 숫자가 아닙니다: " + model);
+                }
+            }
+        }
+
+        String imgUrls = csvValue(header, values, "imgUrls");
+        if (!StringUtils.isEmptyOrWhitespace(imgUrls)) {
+            for (String imgUrl : imgUrls.split("\\|")) {
+                row.getImgUrls().add(imgUrl.trim());
+            }
+        }
+        return row;
+    }
+
+    private static String csvValue(Map<String, Integer> header, List<String> values, String column) {
+        Integer index = header.get(column);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    // 쉼표 구분, 큰따옴표로 감싼 값 안의 쉼표와 "" 이스케이프 지원 (한 행은 한 줄)
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("닫히지 않은 따옴표가 있습니다.");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+}
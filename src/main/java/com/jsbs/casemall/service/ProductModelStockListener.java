@@ -0,0 +1,109 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.entity.ProductModel;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+@RequiredArgsConstructor
+public class ProductModelStockListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+    // 주문/취소 등으로 기종 재고가 바뀌면 상품 필터 색인과 상세 캐시에 반영
+    // 엔티티가 서비스 패키지를 알지 않도록 @EntityListeners 대신 서비스 쪽에서 Hibernate 이벤트에 등록한다
+    // 색인/캐시 빈은 사용할 때 꺼낸다 (순환 참조 방지)
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<ProductFacetIndex> productFacetIndex;
+    private final ObjectProvider<ProductDetailCache> productDetailCache;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof ProductModel productModel) {
+            onSave(productModel);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof ProductModel productModel) {
+            onSave(productModel);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof ProductModel productModel) {
+            onRemove(productModel);
+        }
+    }
+
+    // 커밋 후 처리는 afterCommit 으로 직접 등록하므로 Hibernate 의 커밋 후 이벤트는 쓰지 않는다
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void onSave(ProductModel productModel) {
+        if (productModel.getProduct() == null) {
+            return;
+        }
+        Long productId = productModel.getProduct().getId();
+        Long modelId = productModel.getId();
+        productDetailCache.getObject().invalidate(productId);
+        afterCommit(() -> {
+            productFacetIndex.getObject()
+                    .updateStock(productId, modelId, productModel.getProductModelSelect(), productModel.getPrStock());
+            productDetailCache.getObject().invalidate(productId);
+        });
+    }
+
+    private void onRemove(ProductModel productModel) {
+        if (productModel.getProduct() == null) {
+            return;
+        }
+        Long productId = productModel.getProduct().getId();
+        Long modelId = productModel.getId();
+        productDetailCache.getObject().invalidate(productId);
+        afterCommit(() -> {
+            productFacetIndex.getObject().removeModel(productId, modelId);
+            productDetailCache.getObject().invalidate(productId);
+        });
+    }
+
+    // 롤백된 재고 변경은 반영하지 않도록 커밋 후에 실행
+    private void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,191 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.dto.ProductSearchDto;
+import com.jsbs.casemall.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.thymeleaf.util.StringUtils;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+    // 상품명 검색용 메모리 역색인
+    // LIKE '%검색어%' 는 인덱스를 탈 수 없어서 매번 product 테이블 전체를 읽는다
+    // 한글은 띄어쓰기가 일정하지 않으므로 형태소 대신 글자 단위 n-gram(1글자 + 2글자)으로 색인한다
+
+    private final ProductRepository productRepository;
+
+    // 토큰 -> 상품 ID 목록 (ID 내림차순 = 최신순으로 정렬 유지)
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    // 상품 ID -> 색인된 상품명 (삭제/수정시 기존 토큰 제거 + 검색 결과 검증용)
+    private final Map<Long, IndexedProduct> documents = new ConcurrentHashMap<>();
+
+    // 문서와 역색인이 항상 같이 바뀌도록 쓰기는 한번에 하나만
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static class IndexedProduct {
+        private final String name;
+        private final Set<String> tokens;
+
+        private IndexedProduct(String name, Set<String> tokens) {
+            this.name = name;
+            this.tokens = tokens;
+        }
+
+        private boolean contains(String query) {
+            return name.contains(query);
+        }
+    }
+
+    // 애플리케이션 시작시 전체 상품으로 색인 생성
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = productRepository.findAllForSearchIndex();
+        for (Object[] row : rows) {
+            index((Long) row[0], (String) row[1]);
+        }
+        log.info("상품 검색 색인 생성 완료: {}건, {}ms", documents.size(), System.currentTimeMillis() - start);
+    }
+
+    // 상품 등록/수정시 호출 - 기존 색인을 지우고 다시 색인
+    // 기존 DB 검색(prName LIKE)과 같은 결과가 나오도록 상품명만 색인한다
+    public void index(Long productId, String prName) {
+        String name = normalize(prName);
+        Set<String> tokens = tokenize(name);
+
+        lock.writeLock().lock();
+        try {
+            removeTokens(productId);
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, key -> new ConcurrentSkipListSet<>(Comparator.reverseOrder()))
+                        .add(productId);
+            }
+            documents.put(productId, new IndexedProduct(name, tokens));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 상품 삭제시 호출
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeTokens(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 상품명 검색일 때만 색인 사용 (작성자 검색 등은 기존 DB 조건 사용)
+    public boolean supports(ProductSearchDto productSearchDto) {
+        return StringUtils.equals("prName", productSearchDto.getSearchBy())
+                && !normalize(productSearchDto.getSearchQuery()).isEmpty();
+    }
+
+    // 검색어가 상품명에 포함된 상품 ID 목록 (ID 내림차순)
+    public List<Long> search(String searchQuery) {
+        String query = normalize(searchQuery);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Set<Long>> candidates = new ArrayList<>();
+            for (String token : queryTokens(query)) {
+                Set<Long> ids = postings.get(token);
+                if (ids == null) {
+                    return Collections.emptyList(); // 없는 토큰이 하나라도 있으면 결과 없음
+                }
+                candidates.add(ids);
+            }
+            // 가장 작은 목록을 기준으로 나머지 목록과 교집합
+            candidates.sort(Comparator.comparingInt(Set::size));
+            Set<Long> smallest = candidates.get(0);
+
+            List<Long> result = new ArrayList<>();
+            for (Long id : smallest) {
+                boolean matched = true;
+                for (int i = 1; i < candidates.size() && matched; i++) {
+                    matched = candidates.get(i).contains(id);
+                }
+                // 2글자 토큰이 모두 있어도 순서가 다를 수 있으므로 실제 포함 여부 확인
+                IndexedProduct document = documents.get(id);
+                if (matched && document != null && document.contains(query)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    private void removeTokens(Long productId) {
+        IndexedProduct old = documents.remove(productId);
+        if (old == null) {
+            return;
+        }
+        for (String token : old.tokens) {
+            Set<Long> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    // 대소문자, 공백, 한글 자모 조합 방식(NFC) 차이를 없앤다
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        return normalized.replaceAll("\\s+", "");
+    }
+
+    // 색인용 토큰 : 1글자 + 연속된 2글자
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            tokens.add(text.substring(i, i + 1));
+            if (i + 1 < text.length()) {
+                tokens.add(text.substring(i, i + 2));
+            }
+        }
+        return tokens;
+    }
+
+    // 검색용 토큰 : 1글자 검색어는 그대로, 2글자 이상은 연속된 2글자만 사용
+    static Set<String> queryTokens(String query) {
+        if (query.length() == 1) {
+            return Collections.singleton(query);
+        }
+        Set<String> tokens = new HashSet<>();
+        for (int i = 0; i + 1 < query.length(); i++) {
+            tokens.add(query.substring(i, i + 2));
+        }
+        return tokens;
+    }
+}
@@ -2,7 +2,6 @@ package com.jsbs.casemall.service;
 
 import com.jsbs.casemall.constant.ProductCategory;
 import com.jsbs.casemall.constant.ProductModelSelect;
-import com.jsbs.casemall.constant.ProductSellStatus;
 import com.jsbs.casemall.constant.ProductType;
 import com.jsbs.casemall.dto.*;
 import com.jsbs.casemall.entity.Product;
@@ -15,13 +14,18 @@ import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,6 +39,10 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final ProductImgService productImgService;
     private final ProductModelRepository productModelRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final HomeCatalogSnapshot homeCatalogSnapshot;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductDetailCache productDetailCache;
 
     public Long saveProduct(ProductFormDto productFormDto, List<MultipartFile> productImgFileList) throws Exception {
         log.info("상품 등록 시작: {}", productFormDto);
@@ -84,9 +92,14 @@ public class ProductService {
 
         log.info("pr_id가 null인 모델 삭제 완료");
 
-        // 재고 상태를 기반으로 판매 상태 업데이트
-        updateProductSellStatus(product);
-        productRepository.save(product); // 상태 업데이트 후 저장
+        // 재고 있는 기종 수로 판매 상태 결정 (기종 추가/재고 변경시 이미 계산되어 있음, 폼에서 넘어온 값 대신 사용)
+        product.updateSellStatus();
+
+        // 커밋 후 검색 색인 반영
+        Product saved = product;
+        afterCommit(() -> productSearchIndex.index(saved.getId(), saved.getPrName()));
+        afterCommit(() -> productFacetIndex.refresh(saved.getId()));
+        afterCommit(homeCatalogSnapshot::requestRebuild);
 
         return product.getId();
     }
@@ -119,41 +132,23 @@ public class ProductService {
         return productFormDto;
     }
 
+    // 상품 상세 화면용 - 캐시에 없을 때만 getProductDtl 과 같은 방식으로 조회
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductFormDto getCachedProductDtl(Long prId) {
+        return productDetailCache.get(prId, this::getProductDtl);
+    }
+
     public void updateProduct(ProductFormDto productFormDto, List<MultipartFile> productImgFileList) throws Exception {
         // 상품 엔티티 가져오기
         Product product = productRepository.findById(productFormDto.getId())
                 .orElseThrow(EntityNotFoundException::new);
+        invalidateProductDtl(product.getId());
 
+        // 상품 정보 업데이트 - 기종은 기존 행과 비교해서 추가/수정/삭제가 필요한 것만 반영
+        // (가격만 바꾼 경우 product_model 에는 쓰기가 없음)
         product.updateProduct(productFormDto);
-        productRepository.save(product);
-
-        // 기존 모델 삭제
-        productModelRepository.deleteByProduct(product);
-
-        // productFormDto에서 기종 정보와 재고 수량을 저장하는 로직 구현
-        List<ProductModelDto> productModelDtoList = productFormDto.getProductModelDtoList();
-
-        // 유효한 모델 추가
-        for (ProductModelDto productModelDto : productModelDtoList) {
-            //기종이 선택되지 않았어도 저장
-            ProductModel productModel = new ProductModel();
-            productModel.setProductModelSelect(
-                    productModelDto.getProductModelSelect() != null ? productModelDto.getProductModelSelect() : ProductModelSelect.DEFAULT_MODEL);
-            productModel.setPrStock(productModelDto.getPrStock() != null ? productModelDto.getPrStock() : 0);
-            productModel.setProduct(product);
-            product.addProductModel(productModel);
-            log.info("유효한 상품 모델 추가 완료: {}", productModel);
-        }
-
         log.info("product : {}", product);
 
-        // pr_id가 null인 모델 삭제
-        productModelRepository.deleteByPrIdIsNull();
-        log.info("pr_id가 null인 모델 삭제 완료");
-
-        // 상품 정보 업데이트
-        product.updateProduct(productFormDto);
-
         // 새로운 이미지가 업로드된 경우에만 추가합니다.
         if (!productImgFileList.isEmpty()) {
             for (MultipartFile file : productImgFileList) {
@@ -176,9 +171,13 @@ public class ProductService {
         productRepository.save(product);
         log.info("상품 정보가 성공적으로 업데이트되었습니다. 상품 ID: {}", product.getId());
 
-        // 재고 상태를 기반으로 판매 상태 업데이트
-        updateProductSellStatus(product);
-        productRepository.save(product); // 상태 업데이트 후 저장
+        // 재고 있는 기종 수로 판매 상태 결정 (기종 추가/재고 변경시 이미 계산되어 있음, 폼에서 넘어온 값 대신 사용)
+        product.updateSellStatus();
+
+        // 커밋 후 검색 색인 반영
+        afterCommit(() -> productSearchIndex.index(product.getId(), product.getPrName()));
+        afterCommit(() -> productFacetIndex.refresh(product.getId()));
+        afterCommit(homeCatalogSnapshot::requestRebuild);
     }
 
     @Transactional(readOnly = true)
@@ -190,7 +189,65 @@ public class ProductService {
 
     @Transactional(readOnly = true)
     public Page<MainProductDto> getMainProductPage(ProductSearchDto productSearchDto, Pageable pageable) {
-        return productRepository.getMainProductPage(productSearchDto, pageable);
+        if (!productSearchIndex.supports(productSearchDto)) {
+            return productRepository.getMainProductPage(productSearchDto, pageable);
+        }
+
+        // 상품명 검색은 메모리 색인에서 ID 를 찾고, DB 에서는 해당 페이지의 ID 만 조회
+        List<Long> matchedIds = productSearchIndex.search(productSearchDto.getSearchQuery());
+        int start = (int) Math.min(pageable.getOffset(), matchedIds.size());
+        int end = Math.min(start + pageable.getPageSize(), matchedIds.size());
+        List<Long> pageIds = matchedIds.subList(start, end);
+
+        List<MainProductDto> content = pageIds.isEmpty()
+                ? Collections.emptyList()
+                : productRepository.getMainProductsByIds(pageIds);
+        return new PageImpl<>(content, pageable, matchedIds.size());
+    }
+
+    // 관리자 상품 목록 (키셋 페이징) - cursor 가 없으면 첫 페이지
+    @Transactional(readOnly = true)
+    public CursorPageDto<Product> getAdminProductCursorPage(ProductSearchDto productSearchDto, String cursor,
+                                                            String sortBy, String direction, boolean withCount) {
+        ProductCursor productCursor = toProductCursor(cursor, sortBy, direction);
+        log.info("관리 페이지에서 커서 기반 상품 목록을 가져옵니다. 커서 정보: {}", productCursor);
+        return productRepository.getAdminProductCursorPage(productSearchDto, productCursor, 5, withCount);
+    }
+
+    // 메인 상품 목록 (키셋 페이징)
+    @Transactional(readOnly = true)
+    public CursorPageDto<MainProductDto> getMainProductCursorPage(ProductSearchDto productSearchDto, String cursor,
+                                                                  String sortBy, String direction, int size, boolean withCount) {
+        ProductCursor productCursor = toProductCursor(cursor, sortBy, direction);
+        int pageSize = Math.max(1, Math.min(size, 100)); // 한 번에 너무 많이 가져오지 않도록 제한
+        return productRepository.getMainProductCursorPage(productSearchDto, productCursor, pageSize, withCount);
+    }
+
+    // 카테고리/종류/기종 필터 + 필터별 상품 개수 (메모리 색인에서 계산, DB 는 해당 페이지 상품만 조회)
+    @Transactional(readOnly = true)
+    public ProductFacetDto getProductFacets(ProductCategory category, ProductType type, ProductModelSelect model,
+                                            boolean inStockOnly, int page, int size) {
+        ProductFacetIndex.Result result = productFacetIndex.query(category, type, model, inStockOnly);
+        List<Long> matchedIds = result.getProductIds();
+
+        int pageSize = Math.max(1, Math.min(size, 100));
+        int start = (int) Math.min((long) Math.max(page, 0) * pageSize, matchedIds.size());
+        int end = Math.min(start + pageSize, matchedIds.size());
+        List<Long> pageIds = matchedIds.subList(start, end);
+
+        List<MainProductDto> content = pageIds.isEmpty()
+                ? Collections.emptyList()
+                : productRepository.getMainProductsByIds(pageIds);
+        return new ProductFacetDto(content, matchedIds.size(),
+                result.getCategoryCounts(), result.getTypeCounts(), result.getModelCounts());
+    }
+
+    // 커서 토큰이 있으면 토큰의 정렬 기준을 따르고, 없으면 요청한 정렬로 첫 페이지를 만든다
+    private ProductCursor toProductCursor(String cursor, String sortBy, String direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return ProductCursor.first(sortBy, direction);
+        }
+        return ProductCursor.decode(cursor);
     }
 
     @Transactional
@@ -199,7 +256,7 @@ public class ProductService {
 
         Product product = productRepository.findById(prId)
                 .orElseThrow(() -> new EntityNotFoundException("상품이 존재하지 않습니다."));
-
+        invalidateProductDtl(prId);
 
         List<ProductImg> productImgList = productImgRepository.findByProductId(prId);
 
@@ -213,14 +270,20 @@ public class ProductService {
 
         // 상품 삭제
         productRepository.delete(product);
+        afterCommit(() -> productSearchIndex.remove(prId));
+        afterCommit(() -> productFacetIndex.remove(prId));
+        afterCommit(homeCatalogSnapshot::requestRebuild);
 
         log.info("상품 삭제 완료: {}", prId);
     }
 
     public void deleteProductImage(Long imageId) {
         log.info("이미지 삭제 중, 이미지 ID: {}", imageId);
+        productImgRepository.findById(imageId)
+                .ifPresent(productImg -> invalidateProductDtl(productImg.getProduct().getId()));
         try {
             productImgService.deleteProductImg(imageId);
+            afterCommit(homeCatalogSnapshot::requestRebuild); // 대표 이미지가 바뀔 수 있음
             log.info("이미지 삭제 성공, 이미지 ID: {}", imageId);
         } catch (Exception e) {
             log.error("이미지 삭제 중 오류 발생, 이미지 ID: {}", imageId, e);
@@ -240,6 +303,12 @@ public class ProductService {
         return productRepository.findAll();
     }
 
+    // 메인 화면용 - DB 조회 없이 스냅샷 반환
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<HomeProductDto> getHomeProducts() {
+        return homeCatalogSnapshot.getProducts();
+    }
+
     public List<ProductModelDto> getProductModelsByProductId(Long productId) {
         List<ProductModel> productModels = productModelRepository.findByProductId(productId);
         return productModels.stream()
@@ -255,22 +324,24 @@ public class ProductService {
         return productModelDto;
     }
 
-    // 재고 상태에 따른 판매 상태 업데이트 로직
-    private void updateProductSellStatus(Product product) {
-        boolean allStocksZero = product.getProductModelList().stream()
-                .allMatch(model -> {
-                    Integer stock = model.getPrStock();
-                    log.info("ProductModel ID: {}, prStock: {}", model.getId(), stock);
-                    return stock == null || stock == 0;
-                });
-
-        if (allStocksZero) {
-            product.setProductSellStatus(ProductSellStatus.SOLD_OUT);
-        } else {
-            product.setProductSellStatus(ProductSellStatus.SELL);
+    // 상세 캐시 무효화 - 지금 한 번, 커밋 후 한 번 (커밋 전에 다른 요청이 이전 데이터로 캐시를 채운 경우 대비)
+    private void invalidateProductDtl(Long prId) {
+        productDetailCache.invalidate(prId);
+        afterCommit(() -> productDetailCache.invalidate(prId));
+    }
+
+    // 트랜잭션이 커밋된 뒤에 실행 (롤백되면 실행하지 않음)
+    private void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
         }
-        log.info("Product ID: {}, ProductSellStatus: {}", product.getId(), product.getProductSellStatus());
-        productRepository.save(product); // 상태 업데이트 후 저장
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
     }
 
     public List<Product> findAll(Sort sort) {
@@ -279,6 +350,12 @@ public class ProductService {
         return list;
     }
 
+    // 카테고리 목록 화면용 - 대표 이미지까지 쿼리 한 번으로 조회
+    @Transactional(readOnly = true)
+    public List<ProductListDto> getListProducts(ProductCategory category, ProductType type, Sort sort) {
+        return productRepository.getListProducts(category, type, sort);
+    }
+
     // ver2
     public List<Product> findAllByCategoryAndType(ProductCategory category, ProductType type, Sort sort) {
         if (category != null && type != null) {
@@ -0,0 +1,173 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.jsbs.casemall.exception.OutOfStockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+@Service
+@Transactional(propagation = Propagation.MANDATORY) // 주문 트랜잭션 안에서만 호출
+@RequiredArgsConstructor
+@Slf4j
+public class ProductStockService {
+    // 주문 재고 차감/복구
+    // 엔티티로 읽고-빼고-저장하면 동시에 주문한 두 요청이 같은 재고를 보고 둘 다 통과할 수 있으므로
+    // 재고 조건을 포함한 UPDATE 한 문장으로 차감하고, 주문의 모든 항목을 한 번에 배치로 보낸다
+    // 영향받은 행이 0 이면 재고 부족 -> 예외로 주문 트랜잭션 전체 롤백
+    // 플래시 세일 중인 기종은 메모리 장부(FlashSaleInventory)에서 차감하고, DB 차감 SQL 은 그 기종을 건너뛴다
+
+    private static final String DECREASE_SQL =
+            "UPDATE product_model SET pr_stock = pr_stock - ? WHERE model_id = ? AND pr_stock >= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM flash_sale_ledger l WHERE l.model_id = product_model.model_id)";
+
+    private static final String INCREASE_SQL =
+            "UPDATE product_model SET pr_stock = pr_stock + ? WHERE model_id = ?";
+
+    // 플래시 세일 장부의 증감 반영 (음수 포함, 장부에서 이미 0 아래로 내려가지 않게 차감함)
+    private static final String APPLY_LEDGER_SQL =
+            "UPDATE product_model SET pr_stock = pr_stock + ? WHERE model_id = ?";
+
+    // 재고가 바뀐 상품의 재고 있는 기종 수 / 판매 상태를 다시 맞춘다 (값이 달라지는 상품만 수정)
+    private static final String SYNC_SELL_STATUS_SQL =
+            "UPDATE product SET " +
+            "in_stock_model_count = (SELECT COUNT(*) FROM product_model m WHERE m.pr_id = product.pr_id AND m.pr_stock > 0), " +
+            "product_sell_status = CASE WHEN EXISTS " +
+            "(SELECT 1 FROM product_model m WHERE m.pr_id = product.pr_id AND m.pr_stock > 0) THEN 'SELL' ELSE 'SOLD_OUT' END " +
+            "WHERE pr_id IN (:productIds) " +
+            "AND (in_stock_model_count IS NULL OR in_stock_model_count <> " +
+            "(SELECT COUNT(*) FROM product_model m WHERE m.pr_id = product.pr_id AND m.pr_stock > 0))";
+
+    // 바뀐 기종의 재고 - 이 트랜잭션이 JDBC 로 바꾼 값을 그대로 읽는다 (영속성 컨텍스트의 엔티티는 바뀌기 전 값)
+    private static final String MODEL_STOCK_SQL =
+            "SELECT pr_id, model_id, product_model_select, pr_stock FROM product_model WHERE model_id IN (:modelIds)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductDetailCache productDetailCache;
+    private final ObjectProvider<FlashSaleInventory> flashSaleInventory; // 순환 참조 방지
+
+    // 기종 ID -> 차감 수량, 하나라도 재고가 부족하면 OutOfStockException
+    public void decreaseStocks(Map<Long, Integer> quantities) {
+        FlashSaleInventory flashSale = flashSaleInventory.getIfAvailable();
+        Map<Long, Integer> cold = flashSale == null ? quantities : flashSale.takeHot(quantities);
+        List<Map.Entry<Long, Integer>> lines = lines(cold);
+        if (lines.isEmpty()) {
+            return;
+        }
+        int[][] updated = jdbcTemplate.batchUpdate(DECREASE_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+            ps.setInt(3, line.getValue());
+        });
+
+        List<Long> changed = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                Map.Entry<Long, Integer> line = lines.get(index++);
+                if (count > 0) {
+                    changed.add(line.getKey());
+                } else if (flashSale != null && flashSale.isHot(line.getKey())
+                        && flashSale.takeHot(Map.of(line.getKey(), line.getValue())).isEmpty()) {
+                    // 조회와 차감 사이에 플래시 세일이 시작된 기종 - 메모리 장부에서 차감
+                    // 그 사이 세일 종료가 시작돼 다시 돌려받으면(장부 행이 남아 DB 차감도 건너뜀) 재고 부족으로 처리
+                } else {
+                    log.info("재고 부족으로 주문 실패, 기종 ID: {}", line.getKey());
+                    throw new OutOfStockException("상품의 재고가 부족합니다. (기종 번호 : " + line.getKey() + ")");
+                }
+            }
+        }
+        if (!changed.isEmpty()) {
+            stockChanged(changed);
+        }
+    }
+
+    // 기종 ID -> 복구 수량 (주문 취소, 수량 감소 등)
+    public void increaseStocks(Map<Long, Integer> quantities) {
+        FlashSaleInventory flashSale = flashSaleInventory.getIfAvailable();
+        Map<Long, Integer> cold = flashSale == null ? quantities : flashSale.giveHot(quantities);
+        List<Map.Entry<Long, Integer>> lines = lines(cold);
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INCREASE_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.getValue());
+            ps.setLong(2, line.getKey());
+        });
+        stockChanged(cold.keySet());
+    }
+
+    // 플래시 세일 장부에 쌓인 기종별 증감을 DB 에 반영 (FlashSaleInventory 의 주기적 반영, 재시작 복구)
+    public void applyLedgerDeltas(Map<Long, Long> deltas) {
+        List<Map.Entry<Long, Long>> lines = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(deltas).entrySet()) {
+            if (entry.getValue() != null && entry.getValue() != 0) {
+                lines.add(entry);
+            }
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(APPLY_LEDGER_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setLong(1, line.getValue());
+            ps.setLong(2, line.getKey());
+        });
+        List<Long> modelIds = new ArrayList<>();
+        lines.forEach(line -> modelIds.add(line.getKey()));
+        stockChanged(modelIds);
+    }
+
+    // 수량이 0 이하인 항목은 제외, 기종 ID 순으로 정렬 (여러 주문이 같은 기종들을 잠글 때 교착 방지)
+    private static List<Map.Entry<Long, Integer>> lines(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+            if (entry.getValue() != null && entry.getValue() > 0) {
+                lines.add(entry);
+            }
+        }
+        return lines;
+    }
+
+    // 엔티티를 거치지 않고 재고를 바꿨으므로 판매 상태, 필터 색인, 상세 캐시를 직접 맞춘다
+    // 필터 색인은 refresh 로 다시 읽지 않고 여기서 읽은 재고로 기종만 고친다
+    // (요청의 EntityManager 로 다시 읽으면 이미 올라온 ProductModel 의 차감 전 재고가 색인된다)
+    private void stockChanged(Collection<Long> modelIds) {
+        List<ModelStock> stocks = namedParameterJdbcTemplate.query(MODEL_STOCK_SQL, Map.of("modelIds", modelIds),
+                (rs, rowNum) -> {
+                    String select = rs.getString("product_model_select");
+                    return new ModelStock(rs.getLong("pr_id"), rs.getLong("model_id"),
+                            select == null ? null : ProductModelSelect.valueOf(select), rs.getInt("pr_stock"));
+                });
+        if (stocks.isEmpty()) {
+            return;
+        }
+        Set<Long> productIds = new TreeSet<>();
+        stocks.forEach(stock -> productIds.add(stock.productId()));
+        namedParameterJdbcTemplate.update(SYNC_SELL_STATUS_SQL, Map.of("productIds", productIds));
+
+        productIds.forEach(productDetailCache::invalidate);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (ModelStock stock : stocks) {
+                    productFacetIndex.updateStock(stock.productId(), stock.modelId(), stock.modelSelect(), stock.stock());
+                }
+                productIds.forEach(productDetailCache::invalidate);
+            }
+        });
+    }
+
+    private record ModelStock(Long productId, Long modelId, ProductModelSelect modelSelect, int stock) {
+    }
+}
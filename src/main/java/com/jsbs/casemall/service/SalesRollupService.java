@@ -0,0 +1,257 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.dto.SalesSummaryDto;
+import com.jsbs.casemall.repository.SalesDailyCategoryRepository;
+import com.jsbs.casemall.repository.SalesDailyModelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupService {
+    // 일별 판매 집계 유지
+    // 매출 조회때마다 orders + order_detail 을 훑지 않도록 (일, 상품, 기종) / (일, 카테고리) 단위로 미리 합산한다
+    // 결제 완료 / 주문 취소시 주문 상태 변경과 같은 트랜잭션에서 증감하므로 집계와 주문 상태가 어긋나지 않는다
+    // 결제 완료(ORDER) 주문은 취소로 바꿀 수 없으므로 (OrderStatus) 취소 집계는 모두 결제 전 취소 - unpaid_cancel_* 로 따로 센다
+    // 과거 데이터나 집계가 틀어진 날은 rebuild 로 일 단위 병렬 재계산
+
+    private static final String ORDER_LINES_SQL =
+            "SELECT o.order_no, o.order_date, od.pr_id, od.model_id, p.product_category, od.count, od.order_price " +
+            "FROM orders o " +
+            "JOIN order_detail od ON od.order_id = o.order_no " +
+            "JOIN product p ON p.pr_id = od.pr_id " +
+            "WHERE o.order_no IN (:orderNos)";
+
+    private static final String UPSERT_MODEL_SQL =
+            "INSERT INTO sales_daily_model (sales_date, pr_id, model_id, order_count, quantity, revenue, unpaid_cancel_count, unpaid_cancel_quantity) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + ?, quantity = quantity + ?, revenue = revenue + ?, " +
+            "unpaid_cancel_count = unpaid_cancel_count + ?, unpaid_cancel_quantity = unpaid_cancel_quantity + ?";
+
+    private static final String UPSERT_CATEGORY_SQL =
+            "INSERT INTO sales_daily_category (sales_date, product_category, order_count, quantity, revenue, unpaid_cancel_count, unpaid_cancel_quantity) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + ?, quantity = quantity + ?, revenue = revenue + ?, " +
+            "unpaid_cancel_count = unpaid_cancel_count + ?, unpaid_cancel_quantity = unpaid_cancel_quantity + ?";
+
+    // 재계산용 - 하루치 주문 항목 (보관된 날이면 보관 테이블 쪽도 UNION ALL 로 붙인다)
+    private static final String DAY_LINES_SQL =
+            "SELECT o.order_no, o.order_status, od.pr_id, od.model_id, od.count, od.order_price " +
+            "FROM orders o JOIN order_detail od ON od.order_id = o.order_no " +
+            "WHERE o.order_date >= ? AND o.order_date < ? AND o.order_status IN ('ORDER', 'SHIPPED', 'COMPLETED', 'CANCEL')";
+
+    private static final String ARCHIVED_DAY_LINES_SQL =
+            "SELECT o.order_no, o.order_status, od.pr_id, od.model_id, od.count, od.order_price " +
+            "FROM orders_archive o JOIN order_detail_archive od ON od.order_id = o.order_no " +
+            "WHERE o.order_date >= ? AND o.order_date < ? AND o.order_status IN ('COMPLETED', 'CANCEL')";
+
+    // 재계산용 - 하루치 주문 항목(%s)에서 다시 합산 (배송중/배송완료도 결제된 주문으로 센다, CANCEL 은 결제 전 취소)
+    private static final String REBUILD_MODEL_SQL =
+            "INSERT INTO sales_daily_model (sales_date, pr_id, model_id, order_count, quantity, revenue, unpaid_cancel_count, unpaid_cancel_quantity) " +
+            "SELECT CAST(? AS DATE), l.pr_id, l.model_id, " +
+            "COUNT(DISTINCT CASE WHEN l.order_status IN ('ORDER', 'SHIPPED', 'COMPLETED') THEN l.order_no END), " +
+            "SUM(CASE WHEN l.order_status IN ('ORDER', 'SHIPPED', 'COMPLETED') THEN l.count ELSE 0 END), " +
+            "SUM(CASE WHEN l.order_status IN ('ORDER', 'SHIPPED', 'COMPLETED') THEN l.count * l.order_price ELSE 0 END), " +
+            "COUNT(DISTINCT CASE WHEN l.order_status = 'CANCEL' THEN l.order_no END), " +
+            "SUM(CASE WHEN l.order_status = 'CANCEL' THEN l.count ELSE 0 END) " +
+            "FROM (%s) l " +
+            "GROUP BY l.pr_id, l.model_id";
+
+    private static final String REBUILD_CATEGORY_SQL =
+            "INSERT INTO sales_daily_category (sales_date, product_category, order_count, quantity, revenue, unpaid_cancel_count, unpaid_cancel_quantity) " +
+            "SELECT CAST(? AS DATE), p.product_category, " +
+            "COUNT(DISTINCT CASE WHEN l.order_status IN ('ORDER', 'SHIPPED', 'COMPLETED') THEN l.order_no END), " +
+            "SUM(CASE WHEN l.order_status IN ('ORDER', 'SHIPPED', 'COMPLETED') THEN l.count ELSE 0 END), " +
+            "SUM(CASE WHEN l.order_status IN ('ORDER', 'SHIPPED', 'COMPLETED') THEN l.count * l.order_price ELSE 0 END), " +
+            "COUNT(DISTINCT CASE WHEN l.order_status = 'CANCEL' THEN l.order_no END), " +
+            "SUM(CASE WHEN l.order_status = 'CANCEL' THEN l.count ELSE 0 END) " +
+            "FROM (%s) l JOIN product p ON p.pr_id = l.pr_id " +
+            "WHERE p.product_category IS NOT NULL " +
+            "GROUP BY p.product_category";
+
+    private static final int TOP_PRODUCTS = 20;
+
+    private final SalesDailyModelRepository salesDailyModelRepository;
+    private final SalesDailyCategoryRepository salesDailyCategoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderArchiveService orderArchiveService;
+
+    @Value("${sales.rollup.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    // 집계 한 칸의 증감량
+    private static class Delta {
+        private final Set<Long> orderNos = new HashSet<>();
+        private long quantity;
+        private long revenue;
+
+        private void add(long orderNo, int count, int price) {
+            orderNos.add(orderNo);
+            quantity += count;
+            revenue += (long) count * price;
+        }
+    }
+
+    // 결제 완료 - 주문 상태 변경과 같은 트랜잭션에서 호출
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPaid(Long orderNo) {
+        record(List.of(orderNo), false);
+    }
+
+    // 결제 전 취소 - 실제로 STAY(또는 결제 확인중) 에서 취소된 주문만 넘긴다
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUnpaidCancelled(List<Long> orderNos) {
+        record(orderNos, true);
+    }
+
+    private void record(List<Long> orderNos, boolean cancelled) {
+        if (orderNos.isEmpty()) {
+            return;
+        }
+        Map<List<Object>, Delta> models = new HashMap<>(); // (일, 상품 ID, 기종 ID)
+        Map<List<Object>, Delta> categories = new HashMap<>(); // (일, 카테고리)
+        namedParameterJdbcTemplate.query(ORDER_LINES_SQL, Map.of("orderNos", orderNos), rs -> {
+            long orderNo = rs.getLong(1);
+            LocalDate day = rs.getTimestamp(2).toLocalDateTime().toLocalDate();
+            int count = rs.getInt(6);
+            int price = rs.getInt(7);
+            models.computeIfAbsent(List.of(day, rs.getLong(3), rs.getLong(4)), key -> new Delta())
+                    .add(orderNo, count, price);
+            String category = rs.getString(5);
+            if (category != null) {
+                categories.computeIfAbsent(List.of(day, category), key -> new Delta())
+                        .add(orderNo, count, price);
+            }
+        });
+
+        List<Map.Entry<List<Object>, Delta>> modelRows = new ArrayList<>(models.entrySet());
+        if (modelRows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_MODEL_SQL, modelRows, modelRows.size(), (ps, row) -> {
+            long[] values = values(row.getValue(), cancelled);
+            ps.setDate(1, Date.valueOf((LocalDate) row.getKey().get(0)));
+            ps.setLong(2, (Long) row.getKey().get(1));
+            ps.setLong(3, (Long) row.getKey().get(2));
+            for (int i = 0; i < values.length; i++) {
+                ps.setLong(4 + i, values[i]);
+                ps.setLong(9 + i, values[i]);
+            }
+        });
+
+        List<Map.Entry<List<Object>, Delta>> categoryRows = new ArrayList<>(categories.entrySet());
+        if (categoryRows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_CATEGORY_SQL, categoryRows, categoryRows.size(), (ps, row) -> {
+            long[] values = values(row.getValue(), cancelled);
+            ps.setDate(1, Date.valueOf((LocalDate) row.getKey().get(0)));
+            ps.setString(2, (String) row.getKey().get(1));
+            for (int i = 0; i < values.length; i++) {
+                ps.setLong(3 + i, values[i]);
+                ps.setLong(8 + i, values[i]);
+            }
+        });
+    }
+
+    // 주문 수, 수량, 금액, 결제 전 취소 주문 수, 결제 전 취소 수량
+    private static long[] values(Delta delta, boolean cancelled) {
+        if (cancelled) {
+            return new long[]{0, 0, 0, delta.orderNos.size(), delta.quantity};
+        }
+        return new long[]{delta.orderNos.size(), delta.quantity, delta.revenue, 0, 0};
+    }
+
+    // 기간 [from, to] 의 집계를 일 단위로 병렬 재계산, 재계산한 일 수 반환
+    // 하루치 삭제 + 재계산을 한 트랜잭션으로 처리하므로 다른 날의 집계나 조회에는 영향이 없다
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuild(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("종료일이 시작일보다 빠릅니다.");
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                LocalDate target = day;
+                futures.add(executor.submit(() -> transactionTemplate.executeWithoutResult(status -> rebuildDay(target))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            log.info("판매 집계 재계산 완료: {} ~ {}, {}일, {}ms", from, to, futures.size(), System.currentTimeMillis() - start);
+            return futures.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("판매 집계 재계산이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("판매 집계 재계산 실패", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void rebuildDay(LocalDate day) {
+        Date salesDate = Date.valueOf(day);
+        Timestamp dayStart = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp dayEnd = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+
+        String lines = DAY_LINES_SQL;
+        Object[] params = {salesDate, dayStart, dayEnd};
+        if (orderArchiveService.covers(day.atStartOfDay())) {
+            lines = DAY_LINES_SQL + " UNION ALL " + ARCHIVED_DAY_LINES_SQL;
+            params = new Object[]{salesDate, dayStart, dayEnd, dayStart, dayEnd};
+        }
+        jdbcTemplate.update("DELETE FROM sales_daily_model WHERE sales_date = ?", salesDate);
+        jdbcTemplate.update("DELETE FROM sales_daily_category WHERE sales_date = ?", salesDate);
+        jdbcTemplate.update(String.format(REBUILD_MODEL_SQL, lines), params);
+        jdbcTemplate.update(String.format(REBUILD_CATEGORY_SQL, lines), params);
+    }
+
+    // 관리자 매출 조회 - 집계 테이블만 읽는다
+    @Transactional(readOnly = true)
+    public SalesSummaryDto getSalesSummary(LocalDate from, LocalDate to) {
+        List<SalesSummaryDto.Daily> daily = new ArrayList<>();
+        for (Object[] row : salesDailyModelRepository.sumByDate(from, to)) { // 카테고리 없는 상품도 포함
+            daily.add(new SalesSummaryDto.Daily((LocalDate) row[0], toLong(row[1]), toLong(row[2]), toLong(row[3])));
+        }
+        List<SalesSummaryDto.Category> categories = new ArrayList<>();
+        for (Object[] row : salesDailyCategoryRepository.sumByCategory(from, to)) {
+            categories.add(new SalesSummaryDto.Category((ProductCategory) row[0],
+                    toLong(row[1]), toLong(row[2]), toLong(row[3]), toLong(row[4])));
+        }
+        List<SalesSummaryDto.ProductSales> topProducts = new ArrayList<>();
+        for (Object[] row : salesDailyModelRepository.sumByProduct(from, to, PageRequest.of(0, TOP_PRODUCTS))) {
+            topProducts.add(new SalesSummaryDto.ProductSales((Long) row[0], (String) row[1],
+                    toLong(row[2]), toLong(row[3]), toLong(row[4])));
+        }
+        return new SalesSummaryDto(from, to, daily, categories, topProducts);
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,210 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.OrderStatus;
+import com.jsbs.casemall.entity.StockReservation;
+import com.jsbs.casemall.repository.OrderRepository;
+import com.jsbs.casemall.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+    // 결제 대기 주문의 재고 점유 관리
+    // 주문 생성/수정시 만료 시각을 기록하고, 스케줄러가 만료된 주문을 모아서 취소 + 재고 복구
+    // 주문 상태는 STAY(또는 결제 확인중) 인 경우에만 바꾸는 조건부 UPDATE 로 변경하므로
+    // 결제 완료, 사용자 취소, 다른 서버의 스케줄러와 겹쳐도 재고는 한 번만 복구된다
+    // 결제 확인중(PAYMENT_PENDING) 주문은 점유 기록을 지워서 만료 스케줄러가 취소하지 않게 한다 (결제는 이미 됐을 수 있음)
+    // 상태가 바뀐 주문은 order_status_event 에 변경 이력을 JDBC 배치로 남긴다
+    // (이전 상태가 STAY / 결제 확인중 둘 중 하나라서, 바꾸기 전에 OrderStatusService 처럼 주문 번호 순으로 잠그고 이전 상태를 읽어 둔다)
+
+    private static final int SWEEP_BATCH_SIZE = 200;
+
+    // 변경 이력의 변경자 - 결제 승인/실패 경로, 결제 대기 만료 스케줄러
+    static final String PAYMENT_ACTOR = "payment";
+    static final String EXPIRY_ACTOR = "reservation-expiry";
+
+    private static final String CANCEL_SQL =
+            "UPDATE orders SET order_status = 'CANCEL' WHERE order_no = ? AND order_status IN ('STAY', 'PAYMENT_PENDING')";
+
+    // 만료 정리용 - 조회한 뒤 주문 수정으로 점유가 연장됐으면 취소하지 않는다
+    // (점유 기록을 같은 문장에서 읽으므로 연장과 정리가 동시에 커밋되지 않는다)
+    private static final String EXPIRE_SQL =
+            "UPDATE orders SET order_status = 'CANCEL' WHERE order_no = ? AND order_status IN ('STAY', 'PAYMENT_PENDING') " +
+            "AND EXISTS (SELECT 1 FROM stock_reservation r WHERE r.order_no = orders.order_no AND r.expires_at <= ?)";
+
+    // 아직 만료 상태인 점유만 지운다 (연장된 점유는 남기고, 이미 결제/취소된 주문의 남은 점유는 정리)
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM stock_reservation WHERE order_no IN (:orderNos) AND expires_at <= :now";
+
+    private static final String CONFIRM_SQL =
+            "UPDATE orders SET order_status = 'ORDER' WHERE order_no = ? AND order_status IN ('STAY', 'PAYMENT_PENDING')";
+
+    private static final String PENDING_SQL =
+            "UPDATE orders SET order_status = 'PAYMENT_PENDING' WHERE order_no = ? AND order_status = 'STAY'";
+
+    private static final String HELD_STOCK_SQL =
+            "SELECT od.model_id, SUM(od.count) FROM order_detail od " +
+            "WHERE od.order_id IN (:orderNos) GROUP BY od.model_id";
+
+    private static final String ORDER_USERS_SQL =
+            "SELECT DISTINCT user_id FROM orders WHERE order_no IN (:orderNos)";
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO order_status_event (order_no, from_status, to_status, changed_at, changed_by) VALUES (?, ?, ?, ?, ?)";
+
+    private final StockReservationRepository stockReservationRepository;
+    private final OrderRepository orderRepository;
+    private final ProductStockService productStockService;
+    private final SalesRollupService salesRollupService;
+    private final MypageStatsCache mypageStatsCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stock.reservation.ttl:PT15M}")
+    private Duration ttl; // 결제 대기 허용 시간
+
+    // 주문 생성/수정시 호출 - 없으면 새로 만들고 있으면 만료 시각 연장
+    public void hold(Long orderNo) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        stockReservationRepository.findById(orderNo)
+                .ifPresentOrElse(reservation -> reservation.extend(expiresAt),
+                        () -> stockReservationRepository.save(StockReservation.create(orderNo, expiresAt)));
+    }
+
+    // 주문 삭제 등으로 점유 기록만 지울 때
+    public void release(Long orderNo) {
+        stockReservationRepository.findById(orderNo).ifPresent(stockReservationRepository::delete);
+    }
+
+    // 결제사 장애로 승인 결과를 모름 - STAY 인 주문만 결제 확인중으로 바꾸고 만료 대상에서 뺀다
+    // 이미 만료/취소된 주문이면 false
+    public boolean markPending(Long orderNo) {
+        int updated = jdbcTemplate.update(PENDING_SQL, orderNo);
+        if (updated > 0) {
+            recordEvents(List.of(orderNo), Map.of(orderNo, OrderStatus.STAY), OrderStatus.PAYMENT_PENDING, PAYMENT_ACTOR);
+            release(orderNo);
+        }
+        return updated > 0;
+    }
+
+    // 결제 완료 - STAY(또는 결제 확인중) 인 주문만 ORDER 로 변경, 이미 만료/취소된 주문이면 예외
+    public void confirm(Long orderNo) {
+        Map<Long, OrderStatus> locked = orderRepository.lockByIdsAndStatus(List.of(orderNo), OrderStatus.sourcesOf(OrderStatus.ORDER));
+        int updated = jdbcTemplate.update(CONFIRM_SQL, orderNo);
+        if (updated == 0) {
+            throw new IllegalStateException("결제 대기 시간이 지나 취소된 주문입니다. (주문번호 : " + orderNo + ")");
+        }
+        recordEvents(List.of(orderNo), locked, OrderStatus.ORDER, PAYMENT_ACTOR);
+        release(orderNo);
+    }
+
+    // 주문 취소 + 재고 복구 - 실제로 STAY(또는 결제 확인중) -> CANCEL 로 바뀐 주문만 복구하고, 바뀐 주문 수 반환
+    public int cancel(List<Long> orderNos) {
+        if (orderNos.isEmpty()) {
+            return 0;
+        }
+        List<Long> cancelled = cancelWhere(CANCEL_SQL, orderNos, (ps, orderNo) -> ps.setLong(1, orderNo), PAYMENT_ACTOR);
+        stockReservationRepository.deleteAllByIdInBatch(orderNos);
+        return cancelled.size();
+    }
+
+    // 만료 정리 - now 기준으로 점유가 아직 만료 상태인 주문만 취소 + 재고 복구하고, 바뀐 주문 수 반환
+    public int expire(List<Long> orderNos, LocalDateTime now) {
+        if (orderNos.isEmpty()) {
+            return 0;
+        }
+        Timestamp expiredAt = Timestamp.valueOf(now);
+        List<Long> cancelled = cancelWhere(EXPIRE_SQL, orderNos, (ps, orderNo) -> {
+            ps.setLong(1, orderNo);
+            ps.setTimestamp(2, expiredAt);
+        }, EXPIRY_ACTOR);
+        namedParameterJdbcTemplate.update(DELETE_EXPIRED_SQL, Map.of("orderNos", orderNos, "now", expiredAt));
+        return cancelled.size();
+    }
+
+    private List<Long> cancelWhere(String sql, List<Long> orderNos, ParameterizedPreparedStatementSetter<Long> setter,
+                                   String changedBy) {
+        Map<Long, OrderStatus> locked = orderRepository.lockByIdsAndStatus(orderNos, OrderStatus.sourcesOf(OrderStatus.CANCEL));
+        if (locked.isEmpty()) {
+            return Collections.emptyList(); // 모두 이미 결제/취소된 주문
+        }
+        int[][] updated = jdbcTemplate.batchUpdate(sql, orderNos, orderNos.size(), setter);
+
+        List<Long> cancelled = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count > 0) {
+                    cancelled.add(orderNos.get(index));
+                }
+                index++;
+            }
+        }
+
+        if (!cancelled.isEmpty()) {
+            recordEvents(cancelled, locked, OrderStatus.CANCEL, changedBy);
+            Map<Long, Integer> held = new HashMap<>();
+            namedParameterJdbcTemplate.query(HELD_STOCK_SQL, Map.of("orderNos", cancelled),
+                    rs -> {
+                        held.put(rs.getLong(1), rs.getInt(2));
+                    });
+            productStockService.increaseStocks(held);
+            salesRollupService.recordUnpaidCancelled(cancelled); // 일별 판매 집계에 결제 전 취소 반영
+            namedParameterJdbcTemplate.queryForList(ORDER_USERS_SQL, Map.of("orderNos", cancelled), String.class)
+                    .forEach(mypageStatsCache::invalidate); // 마이페이지 통계 갱신
+        }
+        return cancelled;
+    }
+
+    // 바뀐 주문의 변경 이력 추가 - from 은 바꾸기 전에 잠그고 읽은 상태
+    private void recordEvents(List<Long> orderNos, Map<Long, OrderStatus> from, OrderStatus target, String changedBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, orderNos, orderNos.size(), (ps, orderNo) -> {
+            ps.setLong(1, orderNo);
+            ps.setString(2, from.get(orderNo).name());
+            ps.setString(3, target.name());
+            ps.setTimestamp(4, now);
+            ps.setString(5, changedBy);
+        });
+    }
+
+    // 만료된 점유를 SWEEP_BATCH_SIZE 건씩 트랜잭션 하나로 정리
+    @Scheduled(fixedDelayString = "${stock.reservation.sweep-interval:5000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void sweepExpired() {
+        int total = 0;
+        List<Long> expired;
+        do {
+            expired = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> orderNos = stockReservationRepository.findExpiredOrderNos(now, PageRequest.of(0, SWEEP_BATCH_SIZE));
+                expire(orderNos, now);
+                return orderNos;
+            });
+            total += expired.size();
+        } while (expired.size() == SWEEP_BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("결제 대기 시간이 지난 주문 {}건 정리", total);
+        }
+    }
+}
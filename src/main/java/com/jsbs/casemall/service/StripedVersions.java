@@ -0,0 +1,33 @@
+package com.jsbs.casemall.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class StripedVersions {
+    // 캐시 무효화용 버전 (키마다 버전을 두지 않고 고정 개수의 칸에 나눠 담는다)
+    // 키 수와 상관없이 메모리가 고정되고, 같은 칸을 쓰는 다른 키가 무효화되면 캐시를 한 번 더 조회할 뿐 잘못된 값을 주지는 않는다
+
+    private final AtomicLongArray stripes;
+    private final int mask;
+
+    // stripes 는 2의 거듭제곱
+    StripedVersions(int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("칸 수는 2의 거듭제곱이어야 합니다: " + stripes);
+        }
+        this.stripes = new AtomicLongArray(stripes);
+        this.mask = stripes - 1;
+    }
+
+    long current(Object key) {
+        return stripes.get(index(key));
+    }
+
+    void bump(Object key) {
+        stripes.incrementAndGet(index(key));
+    }
+
+    private int index(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,193 @@
+package com.jsbs.casemall.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@ConditionalOnProperty(name = "payment.gateway.stub.enabled", havingValue = "true")
+@Slf4j
+public class StubPaymentGateway {
+    // 결제 승인/취소/조회 API 로컬 스텁 (개발/부하 시험용)
+    // payment.gateway.stub.enabled=true 이면 로컬 포트에서
+    // /v1/payments/confirm, /v1/payments/{paymentKey}/cancel, GET /v1/payments/{paymentKey} 를 흉내 낸다
+    // 지연 시간과 장애 비율을 설정해서 결제사 지연/장애 상황의 응답 시간, 스레드 사용량, 서킷 브레이커 동작을
+    // 외부 호출 없이 확인할 수 있다 (payment.gateway.base-url=http://localhost:{포트} 로 함께 설정)
+    // - error-rate : 500 응답 (결제사 장애)
+    // - timeout-rate : 승인은 하고 응답 없이 hang 시간만큼 대기 (클라이언트 응답 제한 시간 초과 - 같은 결제를 다시 승인하면
+    //                  ALREADY_PROCESSED_PAYMENT)
+    // - decline-rate : 400 응답 (결제 거절 - 장애가 아니라 정상 응답)
+    // 실행 중에도 setFaults 로 바꿀 수 있다
+    // 취소/조회는 장애 설정과 상관없이 처리한다
+    // 같은 결제를 다시 취소하면 ALREADY_CANCELED_PAYMENT, 승인하지 않은 결제는 NOT_FOUND_PAYMENT 로 응답한다
+
+    private final int port;
+    private final Duration latency;
+    private final Duration jitter;
+    private final Duration hang;
+
+    private volatile double errorRate;
+    private volatile double timeoutRate;
+    private volatile double declineRate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, String> payments = new ConcurrentHashMap<>(); // paymentKey -> 결제 상태 (DONE, CANCELED)
+    private final Set<String> confirmed = ConcurrentHashMap.newKeySet(); // 승인한 paymentKey:orderId
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubPaymentGateway(ObjectMapper objectMapper,
+                              @Value("${payment.gateway.stub.port:18080}") int port,
+                              @Value("${payment.gateway.stub.latency:PT0.2S}") Duration latency,
+                              @Value("${payment.gateway.stub.jitter:PT0.1S}") Duration jitter,
+                              @Value("${payment.gateway.stub.hang:PT60S}") Duration hang,
+                              @Value("${payment.gateway.stub.error-rate:0.0}") double errorRate,
+                              @Value("${payment.gateway.stub.timeout-rate:0.0}") double timeoutRate,
+                              @Value("${payment.gateway.stub.decline-rate:0.0}") double declineRate) {
+        this.objectMapper = objectMapper;
+        this.port = port;
+        this.latency = latency;
+        this.jitter = jitter;
+        this.hang = hang;
+        setFaults(errorRate, timeoutRate, declineRate);
+    }
+
+    public void setFaults(double errorRate, double timeoutRate, double declineRate) {
+        this.errorRate = errorRate;
+        this.timeoutRate = timeoutRate;
+        this.declineRate = declineRate;
+        log.info("결제 스텁 장애 설정: 500 응답 {}, 응답 없음 {}, 결제 거절 {}", errorRate, timeoutRate, declineRate);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/v1/payments/confirm", this::confirm);
+        server.createContext("/v1/payments/", this::payment);
+        server.start();
+        log.info("결제 스텁 서버 시작: port={}, 지연={}ms(+최대 {}ms)", port, latency.toMillis(), jitter.toMillis());
+    }
+
+    // 실제로 열린 포트 (port=0 이면 임의 포트)
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // 취소 요청을 받은 결제인지
+    public boolean isCancelled(String paymentKey) {
+        return "CANCELED".equals(payments.get(paymentKey));
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void confirm(HttpExchange exchange) throws IOException {
+        JsonNode request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = objectMapper.readTree(body);
+        }
+        String paymentKey = request.path("paymentKey").asText();
+        String orderId = request.path("orderId").asText();
+        double roll = ThreadLocalRandom.current().nextDouble();
+        boolean timeout = roll < timeoutRate;
+        boolean error = !timeout && roll < timeoutRate + errorRate;
+        boolean decline = !timeout && !error && roll < timeoutRate + errorRate + declineRate;
+        // 승인은 됐지만 응답이 늦어 클라이언트가 끊은 경우도 승인한 결제로 기록
+        boolean duplicate = false;
+        if (!error && !decline) {
+            duplicate = !confirmed.add(paymentKey + ":" + orderId);
+            if (!duplicate) {
+                payments.put(paymentKey, "DONE");
+            }
+        }
+        try {
+            long delay = timeout
+                    ? hang.toMillis()
+                    : latency.toMillis() + (jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1));
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int status;
+        String response;
+        if (error) {
+            status = 500;
+            response = "{\"code\":\"FAILED_INTERNAL_SYSTEM_PROCESSING\",\"message\":\"stub error\"}";
+        } else if (decline) {
+            status = 400;
+            response = "{\"code\":\"REJECT_CARD_PAYMENT\",\"message\":\"stub decline\"}";
+        } else if (duplicate) {
+            status = 400;
+            response = "{\"code\":\"ALREADY_PROCESSED_PAYMENT\",\"message\":\"stub already processed\"}";
+        } else {
+            status = 200;
+            response = "{\"method\":\"간편결제\",\"status\":\"DONE\",\"easyPay\":{\"provider\":\"토스페이\",\"amount\":0}}";
+        }
+        respond(exchange, status, response);
+    }
+
+    // POST /v1/payments/{paymentKey}/cancel, GET /v1/payments/{paymentKey}
+    private void payment(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        String path = exchange.getRequestURI().getPath();
+        boolean cancel = path.endsWith("/cancel");
+        if (!cancel && !"GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 404, "{\"code\":\"NOT_FOUND\",\"message\":\"stub not found\"}");
+            return;
+        }
+        String paymentKey = path.substring("/v1/payments/".length(), cancel ? path.length() - "/cancel".length() : path.length());
+        String current = payments.get(paymentKey);
+        if (current == null) {
+            respond(exchange, 404, "{\"code\":\"NOT_FOUND_PAYMENT\",\"message\":\"stub payment not found\"}");
+        } else if (!cancel) {
+            respond(exchange, 200, paymentBody(current));
+        } else if (payments.replace(paymentKey, "DONE", "CANCELED")) {
+            respond(exchange, 200, paymentBody("CANCELED"));
+        } else {
+            respond(exchange, 400, "{\"code\":\"ALREADY_CANCELED_PAYMENT\",\"message\":\"stub already canceled\"}");
+        }
+    }
+
+    private static String paymentBody(String status) {
+        return "{\"method\":\"간편결제\",\"status\":\"" + status + "\",\"easyPay\":{\"provider\":\"토스페이\",\"amount\":0}}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String response) throws IOException {
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.jsbs.casemall.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsbs.casemall.dto.PaymentConfirmResult;
+import com.jsbs.casemall.exception.PaymentGatewayUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Slf4j
+public class TossPaymentClient {
+    // 토스페이먼츠 결제 승인/취소/조회 API 클라이언트
+    // 요청마다 HttpURLConnection 을 새로 열지 않고 HttpClient 하나로 keep-alive 연결을 재사용하고,
+    // 연결/응답 시간 제한을 두고, 비동기로 보내서 결제사 응답을 기다리는 동안 요청 스레드를 붙잡지 않는다
+    // 응답은 Jackson 스트리밍 파서로 필요한 필드만 읽는다
+    // payment.gateway.base-url 을 로컬 스텁(StubPaymentGateway) 주소로 바꾸면 외부 호출 없이 시험할 수 있다
+
+    private static final String CONFIRM_PATH = "/v1/payments/confirm";
+
+    private static final String PAYMENTS_PATH = "/v1/payments/";
+
+    private final PaymentGatewayGuard paymentGatewayGuard;
+    private final HttpClient httpClient;
+    private final ExecutorService executor; // 응답 처리 + 이후 주문 처리용
+    private final JsonFactory jsonFactory;
+    private final URI confirmUri;
+    private final String baseUrl;
+    private final String authorization;
+    private final Duration readTimeout;
+
+    public TossPaymentClient(ObjectMapper objectMapper, PaymentGatewayGuard paymentGatewayGuard,
+                             @Value("${payment.gateway.base-url:https://api.tosspayments.com}") String baseUrl,
+                             @Value("${payment.gateway.secret-key}") String secretKey,
+                             @Value("${payment.gateway.connect-timeout:PT3S}") Duration connectTimeout,
+                             @Value("${payment.gateway.read-timeout:PT10S}") Duration readTimeout,
+                             @Value("${payment.gateway.threads:16}") int threads) {
+        this.paymentGatewayGuard = paymentGatewayGuard;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "payment-client-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+        this.jsonFactory = objectMapper.getFactory();
+        this.confirmUri = URI.create(baseUrl + CONFIRM_PATH);
+        this.baseUrl = baseUrl;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((secretKey + ":").getBytes(StandardCharsets.UTF_8));
+        this.readTimeout = readTimeout;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // 서킷이 열려 있지 않은지 (재시도 스케줄러용)
+    public boolean isCallPermitted() {
+        return paymentGatewayGuard.isCallPermitted();
+    }
+
+    // 응답 처리가 끝난 뒤 이어지는 작업을 돌릴 스레드 풀
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    // 결제 승인 요청 - 연결 실패/시간 초과는 예외로,
+    // 서킷이 열렸거나 동시 호출 한도를 넘었거나 결제사 장애 응답(5xx, 429)이면 PaymentGatewayUnavailableException 으로 완료된다
+    public CompletableFuture<PaymentConfirmResult> confirm(String paymentKey, String orderId, String amount) {
+        HttpRequest request = HttpRequest.newBuilder(confirmUri)
+                .timeout(readTimeout)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(confirmBody(paymentKey, orderId, amount)))
+                .build();
+        return send(request, "승인", orderId);
+    }
+
+    // 결제 취소(전액 환불) 요청 - 승인은 됐지만 주문을 완료하지 못했을 때
+    // 같은 결제를 다시 취소하면 ALREADY_CANCELED_PAYMENT 코드로 응답하고, 멱등 키로 재시도가 중복 취소되지 않게 한다
+    public CompletableFuture<PaymentConfirmResult> cancel(String paymentKey, String cancelReason) {
+        HttpRequest request = HttpRequest.newBuilder(paymentUri(paymentKey, "/cancel"))
+                .timeout(readTimeout)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", "cancel-" + paymentKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(cancelBody(cancelReason)))
+                .build();
+        return send(request, "취소", paymentKey);
+    }
+
+    // 결제 조회 - 승인 재시도가 ALREADY_PROCESSED_PAYMENT 로 끝나서 승인 응답(결제 수단)을 받지 못했을 때
+    public CompletableFuture<PaymentConfirmResult> getPayment(String paymentKey) {
+        HttpRequest request = HttpRequest.newBuilder(paymentUri(paymentKey, ""))
+                .timeout(readTimeout)
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+        return send(request, "조회", paymentKey);
+    }
+
+    private URI paymentUri(String paymentKey, String suffix) {
+        return URI.create(baseUrl + PAYMENTS_PATH + URLEncoder.encode(paymentKey, StandardCharsets.UTF_8) + suffix);
+    }
+
+    private CompletableFuture<PaymentConfirmResult> send(HttpRequest request, String action, String id) {
+        PaymentGatewayGuard.Permit permit;
+        try {
+            permit = paymentGatewayGuard.acquire();
+        } catch (PaymentGatewayUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .whenComplete((response, e) -> {
+                    if (e != null || isGatewayError(response.statusCode())) {
+                        permit.failure();
+                    } else {
+                        permit.success();
+                    }
+                })
+                .thenApply(response -> {
+                    if (isGatewayError(response.statusCode())) {
+                        try (InputStream body = response.body()) {
+                            body.readAllBytes(); // 연결을 재사용할 수 있도록 본문을 비운다
+                        } catch (IOException ignored) {
+                        }
+                        throw new PaymentGatewayUnavailableException("결제사 장애 응답: " + response.statusCode());
+                    }
+                    try (InputStream body = response.body()) {
+                        PaymentConfirmResult result = parse(response.statusCode(), body);
+                        log.info("결제 {} 응답: {}, status={}, {}ms", action, id, response.statusCode(),
+                                (System.nanoTime() - start) / 1_000_000);
+                        return result;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    // 결제 거절(4xx)은 정상 응답으로 보고, 결제사 쪽 장애만 서킷 실패로 센다
+    private static boolean isGatewayError(int status) {
+        return status >= 500 || status == 429;
+    }
+
+    private byte[] confirmBody(String paymentKey, String orderId, String amount) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("orderId", orderId);
+            generator.writeStringField("amount", amount);
+            generator.writeStringField("paymentKey", paymentKey);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] cancelBody(String cancelReason) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("cancelReason", cancelReason);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // 최상위 status / method / code / message 와 easyPay.provider 만 읽고 나머지는 건너뛴다
+    private PaymentConfirmResult parse(int status, InputStream body) throws IOException {
+        String paymentStatus = null;
+        String method = null;
+        String provider = null;
+        String code = null;
+        String message = null;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("결제 응답 형식이 올바르지 않습니다.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "status" -> paymentStatus = parser.getValueAsString();
+                    case "method" -> method = parser.getValueAsString();
+                    case "code" -> code = parser.getValueAsString();
+                    case "message" -> message = parser.getValueAsString();
+                    case "easyPay" -> {
+                        if (value == JsonToken.START_OBJECT) {
+                            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                                String easyPayField = parser.getCurrentName();
+                                parser.nextToken();
+                                if ("provider".equals(easyPayField)) {
+                                    provider = parser.getValueAsString();
+                                } else {
+                                    parser.skipChildren();
+                                }
+                            }
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return new PaymentConfirmResult(status, paymentStatus, method, provider, code, message);
+    }
+}
@@ -2,9 +2,8 @@ package com.jsbs.casemall.service;
 
 import com.jsbs.casemall.constant.OrderStatus;
 import com.jsbs.casemall.dto.*;
-import com.jsbs.casemall.entity.Order;
-import com.jsbs.casemall.entity.OrderDetail;
 import com.jsbs.casemall.entity.Users;
+import com.jsbs.casemall.repository.OrderArchiveRepository;
 import com.jsbs.casemall.repository.OrderRepository;
 import com.jsbs.casemall.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -31,6 +30,8 @@ public class UserService implements UserDetailsService {
     private final SendService sendService;
     private final PasswordEncoder passwordEncoder;
     private final OrderRepository orderRepository;
+    private final MypageStatsCache mypageStatsCache;
+    private final OrderArchiveRepository orderArchiveRepository;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -141,27 +142,20 @@ public class UserService implements UserDetailsService {
     }
 
 
+    // 마이페이지 주문 통계 - 결제 완료 주문을 SQL 로 집계하고 회원별로 캐시
+    // 보관된 주문이 있는 회원은 보관 주문 통계도 합친다
     @Transactional(readOnly = true)
     public MypageDto myPageCompleteCount(String userId) {
-        Users user = userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("찾는 유저가 없습니다"));
-        List<Order> orders = orderRepository.findByUsersAndOrderStatus(user, OrderStatus.ORDER);
-        MypageDto result = new MypageDto();
-        int count = 0;
-        int total = 0;
-        // 주문 완료된 주문들을 순회 하면서
-        // 각각 아이템들의 가격을 더해서 dto 로 반환
-        for (Order order : orders) {
-            for(OrderDetail orderDetail : order.getOrderItems()){
-                total += orderDetail.getTotalPrice(); // 각각 아이템의 총 금액
-            }
-            count++; // order 순회 횟수  =  주문횟수
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("찾는 유저가 없습니다");
         }
-
-
-//        주문횟수   count
-//        토탈 금액  totalPay
-
-        return result;
+        return mypageStatsCache.get(userId, id -> {
+            MypageDto stats = orderRepository.getOrderStats(id, OrderStatus.PAID);
+            if (!orderArchiveRepository.existsByUserId(id)) {
+                return stats;
+            }
+            return stats.plus(orderArchiveRepository.getOrderStats(id, OrderStatus.PAID));
+        });
     }
 
     // 탈퇴
@@ -0,0 +1,27 @@
+-- 주문 아이디(orders.order_id) ULID 전환 (MySQL 8, 운영 반영시 한 번 실행)
+--
+-- 새 주문부터 OrderIdGenerator 가 만든 ULID(26자, 시간순) 를 쓴다.
+-- 기존 UUID(36자) 주문 아이디는 값을 바꾸지 않는다.
+-- 토스 결제 내역, payment_confirmation.order_id, outbox_event.aggregate_id 가 기존 값을 그대로 참조하기 때문이다.
+-- 두 형식이 섞여 있어도 조회는 그대로 동작하고, 새 주문은 인덱스 끝쪽(ULID 범위)에 모여서 들어간다.
+
+-- 1. 컬럼을 ascii + 바이너리 비교로 바꾼다
+--    utf8mb4 는 인덱스에서 글자당 최대 4바이트를 잡고 비교할 때 콜레이션 규칙을 거친다.
+--    주문 아이디는 영문/숫자/- 만 쓰므로 ascii_bin 으로 키 크기를 줄이고 비교를 단순하게 한다.
+--    (ALGORITHM=COPY 로 테이블을 다시 쓰므로 주문이 적은 시간에 실행)
+ALTER TABLE orders
+    MODIFY order_id VARCHAR(36) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+-- 결제 승인 기록도 같은 형식으로 맞춘다 (주문 아이디로 조회/비교할 때 형변환 방지)
+ALTER TABLE payment_confirmation
+    MODIFY order_id VARCHAR(36) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+-- 아웃박스 이벤트 대상(주문 이벤트면 orders.order_id) 도 같은 형식으로 맞춘다 (길이는 엔티티 기본값 그대로)
+ALTER TABLE outbox_event
+    MODIFY aggregate_id VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+-- 2. 무작위 UUID 삽입으로 쪼개진 인덱스 페이지 정리
+OPTIMIZE TABLE orders;
+
+-- 확인용 : 형식별 주문 수 (새 주문이 ULID 로 들어오는지)
+-- SELECT CHAR_LENGTH(order_id) AS id_length, COUNT(*) FROM orders GROUP BY CHAR_LENGTH(order_id);
@@ -0,0 +1,19 @@
+-- 판매 집계 취소 컬럼 이름 변경 (MySQL 8, 새 버전 배포 전에 한 번 실행)
+--
+-- 결제 완료(ORDER) 주문은 취소로 바꿀 수 없으므로 cancel_count / cancel_quantity 에는
+-- 결제 대기 만료, 사용자 취소, 승인 후 처리 실패로 환불한 주문만 들어 있다. (모두 결제 전 취소)
+-- 결제 후 취소로 읽히지 않도록 unpaid_cancel_* 로 이름을 바꾼다. 값은 그대로 둔다.
+--
+-- 배포 전에 실행해야 한다.
+-- ddl-auto=update 가 새 컬럼을 먼저 만들면 NOT NULL 인 예전 컬럼에 값이 없어서 집계 INSERT 가 실패한다.
+
+ALTER TABLE sales_daily_model
+    RENAME COLUMN cancel_count TO unpaid_cancel_count,
+    RENAME COLUMN cancel_quantity TO unpaid_cancel_quantity;
+
+ALTER TABLE sales_daily_category
+    RENAME COLUMN cancel_count TO unpaid_cancel_count,
+    RENAME COLUMN cancel_quantity TO unpaid_cancel_quantity;
+
+-- 확인용 : 이름을 바꾼 뒤 관리자 매출 재계산(POST /admin/order/sales/rebuild) 결과와 비교
+-- SELECT sales_date, SUM(unpaid_cancel_quantity) FROM sales_daily_model GROUP BY sales_date ORDER BY sales_date DESC LIMIT 7;
@@ -0,0 +1,139 @@
+package com.jsbs.casemall.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderAdmissionInterceptorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static SpringTemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    private OrderAdmissionInterceptor interceptor(double rate, int burst, int maxConcurrent, int queueSize, Duration maxWait) {
+        return new OrderAdmissionInterceptor(objectMapper, templateEngine(), rate, burst, 10, 20,
+                maxConcurrent, queueSize, maxWait);
+    }
+
+    private static MockHttpServletRequest cartOrder(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/order");
+        request.addParameter("type", "cart");
+        request.addParameter("cartItemIds", "3", "7");
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return request;
+    }
+
+    @Test
+    void 유입량을_넘은_JSON_요청은_429와_Retry_After() throws Exception {
+        OrderAdmissionInterceptor interceptor = interceptor(0.5, 1, 4, 20, Duration.ofMillis(100));
+        assertTrue(interceptor.preHandle(cartOrder(MediaType.APPLICATION_JSON_VALUE), new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(cartOrder(MediaType.APPLICATION_JSON_VALUE), response, null));
+
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertTrue(body.get("retryAfter").asLong() >= 1);
+    }
+
+    @Test
+    void 폼_전송은_대기_화면을_받고_같은_입력값으로_다시_주문한다() throws Exception {
+        OrderAdmissionInterceptor interceptor = interceptor(0.5, 1, 4, 20, Duration.ofMillis(100));
+        interceptor.preHandle(cartOrder("text/html,application/xhtml+xml,*/*;q=0.8"), new MockHttpServletResponse(), null);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(cartOrder("text/html,application/xhtml+xml,*/*;q=0.8"), response, null));
+
+        assertEquals(429, response.getStatus());
+        assertTrue(response.getContentType().startsWith(MediaType.TEXT_HTML_VALUE));
+        String html = response.getContentAsString();
+        assertTrue(html.contains("action=\"/order\""), html);
+        assertTrue(html.contains("name=\"type\" value=\"cart\""), html);
+        assertTrue(html.contains("name=\"cartItemIds\" value=\"3\""), html);
+        assertTrue(html.contains("name=\"cartItemIds\" value=\"7\""), html);
+    }
+
+    @Test
+    void 동시_처리_수를_넘으면_잠깐만_기다리고_순번과_예상_시간으로_거절() throws Exception {
+        OrderAdmissionInterceptor interceptor = interceptor(1000, 1000, 1, 20, Duration.ofMillis(100));
+        MockHttpServletRequest first = cartOrder(MediaType.APPLICATION_JSON_VALUE);
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long start = System.nanoTime();
+        assertFalse(interceptor.preHandle(cartOrder(MediaType.APPLICATION_JSON_VALUE), response, null));
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(waitedMillis < 1_000, "대기 시간: " + waitedMillis + "ms"); // max-wait 만큼만 스레드를 잡는다
+        assertEquals(503, response.getStatus());
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertEquals(1, body.get("position").asLong());
+        assertTrue(body.get("eta").asLong() >= 1);
+
+        // 앞 주문이 끝나면 다음 주문이 들어간다
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertTrue(interceptor.preHandle(cartOrder(MediaType.APPLICATION_JSON_VALUE), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void 대기열이_가득_차면_기다리지_않고_바로_거절() throws Exception {
+        OrderAdmissionInterceptor interceptor = interceptor(1000, 1000, 1, 0, Duration.ofSeconds(10));
+        assertTrue(interceptor.preHandle(cartOrder(MediaType.APPLICATION_JSON_VALUE), new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long start = System.nanoTime();
+        assertFalse(interceptor.preHandle(cartOrder(MediaType.APPLICATION_JSON_VALUE), response, null));
+
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+        assertEquals(503, response.getStatus());
+        assertEquals(1, objectMapper.readTree(response.getContentAsString()).get("position").asLong());
+    }
+
+    @Test
+    void 바로구매는_상품별_버킷도_확인() throws Exception {
+        OrderAdmissionInterceptor interceptor = new OrderAdmissionInterceptor(objectMapper, templateEngine(),
+                1000, 1000, 0.5, 1, 4, 20, Duration.ofMillis(100));
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/order/now");
+        first.addParameter("prId", "5");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+
+        MockHttpServletRequest sameProduct = new MockHttpServletRequest("POST", "/order/now");
+        sameProduct.addParameter("prId", "5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(sameProduct, response, null));
+        assertEquals(429, response.getStatus());
+
+        MockHttpServletRequest otherProduct = new MockHttpServletRequest("POST", "/order/now");
+        otherProduct.addParameter("prId", "6");
+        assertTrue(interceptor.preHandle(otherProduct, new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void POST_가_아니면_제한하지_않는다() throws Exception {
+        OrderAdmissionInterceptor interceptor = interceptor(0.001, 1, 1, 0, Duration.ofMillis(10));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/order"), new MockHttpServletResponse(), null));
+        }
+    }
+}
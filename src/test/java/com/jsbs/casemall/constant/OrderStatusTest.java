@@ -0,0 +1,60 @@
+package com.jsbs.casemall.constant;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static com.jsbs.casemall.constant.OrderStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusTest {
+
+    @Test
+    void 결제_전_주문만_결제_확인중_완료_취소로_바뀐다() {
+        assertTrue(STAY.canTransitionTo(PAYMENT_PENDING));
+        assertTrue(STAY.canTransitionTo(ORDER));
+        assertTrue(STAY.canTransitionTo(CANCEL));
+        assertTrue(PAYMENT_PENDING.canTransitionTo(ORDER));
+        assertTrue(PAYMENT_PENDING.canTransitionTo(CANCEL));
+
+        assertFalse(PAYMENT_PENDING.canTransitionTo(STAY));
+        assertFalse(ORDER.canTransitionTo(CANCEL)); // 결제 완료 후 취소는 환불 절차로
+        assertFalse(STAY.canTransitionTo(SHIPPED));
+    }
+
+    @Test
+    void 결제_완료_후에는_배송중_배송완료_순서로만_바뀐다() {
+        assertTrue(ORDER.canTransitionTo(SHIPPED));
+        assertTrue(SHIPPED.canTransitionTo(COMPLETED));
+
+        assertFalse(ORDER.canTransitionTo(COMPLETED));
+        assertFalse(SHIPPED.canTransitionTo(ORDER));
+        assertFalse(COMPLETED.canTransitionTo(SHIPPED));
+    }
+
+    @Test
+    void 취소와_배송완료는_더_바뀌지_않고_같은_상태로도_바뀌지_않는다() {
+        for (OrderStatus next : values()) {
+            assertFalse(CANCEL.canTransitionTo(next), "CANCEL -> " + next);
+            assertFalse(COMPLETED.canTransitionTo(next), "COMPLETED -> " + next);
+        }
+        for (OrderStatus status : values()) {
+            assertFalse(status.canTransitionTo(status), status.name());
+        }
+    }
+
+    @Test
+    void 이전_상태_목록() {
+        assertEquals(EnumSet.of(STAY), sourcesOf(PAYMENT_PENDING));
+        assertEquals(EnumSet.of(STAY, PAYMENT_PENDING), sourcesOf(ORDER));
+        assertEquals(EnumSet.of(STAY, PAYMENT_PENDING), sourcesOf(CANCEL));
+        assertEquals(EnumSet.of(ORDER), sourcesOf(SHIPPED));
+        assertEquals(EnumSet.of(SHIPPED), sourcesOf(COMPLETED));
+        assertTrue(sourcesOf(STAY).isEmpty());
+    }
+
+    @Test
+    void 결제가_끝난_주문() {
+        assertEquals(EnumSet.of(ORDER, SHIPPED, COMPLETED), PAID);
+    }
+}
@@ -0,0 +1,66 @@
+package com.jsbs.casemall.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MypageDtoTest {
+
+    private static final LocalDateTime HOT_LAST = LocalDateTime.of(2024, 5, 1, 12, 0);
+    private static final LocalDateTime ARCHIVED_LAST = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    @Test
+    void 보관_주문_통계를_더하면_건수와_금액은_합치고_마지막_주문일은_늦은_날() {
+        MypageDto hot = new MypageDto(2L, 30000L, HOT_LAST);
+        MypageDto archived = new MypageDto(3L, 45000L, ARCHIVED_LAST);
+
+        MypageDto sum = hot.plus(archived);
+
+        assertEquals(5, sum.getCount());
+        assertEquals(75000, sum.getTotalPay());
+        assertEquals(HOT_LAST, sum.getLastOrderDate());
+        // 보관 주문이 더 늦을 수는 없지만, 순서와 상관없이 늦은 날을 고른다
+        assertEquals(HOT_LAST, archived.plus(hot).getLastOrderDate());
+    }
+
+    @Test
+    void 최근_주문이_없으면_보관_주문의_마지막_주문일() {
+        MypageDto empty = new MypageDto(0L, null, null);
+        MypageDto archived = new MypageDto(3L, 45000L, ARCHIVED_LAST);
+
+        MypageDto sum = empty.plus(archived);
+
+        assertEquals(3, sum.getCount());
+        assertEquals(45000, sum.getTotalPay());
+        assertEquals(ARCHIVED_LAST, sum.getLastOrderDate());
+    }
+
+    @Test
+    void 보관_주문이_없으면_그대로() {
+        MypageDto hot = new MypageDto(2L, 30000L, HOT_LAST);
+
+        MypageDto sum = hot.plus(new MypageDto(0L, null, null));
+
+        assertEquals(2, sum.getCount());
+        assertEquals(30000, sum.getTotalPay());
+        assertEquals(HOT_LAST, sum.getLastOrderDate());
+    }
+
+    @Test
+    void 더해도_원래_통계는_바뀌지_않는다() {
+        MypageDto hot = new MypageDto(2L, 30000L, null);
+        MypageDto archived = new MypageDto(3L, 45000L, ARCHIVED_LAST);
+
+        MypageDto sum = hot.plus(archived);
+
+        assertNotSame(hot, sum);
+        assertEquals(2, hot.getCount());
+        assertEquals(30000, hot.getTotalPay());
+        assertNull(hot.getLastOrderDate());
+        assertEquals(3, archived.getCount());
+        assertEquals(45000, archived.getTotalPay());
+        assertEquals(ARCHIVED_LAST, archived.getLastOrderDate());
+    }
+}
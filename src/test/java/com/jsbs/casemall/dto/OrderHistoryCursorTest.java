@@ -0,0 +1,44 @@
+package com.jsbs.casemall.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderHistoryCursorTest {
+
+    @Test
+    void 토큰이_없으면_첫_페이지() {
+        assertTrue(OrderHistoryCursor.decode(null).isFirstPage());
+        assertTrue(OrderHistoryCursor.decode(" ").isFirstPage());
+    }
+
+    @Test
+    void 인코딩한_커서를_그대로_되살린다() {
+        OrderHistoryCursor cursor = OrderHistoryCursor.first().next(1_234_567L, 89L);
+
+        OrderHistoryCursor decoded = OrderHistoryCursor.decode(cursor.encode());
+
+        assertFalse(decoded.isFirstPage());
+        assertEquals(1_234_567L, decoded.getLastOrderNo());
+        assertEquals(89L, decoded.getLastOrderItemId());
+    }
+
+    @Test
+    void 토큰은_URL_에_그대로_넣을_수_있다() {
+        String token = OrderHistoryCursor.first().next(Long.MAX_VALUE, Long.MAX_VALUE).encode();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void 잘못된_토큰은_IllegalArgumentException() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("123".getBytes(StandardCharsets.UTF_8));
+        String notNumber = Base64.getUrlEncoder().encodeToString("a:b".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> OrderHistoryCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> OrderHistoryCursor.decode(noSeparator));
+        assertThrows(IllegalArgumentException.class, () -> OrderHistoryCursor.decode(notNumber));
+    }
+}
@@ -0,0 +1,153 @@
+package com.jsbs.casemall.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 주문 아이디 형식별 삽입/조회 처리량 비교 (UUID vs ULID)
+// 오래 걸리므로 평소 빌드에서는 건너뛰고 환경 변수를 줄 때만 실행한다
+//   ORDER_ID_BENCHMARK=true ./gradlew test --tests '*OrderIdBenchmarkTest'
+//   ORDER_ID_BENCHMARK_ROWS   : 형식별 주문 수 (기본 10,000,000)
+//   ORDER_ID_BENCHMARK_URL    : JDBC URL (기본 build/tmp 의 H2 파일 DB, 운영과 같은 조건이면 MySQL 지정)
+//   ORDER_ID_BENCHMARK_USER / ORDER_ID_BENCHMARK_PASSWORD
+// 결과는 100만 건마다의 삽입 속도(뒤로 갈수록 느려지는지)와, 전체/최근 10% 주문 조회 속도를 로그로 남긴다
+@EnabledIfEnvironmentVariable(named = "ORDER_ID_BENCHMARK", matches = "true")
+class OrderIdBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIdBenchmarkTest.class);
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int REPORT_EVERY = 1_000_000;
+    private static final int LOOKUPS = 100_000;
+
+    private final long rows = Long.parseLong(env("ORDER_ID_BENCHMARK_ROWS", "10000000"));
+    private final String url = env("ORDER_ID_BENCHMARK_URL", "jdbc:h2:file:./build/tmp/order-id-benchmark;MODE=MySQL");
+    private final String user = env("ORDER_ID_BENCHMARK_USER", "sa");
+    private final String password = env("ORDER_ID_BENCHMARK_PASSWORD", "");
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    @Test
+    void 주문아이디_형식별_삽입_조회_처리량() throws SQLException {
+        Result uuid = run("bench_orders_uuid", () -> UUID.randomUUID().toString());
+        Result ulid = run("bench_orders_ulid", OrderIdGenerator::next);
+
+        log.info("[주문 아이디 벤치마크] {} 건, {}", String.format("%,d", rows), url);
+        log.info(String.format("%-6s %14s %14s %14s %14s", "형식", "삽입(건/초)", "마지막구간", "조회(건/초)", "최근조회"));
+        uuid.print("UUID");
+        ulid.print("ULID");
+
+        assertEquals(rows, uuid.count);
+        assertEquals(rows, ulid.count);
+    }
+
+    private Result run(String table, Supplier<String> ids) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + table);
+                statement.execute("CREATE TABLE " + table + " (" +
+                        "order_no BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                        "order_id VARCHAR(36) NOT NULL, " +
+                        "order_date TIMESTAMP NOT NULL, " +
+                        "CONSTRAINT uk_" + table + " UNIQUE (order_id))");
+            }
+            connection.setAutoCommit(false);
+
+            Result result = new Result();
+            List<String> sample = new ArrayList<>(LOOKUPS); // 전체 구간에서 고르게 뽑은 아이디
+            List<String> recent = new ArrayList<>(LOOKUPS); // 마지막 10% 구간 아이디
+            long sampleEvery = Math.max(1, rows / LOOKUPS);
+            long recentFrom = rows - rows / 10;
+            long recentEvery = Math.max(1, (rows / 10) / LOOKUPS);
+
+            long start = System.nanoTime();
+            long sectionStart = start;
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO " + table + " (order_id, order_date) VALUES (?, ?)")) {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                for (long i = 0; i < rows; i++) {
+                    String id = ids.get();
+                    if (i % sampleEvery == 0 && sample.size() < LOOKUPS) {
+                        sample.add(id);
+                    }
+                    if (i >= recentFrom && (i - recentFrom) % recentEvery == 0 && recent.size() < LOOKUPS) {
+                        recent.add(id);
+                    }
+                    insert.setString(1, id);
+                    insert.setTimestamp(2, now);
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0 || i + 1 == rows) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                    if ((i + 1) % REPORT_EVERY == 0) {
+                        long sectionEnd = System.nanoTime();
+                        result.lastSectionRate = perSecond(REPORT_EVERY, sectionEnd - sectionStart);
+                        log.info("{} {} 건: 구간 {} 건/초", table, String.format("%,d", i + 1),
+                                String.format("%,.0f", result.lastSectionRate));
+                        sectionStart = sectionEnd;
+                    }
+                }
+            }
+            result.insertRate = perSecond(rows, System.nanoTime() - start);
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                rs.next();
+                result.count = rs.getLong(1);
+            }
+
+            result.lookupRate = lookup(connection, table, sample);
+            result.recentLookupRate = lookup(connection, table, recent);
+            return result;
+        }
+    }
+
+    private double lookup(Connection connection, String table, List<String> keys) throws SQLException {
+        List<String> shuffled = new ArrayList<>(keys);
+        Collections.shuffle(shuffled, new Random(42));
+        long start = System.nanoTime();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT order_no FROM " + table + " WHERE order_id = ?")) {
+            for (String key : shuffled) {
+                select.setString(1, key);
+                try (ResultSet rs = select.executeQuery()) {
+                    assertTrue(rs.next(), key);
+                }
+            }
+        }
+        connection.commit();
+        return perSecond(shuffled.size(), System.nanoTime() - start);
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return count * 1_000_000_000.0 / nanos;
+    }
+
+    private static class Result {
+        private long count;
+        private double insertRate;
+        private double lastSectionRate;
+        private double lookupRate;
+        private double recentLookupRate;
+
+        private void print(String name) {
+            log.info(String.format("%-6s %,14.0f %,14.0f %,14.0f %,14.0f",
+                    name, insertRate, lastSectionRate, lookupRate, recentLookupRate));
+        }
+    }
+}
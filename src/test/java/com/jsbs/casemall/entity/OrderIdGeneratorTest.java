@@ -0,0 +1,42 @@
+package com.jsbs.casemall.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderIdGeneratorTest {
+
+    @Test
+    void 토스_주문아이디_형식에_맞는_26자() {
+        String id = OrderIdGenerator.next();
+        assertEquals(OrderIdGenerator.LENGTH, id.length());
+        assertTrue(id.matches("[0-9A-HJKMNP-TV-Z]{26}"), id);
+    }
+
+    @Test
+    void 같은_밀리초에서도_계속_증가하고_겹치지_않는다() {
+        Set<String> ids = new HashSet<>();
+        String previous = "";
+        for (int i = 0; i < 100_000; i++) {
+            String id = OrderIdGenerator.next();
+            assertTrue(id.compareTo(previous) > 0, previous + " -> " + id);
+            assertTrue(ids.add(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void 시각이_앞자리에_들어가서_시간순으로_정렬된다() {
+        long now = System.currentTimeMillis() + 60_000; // 다른 테스트가 만든 시각보다 뒤
+        String earlier = OrderIdGenerator.next(now);
+        String later = OrderIdGenerator.next(now + 1);
+        assertTrue(later.substring(0, 10).compareTo(earlier.substring(0, 10)) > 0);
+
+        // 시계가 뒤로 가도 직전 아이디보다 커진다
+        String afterClockSkew = OrderIdGenerator.next(now - 1000);
+        assertTrue(afterClockSkew.compareTo(later) > 0);
+    }
+}
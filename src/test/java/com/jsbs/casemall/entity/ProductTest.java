@@ -0,0 +1,138 @@
+package com.jsbs.casemall.entity;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.jsbs.casemall.constant.ProductSellStatus;
+import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.dto.ProductFormDto;
+import com.jsbs.casemall.dto.ProductModelDto;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductTest {
+
+    @Autowired
+    private EntityManager em;
+
+    private Long createProduct() {
+        Product product = new Product();
+        product.setPrName("테스트 케이스");
+        product.setPrDetail("상세 설명");
+        product.setPrPrice(10000);
+        product.setProductSellStatus(ProductSellStatus.SELL);
+        product.setProductCategory(ProductCategory.PHONE_CASE);
+        product.setProductType(ProductType.HARD);
+        product.addProductModel(model(ProductModelSelect.IPHONE15, 10));
+        product.addProductModel(model(ProductModelSelect.GALAXYS24, 5));
+        em.persist(product);
+        em.flush();
+        em.clear();
+        return product.getId();
+    }
+
+    private ProductModel model(ProductModelSelect select, int stock) {
+        ProductModel productModel = new ProductModel();
+        productModel.setProductModelSelect(select);
+        productModel.setPrStock(stock);
+        return productModel;
+    }
+
+    // 기종 목록은 순서가 정해져 있지 않으므로 기종으로 찾는다
+    private ProductModel modelOf(Product product, ProductModelSelect select) {
+        return product.getProductModelList().stream()
+                .filter(model -> model.getProductModelSelect() == select)
+                .findFirst().orElseThrow();
+    }
+
+    private ProductModelDto modelDto(ProductModelSelect select, int stock) {
+        ProductModelDto productModelDto = new ProductModelDto();
+        productModelDto.setProductModelSelect(select);
+        productModelDto.setPrStock(stock);
+        return productModelDto;
+    }
+
+    private ProductFormDto formDto(Product product, List<ProductModelDto> models) {
+        ProductFormDto productFormDto = ProductFormDto.of(product);
+        productFormDto.setProductModelDtoList(models);
+        return productFormDto;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    void 가격만_수정하면_기종은_쓰지_않음() {
+        Product product = em.find(Product.class, createProduct());
+        List<Long> modelIds = product.getProductModelList().stream().map(ProductModel::getId).collect(Collectors.toList());
+
+        ProductFormDto productFormDto = formDto(product, List.of(
+                modelDto(ProductModelSelect.IPHONE15, 10), modelDto(ProductModelSelect.GALAXYS24, 5)));
+        productFormDto.setPrPrice(12000);
+
+        Statistics statistics = statistics();
+        product.updateProduct(productFormDto);
+        em.flush();
+
+        assertEquals(0, statistics.getEntityStatistics(ProductModel.class.getName()).getInsertCount());
+        assertEquals(0, statistics.getEntityStatistics(ProductModel.class.getName()).getUpdateCount());
+        assertEquals(0, statistics.getEntityStatistics(ProductModel.class.getName()).getDeleteCount());
+        assertEquals(1, statistics.getEntityStatistics(Product.class.getName()).getUpdateCount());
+        assertEquals(modelIds, product.getProductModelList().stream().map(ProductModel::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void 기종은_바뀐_부분만_추가_수정_삭제() {
+        Product product = em.find(Product.class, createProduct());
+        Long iphoneId = modelOf(product, ProductModelSelect.IPHONE15).getId();
+
+        ProductFormDto productFormDto = formDto(product, List.of(
+                modelDto(ProductModelSelect.IPHONE15, 7), modelDto(ProductModelSelect.NOTE20, 3)));
+
+        Statistics statistics = statistics();
+        product.updateProduct(productFormDto);
+        em.flush();
+        em.clear();
+
+        assertEquals(1, statistics.getEntityStatistics(ProductModel.class.getName()).getInsertCount());
+        assertEquals(1, statistics.getEntityStatistics(ProductModel.class.getName()).getUpdateCount());
+        assertEquals(1, statistics.getEntityStatistics(ProductModel.class.getName()).getDeleteCount());
+
+        Map<ProductModelSelect, ProductModel> models = em.find(Product.class, product.getId()).getProductModelList().stream()
+                .collect(Collectors.toMap(ProductModel::getProductModelSelect, model -> model));
+        assertEquals(2, models.size());
+        assertEquals(iphoneId, models.get(ProductModelSelect.IPHONE15).getId());
+        assertEquals(7, models.get(ProductModelSelect.IPHONE15).getPrStock());
+        assertEquals(3, models.get(ProductModelSelect.NOTE20).getPrStock());
+    }
+
+    @Test
+    void 마지막_재고가_소진되면_같은_트랜잭션에서_품절() {
+        Product product = em.find(Product.class, createProduct());
+        ProductModel iphone = modelOf(product, ProductModelSelect.IPHONE15);
+        ProductModel galaxy = modelOf(product, ProductModelSelect.GALAXYS24);
+
+        iphone.removeStock(10);
+        assertEquals(ProductSellStatus.SELL, product.getProductSellStatus());
+        galaxy.removeStock(5);
+        assertEquals(ProductSellStatus.SOLD_OUT, product.getProductSellStatus());
+        assertEquals(0, product.getInStockModelCount());
+
+        galaxy.addStock(1);
+        assertEquals(ProductSellStatus.SELL, product.getProductSellStatus());
+        assertEquals(1, product.getInStockModelCount());
+    }
+}
@@ -0,0 +1,148 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.constant.*;
+import com.jsbs.casemall.dto.CursorPageDto;
+import com.jsbs.casemall.dto.OrderHistoryCursor;
+import com.jsbs.casemall.dto.OrderHistoryItemDto;
+import com.jsbs.casemall.entity.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class OrderRepositoryTest {
+
+    private static final String USER_ID = "history-user";
+    private static final int ORDER_COUNT = 5;
+    private static final int LINES_PER_ORDER = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        Users user = Users.builder()
+                .userId(USER_ID)
+                .name("주문자")
+                .userPw("pw")
+                .email("history@test.com")
+                .phone("010-0000-0000")
+                .pCode("12345")
+                .loadAddr("도로명 주소")
+                .lotAddr("지번 주소")
+                .detailAddr("상세 주소")
+                .role(Role.USER)
+                .build();
+        em.persist(user);
+
+        // 대표 이미지가 두 장인 상품 - 조인하면 주문 항목이 두 번씩 나온다
+        Product product = new Product();
+        product.setPrName("주문내역 케이스");
+        product.setPrDetail("상세 설명");
+        product.setPrPrice(10000);
+        product.setProductSellStatus(ProductSellStatus.SELL);
+        product.setProductCategory(ProductCategory.PHONE_CASE);
+        product.setProductType(ProductType.HARD);
+        for (String[] img : new String[][]{{"/images/a.jpg", "Y"}, {"/images/b.jpg", "Y"}, {"/images/c.jpg", "N"}}) {
+            ProductImg productImg = new ProductImg();
+            productImg.setImgUrl(img[0]);
+            productImg.setPrMainImg(img[1]);
+            product.addProductImg(productImg);
+        }
+        ProductModel productModel = new ProductModel();
+        productModel.setProductModelSelect(ProductModelSelect.IPHONE15);
+        productModel.setPrStock(100);
+        product.addProductModel(productModel);
+        em.persist(product);
+
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            List<OrderDetail> lines = new ArrayList<>();
+            for (int j = 0; j < LINES_PER_ORDER; j++) {
+                lines.add(OrderDetail.createOrderDetails(product, productModel, j + 1));
+            }
+            Order order = Order.createOrder(user, lines);
+            order.setOrderStatus(OrderStatus.ORDER);
+            em.persist(order);
+        }
+
+        // 결제 전 주문은 주문내역에 나오지 않는다
+        Order stay = Order.createOrder(user, List.of(OrderDetail.createOrderDetails(product, productModel, 1)));
+        em.persist(stay);
+
+        em.flush();
+        em.clear();
+    }
+
+    // 커서를 따라 끝까지 읽는다
+    private List<OrderHistoryItemDto> readAll(int size) {
+        List<OrderHistoryItemDto> all = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        do {
+            CursorPageDto<OrderHistoryItemDto> page = orderRepository.getOrderHistoryPage(
+                    USER_ID, OrderHistoryCursor.decode(token), size, false);
+            assertTrue(page.getContent().size() <= size);
+            all.addAll(page.getContent());
+            token = page.getNextCursor();
+            assertEquals(page.isHasNext(), token != null);
+            assertTrue(++pages <= ORDER_COUNT * LINES_PER_ORDER + 1, "커서가 끝나지 않음");
+        } while (token != null);
+        return all;
+    }
+
+    @Test
+    void 대표_이미지가_여러_장이어도_주문_항목은_한_번씩() {
+        CursorPageDto<OrderHistoryItemDto> page = orderRepository.getOrderHistoryPage(
+                USER_ID, OrderHistoryCursor.first(), 100, false);
+
+        assertEquals(ORDER_COUNT * LINES_PER_ORDER, page.getContent().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        for (OrderHistoryItemDto line : page.getContent()) {
+            assertEquals("/images/a.jpg", line.getImgUrl());
+        }
+    }
+
+    @Test
+    void 주문_중간에서_페이지가_나뉘어도_빠지거나_겹치는_항목이_없다() {
+        List<OrderHistoryItemDto> all = readAll(2); // 한 주문(3개 항목)이 두 페이지에 걸친다
+
+        assertEquals(ORDER_COUNT * LINES_PER_ORDER, all.size());
+        assertEquals(all.size(), all.stream().map(OrderHistoryItemDto::getOrderItemId).distinct().count());
+        for (int i = 1; i < all.size(); i++) {
+            OrderHistoryItemDto prev = all.get(i - 1);
+            OrderHistoryItemDto line = all.get(i);
+            assertTrue(prev.getOrderNo() > line.getOrderNo()
+                    || (prev.getOrderNo().equals(line.getOrderNo()) && prev.getOrderItemId() > line.getOrderItemId()));
+        }
+    }
+
+    @Test
+    void 기간_조회도_같은_커서로_끝까지_읽는다() {
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        List<OrderHistoryItemDto> all = new ArrayList<>();
+        String token = null;
+        do {
+            CursorPageDto<OrderHistoryItemDto> page = orderRepository.getOrderLinePageByDate(
+                    from, to, OrderHistoryCursor.decode(token), 4, false);
+            all.addAll(page.getContent());
+            token = page.getNextCursor();
+        } while (token != null);
+
+        // 기간 조회는 상태와 상관없이 모든 주문 (결제 전 주문 1건 포함)
+        assertEquals(ORDER_COUNT * LINES_PER_ORDER + 1, all.size());
+        assertEquals(all.size(), all.stream().map(OrderHistoryItemDto::getOrderItemId).distinct().count());
+    }
+}
@@ -0,0 +1,201 @@
+package com.jsbs.casemall.repository;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.jsbs.casemall.constant.ProductSellStatus;
+import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.dto.HomeProductDto;
+import com.jsbs.casemall.dto.MainProductDto;
+import com.jsbs.casemall.dto.ProductListDto;
+import com.jsbs.casemall.entity.Product;
+import com.jsbs.casemall.entity.ProductImg;
+import com.jsbs.casemall.entity.ProductModel;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductRepositoryTest {
+
+    private static final int PRODUCT_COUNT = 200;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= PRODUCT_COUNT; i++) {
+            Product product = new Product();
+            product.setPrName("테스트 케이스 " + i);
+            product.setPrDetail("상세 설명 " + i);
+            product.setPrPrice(1000 * (i % 30 + 1));
+            product.setProductSellStatus(ProductSellStatus.SELL);
+            product.setProductCategory(ProductCategory.PHONE_CASE);
+            product.setProductType(ProductType.HARD);
+
+            for (String mainImg : new String[]{"Y", "N"}) {
+                ProductImg productImg = new ProductImg();
+                productImg.setImgUrl("/images/product/" + i + "_" + mainImg + ".jpg");
+                productImg.setPrMainImg(mainImg);
+                product.addProductImg(productImg);
+            }
+
+            ProductModel productModel = new ProductModel();
+            productModel.setProductModelSelect(ProductModelSelect.IPHONE15);
+            productModel.setPrStock(10);
+            product.addProductModel(productModel);
+
+            em.persist(product);
+        }
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void 카테고리_목록_조회는_상품_수와_상관없이_쿼리_한번() {
+        List<ProductListDto> products = productRepository.getListProducts(
+                ProductCategory.PHONE_CASE, ProductType.HARD, Sort.by("prPrice").ascending());
+
+        assertEquals(PRODUCT_COUNT, products.size());
+        for (ProductListDto product : products) {
+            assertTrue(product.getImgUrl().endsWith("_Y.jpg")); // 대표 이미지만 조인
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void 엔티티_목록에서_이미지와_기종을_순회해도_쿼리_수가_고정() {
+        List<Product> products = productRepository.findByProductCategoryAndProductType(
+                ProductCategory.PHONE_CASE, ProductType.HARD, Sort.by("prPrice").ascending());
+
+        assertEquals(PRODUCT_COUNT, products.size());
+        for (Product product : products) {
+            assertEquals(2, product.getProductImgList().size());
+            assertEquals(1, product.getProductModelList().size());
+        }
+        // 상품+이미지 fetch join 1번 + 기종 목록 @BatchSize(100) 로 2번
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "실행된 쿼리 수 : " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void ID_목록_조회는_대표_이미지가_없거나_여러_개여도_상품당_한_행() {
+        Product noImage = new Product();
+        noImage.setPrName("이미지 없는 케이스");
+        noImage.setPrDetail("상세 설명");
+        noImage.setPrPrice(1000);
+        noImage.setProductCategory(ProductCategory.PHONE_CASE);
+        noImage.setProductType(ProductType.HARD);
+        em.persist(noImage);
+
+        Product twoMain = new Product();
+        twoMain.setPrName("대표 이미지 두 개 케이스");
+        twoMain.setPrDetail("상세 설명");
+        twoMain.setPrPrice(1000);
+        twoMain.setProductCategory(ProductCategory.PHONE_CASE);
+        twoMain.setProductType(ProductType.HARD);
+        for (int i = 0; i < 2; i++) {
+            ProductImg productImg = new ProductImg();
+            productImg.setImgUrl("/images/product/two_" + i + ".jpg");
+            productImg.setPrMainImg("Y");
+            twoMain.addProductImg(productImg);
+        }
+        em.persist(twoMain);
+        em.flush();
+        em.clear();
+
+        List<MainProductDto> products = productRepository.getMainProductsByIds(List.of(noImage.getId(), twoMain.getId()));
+
+        assertEquals(2, products.size());
+        assertEquals(twoMain.getId(), products.get(0).getId()); // ID 내림차순
+        assertEquals("/images/product/two_0.jpg", products.get(0).getImgUrl());
+        assertEquals(noImage.getId(), products.get(1).getId());
+        assertNull(products.get(1).getImgUrl());
+    }
+
+    // imgs 는 {이미지 URL, 대표 이미지 여부} 순서대로 등록
+    private Product persistProduct(String name, String[]... imgs) {
+        Product product = new Product();
+        product.setPrName(name);
+        product.setPrDetail("상세 설명");
+        product.setPrPrice(1000);
+        product.setProductSellStatus(ProductSellStatus.SELL);
+        product.setProductCategory(ProductCategory.PHONE_CASE);
+        product.setProductType(ProductType.JELLY);
+        for (String[] img : imgs) {
+            ProductImg productImg = new ProductImg();
+            productImg.setImgUrl(img[0]);
+            productImg.setPrMainImg(img[1]);
+            product.addProductImg(productImg);
+        }
+        em.persist(product);
+        return product;
+    }
+
+    @Test
+    void 홈_상품은_상품당_한_행이고_대표_이미지가_없으면_첫_이미지() {
+        Product mainDeleted = persistProduct("대표 이미지 지운 케이스",
+                new String[]{"/images/product/rest_1.jpg", "N"}, new String[]{"/images/product/rest_2.jpg", "N"});
+        Product twoMain = persistProduct("대표 이미지 두 개 케이스",
+                new String[]{"/images/product/two_0.jpg", "Y"}, new String[]{"/images/product/two_1.jpg", "Y"});
+        Product mainLater = persistProduct("대표 이미지가 뒤에 있는 케이스",
+                new String[]{"/images/product/later_n.jpg", "N"}, new String[]{"/images/product/later_y.jpg", "Y"});
+        Product noImage = persistProduct("이미지 없는 케이스");
+        em.flush();
+        em.clear();
+
+        List<HomeProductDto> products = productRepository.getHomeProducts();
+
+        assertEquals(PRODUCT_COUNT + 4, products.size());
+        Map<Long, String> imgUrls = products.stream()
+                .filter(product -> product.getImgUrl() != null)
+                .collect(Collectors.toMap(HomeProductDto::getId, HomeProductDto::getImgUrl));
+        assertEquals("/images/product/rest_1.jpg", imgUrls.get(mainDeleted.getId()));
+        assertEquals("/images/product/two_0.jpg", imgUrls.get(twoMain.getId()));
+        assertEquals("/images/product/later_y.jpg", imgUrls.get(mainLater.getId()));
+        assertFalse(imgUrls.containsKey(noImage.getId())); // 이미지가 없으면 null - 화면에서 뺀다
+        assertTrue(imgUrls.get(products.get(0).getId()).endsWith("_Y.jpg"));
+    }
+
+    @Test
+    void 카테고리_목록은_대표_이미지가_여러_개여도_한_행이고_없으면_첫_이미지() {
+        Product mainDeleted = persistProduct("대표 이미지 지운 케이스",
+                new String[]{"/images/product/rest_1.jpg", "N"}, new String[]{"/images/product/rest_2.jpg", "N"});
+        Product twoMain = persistProduct("대표 이미지 두 개 케이스",
+                new String[]{"/images/product/two_0.jpg", "Y"}, new String[]{"/images/product/two_1.jpg", "Y"});
+        Product noImage = persistProduct("이미지 없는 케이스");
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        List<ProductListDto> products = productRepository.getListProducts(
+                ProductCategory.PHONE_CASE, ProductType.JELLY, Sort.by("id").ascending());
+
+        assertEquals(3, products.size());
+        assertEquals(List.of(mainDeleted.getId(), twoMain.getId(), noImage.getId()),
+                products.stream().map(ProductListDto::getId).toList());
+        assertEquals("/images/product/rest_1.jpg", products.get(0).getImgUrl());
+        assertEquals("/images/product/two_0.jpg", products.get(1).getImgUrl());
+        assertNull(products.get(2).getImgUrl());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
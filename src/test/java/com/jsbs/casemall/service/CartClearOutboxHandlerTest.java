@@ -0,0 +1,151 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.*;
+import com.jsbs.casemall.entity.*;
+import com.jsbs.casemall.repository.CartRepository;
+import com.jsbs.casemall.repository.OrderRepository;
+import com.jsbs.casemall.repository.ProductRepository;
+import com.jsbs.casemall.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 결제 완료 이벤트로 장바구니에서 주문한 상품만 지우는지, 같은 이벤트가 다시 와도 안전한지 확인
+// 디스패처가 시험 중에 끼어들지 않도록 주기를 늘리고 처리기를 직접 호출
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:cartclear;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "flash-sale.journal-path=build/tmp/flash-sale-cart-clear-test.journal",
+        "stock.reservation.sweep-interval=3600000",
+        "outbox.poll-interval=3600000"
+})
+class CartClearOutboxHandlerTest {
+
+    @Autowired
+    private CartClearOutboxHandler cartClearOutboxHandler;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Users createUser() {
+        String userId = "user-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(Users.builder()
+                .userId(userId)
+                .name("주문자")
+                .userPw("pw")
+                .email(userId + "@test.com")
+                .phone("010-0000-0000")
+                .pCode("12345")
+                .loadAddr("도로명 주소")
+                .lotAddr("지번 주소")
+                .detailAddr("상세 주소")
+                .role(Role.USER)
+                .build());
+    }
+
+    // 기종 두 개짜리 상품
+    private Product createProduct(String name) {
+        Product product = new Product();
+        product.setPrName(name);
+        product.setPrDetail("상세 설명");
+        product.setPrPrice(10000);
+        product.setProductCategory(ProductCategory.PHONE_CASE);
+        product.setProductType(ProductType.HARD);
+        for (ProductModelSelect select : List.of(ProductModelSelect.IPHONE15, ProductModelSelect.IPHONE15PRO)) {
+            ProductModel productModel = new ProductModel();
+            productModel.setProductModelSelect(select);
+            productModel.setPrStock(10);
+            product.addProductModel(productModel);
+        }
+        product.updateSellStatus();
+        return productRepository.save(product);
+    }
+
+    private void addToCart(String userId, Product product, ProductModel productModel) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Users user = userRepository.findById(userId).orElseThrow();
+            Cart cart = cartRepository.findByUser(user);
+            if (cart == null) {
+                cart = Cart.createCart(user);
+            }
+            cart.addCartItems(CartItem.createCartItem(product, productModel, 1));
+            cartRepository.save(cart);
+        });
+    }
+
+    // 장바구니에 남은 항목 (상품명/기종)
+    private List<String> cartOf(String userId) {
+        return transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findByUser(userRepository.findById(userId).orElseThrow());
+            return cart.getCartItems().stream()
+                    .map(item -> item.getProduct().getPrName() + "/" + item.getProductModel().getProductModelSelect())
+                    .sorted()
+                    .toList();
+        });
+    }
+
+    private OutboxEvent orderPaid(Order order) {
+        return OutboxEvent.create(OutboxEventType.ORDER_PAID, order.getOrderId(), "{}");
+    }
+
+    @Test
+    void 주문한_상품과_기종만_지우고_다시_처리해도_나중에_담은_상품은_남는다() {
+        Users user = transactionTemplate.execute(status -> createUser());
+        Product ordered = transactionTemplate.execute(status -> createProduct("주문 케이스"));
+        Product other = transactionTemplate.execute(status -> createProduct("다른 케이스"));
+        ProductModel iphone15 = ordered.getProductModelList().get(0);
+        ProductModel iphone15Pro = ordered.getProductModelList().get(1);
+
+        addToCart(user.getUserId(), ordered, iphone15);
+        addToCart(user.getUserId(), ordered, iphone15Pro); // 같은 상품 다른 기종 - 주문하지 않음
+        Order order = transactionTemplate.execute(status -> orderRepository.save(Order.createOrder(user,
+                List.of(OrderDetail.createOrderDetails(ordered, iphone15, 1)))));
+
+        cartClearOutboxHandler.handle(orderPaid(order));
+        assertEquals(List.of("주문 케이스/IPHONE15PRO"), cartOf(user.getUserId()));
+
+        // 결제 후 새로 담은 상품은 같은 이벤트가 다시 처리돼도 남는다
+        addToCart(user.getUserId(), other, other.getProductModelList().get(0));
+        cartClearOutboxHandler.handle(orderPaid(order));
+        assertEquals(List.of("다른 케이스/IPHONE15", "주문 케이스/IPHONE15PRO"), cartOf(user.getUserId()));
+    }
+
+    @Test
+    void 장바구니가_없는_회원의_주문도_처리_완료() {
+        Users user = transactionTemplate.execute(status -> createUser());
+        Product product = transactionTemplate.execute(status -> createProduct("바로 구매 케이스"));
+        Order order = transactionTemplate.execute(status -> orderRepository.save(Order.createOrder(user,
+                List.of(OrderDetail.createOrderDetails(product, product.getProductModelList().get(0), 1)))));
+
+        assertDoesNotThrow(() -> cartClearOutboxHandler.handle(orderPaid(order)));
+        assertNull(transactionTemplate.execute(status -> cartRepository.findByUser(user)));
+    }
+
+    @Test
+    void 없는_주문이면_실패해서_재시도된다() {
+        OutboxEvent event = OutboxEvent.create(OutboxEventType.ORDER_PAID, "missing-order", "{}");
+        assertThrows(IllegalArgumentException.class, () -> cartClearOutboxHandler.handle(event));
+    }
+}
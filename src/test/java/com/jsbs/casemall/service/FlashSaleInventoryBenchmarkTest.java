@@ -0,0 +1,134 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.entity.Product;
+import com.jsbs.casemall.entity.ProductModel;
+import com.jsbs.casemall.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 인기 기종 하나에 주문이 몰릴 때 DB 행 잠금 차감 vs 플래시 세일 메모리 장부 차감 처리량 비교
+// 오래 걸리므로 평소 빌드에서는 건너뛰고 환경 변수를 줄 때만 실행한다
+//   FLASH_SALE_BENCHMARK=true ./gradlew test --tests '*FlashSaleInventoryBenchmarkTest'
+//   FLASH_SALE_BENCHMARK_THREADS : 동시 주문 스레드 수 (기본 64)
+//   FLASH_SALE_BENCHMARK_ORDERS  : 방식별 주문 수 (기본 20,000)
+// 운영과 같은 조건(MySQL 행 잠금, 디스크 fsync)으로 보려면 spring.datasource.* 와 flash-sale.journal-path 를 바꿔서 실행
+@EnabledIfEnvironmentVariable(named = "FLASH_SALE_BENCHMARK", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:flashsalebench;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "spring.datasource.hikari.maximum-pool-size=64",
+        "flash-sale.journal-path=build/tmp/flash-sale-benchmark.journal",
+        "flash-sale.instance-id=benchmark"
+})
+class FlashSaleInventoryBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashSaleInventoryBenchmarkTest.class);
+
+    private final int threads = Integer.parseInt(env("FLASH_SALE_BENCHMARK_THREADS", "64"));
+    private final int orders = Integer.parseInt(env("FLASH_SALE_BENCHMARK_ORDERS", "20000"));
+
+    @Autowired
+    private FlashSaleInventory flashSaleInventory;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    @Test
+    void 인기_기종_차감_방식별_처리량() throws Exception {
+        Long dbModel = createModel(orders);
+        Long hotModel = createModel(orders);
+        flashSaleInventory.activate(hotModel);
+
+        Result db = run(dbModel);
+        Result hot = run(hotModel);
+        assertEquals(0L, flashSaleInventory.deactivate(hotModel).get(60, TimeUnit.SECONDS));
+
+        log.info("[플래시 세일 벤치마크] 주문 {}건, 스레드 {}", orders, threads);
+        log.info("DB 행 잠금   : {} 건/초, p99 {} ms", String.format("%,.0f", db.rate), db.p99Millis);
+        log.info("메모리 장부  : {} 건/초, p99 {} ms", String.format("%,.0f", hot.rate), hot.p99Millis);
+    }
+
+    private Long createModel(int stock) {
+        return transactionTemplate.execute(status -> {
+            Product product = new Product();
+            product.setPrName("벤치마크 케이스");
+            product.setPrDetail("상세 설명");
+            product.setPrPrice(10000);
+            product.setProductCategory(ProductCategory.PHONE_CASE);
+            product.setProductType(ProductType.HARD);
+            ProductModel productModel = new ProductModel();
+            productModel.setProductModelSelect(ProductModelSelect.values()[0]);
+            productModel.setPrStock(stock);
+            product.addProductModel(productModel);
+            product.updateSellStatus();
+            productRepository.save(product);
+            return productModel.getId();
+        });
+    }
+
+    // 재고를 모두 팔 때까지 threads 개 스레드가 한 건씩 주문
+    private Result run(Long modelId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                long begin = System.nanoTime();
+                transactionTemplate.executeWithoutResult(status ->
+                        productStockService.decreaseStocks(Map.of(modelId, 1)));
+                return System.nanoTime() - begin;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        long[] latencies = new long[orders];
+        for (int i = 0; i < orders; i++) {
+            latencies[i] = futures.get(i).get(10, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        Result result = new Result();
+        result.rate = orders * 1_000_000_000.0 / elapsed;
+        result.p99Millis = latencies[(int) (orders * 0.99) - 1] / 1_000_000;
+        return result;
+    }
+
+    private static class Result {
+        private double rate;
+        private long p99Millis;
+    }
+}
@@ -0,0 +1,274 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.entity.Product;
+import com.jsbs.casemall.entity.ProductModel;
+import com.jsbs.casemall.exception.OutOfStockException;
+import com.jsbs.casemall.repository.FlashSaleLedgerRepository;
+import com.jsbs.casemall.repository.ProductModelRepository;
+import com.jsbs.casemall.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:flashsale;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "flash-sale.journal-path=build/tmp/flash-sale-inventory-test.journal",
+        "flash-sale.instance-id=test-server",
+        "flash-sale.flush-interval=200"
+})
+class FlashSaleInventoryTest {
+
+    private static final int BUYERS = 200;
+    private static final int STOCK = 100;
+
+    @Autowired
+    private FlashSaleInventory flashSaleInventory;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductModelRepository productModelRepository;
+
+    @Autowired
+    private FlashSaleLedgerRepository flashSaleLedgerRepository;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductDetailCache productDetailCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long createModel(int stock) {
+        return transactionTemplate.execute(status -> {
+            Product product = new Product();
+            product.setPrName("플래시 세일 케이스");
+            product.setPrDetail("상세 설명");
+            product.setPrPrice(10000);
+            product.setProductCategory(ProductCategory.PHONE_CASE);
+            product.setProductType(ProductType.HARD);
+            ProductModel productModel = new ProductModel();
+            productModel.setProductModelSelect(ProductModelSelect.values()[0]);
+            productModel.setPrStock(stock);
+            product.addProductModel(productModel);
+            product.updateSellStatus();
+            productRepository.save(product);
+            return productModel.getId();
+        });
+    }
+
+    private int stockOf(Long modelId) {
+        return productModelRepository.findById(modelId).orElseThrow().getPrStock();
+    }
+
+    private Throwable causeOf(CompletableFuture<Long> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    @Test
+    void 세일_중_동시에_200명이_주문해도_초과판매_없고_종료시_DB에_반영() throws Exception {
+        Long modelId = createModel(STOCK);
+        assertEquals(STOCK, flashSaleInventory.activate(modelId));
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        List<Future<?>> futures = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            productStockService.decreaseStocks(Map.of(modelId, 1)));
+                    succeeded.incrementAndGet();
+                } catch (OutOfStockException e) {
+                    soldOut.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(STOCK, succeeded.get());
+        assertEquals(BUYERS - STOCK, soldOut.get());
+
+        assertEquals(0L, flashSaleInventory.deactivate(modelId).get(10, TimeUnit.SECONDS));
+        assertEquals(0, stockOf(modelId));
+        assertFalse(flashSaleLedgerRepository.existsById(modelId));
+        assertFalse(flashSaleInventory.isHot(modelId));
+    }
+
+    @Test
+    void 주문이_롤백되면_메모리_재고를_되돌린다() throws Exception {
+        Long modelId = createModel(5);
+        flashSaleInventory.activate(modelId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productStockService.decreaseStocks(Map.of(modelId, 3));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(5L, flashSaleInventory.status().get(modelId));
+        assertEquals(5L, flashSaleInventory.deactivate(modelId).get(10, TimeUnit.SECONDS));
+        assertEquals(5, stockOf(modelId));
+    }
+
+    @Test
+    void 진행_중인_주문이_있으면_종료를_미루고_끝나면_완료() throws Exception {
+        Long modelId = createModel(10);
+        flashSaleInventory.activate(modelId);
+
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> order = executor.submit(() -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                productStockService.decreaseStocks(Map.of(modelId, 2));
+                taken.countDown();
+                try {
+                    commit.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return null;
+        });
+        assertTrue(taken.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Long> stopped = flashSaleInventory.deactivate(modelId); // 요청 스레드는 바로 반환
+        assertFalse(stopped.isDone());
+
+        commit.countDown();
+        order.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(8L, stopped.get(10, TimeUnit.SECONDS)); // 반영 스케줄러가 마무리
+        assertEquals(8, stockOf(modelId));
+    }
+
+    @Test
+    void 다른_서버가_가진_세일은_올리지_않고_lease_가_끝나야_종료() throws Exception {
+        Long modelId = createModel(7);
+        jdbcTemplate.update("INSERT INTO flash_sale_ledger (model_id, started_at, owner, lease_until) VALUES (?, ?, ?, ?)",
+                modelId, Timestamp.valueOf(LocalDateTime.now()), "other-server",
+                Timestamp.valueOf(LocalDateTime.now().plusMinutes(1)));
+
+        flashSaleInventory.renewLeases();
+        assertFalse(flashSaleInventory.isHot(modelId));
+        // 이 서버에서는 팔지 않는다 (DB 차감은 세일 기종을 건너뜀)
+        assertThrows(OutOfStockException.class, () -> transactionTemplate.executeWithoutResult(status ->
+                productStockService.decreaseStocks(Map.of(modelId, 1))));
+        assertThrows(IllegalArgumentException.class, () -> flashSaleInventory.activate(modelId));
+        assertInstanceOf(IllegalStateException.class, causeOf(flashSaleInventory.deactivate(modelId)));
+
+        // owner 서버가 lease 를 연장하지 못함
+        jdbcTemplate.update("UPDATE flash_sale_ledger SET lease_until = ? WHERE model_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), modelId);
+        assertEquals(7L, flashSaleInventory.deactivate(modelId).get(10, TimeUnit.SECONDS));
+        assertFalse(flashSaleLedgerRepository.existsById(modelId));
+    }
+
+    @Test
+    void 재시작하면_이전_lease_가_끝난_자기_세일만_다시_올린다() {
+        Long mine = createModel(4);
+        Long others = createModel(6);
+        Timestamp expired = Timestamp.valueOf(LocalDateTime.now().minusSeconds(1));
+        jdbcTemplate.update("INSERT INTO flash_sale_ledger (model_id, started_at, owner, lease_until) VALUES (?, ?, ?, ?)",
+                mine, expired, "test-server", expired);
+        jdbcTemplate.update("INSERT INTO flash_sale_ledger (model_id, started_at, owner, lease_until) VALUES (?, ?, ?, ?)",
+                others, expired, "other-server", expired);
+
+        flashSaleInventory.renewLeases();
+
+        assertTrue(flashSaleInventory.isHot(mine));
+        assertEquals(4L, flashSaleInventory.status().get(mine));
+        assertFalse(flashSaleInventory.isHot(others));
+    }
+
+    @Test
+    void 재시도_직전에_세일이_끝나면_재고_부족으로_실패() throws Exception {
+        Long modelId = createModel(5);
+        AtomicInteger takeCalls = new AtomicInteger();
+        List<CompletableFuture<Long>> stopped = new CopyOnWriteArrayList<>();
+
+        // 첫 takeHot 뒤(세일 아님 -> DB 차감 대상)에 세일이 시작되고, isHot 확인 직후 종료가 시작되는 순서를 만든다
+        // 시작/종료는 주문 트랜잭션에 끼지 않도록 다른 스레드에서 실행
+        FlashSaleInventory racing = Mockito.spy(flashSaleInventory);
+        Mockito.doAnswer(invocation -> {
+            if (takeCalls.incrementAndGet() == 1) {
+                CompletableFuture.supplyAsync(() -> flashSaleInventory.activate(modelId)).get(10, TimeUnit.SECONDS);
+                Map<Long, Integer> quantities = invocation.getArgument(0);
+                return new HashMap<>(quantities);
+            }
+            return invocation.callRealMethod();
+        }).when(racing).takeHot(Mockito.anyMap());
+        Mockito.doAnswer(invocation -> {
+            boolean hot = (Boolean) invocation.callRealMethod();
+            if (hot) {
+                stopped.add(CompletableFuture.supplyAsync(() -> flashSaleInventory.deactivate(modelId))
+                        .get(10, TimeUnit.SECONDS));
+            }
+            return hot;
+        }).when(racing).isHot(Mockito.anyLong());
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("flashSaleInventory", racing));
+        ProductStockService stockService = new ProductStockService(jdbcTemplate, namedParameterJdbcTemplate,
+                productFacetIndex, productDetailCache, beanFactory.getBeanProvider(FlashSaleInventory.class));
+
+        assertThrows(OutOfStockException.class, () -> transactionTemplate.executeWithoutResult(status ->
+                stockService.decreaseStocks(Map.of(modelId, 1))));
+
+        assertEquals(2, takeCalls.get());
+        assertEquals(1, stopped.size());
+        assertEquals(5L, stopped.get(0).get(10, TimeUnit.SECONDS)); // 메모리에서도 차감하지 않음
+        assertEquals(5, stockOf(modelId));
+        assertFalse(flashSaleInventory.isHot(modelId));
+    }
+
+    @Test
+    void 세일_중이_아닌_기종은_종료할_수_없다() {
+        Long modelId = createModel(1);
+        assertInstanceOf(IllegalArgumentException.class, causeOf(flashSaleInventory.deactivate(modelId)));
+    }
+}
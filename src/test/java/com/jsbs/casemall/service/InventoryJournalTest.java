@@ -0,0 +1,130 @@
+package com.jsbs.casemall.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private InventoryJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new InventoryJournal(dir.resolve("flash-sale.journal").toString());
+        journal.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void 기록한_증감은_기종별로_합쳐서_넘겨준다() throws IOException {
+        journal.append(Map.of(1L, -2));
+        journal.append(Map.of(1L, -3));
+        journal.append(Map.of(2L, 5));
+
+        InventoryJournal.Pending pending = journal.drainPending();
+        assertEquals(Map.of(1L, -5L, 2L, 5L), pending.deltas());
+        assertEquals(3, pending.upToSeq());
+        assertTrue(journal.drainPending().isEmpty());
+
+        List<InventoryJournal.Entry> entries = journal.readAll();
+        assertEquals(List.of(
+                new InventoryJournal.Entry(1, 1, -2),
+                new InventoryJournal.Entry(2, 1, -3),
+                new InventoryJournal.Entry(3, 2, 5)), entries);
+    }
+
+    @Test
+    void 반영에_실패해_되돌린_증감은_다음_반영에_다시_나온다() {
+        journal.append(Map.of(1L, -2));
+        InventoryJournal.Pending pending = journal.drainPending();
+        journal.append(Map.of(1L, -1));
+
+        journal.restorePending(pending);
+
+        InventoryJournal.Pending retry = journal.drainPending();
+        assertEquals(Map.of(1L, -3L), retry.deltas());
+        assertEquals(2, retry.upToSeq());
+    }
+
+    @Test
+    void 모두_반영되면_파일을_비운다() throws IOException {
+        journal.append(Map.of(1L, -2));
+        InventoryJournal.Pending pending = journal.drainPending();
+
+        journal.truncateIfApplied(pending.upToSeq() - 1); // 아직 반영 안 된 번호가 있으면 그대로
+        assertEquals(1, journal.readAll().size());
+
+        journal.truncateIfApplied(pending.upToSeq());
+        assertTrue(journal.readAll().isEmpty());
+    }
+
+    @Test
+    void 기록에_실패한_증감은_반영_대상에_남지_않고_이후_기록도_거부() throws IOException {
+        journal.append(Map.of(1L, -2));
+        journal.close(); // 이후 쓰기는 ClosedChannelException
+
+        assertThrows(UncheckedIOException.class, () -> journal.append(Map.of(1L, -3)));
+        assertTrue(journal.isBroken());
+
+        InventoryJournal.Pending pending = journal.drainPending();
+        assertEquals(Map.of(1L, -2L), pending.deltas()); // 실패한 -3 은 DB 에 반영되지 않는다
+        assertEquals(1, pending.upToSeq());
+
+        assertThrows(UncheckedIOException.class, () -> journal.append(Map.of(2L, 1)));
+        assertTrue(journal.drainPending().isEmpty());
+        journal.open(); // tearDown 에서 닫을 수 있도록
+    }
+
+    @Test
+    void 동시에_기록해도_번호가_겹치지_않고_합계가_맞다() throws Exception {
+        int threads = 8;
+        int appends = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new CopyOnWriteArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long modelId = t % 2 + 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < appends; i++) {
+                    journal.append(Map.of(modelId, -1));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        InventoryJournal.Pending pending = journal.drainPending();
+        assertEquals(Map.of(1L, (long) -threads / 2 * appends, 2L, (long) -threads / 2 * appends), pending.deltas());
+        assertEquals((long) threads * appends, pending.upToSeq());
+
+        List<InventoryJournal.Entry> entries = journal.readAll();
+        Set<Long> seqs = new HashSet<>();
+        entries.forEach(entry -> seqs.add(entry.seq()));
+        assertEquals(threads * appends, entries.size());
+        assertEquals(threads * appends, seqs.size());
+    }
+}
@@ -0,0 +1,77 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.dto.MypageDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MypageStatsCacheTest {
+
+    private MypageStatsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MypageStatsCache();
+        loads = new AtomicInteger();
+    }
+
+    private MypageDto load(String userId) {
+        loads.incrementAndGet();
+        return new MypageDto(2L, 30000L, LocalDateTime.of(2024, 5, 1, 12, 0));
+    }
+
+    @Test
+    void 캐시된_통계는_복사본으로_반환() {
+        cache.get("user1", this::load).setTotalPay(0);
+
+        assertEquals(30000, cache.get("user1", this::load).getTotalPay());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void 커밋_후에_한번_더_무효화() {
+        cache.get("user1", this::load);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate("user1");
+            cache.get("user1", this::load); // 커밋 전에 다른 요청이 이전 값으로 다시 채움
+            assertEquals(2, loads.get());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        cache.get("user1", this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void 조회중에_무효화되면_캐시에_넣지_않음() {
+        cache.get("user1", userId -> {
+            MypageDto stats = load(userId);
+            cache.invalidate(userId); // 조회하는 사이에 결제 완료
+            return stats;
+        });
+        cache.get("user1", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void 가득_차도_전체를_비우지_않음() {
+        for (int i = 0; i <= 10_000; i++) {
+            cache.get("user" + i, this::load);
+        }
+        assertEquals(10_000, cache.size());
+
+        cache.get("user10000", this::load); // 마지막에 넣은 회원은 남아 있음
+        assertEquals(10_001, loads.get());
+    }
+}
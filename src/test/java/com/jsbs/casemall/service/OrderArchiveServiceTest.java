@@ -0,0 +1,204 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.*;
+import com.jsbs.casemall.dto.CursorPageDto;
+import com.jsbs.casemall.dto.MypageDto;
+import com.jsbs.casemall.dto.OrderDto;
+import com.jsbs.casemall.entity.*;
+import com.jsbs.casemall.repository.OrderRepository;
+import com.jsbs.casemall.repository.ProductRepository;
+import com.jsbs.casemall.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 묶음 크기를 2 로 줄여서 여러 묶음에 걸친 보관 이동, 최근/보관 주문을 합친 주문내역 페이지 확인
+// 보관 스케줄러는 끄고 archive 를 직접 호출
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:orderarchive;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "flash-sale.journal-path=build/tmp/flash-sale-order-archive-test.journal",
+        "stock.reservation.sweep-interval=3600000",
+        "order.archive.age=P180D",
+        "order.archive.batch-size=2",
+        "order.archive.cron=-"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderArchiveServiceTest {
+
+    private static final String USER_ID = "archive-user";
+    private static final int PRICE = 10000;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDateTime old = LocalDateTime.now().minusDays(365);
+
+    private final List<Long> archivedOrderNos = new ArrayList<>(); // 보관 대상 (오래된 배송완료/취소)
+    private final List<Long> hotOrderNos = new ArrayList<>(); // 남는 주문 (결제 완료, 배송중, 최근 배송완료)
+    private final List<Long> paidOrderNos = new ArrayList<>(); // 주문내역에 나오는 주문 (취소 제외)
+    private final Map<Long, Long> itemIdOf = new HashMap<>(); // 주문 번호 -> 주문 항목 번호
+    private Long recentOrderNo;
+    private int firstRun;
+
+    // 주문 번호 순으로 보관/최근 주문이 섞이도록 만든 뒤 보관 실행
+    @BeforeAll
+    void setUp() {
+        Product product = transactionTemplate.execute(status -> {
+            Users user = userRepository.save(Users.builder()
+                    .userId(USER_ID)
+                    .name("주문자")
+                    .userPw("pw")
+                    .email("archive@test.com")
+                    .phone("010-0000-0000")
+                    .pCode("12345")
+                    .loadAddr("도로명 주소")
+                    .lotAddr("지번 주소")
+                    .detailAddr("상세 주소")
+                    .role(Role.USER)
+                    .build());
+            Product saved = new Product();
+            saved.setPrName("보관 케이스");
+            saved.setPrDetail("상세 설명");
+            saved.setPrPrice(PRICE);
+            saved.setProductCategory(ProductCategory.PHONE_CASE);
+            saved.setProductType(ProductType.HARD);
+            ProductModel productModel = new ProductModel();
+            productModel.setProductModelSelect(ProductModelSelect.values()[0]);
+            productModel.setPrStock(100);
+            saved.addProductModel(productModel);
+            saved.updateSellStatus();
+            return productRepository.save(saved);
+        });
+
+        createOrder(product, OrderStatus.COMPLETED, old, true);
+        createOrder(product, OrderStatus.ORDER, old, false);
+        createOrder(product, OrderStatus.COMPLETED, old, true);
+        createOrder(product, OrderStatus.CANCEL, old, true);
+        createOrder(product, OrderStatus.COMPLETED, old, true);
+        recentOrderNo = createOrder(product, OrderStatus.COMPLETED, null, false);
+        createOrder(product, OrderStatus.COMPLETED, old, true);
+        createOrder(product, OrderStatus.SHIPPED, old, false);
+        createOrder(product, OrderStatus.COMPLETED, old, true);
+
+        firstRun = orderArchiveService.archive();
+    }
+
+    private Long createOrder(Product product, OrderStatus orderStatus, LocalDateTime orderDate, boolean archived) {
+        Long orderNo = transactionTemplate.execute(status -> {
+            Users user = userRepository.findById(USER_ID).orElseThrow();
+            return orderRepository.save(Order.createOrder(user,
+                    List.of(OrderDetail.createOrderDetails(product, product.getProductModelList().get(0), 1)))).getId();
+        });
+        jdbcTemplate.update("UPDATE orders SET order_status = ? WHERE order_no = ?", orderStatus.name(), orderNo);
+        if (orderDate != null) {
+            jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE order_no = ?", Timestamp.valueOf(orderDate), orderNo);
+        }
+        itemIdOf.put(orderNo, jdbcTemplate.queryForObject(
+                "SELECT order_item_id FROM order_detail WHERE order_id = ?", Long.class, orderNo));
+        (archived ? archivedOrderNos : hotOrderNos).add(orderNo);
+        if (orderStatus != OrderStatus.CANCEL) {
+            paidOrderNos.add(orderNo);
+        }
+        return orderNo;
+    }
+
+    private int count(String sql, Long orderNo) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, orderNo);
+    }
+
+    @Test
+    void 오래된_배송완료_취소_주문만_묶음씩_보관_테이블로_옮긴다() {
+        assertEquals(archivedOrderNos.size(), firstRun); // 묶음 크기 2 - 세 묶음
+
+        for (Long orderNo : archivedOrderNos) {
+            assertEquals(0, count("SELECT COUNT(*) FROM orders WHERE order_no = ?", orderNo));
+            assertEquals(0, count("SELECT COUNT(*) FROM order_detail WHERE order_id = ?", orderNo));
+            assertEquals(1, count("SELECT COUNT(*) FROM orders_archive WHERE order_no = ? AND archived_at IS NOT NULL", orderNo));
+            // 주문 항목 번호도 그대로 옮긴다 (키셋 커서가 두 테이블에 그대로 쓰인다)
+            assertEquals(itemIdOf.get(orderNo), jdbcTemplate.queryForObject(
+                    "SELECT order_item_id FROM order_detail_archive WHERE order_id = ?", Long.class, orderNo));
+        }
+        for (Long orderNo : hotOrderNos) {
+            assertEquals(1, count("SELECT COUNT(*) FROM orders WHERE order_no = ?", orderNo));
+            assertEquals(0, count("SELECT COUNT(*) FROM orders_archive WHERE order_no = ?", orderNo));
+        }
+
+        // 더 옮길 주문이 없으면 0
+        assertEquals(0, orderArchiveService.archive());
+    }
+
+    @Test
+    void 보관_테이블을_읽어야_하는지() {
+        assertTrue(orderArchiveService.hasArchive(USER_ID));
+        assertFalse(orderArchiveService.hasArchive("no-archive-user"));
+        assertTrue(orderArchiveService.covers(old.minusDays(1)));
+        assertFalse(orderArchiveService.covers(LocalDateTime.now().minusDays(30)));
+    }
+
+    @Test
+    void 주문내역은_최근_주문과_보관_주문을_주문_번호_순으로_합쳐서_페이지를_넘긴다() {
+        List<Long> expected = new ArrayList<>(paidOrderNos);
+        expected.sort(Comparator.reverseOrder());
+
+        CursorPageDto<OrderDto> first = orderService.getOrderHistory(USER_ID, null);
+        assertEquals(5, first.getContent().size());
+        assertTrue(first.isHasNext());
+        List<Long> firstPage = first.getContent().stream().map(OrderDto::getOrderNo).toList();
+        // 첫 페이지에 두 테이블의 주문이 섞여 있다
+        assertTrue(firstPage.stream().anyMatch(archivedOrderNos::contains));
+        assertTrue(firstPage.stream().anyMatch(hotOrderNos::contains));
+
+        CursorPageDto<OrderDto> second = orderService.getOrderHistory(USER_ID, first.getNextCursor());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+
+        List<Long> all = new ArrayList<>(firstPage);
+        second.getContent().forEach(dto -> all.add(dto.getOrderNo()));
+        assertEquals(expected, all); // 빠지거나 겹치는 주문 없이 주문 번호 내림차순
+    }
+
+    @Test
+    void 마이페이지_통계는_보관_주문까지_합친다() {
+        MypageDto stats = userService.myPageCompleteCount(USER_ID);
+
+        assertEquals(paidOrderNos.size(), stats.getCount());
+        assertEquals((long) PRICE * paidOrderNos.size(), stats.getTotalPay());
+        assertEquals(orderRepository.findById(recentOrderNo).orElseThrow().getOrderDate(), stats.getLastOrderDate());
+    }
+}
@@ -0,0 +1,182 @@
+package com.jsbs.casemall.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsbs.casemall.constant.*;
+import com.jsbs.casemall.dto.CursorPageDto;
+import com.jsbs.casemall.dto.OrderDto;
+import com.jsbs.casemall.entity.*;
+import com.jsbs.casemall.repository.OrderRepository;
+import com.jsbs.casemall.repository.ProductRepository;
+import com.jsbs.casemall.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:orderexport;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "flash-sale.journal-path=build/tmp/flash-sale-order-export-test.journal"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderExportServiceTest {
+
+    // 사용자가 입력한 상품명 - 엑셀에서 수식으로 실행될 수 있는 값들
+    private static final String[] PRODUCT_NAMES = {
+            "=HYPERLINK(\"http://evil.test\",\"x\")", "+82 케이스", "-1+1", "@SUM(A1)", "\t탭 케이스", "일반 케이스", "쉼표, 케이스"
+    };
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDate today = LocalDate.now();
+
+    // 상품명마다 주문 하나 (항목 하나) - 모두 오늘 주문
+    @BeforeAll
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Users user = userRepository.save(Users.builder()
+                    .userId("=export-user")
+                    .name("주문자")
+                    .userPw("pw")
+                    .email("export@test.com")
+                    .phone("010-0000-0000")
+                    .pCode("12345")
+                    .loadAddr("도로명 주소")
+                    .lotAddr("지번 주소")
+                    .detailAddr("상세 주소")
+                    .role(Role.USER)
+                    .build());
+            for (String name : PRODUCT_NAMES) {
+                Product product = new Product();
+                product.setPrName(name);
+                product.setPrDetail("상세 설명");
+                product.setPrPrice(10000);
+                product.setProductCategory(ProductCategory.PHONE_CASE);
+                product.setProductType(ProductType.HARD);
+                ProductModel productModel = new ProductModel();
+                productModel.setProductModelSelect(ProductModelSelect.values()[0]);
+                productModel.setPrStock(10);
+                product.addProductModel(productModel);
+                product.updateSellStatus();
+                productRepository.save(product);
+
+                Order order = Order.createOrder(user, List.of(OrderDetail.createOrderDetails(product, productModel, 1)));
+                order.setOrderStatus(OrderStatus.ORDER);
+                orderRepository.save(order);
+            }
+        });
+    }
+
+    private String export(OrderExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = orderExportService.export(today, today, format, out);
+        assertEquals(PRODUCT_NAMES.length, rows);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void CSV_는_수식_시작_문자_앞에_작은따옴표를_붙인다() throws Exception {
+        String csv = export(OrderExportService.Format.CSV);
+        String[] lines = csv.split("\r\n");
+
+        assertEquals(PRODUCT_NAMES.length + 1, lines.length);
+        assertTrue(lines[0].startsWith("\uFEFForderNo,"));
+        assertTrue(csv.contains(",\"'=HYPERLINK(\"\"http://evil.test\"\",\"\"x\"\")\","), csv);
+        assertTrue(csv.contains(",'+82 케이스,"), csv);
+        assertTrue(csv.contains(",'-1+1,"), csv);
+        assertTrue(csv.contains(",'@SUM(A1),"), csv);
+        assertTrue(csv.contains(",'\t탭 케이스,"), csv);
+        assertTrue(csv.contains(",'=export-user,"), csv);
+        assertTrue(csv.contains(",일반 케이스,"), csv);
+        assertTrue(csv.contains(",\"쉼표, 케이스\","), csv);
+    }
+
+    @Test
+    void CSV_셀_이스케이프() {
+        assertEquals("", OrderExportService.CsvRowWriter.escape(null));
+        assertEquals("", OrderExportService.CsvRowWriter.escape(""));
+        assertEquals("케이스-1", OrderExportService.CsvRowWriter.escape("케이스-1"));
+        assertEquals("\"'\r=1\"", OrderExportService.CsvRowWriter.escape("\r=1"));
+        assertEquals("\"a\"\"b\"", OrderExportService.CsvRowWriter.escape("a\"b"));
+    }
+
+    @Test
+    void JSON_Lines_는_값을_그대로_쓴다() throws Exception {
+        String jsonl = export(OrderExportService.Format.JSONL);
+
+        List<String> names = new ArrayList<>();
+        for (String line : jsonl.split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            assertEquals("=export-user", row.get("userId").asText());
+            assertEquals("ORDER", row.get("orderStatus").asText());
+            names.add(row.get("productName").asText());
+        }
+        assertEquals(List.of(PRODUCT_NAMES), names); // 주문 번호 순
+    }
+
+    @Test
+    void 기간에_주문이_없으면_헤더만() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LocalDate lastYear = today.minusYears(1);
+
+        assertEquals(0, orderExportService.export(lastYear, lastYear, OrderExportService.Format.CSV, out));
+        assertEquals(1, out.toString(StandardCharsets.UTF_8).split("\r\n").length);
+    }
+
+    @Test
+    void 기간_검색은_커서로_한_페이지씩() {
+        List<Long> orderNos = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDto<OrderDto> page = orderService.findOrdersByDateRange(today, today, cursor);
+            assertTrue(page.getContent().size() <= 5);
+            page.getContent().forEach(order -> orderNos.add(order.getOrderNo()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(2, pages);
+        assertEquals(PRODUCT_NAMES.length, orderNos.size());
+        assertEquals(orderNos.size(), orderNos.stream().distinct().count());
+        for (int i = 1; i < orderNos.size(); i++) {
+            assertTrue(orderNos.get(i - 1) > orderNos.get(i)); // 최신 주문부터
+        }
+
+        assertTrue(orderService.findOrdersByDateRange(today.minusYears(1), today.minusYears(1), null).getContent().isEmpty());
+    }
+}
@@ -0,0 +1,186 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.*;
+import com.jsbs.casemall.entity.*;
+import com.jsbs.casemall.repository.OrderRepository;
+import com.jsbs.casemall.repository.ProductRepository;
+import com.jsbs.casemall.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 묶음 크기를 2 로 줄여서 여러 묶음에 걸친 잠금/변경/이력 추가 확인
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:orderstatus;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "flash-sale.journal-path=build/tmp/flash-sale-order-status-test.journal",
+        "stock.reservation.sweep-interval=3600000",
+        "order.status.batch-size=2"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderStatusServiceTest {
+
+    private static final String ADMIN = "admin";
+
+    @Autowired
+    private OrderStatusService orderStatusService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Users user;
+    private Product product;
+
+    @BeforeAll
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            user = userRepository.save(Users.builder()
+                    .userId("status-user")
+                    .name("주문자")
+                    .userPw("pw")
+                    .email("status@test.com")
+                    .phone("010-0000-0000")
+                    .pCode("12345")
+                    .loadAddr("도로명 주소")
+                    .lotAddr("지번 주소")
+                    .detailAddr("상세 주소")
+                    .role(Role.USER)
+                    .build());
+            product = new Product();
+            product.setPrName("배송 케이스");
+            product.setPrDetail("상세 설명");
+            product.setPrPrice(10000);
+            product.setProductCategory(ProductCategory.PHONE_CASE);
+            product.setProductType(ProductType.HARD);
+            ProductModel productModel = new ProductModel();
+            productModel.setProductModelSelect(ProductModelSelect.values()[0]);
+            productModel.setPrStock(100);
+            product.addProductModel(productModel);
+            product.updateSellStatus();
+            productRepository.save(product);
+        });
+    }
+
+    // orderStatus 상태의 주문 - 주문일을 orderDate 로 (null 이면 지금)
+    private Long createOrder(OrderStatus orderStatus, LocalDateTime orderDate) {
+        Long orderNo = transactionTemplate.execute(status -> orderRepository.save(Order.createOrder(user,
+                List.of(OrderDetail.createOrderDetails(product, product.getProductModelList().get(0), 1)))).getId());
+        jdbcTemplate.update("UPDATE orders SET order_status = ? WHERE order_no = ?", orderStatus.name(), orderNo);
+        if (orderDate != null) {
+            jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE order_no = ?", Timestamp.valueOf(orderDate), orderNo);
+        }
+        return orderNo;
+    }
+
+    private List<Long> createOrders(int count, OrderStatus orderStatus, LocalDateTime orderDate) {
+        List<Long> orderNos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orderNos.add(createOrder(orderStatus, orderDate));
+        }
+        return orderNos;
+    }
+
+    private OrderStatus statusOf(Long orderNo) {
+        return orderRepository.findById(orderNo).orElseThrow().getOrderStatus();
+    }
+
+    // 변경 이력 (이전 상태 -> 바뀐 상태 / 변경자)
+    private List<String> historyOf(Long orderNo) {
+        return orderStatusService.getHistory(orderNo).stream()
+                .map(event -> event.getFromStatus() + "->" + event.getToStatus() + "/" + event.getChangedBy())
+                .toList();
+    }
+
+    @Test
+    void 묶음_크기를_넘는_주문도_모두_바꾸고_바뀐_주문만_이력을_남긴다() {
+        List<Long> paid = createOrders(5, OrderStatus.ORDER, null);
+        Long unpaid = createOrder(OrderStatus.STAY, null);
+        Long cancelled = createOrder(OrderStatus.CANCEL, null);
+
+        List<Long> requested = new ArrayList<>(paid);
+        requested.add(unpaid);
+        requested.add(cancelled);
+        requested.add(paid.get(0)); // 중복 요청은 한 번만
+
+        assertEquals(5, orderStatusService.transition(requested, OrderStatus.SHIPPED, ADMIN));
+        for (Long orderNo : paid) {
+            assertEquals(OrderStatus.SHIPPED, statusOf(orderNo));
+            assertEquals(List.of("ORDER->SHIPPED/admin"), historyOf(orderNo));
+        }
+        assertEquals(OrderStatus.STAY, statusOf(unpaid));
+        assertEquals(OrderStatus.CANCEL, statusOf(cancelled));
+        assertTrue(historyOf(unpaid).isEmpty());
+        assertTrue(historyOf(cancelled).isEmpty());
+
+        // 이미 처리된 주문은 다시 바뀌지 않는다
+        assertEquals(0, orderStatusService.transition(requested, OrderStatus.SHIPPED, ADMIN));
+        assertEquals(1, historyOf(paid.get(0)).size());
+
+        assertEquals(5, orderStatusService.transition(paid, OrderStatus.COMPLETED, ADMIN));
+        assertEquals(List.of("ORDER->SHIPPED/admin", "SHIPPED->COMPLETED/admin"), historyOf(paid.get(4)));
+    }
+
+    @Test
+    void 기간_일괄_변경은_주문일_범위의_바꿀_수_있는_주문만_묶음씩() {
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        List<Long> inRange = createOrders(5, OrderStatus.ORDER, day.atTime(10, 0));
+        Long lastMinute = createOrder(OrderStatus.ORDER, day.atTime(23, 59, 59));
+        Long nextDay = createOrder(OrderStatus.ORDER, day.plusDays(1).atStartOfDay());
+        Long unpaid = createOrder(OrderStatus.STAY, day.atTime(12, 0));
+
+        // 묶음 크기 2 - 주문 번호 키셋으로 네 묶음에 걸쳐 처리
+        assertEquals(6, orderStatusService.transitionByOrderDate(day, day, OrderStatus.SHIPPED, ADMIN));
+        for (Long orderNo : inRange) {
+            assertEquals(OrderStatus.SHIPPED, statusOf(orderNo));
+        }
+        assertEquals(OrderStatus.SHIPPED, statusOf(lastMinute));
+        assertEquals(OrderStatus.ORDER, statusOf(nextDay));
+        assertEquals(OrderStatus.STAY, statusOf(unpaid));
+        assertEquals(List.of("ORDER->SHIPPED/admin"), historyOf(lastMinute));
+        assertTrue(historyOf(nextDay).isEmpty());
+
+        assertEquals(0, orderStatusService.transitionByOrderDate(day, day, OrderStatus.SHIPPED, ADMIN));
+    }
+
+    @Test
+    void 결제와_취소는_일괄_변경할_수_없다() {
+        Long orderNo = createOrder(OrderStatus.STAY, null);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                orderStatusService.transition(List.of(orderNo), OrderStatus.ORDER, ADMIN));
+        assertThrows(IllegalArgumentException.class, () ->
+                orderStatusService.transition(List.of(orderNo), OrderStatus.CANCEL, ADMIN));
+        assertThrows(IllegalArgumentException.class, () ->
+                orderStatusService.transitionByOrderDate(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 1),
+                        OrderStatus.SHIPPED, ADMIN));
+        assertEquals(OrderStatus.STAY, statusOf(orderNo));
+    }
+}
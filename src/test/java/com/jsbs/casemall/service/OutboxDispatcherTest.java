@@ -0,0 +1,179 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.*;
+import com.jsbs.casemall.entity.*;
+import com.jsbs.casemall.repository.OrderRepository;
+import com.jsbs.casemall.repository.OutboxEventRepository;
+import com.jsbs.casemall.repository.ProductRepository;
+import com.jsbs.casemall.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 아웃박스 디스패처의 선점/처리 완료 표시/재시도 간격/재시도 한도 확인
+// 없는 주문의 결제 완료 이벤트는 장바구니 처리기가 실패하므로 실패 이벤트로 쓴다
+// 디스패처 주기 확인이 시험 중에 끼어들지 않도록 주기를 늘리고 dispatch 를 직접 호출
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:outboxdispatcher;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "flash-sale.journal-path=build/tmp/flash-sale-outbox-dispatcher-test.journal",
+        "stock.reservation.sweep-interval=3600000",
+        "outbox.poll-interval=3600000",
+        "outbox.batch-size=2",
+        "outbox.retry-backoff=PT5S",
+        "outbox.max-attempts=2"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String orderId;
+
+    // 장바구니 없는 회원의 주문 - 결제 완료 이벤트가 항상 성공한다
+    @BeforeAll
+    void setUp() {
+        orderId = transactionTemplate.execute(status -> {
+            Users user = userRepository.save(Users.builder()
+                    .userId("outbox-user")
+                    .name("주문자")
+                    .userPw("pw")
+                    .email("outbox@test.com")
+                    .phone("010-0000-0000")
+                    .pCode("12345")
+                    .loadAddr("도로명 주소")
+                    .lotAddr("지번 주소")
+                    .detailAddr("상세 주소")
+                    .role(Role.USER)
+                    .build());
+            Product product = new Product();
+            product.setPrName("아웃박스 케이스");
+            product.setPrDetail("상세 설명");
+            product.setPrPrice(10000);
+            product.setProductCategory(ProductCategory.PHONE_CASE);
+            product.setProductType(ProductType.HARD);
+            ProductModel productModel = new ProductModel();
+            productModel.setProductModelSelect(ProductModelSelect.values()[0]);
+            productModel.setPrStock(10);
+            product.addProductModel(productModel);
+            product.updateSellStatus();
+            productRepository.save(product);
+            return orderRepository.save(Order.createOrder(user,
+                    List.of(OrderDetail.createOrderDetails(product, productModel, 1)))).getOrderId();
+        });
+    }
+
+    private Long save(String aggregateId) {
+        return transactionTemplate.execute(status -> outboxEventRepository.save(
+                OutboxEvent.create(OutboxEventType.ORDER_PAID, aggregateId, "{}")).getId());
+    }
+
+    private OutboxEvent eventOf(Long id) {
+        return outboxEventRepository.findById(id).orElseThrow();
+    }
+
+    @Test
+    void 한_번_깨우면_배치_크기를_넘는_이벤트도_모두_처리_완료() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(save(orderId)); // 같은 주문의 이벤트가 다시 와도 처리기는 안전
+        }
+
+        outboxDispatcher.dispatch();
+
+        for (Long id : ids) {
+            OutboxEvent event = eventOf(id);
+            assertNotNull(event.getProcessedAt());
+            assertEquals(1, event.getAttempts());
+            assertNotNull(event.getClaimToken());
+            assertNull(event.getLastError());
+        }
+    }
+
+    @Test
+    void 실패하면_재시도_간격을_두고_한도를_넘으면_중단() {
+        Long id = save("missing-order");
+
+        LocalDateTime before = LocalDateTime.now();
+        outboxDispatcher.dispatch();
+        OutboxEvent failed = eventOf(id);
+        assertNull(failed.getProcessedAt());
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getLastError().contains("주문 정보가 없습니다"));
+        // 첫 재시도는 retry-backoff 뒤
+        assertFalse(failed.getNextAttemptAt().isBefore(before.plusSeconds(5)));
+        assertTrue(failed.getNextAttemptAt().isBefore(LocalDateTime.now().plusSeconds(6)));
+
+        // 재시도 시각 전에는 다시 가져가지 않는다
+        outboxDispatcher.dispatch();
+        assertEquals(1, eventOf(id).getAttempts());
+
+        // 재시도 시각이 지나 다시 실패하면 한도(2회)에 걸려 멈춘다
+        jdbcTemplate.update("UPDATE outbox_event SET next_attempt_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), id);
+        outboxDispatcher.dispatch();
+        OutboxEvent stopped = eventOf(id);
+        assertEquals(2, stopped.getAttempts());
+        assertNull(stopped.getNextAttemptAt());
+        assertNull(stopped.getProcessedAt());
+
+        // 멈춘 이벤트는 더 가져가지 않는다
+        outboxDispatcher.dispatch();
+        assertEquals(2, eventOf(id).getAttempts());
+    }
+
+    @Test
+    void 선점_시간이_지나지_않은_이벤트는_다른_처리기가_가져가지_않는다() {
+        Long id = save(orderId);
+        // 다른 서버가 선점하고 처리 중 (lease 시각이 아직 남음)
+        jdbcTemplate.update("UPDATE outbox_event SET claim_token = 'other', attempts = 1, next_attempt_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusMinutes(1)), id);
+
+        outboxDispatcher.dispatch();
+        OutboxEvent claimed = eventOf(id);
+        assertEquals("other", claimed.getClaimToken());
+        assertNull(claimed.getProcessedAt());
+
+        // 처리하던 서버가 죽어 lease 시각이 지나면 다시 가져가서 처리
+        jdbcTemplate.update("UPDATE outbox_event SET next_attempt_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), id);
+        outboxDispatcher.dispatch();
+        OutboxEvent processed = eventOf(id);
+        assertNotNull(processed.getProcessedAt());
+        assertEquals(2, processed.getAttempts());
+    }
+}
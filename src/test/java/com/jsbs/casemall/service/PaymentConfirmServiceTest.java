@@ -0,0 +1,244 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.*;
+import com.jsbs.casemall.entity.*;
+import com.jsbs.casemall.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 결제사 대신 로컬 결제 스텁 사용 - 응답 제한 시간을 스텁의 응답 없음(hang) 보다 짧게 두어 시간 초과를 만든다
+// 재시도 스케줄러는 시험 중에 끼어들지 않도록 주기를 늘리고 retryPending 을 직접 호출
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:paymentconfirm;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "flash-sale.journal-path=build/tmp/flash-sale-payment-confirm-test.journal",
+        "stock.reservation.sweep-interval=3600000",
+        "payment.retry.interval=3600000",
+        "payment.retry.max-attempts=3",
+        "payment.gateway.read-timeout=PT0.5S",
+        "payment.gateway.stub.enabled=true",
+        "payment.gateway.stub.port=18092",
+        "payment.gateway.stub.latency=PT0S",
+        "payment.gateway.stub.jitter=PT0S",
+        "payment.gateway.stub.hang=PT2S",
+        "payment.gateway.base-url=http://localhost:18092"
+})
+class PaymentConfirmServiceTest {
+
+    private static final int STOCK = 10;
+    private static final int PRICE = 10000;
+
+    @Autowired
+    private PaymentConfirmService paymentConfirmService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Autowired
+    private StubPaymentGateway stubPaymentGateway;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PaymentConfirmationRepository paymentConfirmationRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        stubPaymentGateway.setFaults(0.0, 0.0, 0.0);
+    }
+
+    // 상품 하나를 1개 주문하고 재고 점유 - 결제 대기 상태
+    private Order createOrder() {
+        return transactionTemplate.execute(status -> {
+            String userId = "user-" + UUID.randomUUID().toString().substring(0, 8);
+            Users user = userRepository.save(Users.builder()
+                    .userId(userId)
+                    .name("주문자")
+                    .userPw("pw")
+                    .email(userId + "@test.com")
+                    .phone("010-0000-0000")
+                    .pCode("12345")
+                    .loadAddr("도로명 주소")
+                    .lotAddr("지번 주소")
+                    .detailAddr("상세 주소")
+                    .role(Role.USER)
+                    .build());
+
+            Product product = new Product();
+            product.setPrName("결제 테스트 케이스");
+            product.setPrDetail("상세 설명");
+            product.setPrPrice(PRICE);
+            product.setProductCategory(ProductCategory.PHONE_CASE);
+            product.setProductType(ProductType.HARD);
+            ProductModel productModel = new ProductModel();
+            productModel.setProductModelSelect(ProductModelSelect.values()[0]);
+            productModel.setPrStock(STOCK);
+            product.addProductModel(productModel);
+            product.updateSellStatus();
+            productRepository.save(product);
+
+            Order order = orderRepository.save(Order.createOrder(user,
+                    List.of(OrderDetail.createOrderDetails(product, productModel, 1))));
+            productStockService.decreaseStocks(Map.of(productModel.getId(), 1));
+            stockReservationService.hold(order.getId());
+            return order;
+        });
+    }
+
+    // 결제사 장애로 결과를 모름 - 확인 대기로 전환
+    private void confirmDeferred(String paymentKey, Order order) throws Exception {
+        String outcome = paymentConfirmService.confirm(paymentKey, order.getOrderId(), String.valueOf(PRICE))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals("redirect:/pay/pending?orderId=" + order.getOrderId(), outcome);
+        assertEquals(OrderStatus.PAYMENT_PENDING, orderOf(order).getOrderStatus());
+        stubPaymentGateway.setFaults(0.0, 0.0, 0.0);
+    }
+
+    // 재시도 시각을 당긴다 (attempts 회 재시도한 상태로)
+    private void dueForRetry(String paymentKey, int attempts) {
+        jdbcTemplate.update("UPDATE payment_confirmation SET attempts = ?, next_attempt_at = ? WHERE payment_key = ?",
+                attempts, Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), paymentKey);
+    }
+
+    private PaymentConfirmation confirmationOf(String paymentKey, Order order) {
+        return paymentConfirmationRepository.findByPaymentKeyAndOrderId(paymentKey, order.getOrderId()).orElseThrow();
+    }
+
+    private Order orderOf(Order order) {
+        return orderRepository.findById(order.getId()).orElseThrow();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    void 이미_승인된_결제를_재시도하면_조회한_결제_수단으로_주문_완료() throws Exception {
+        Order order = createOrder();
+        String paymentKey = "pay-" + UUID.randomUUID();
+        stubPaymentGateway.setFaults(0.0, 1.0, 0.0); // 결제사는 승인했지만 응답이 오지 않음
+        confirmDeferred(paymentKey, order);
+
+        dueForRetry(paymentKey, 0);
+        paymentConfirmService.retryPending(); // ALREADY_PROCESSED_PAYMENT -> 결제 조회
+
+        await(() -> confirmationOf(paymentKey, order).getStatus() == PaymentConfirmationStatus.COMPLETED);
+        assertTrue(confirmationOf(paymentKey, order).getOutcome().startsWith("redirect:/success"));
+        Order paid = orderOf(order);
+        assertEquals(OrderStatus.ORDER, paid.getOrderStatus());
+        assertEquals("토스페이", paid.getPaymentMethod());
+        assertEquals("간편결제", paid.getPayInfo());
+    }
+
+    @Test
+    void 재시도_한도를_넘으면_주문을_취소하고_결제를_취소() throws Exception {
+        Order order = createOrder();
+        String paymentKey = "pay-" + UUID.randomUUID();
+        stubPaymentGateway.setFaults(0.0, 1.0, 0.0);
+        confirmDeferred(paymentKey, order);
+
+        dueForRetry(paymentKey, 3);
+        paymentConfirmService.retryPending();
+
+        PaymentConfirmation confirmation = confirmationOf(paymentKey, order);
+        assertEquals(PaymentConfirmationStatus.EXPIRED, confirmation.getStatus());
+        assertEquals(OrderStatus.CANCEL, orderOf(order).getOrderStatus());
+        assertTrue(outboxEventRepository.findAll().stream().anyMatch(event ->
+                event.getEventType() == OutboxEventType.PAYMENT_REFUND
+                        && event.getAggregateId().equals(order.getOrderId())));
+        await(() -> stubPaymentGateway.isCancelled(paymentKey)); // 승인됐던 결제 환불
+
+        // 같은 결제가 다시 들어오면 결제사를 호출하지 않고 저장된 결과
+        String outcome = paymentConfirmService.confirm(paymentKey, order.getOrderId(), String.valueOf(PRICE))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals(confirmation.getOutcome(), outcome);
+
+        // 종료된 건은 다시 재시도하지 않는다
+        dueForRetry(paymentKey, 3);
+        paymentConfirmService.retryPending();
+        assertEquals(PaymentConfirmationStatus.EXPIRED, confirmationOf(paymentKey, order).getStatus());
+    }
+
+    @Test
+    void 승인되지_않은_결제는_한도를_넘으면_주문만_취소() throws Exception {
+        Order order = createOrder();
+        String paymentKey = "pay-" + UUID.randomUUID();
+        stubPaymentGateway.setFaults(1.0, 0.0, 0.0); // 결제사 장애 (승인 안 됨)
+        confirmDeferred(paymentKey, order);
+
+        dueForRetry(paymentKey, 3);
+        paymentConfirmService.retryPending();
+
+        assertEquals(PaymentConfirmationStatus.EXPIRED, confirmationOf(paymentKey, order).getStatus());
+        assertEquals(OrderStatus.CANCEL, orderOf(order).getOrderStatus());
+        // 결제 취소 이벤트는 NOT_FOUND_PAYMENT 로 처리 완료
+        await(() -> outboxEventRepository.findAll().stream().anyMatch(event ->
+                event.getEventType() == OutboxEventType.PAYMENT_REFUND
+                        && event.getAggregateId().equals(order.getOrderId())
+                        && event.getProcessedAt() != null));
+        assertFalse(stubPaymentGateway.isCancelled(paymentKey));
+    }
+
+    @Test
+    void 결제사_장애_중에_주문이_만료됐으면_결제를_취소() throws Exception {
+        Order order = createOrder();
+        String paymentKey = "pay-" + UUID.randomUUID();
+        jdbcTemplate.update("UPDATE stock_reservation SET expires_at = ? WHERE order_no = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), order.getId());
+        stockReservationService.sweepExpired(); // 결제 대기 시간 만료로 주문 취소
+        assertEquals(OrderStatus.CANCEL, orderOf(order).getOrderStatus());
+
+        stubPaymentGateway.setFaults(0.0, 1.0, 0.0); // 결제사는 승인했지만 응답이 오지 않음
+        String outcome = paymentConfirmService.confirm(paymentKey, order.getOrderId(), String.valueOf(PRICE))
+                .get(10, TimeUnit.SECONDS);
+        stubPaymentGateway.setFaults(0.0, 0.0, 0.0);
+
+        assertEquals("redirect:/fail?message=Order expired, payment cancelled&code=409", outcome);
+        assertEquals(OrderStatus.CANCEL, orderOf(order).getOrderStatus());
+        assertTrue(outboxEventRepository.findAll().stream().anyMatch(event ->
+                event.getEventType() == OutboxEventType.PAYMENT_REFUND
+                        && event.getAggregateId().equals(order.getOrderId())));
+        await(() -> stubPaymentGateway.isCancelled(paymentKey)); // 승인됐던 결제 환불
+    }
+}
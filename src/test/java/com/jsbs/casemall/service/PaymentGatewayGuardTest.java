@@ -0,0 +1,157 @@
+package com.jsbs.casemall.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsbs.casemall.dto.PaymentConfirmResult;
+import com.jsbs.casemall.exception.PaymentGatewayUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 로컬 결제 스텁에 장애를 주입해서 서킷 브레이커/벌크헤드 동작 확인 (외부 호출 없음)
+class PaymentGatewayGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StubPaymentGateway stub;
+    private TossPaymentClient client;
+
+    private PaymentGatewayGuard start(int maxConcurrent, Duration latency) throws Exception {
+        stub = new StubPaymentGateway(new ObjectMapper(), 0, latency, Duration.ZERO, Duration.ofSeconds(5), 0.0, 0.0, 0.0);
+        stub.start();
+        // 최근 4건 중 50% 이상 실패면 200ms 동안 차단, 시험 호출 2건
+        PaymentGatewayGuard guard = new PaymentGatewayGuard(meterRegistry, maxConcurrent, 4, 4, 50,
+                Duration.ofSeconds(3), Duration.ofMillis(200), 2);
+        client = new TossPaymentClient(new ObjectMapper(), guard, "http://127.0.0.1:" + stub.getPort(), "test_sk",
+                Duration.ofSeconds(1), Duration.ofMillis(500), 4);
+        return guard;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        if (stub != null) {
+            stub.stop();
+        }
+    }
+
+    private Throwable failure(CompletableFuture<PaymentConfirmResult> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        return e.getCause();
+    }
+
+    @Test
+    void 결제사_장애가_이어지면_서킷이_열리고_회복되면_닫힌다() throws Exception {
+        PaymentGatewayGuard guard = start(10, Duration.ZERO);
+        stub.setFaults(1.0, 0.0, 0.0);
+
+        for (int i = 0; i < 4; i++) {
+            assertInstanceOf(PaymentGatewayUnavailableException.class, failure(client.confirm("key", "order-" + i, "1000")));
+        }
+        assertEquals(PaymentGatewayGuard.State.OPEN, guard.getState());
+
+        // 열린 동안은 결제사를 호출하지 않고 바로 거절
+        assertInstanceOf(PaymentGatewayUnavailableException.class, failure(client.confirm("key", "order-x", "1000")));
+        assertEquals(1.0, meterRegistry.counter("payment.gateway.rejected", "reason", "circuit_open").count());
+
+        // 차단 시간이 지나면 시험 호출 - 모두 성공하면 닫힘
+        stub.setFaults(0.0, 0.0, 0.0);
+        Thread.sleep(250);
+        assertEquals(PaymentGatewayGuard.State.HALF_OPEN, guard.getState());
+        assertTrue(client.confirm("key", "order-a", "1000").get().isSuccess());
+        assertTrue(client.confirm("key", "order-b", "1000").get().isSuccess());
+        assertEquals(PaymentGatewayGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void 응답_시간_초과도_실패로_센다() throws Exception {
+        PaymentGatewayGuard guard = start(10, Duration.ZERO);
+        stub.setFaults(0.0, 1.0, 0.0);
+
+        List<CompletableFuture<PaymentConfirmResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(client.confirm("key", "order-" + i, "1000"));
+        }
+        for (CompletableFuture<PaymentConfirmResult> future : futures) {
+            assertInstanceOf(java.net.http.HttpTimeoutException.class, failure(future));
+        }
+        assertEquals(PaymentGatewayGuard.State.OPEN, guard.getState());
+    }
+
+    @Test
+    void 결제_거절은_장애로_세지_않는다() throws Exception {
+        PaymentGatewayGuard guard = start(10, Duration.ZERO);
+        stub.setFaults(0.0, 0.0, 1.0);
+
+        for (int i = 0; i < 8; i++) {
+            PaymentConfirmResult result = client.confirm("key", "order-" + i, "1000").get();
+            assertFalse(result.isSuccess());
+            assertEquals("REJECT_CARD_PAYMENT", result.getCode());
+        }
+        assertEquals(PaymentGatewayGuard.State.CLOSED, guard.getState());
+    }
+
+    @Test
+    void 동시_호출_한도를_넘으면_기다리지_않고_거절한다() throws Exception {
+        start(2, Duration.ofMillis(300));
+
+        List<CompletableFuture<PaymentConfirmResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(client.confirm("key", "order-" + i, "1000"));
+        }
+        int succeeded = 0;
+        int rejected = 0;
+        for (CompletableFuture<PaymentConfirmResult> future : futures) {
+            try {
+                if (future.get().isSuccess()) {
+                    succeeded++;
+                }
+            } catch (ExecutionException e) {
+                assertInstanceOf(PaymentGatewayUnavailableException.class, e.getCause());
+                rejected++;
+            }
+        }
+        assertEquals(2, succeeded);
+        assertEquals(3, rejected);
+        assertEquals(3.0, meterRegistry.counter("payment.gateway.rejected", "reason", "bulkhead_full").count());
+    }
+
+    @Test
+    void 응답을_못_받은_승인을_다시_보내면_이미_처리됨이고_결제_수단은_조회로_읽는다() throws Exception {
+        start(10, Duration.ZERO);
+        stub.setFaults(0.0, 1.0, 0.0); // 결제사는 승인했지만 응답이 오지 않음
+        assertInstanceOf(java.net.http.HttpTimeoutException.class, failure(client.confirm("pay-1", "order-1", "1000")));
+
+        stub.setFaults(0.0, 0.0, 0.0);
+        PaymentConfirmResult retried = client.confirm("pay-1", "order-1", "1000").get();
+        assertFalse(retried.isSuccess());
+        assertEquals("ALREADY_PROCESSED_PAYMENT", retried.getCode());
+        assertNull(retried.getProvider());
+
+        PaymentConfirmResult payment = client.getPayment("pay-1").get();
+        assertTrue(payment.isSuccess());
+        assertEquals("DONE", payment.getStatus());
+        assertEquals("간편결제", payment.getMethod());
+        assertEquals("토스페이", payment.getProvider());
+    }
+
+    @Test
+    void 결제_취소는_한_번만_되고_승인하지_않은_결제는_찾을_수_없다() throws Exception {
+        start(10, Duration.ZERO);
+        assertTrue(client.confirm("pay-2", "order-2", "1000").get().isSuccess());
+
+        assertTrue(client.cancel("pay-2", "시험 취소").get().isSuccess());
+        assertEquals("ALREADY_CANCELED_PAYMENT", client.cancel("pay-2", "시험 취소").get().getCode());
+        assertEquals("CANCELED", client.getPayment("pay-2").get().getStatus());
+        assertEquals("NOT_FOUND_PAYMENT", client.cancel("pay-unknown", "시험 취소").get().getCode());
+        assertEquals("NOT_FOUND_PAYMENT", client.getPayment("pay-unknown").get().getCode());
+    }
+}
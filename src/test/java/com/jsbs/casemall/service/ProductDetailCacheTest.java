@@ -0,0 +1,126 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.dto.ProductFormDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductDetailCacheTest {
+
+    // DB 없이 loader 만 실행하는 트랜잭션 매니저
+    private static final PlatformTransactionManager NO_TRANSACTION = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    private ProductDetailCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductDetailCache(NO_TRANSACTION);
+        loads = new AtomicInteger();
+    }
+
+    private ProductFormDto load(Long prId) {
+        loads.incrementAndGet();
+        ProductFormDto product = new ProductFormDto();
+        product.setId(prId);
+        product.setPrName("케이스 " + loads.get());
+        return product;
+    }
+
+    @Test
+    void 두번째_조회는_캐시_복사본() {
+        ProductFormDto first = cache.get(1L, this::load);
+        first.setPrName("화면에서 바꾼 값");
+
+        ProductFormDto second = cache.get(1L, this::load);
+        assertEquals(1, loads.get());
+        assertEquals("케이스 1", second.getPrName()); // 반환한 객체를 바꿔도 캐시는 그대로
+    }
+
+    @Test
+    void 무효화하면_다시_조회() {
+        cache.get(1L, this::load);
+        cache.invalidate(1L);
+
+        assertEquals("케이스 2", cache.get(1L, this::load).getPrName());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void 조회중에_무효화되면_캐시에_넣지_않음() {
+        cache.get(1L, prId -> {
+            ProductFormDto product = load(prId);
+            cache.invalidate(prId); // 조회하는 사이에 재고 변경
+            return product;
+        });
+        cache.get(1L, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void 동시에_조회해도_DB_조회는_한번() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ProductFormDto> first = executor.submit(() -> cache.get(1L, prId -> {
+                loading.countDown();
+                await(release);
+                return load(prId);
+            }));
+            loading.await();
+            Future<ProductFormDto> second = executor.submit(() -> cache.get(1L, this::load));
+            Thread.sleep(100); // 두 번째 요청이 첫 번째 조회를 기다리도록
+            release.countDown();
+
+            assertEquals("케이스 1", first.get(5, TimeUnit.SECONDS).getPrName());
+            assertEquals("케이스 1", second.get(5, TimeUnit.SECONDS).getPrName());
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void 버전은_키가_많아도_고정_크기() {
+        StripedVersions versions = new StripedVersions(16);
+        for (long id = 0; id < 100_000; id++) {
+            versions.bump(id);
+        }
+        long total = 0;
+        for (long id = 0; id < 16; id++) {
+            total += versions.current(id);
+        }
+        assertEquals(100_000, total); // 16칸에 모두 담김
+        assertThrows(IllegalArgumentException.class, () -> new StripedVersions(1000));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
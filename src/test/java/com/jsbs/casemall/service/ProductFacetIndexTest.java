@@ -0,0 +1,73 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.entity.Product;
+import com.jsbs.casemall.entity.ProductModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(null, null); // build/refresh 를 부르지 않으므로 저장소는 쓰지 않는다
+        index.index(product(1L, ProductCategory.PHONE_CASE, ProductType.HARD, 10L, ProductModelSelect.IPHONE15, 3));
+        index.index(product(2L, ProductCategory.PHONE_CASE, ProductType.JELLY, 20L, ProductModelSelect.GALAXYS24, 0));
+        index.index(product(3L, ProductCategory.AIRPODS, ProductType.AIRPODS_PRO, 30L, ProductModelSelect.DEFAULT_MODEL, 5));
+    }
+
+    private Product product(Long id, ProductCategory category, ProductType type, Long modelId, ProductModelSelect select, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setProductCategory(category);
+        product.setProductType(type);
+        ProductModel productModel = new ProductModel();
+        productModel.setId(modelId);
+        productModel.setProductModelSelect(select);
+        productModel.setPrStock(stock);
+        product.addProductModel(productModel);
+        return product;
+    }
+
+    @Test
+    void 조건_조합과_필터별_개수() {
+        ProductFacetIndex.Result result = index.query(ProductCategory.PHONE_CASE, null, null, false);
+
+        assertEquals(List.of(2L, 1L), result.getProductIds()); // 최신순
+        assertEquals(2, result.getCategoryCounts().get(ProductCategory.PHONE_CASE));
+        assertEquals(1, result.getCategoryCounts().get(ProductCategory.AIRPODS)); // 카테고리 필터는 빼고 계산
+        assertEquals(1, result.getTypeCounts().get(ProductType.HARD));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void 재고_변경이_재고_필터에_반영() {
+        assertEquals(List.of(3L, 1L), index.query(null, null, null, true).getProductIds());
+
+        index.updateStock(2L, 20L, ProductModelSelect.GALAXYS24, 4);
+        index.updateStock(1L, 10L, ProductModelSelect.IPHONE15, 0);
+        assertEquals(List.of(3L, 2L), index.query(null, null, null, true).getProductIds());
+
+        index.removeModel(2L, 20L);
+        assertEquals(List.of(), index.query(null, null, ProductModelSelect.GALAXYS24, false).getProductIds());
+    }
+
+    @Test
+    void 삭제한_상품_슬롯은_재사용() {
+        index.remove(1L);
+        assertEquals(2, index.size());
+        assertEquals(List.of(2L), index.query(ProductCategory.PHONE_CASE, null, null, false).getProductIds());
+
+        index.index(product(4L, ProductCategory.PHONE_CASE, ProductType.HARD, 40L, ProductModelSelect.IPHONE15, 1));
+        assertEquals(List.of(4L, 2L), index.query(ProductCategory.PHONE_CASE, null, null, false).getProductIds());
+        assertEquals(List.of(4L), index.query(null, ProductType.HARD, null, false).getProductIds());
+    }
+}
@@ -0,0 +1,97 @@
+package com.jsbs.casemall.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsbs.casemall.dto.ProductImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductImportServiceTest {
+
+    private static final String HEADER = "prName,prDetail,prPrice,productCategory,productType,models,imgUrls";
+
+    @Test
+    void 따옴표_안의_쉼표와_이스케이프된_따옴표() {
+        assertEquals(List.of("케이스, 투명", "12\" 태블릿", "", "3"),
+                ProductImportService.splitCsv("\"케이스, 투명\",\"12\"\" 태블릿\",,3"));
+        assertThrows(IllegalArgumentException.class, () -> ProductImportService.splitCsv("\"닫히지 않음,1"));
+    }
+
+    @Test
+    void CSV_행을_상품으로() {
+        Map<String, Integer> header = ProductImportService.csvHeader(HEADER);
+        ProductImportRow row = ProductImportService.csvRow(header,
+                "\"젤리 케이스, 투명\",말랑한 케이스,12000,PHONE_CASE,JELLY,IPHONE15:10|GALAXYS24:0,/a.jpg|/b.jpg");
+
+        assertEquals("젤리 케이스, 투명", row.getPrName());
+        assertEquals(12000, row.getPrPrice());
+        assertEquals(Map.of("IPHONE15", 10, "GALAXYS24", 0), row.getModels());
+        assertEquals(List.of("/a.jpg", "/b.jpg"), row.getImgUrls());
+        ProductImportService.validate(row);
+    }
+
+    @Test
+    void 잘못된_행은_사유와_함께_거부() {
+        Map<String, Integer> header = ProductImportService.csvHeader(HEADER);
+
+        IllegalArgumentException price = assertThrows(IllegalArgumentException.class,
+                () -> ProductImportService.csvRow(header, "케이스,설명,만원,PHONE_CASE,HARD,,"));
+        assertTrue(price.getMessage().contains("만원"));
+
+        IllegalArgumentException stock = assertThrows(IllegalArgumentException.class,
+                () -> ProductImportService.csvRow(header, "케이스,설명,1000,PHONE_CASE,HARD,IPHONE15:많음,"));
+        assertTrue(stock.getMessage().contains("IPHONE15:많음"));
+
+        ProductImportRow unknownModel = ProductImportService.csvRow(header, "케이스,설명,1000,PHONE_CASE,HARD,IPHONE99:1,");
+        assertThrows(IllegalArgumentException.class, () -> ProductImportService.validate(unknownModel));
+
+        ProductImportRow noName = ProductImportService.csvRow(header, ",설명,1000,PHONE_CASE,HARD,,");
+        assertThrows(IllegalArgumentException.class, () -> ProductImportService.validate(noName));
+
+        assertThrows(IllegalArgumentException.class, () -> ProductImportService.csvHeader("prName,prDetail"));
+    }
+
+    @Test
+    void BOM_으로_시작하는_헤더() {
+        String line = ProductImportService.stripBom("\uFEFF" + HEADER);
+        assertEquals(0, ProductImportService.csvHeader(line).get("prName"));
+        assertEquals("케이스", ProductImportService.stripBom("케이스"));
+    }
+
+    @Test
+    void JSON_Lines_행() {
+        ProductImportService service = new ProductImportService(null, null, new ObjectMapper(), null, null, null);
+
+        ProductImportRow row = service.jsonRow("{\"prName\":\"하드 케이스\",\"prDetail\":\"설명\",\"prPrice\":9000," +
+                "\"productCategory\":\"PHONE_CASE\",\"productType\":\"HARD\"}");
+        assertEquals("하드 케이스", row.getPrName());
+        assertTrue(row.getModels().isEmpty()); // 없으면 빈 목록
+        assertTrue(row.getImgUrls().isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> service.jsonRow("{\"prName\":"));
+    }
+
+    @Test
+    void 끝난_작업은_보관시간이_지나거나_개수를_넘으면_정리() {
+        Map<String, ProductImportJob> jobs = new LinkedHashMap<>();
+        ProductImportJob running = new ProductImportJob("running.csv");
+        jobs.put(running.getId(), running);
+        for (int i = 0; i < 5; i++) {
+            ProductImportJob job = new ProductImportJob(i + ".csv");
+            job.complete();
+            jobs.put(job.getId(), job);
+        }
+
+        ProductImportService.evictFinished(jobs, LocalDateTime.now().minusHours(1), 3);
+        assertEquals(4, jobs.size()); // 진행 중 1 + 최근 끝난 3
+        assertTrue(jobs.containsKey(running.getId()));
+
+        ProductImportService.evictFinished(jobs, LocalDateTime.now().plusSeconds(1), 3);
+        assertEquals(List.of(running.getId()), List.copyOf(jobs.keySet()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.dto.ProductSearchDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(null); // build() 를 부르지 않으므로 저장소는 쓰지 않는다
+        index.index(1L, "투명 젤리 케이스");
+        index.index(2L, "카드 수납 가죽 케이스");
+        index.index(3L, "Clear Hard Case");
+    }
+
+    @Test
+    void 상품명에_포함된_상품을_ID_내림차순으로() {
+        assertEquals(List.of(2L, 1L), index.search("케이스"));
+        assertEquals(List.of(1L), index.search("젤리 케이"));
+        assertEquals(List.of(3L), index.search("clearhard")); // 대소문자/공백 무시
+    }
+
+    @Test
+    void 두글자_토큰이_모두_있어도_순서가_다르면_제외() {
+        index.index(4L, "이케아 케이스"); // "케이", "이케" 는 있지만 "케이케" 는 없음
+        assertEquals(List.of(), index.search("케이케"));
+    }
+
+    @Test
+    void 수정하면_이전_상품명으로는_검색되지_않음() {
+        index.index(1L, "실리콘 범퍼");
+        assertEquals(List.of(2L), index.search("케이스"));
+        assertEquals(List.of(1L), index.search("범퍼"));
+
+        index.remove(1L);
+        assertEquals(List.of(), index.search("범퍼"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void 상품명_검색만_색인_사용() {
+        ProductSearchDto byName = new ProductSearchDto();
+        byName.setSearchBy("prName");
+        byName.setSearchQuery("케이스");
+        assertTrue(index.supports(byName));
+
+        ProductSearchDto byWriter = new ProductSearchDto();
+        byWriter.setSearchBy("createBy");
+        byWriter.setSearchQuery("admin");
+        assertFalse(index.supports(byWriter));
+    }
+}
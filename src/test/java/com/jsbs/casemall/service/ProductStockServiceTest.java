@@ -0,0 +1,152 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.ProductCategory;
+import com.jsbs.casemall.constant.ProductModelSelect;
+import com.jsbs.casemall.constant.ProductSellStatus;
+import com.jsbs.casemall.constant.ProductType;
+import com.jsbs.casemall.entity.Product;
+import com.jsbs.casemall.entity.ProductModel;
+import com.jsbs.casemall.exception.OutOfStockException;
+import com.jsbs.casemall.repository.ProductModelRepository;
+import com.jsbs.casemall.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 운영 DB 대신 메모리 H2 사용 (행 잠금 대기가 길어질 수 있으므로 LOCK_TIMEOUT 을 늘림)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:stock;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "flash-sale.journal-path=build/tmp/flash-sale-test.journal"
+})
+class ProductStockServiceTest {
+
+    private static final int BUYERS = 200;
+    private static final int STOCK = 100;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductModelRepository productModelRepository;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Product createProduct(int... stocks) {
+        return transactionTemplate.execute(status -> {
+            Product product = new Product();
+            product.setPrName("재고 테스트 케이스");
+            product.setPrDetail("상세 설명");
+            product.setPrPrice(10000);
+            product.setProductCategory(ProductCategory.PHONE_CASE);
+            product.setProductType(ProductType.HARD);
+            ProductModelSelect[] selects = ProductModelSelect.values();
+            for (int i = 0; i < stocks.length; i++) {
+                ProductModel productModel = new ProductModel();
+                productModel.setProductModelSelect(selects[i]);
+                productModel.setPrStock(stocks[i]);
+                product.addProductModel(productModel);
+            }
+            product.updateSellStatus();
+            return productRepository.save(product);
+        });
+    }
+
+    private int stockOf(Long modelId) {
+        return productModelRepository.findById(modelId).orElseThrow().getPrStock();
+    }
+
+    @Test
+    void 동시에_200명이_주문해도_초과판매_없음() throws Exception {
+        Product product = createProduct(STOCK);
+        Long modelId = product.getProductModelList().get(0).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch ready = new CountDownLatch(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        List<Future<?>> futures = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < BUYERS; i++) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            productStockService.decreaseStocks(Map.of(modelId, 1)));
+                    succeeded.incrementAndGet();
+                } catch (OutOfStockException e) {
+                    soldOut.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        ready.await();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS); // 재고 부족 외의 예외가 있으면 여기서 실패
+        }
+        executor.shutdown();
+
+        assertEquals(STOCK, succeeded.get());
+        assertEquals(BUYERS - STOCK, soldOut.get());
+        assertEquals(0, stockOf(modelId));
+
+        Product saved = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(ProductSellStatus.SOLD_OUT, saved.getProductSellStatus());
+        assertEquals(0, saved.getInStockModelCount());
+    }
+
+    @Test
+    void 한_항목이라도_재고가_부족하면_주문_전체_롤백() {
+        Product product = createProduct(5, 1);
+        Long first = product.getProductModelList().get(0).getId();
+        Long second = product.getProductModelList().get(1).getId();
+
+        assertThrows(OutOfStockException.class, () -> transactionTemplate.executeWithoutResult(status ->
+                productStockService.decreaseStocks(Map.of(first, 2, second, 3))));
+
+        assertEquals(5, stockOf(first));
+        assertEquals(1, stockOf(second));
+    }
+
+    @Test
+    void 커밋_후_필터_색인에_차감된_재고가_반영() {
+        Product product = createProduct(1, 2);
+        Long first = product.getProductModelList().get(0).getId();
+        productFacetIndex.index(product);
+        assertTrue(productFacetIndex.query(null, null, ProductModelSelect.values()[0], true)
+                .getProductIds().contains(product.getId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // 같은 영속성 컨텍스트에 차감 전 기종이 올라와 있어도 색인은 DB 에서 읽은 재고로 고친다
+            assertEquals(1, productModelRepository.findById(first).orElseThrow().getPrStock());
+            productStockService.decreaseStocks(Map.of(first, 1));
+        });
+
+        assertFalse(productFacetIndex.query(null, null, ProductModelSelect.values()[0], true)
+                .getProductIds().contains(product.getId()));
+        assertTrue(productFacetIndex.query(null, null, ProductModelSelect.values()[1], true)
+                .getProductIds().contains(product.getId()));
+    }
+}
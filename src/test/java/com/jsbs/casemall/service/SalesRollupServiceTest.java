@@ -0,0 +1,176 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.*;
+import com.jsbs.casemall.dto.SalesSummaryDto;
+import com.jsbs.casemall.entity.*;
+import com.jsbs.casemall.repository.OrderRepository;
+import com.jsbs.casemall.repository.ProductRepository;
+import com.jsbs.casemall.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:salesrollup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "flash-sale.journal-path=build/tmp/flash-sale-sales-rollup-test.journal",
+        "stock.reservation.sweep-interval=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SalesRollupServiceTest {
+
+    private static final int PRICE = 10000;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDate today = LocalDate.now();
+
+    private Long caseId;
+    private Long noCategoryId;
+
+    // 오늘 주문 - 케이스 2개 결제 / 케이스 1개 + 카테고리 없는 상품 3개 결제 / 케이스 4개 결제 전 취소
+    @BeforeAll
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Users user = userRepository.save(Users.builder()
+                    .userId("sales-user")
+                    .name("주문자")
+                    .userPw("pw")
+                    .email("sales@test.com")
+                    .phone("010-0000-0000")
+                    .pCode("12345")
+                    .loadAddr("도로명 주소")
+                    .lotAddr("지번 주소")
+                    .detailAddr("상세 주소")
+                    .role(Role.USER)
+                    .build());
+            Product phoneCase = product("집계 케이스", ProductCategory.PHONE_CASE);
+            Product noCategory = product("카테고리 없는 상품", null);
+            caseId = phoneCase.getId();
+            noCategoryId = noCategory.getId();
+            ProductModel caseModel = phoneCase.getProductModelList().get(0);
+            ProductModel noCategoryModel = noCategory.getProductModelList().get(0);
+
+            Order first = orderRepository.save(Order.createOrder(user,
+                    List.of(OrderDetail.createOrderDetails(phoneCase, caseModel, 2))));
+            Order second = orderRepository.save(Order.createOrder(user,
+                    List.of(OrderDetail.createOrderDetails(phoneCase, caseModel, 1),
+                            OrderDetail.createOrderDetails(noCategory, noCategoryModel, 3))));
+            Order abandoned = orderRepository.save(Order.createOrder(user,
+                    List.of(OrderDetail.createOrderDetails(phoneCase, caseModel, 4))));
+            orderRepository.flush();
+
+            for (Order order : List.of(first, second)) {
+                stockReservationService.confirm(order.getId());
+                salesRollupService.recordPaid(order.getId());
+            }
+            assertEquals(1, stockReservationService.cancel(List.of(abandoned.getId())));
+        });
+    }
+
+    private Product product(String name, ProductCategory category) {
+        Product product = new Product();
+        product.setPrName(name);
+        product.setPrDetail("상세 설명");
+        product.setPrPrice(PRICE);
+        product.setProductCategory(category);
+        product.setProductType(ProductType.HARD);
+        ProductModel productModel = new ProductModel();
+        productModel.setProductModelSelect(ProductModelSelect.values()[0]);
+        productModel.setPrStock(100);
+        product.addProductModel(productModel);
+        product.updateSellStatus();
+        return productRepository.save(product);
+    }
+
+    private void assertSummary(SalesSummaryDto summary) {
+        // 일별 / 기간 합계는 카테고리가 없는 상품까지 센다
+        assertEquals(1, summary.getDaily().size());
+        SalesSummaryDto.Daily day = summary.getDaily().get(0);
+        assertEquals(today, day.getDate());
+        assertEquals(6, day.getQuantity());
+        assertEquals(6L * PRICE, day.getRevenue());
+        assertEquals(4, day.getUnpaidCancelQuantity());
+        assertEquals(6, summary.getQuantity());
+        assertEquals(6L * PRICE, summary.getRevenue());
+
+        // 카테고리별은 카테고리가 있는 상품만
+        assertEquals(1, summary.getCategories().size());
+        SalesSummaryDto.Category category = summary.getCategories().get(0);
+        assertEquals(ProductCategory.PHONE_CASE, category.getCategory());
+        assertEquals(2, category.getOrderCount());
+        assertEquals(3, category.getQuantity());
+        assertEquals(3L * PRICE, category.getRevenue());
+        assertEquals(4, category.getUnpaidCancelQuantity());
+
+        assertEquals(2, summary.getTopProducts().size());
+        for (SalesSummaryDto.ProductSales product : summary.getTopProducts()) {
+            assertTrue(product.getProductId().equals(caseId) || product.getProductId().equals(noCategoryId));
+            assertEquals(3, product.getQuantity());
+            assertEquals(product.getProductId().equals(caseId) ? 2 : 1, product.getOrderCount());
+        }
+    }
+
+    @Test
+    void 결제와_결제_전_취소를_주문_상태_변경과_함께_집계() {
+        assertSummary(salesRollupService.getSalesSummary(today, today));
+        // 결제 전 취소는 주문 수로 따로 센다
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT SUM(unpaid_cancel_count) FROM sales_daily_model WHERE sales_date = ?", Long.class, today));
+    }
+
+    @Test
+    void 다른_날은_비어_있다() {
+        SalesSummaryDto summary = salesRollupService.getSalesSummary(today.minusDays(7), today.minusDays(1));
+
+        assertTrue(summary.getDaily().isEmpty());
+        assertEquals(0, summary.getRevenue());
+    }
+
+    @Test
+    void 틀어진_집계를_주문에서_다시_계산하면_증감_결과와_같다() {
+        jdbcTemplate.update("UPDATE sales_daily_model SET quantity = 999, revenue = 0");
+        jdbcTemplate.update("DELETE FROM sales_daily_category");
+
+        assertEquals(3, salesRollupService.rebuild(today.minusDays(1), today.plusDays(1)));
+
+        assertSummary(salesRollupService.getSalesSummary(today, today));
+    }
+
+    @Test
+    void 종료일이_시작일보다_빠르면_재계산하지_않는다() {
+        assertThrows(IllegalArgumentException.class, () -> salesRollupService.rebuild(today, today.minusDays(1)));
+    }
+}
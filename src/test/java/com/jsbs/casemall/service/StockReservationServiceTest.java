@@ -0,0 +1,236 @@
+package com.jsbs.casemall.service;
+
+import com.jsbs.casemall.constant.*;
+import com.jsbs.casemall.entity.*;
+import com.jsbs.casemall.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 결제사 대신 로컬 결제 스텁 사용, 만료 스케줄러는 시험 중에 끼어들지 않도록 주기를 늘림
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:reservation;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "flash-sale.journal-path=build/tmp/flash-sale-reservation-test.journal",
+        "stock.reservation.sweep-interval=3600000",
+        "payment.gateway.stub.enabled=true",
+        "payment.gateway.stub.port=18091",
+        "payment.gateway.stub.latency=PT0S",
+        "payment.gateway.stub.jitter=PT0S",
+        "payment.gateway.base-url=http://localhost:18091"
+})
+class StockReservationServiceTest {
+
+    private static final int STOCK = 10;
+    private static final int PRICE = 10000;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private PaymentConfirmService paymentConfirmService;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Autowired
+    private StubPaymentGateway stubPaymentGateway;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductModelRepository productModelRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderStatusEventRepository orderStatusEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // 상품(재고 STOCK) 하나를 count 개 주문하고 재고 점유 - 결제 대기 상태
+    private Order createOrder(int count) {
+        return transactionTemplate.execute(status -> {
+            String userId = "user-" + UUID.randomUUID().toString().substring(0, 8);
+            Users user = userRepository.save(Users.builder()
+                    .userId(userId)
+                    .name("주문자")
+                    .userPw("pw")
+                    .email(userId + "@test.com")
+                    .phone("010-0000-0000")
+                    .pCode("12345")
+                    .loadAddr("도로명 주소")
+                    .lotAddr("지번 주소")
+                    .detailAddr("상세 주소")
+                    .role(Role.USER)
+                    .build());
+
+            Product product = new Product();
+            product.setPrName("점유 테스트 케이스");
+            product.setPrDetail("상세 설명");
+            product.setPrPrice(PRICE);
+            product.setProductCategory(ProductCategory.PHONE_CASE);
+            product.setProductType(ProductType.HARD);
+            ProductModel productModel = new ProductModel();
+            productModel.setProductModelSelect(ProductModelSelect.values()[0]);
+            productModel.setPrStock(STOCK);
+            product.addProductModel(productModel);
+            product.updateSellStatus();
+            productRepository.save(product);
+
+            Order order = orderRepository.save(Order.createOrder(user,
+                    List.of(OrderDetail.createOrderDetails(product, productModel, count))));
+            productStockService.decreaseStocks(Map.of(productModel.getId(), count));
+            stockReservationService.hold(order.getId());
+            return order;
+        });
+    }
+
+    private Long modelIdOf(Order order) {
+        return transactionTemplate.execute(status -> orderRepository.findById(order.getId()).orElseThrow()
+                .getOrderItems().get(0).getProductModel().getId());
+    }
+
+    private void expireHold(Order order) {
+        jdbcTemplate.update("UPDATE stock_reservation SET expires_at = ? WHERE order_no = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), order.getId());
+    }
+
+    private OrderStatus statusOf(Order order) {
+        return orderRepository.findById(order.getId()).orElseThrow().getOrderStatus();
+    }
+
+    // 변경 이력 (이전 상태 -> 바뀐 상태 / 변경자)
+    private List<String> historyOf(Order order) {
+        return orderStatusEventRepository.findByOrderNoOrderByIdAsc(order.getId()).stream()
+                .map(event -> event.getFromStatus() + "->" + event.getToStatus() + "/" + event.getChangedBy())
+                .toList();
+    }
+
+    private int stockOf(Long modelId) {
+        return productModelRepository.findById(modelId).orElseThrow().getPrStock();
+    }
+
+    @Test
+    void 만료된_결제대기_주문은_정리시_취소되고_재고_복구() {
+        Order order = createOrder(3);
+        Long modelId = modelIdOf(order);
+        assertEquals(STOCK - 3, stockOf(modelId));
+
+        expireHold(order);
+        stockReservationService.sweepExpired();
+
+        assertEquals(OrderStatus.CANCEL, statusOf(order));
+        assertEquals(STOCK, stockOf(modelId));
+        assertFalse(stockReservationRepository.existsById(order.getId()));
+        assertEquals(List.of("STAY->CANCEL/reservation-expiry"), historyOf(order));
+    }
+
+    @Test
+    void 조회_후_연장된_점유는_만료_정리에서_취소하지_않음() {
+        Order order = createOrder(2);
+        Long modelId = modelIdOf(order);
+        LocalDateTime sweptAt = LocalDateTime.now();
+
+        // 스케줄러가 sweptAt 기준으로 만료 주문을 찾은 뒤, 사용자가 주문을 수정해서 점유가 연장된 경우
+        int cancelled = transactionTemplate.execute(status ->
+                stockReservationService.expire(List.of(order.getId()), sweptAt));
+
+        assertEquals(0, cancelled);
+        assertEquals(OrderStatus.STAY, statusOf(order));
+        assertEquals(STOCK - 2, stockOf(modelId));
+        assertTrue(stockReservationRepository.existsById(order.getId()));
+        assertTrue(historyOf(order).isEmpty());
+    }
+
+    @Test
+    void 주문_취소는_여러_번_호출해도_재고를_한_번만_복구() {
+        Order order = createOrder(4);
+        Long modelId = modelIdOf(order);
+
+        int first = transactionTemplate.execute(status -> stockReservationService.cancel(List.of(order.getId())));
+        int second = transactionTemplate.execute(status -> stockReservationService.cancel(List.of(order.getId())));
+
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertEquals(OrderStatus.CANCEL, statusOf(order));
+        assertEquals(STOCK, stockOf(modelId));
+        assertFalse(stockReservationRepository.existsById(order.getId()));
+        assertEquals(List.of("STAY->CANCEL/payment"), historyOf(order)); // 실제로 바뀐 한 번만 기록
+    }
+
+    @Test
+    void 결제_확인중을_거쳐_결제_완료되면_변경_이력이_차례로_남는다() {
+        Order order = createOrder(1);
+
+        assertTrue(transactionTemplate.execute(status -> stockReservationService.markPending(order.getId())));
+        assertFalse(transactionTemplate.execute(status -> stockReservationService.markPending(order.getId())));
+        transactionTemplate.executeWithoutResult(status -> stockReservationService.confirm(order.getId()));
+
+        assertEquals(OrderStatus.ORDER, statusOf(order));
+        assertEquals(List.of("STAY->PAYMENT_PENDING/payment", "PAYMENT_PENDING->ORDER/payment"), historyOf(order));
+
+        // 결제 완료된 주문은 취소/다시 완료되지 않고 이력도 늘지 않는다
+        assertEquals(0, transactionTemplate.execute(status -> stockReservationService.cancel(List.of(order.getId()))));
+        assertThrows(IllegalStateException.class, () ->
+                transactionTemplate.executeWithoutResult(status -> stockReservationService.confirm(order.getId())));
+        assertEquals(2, historyOf(order).size());
+    }
+
+    @Test
+    void 결제대기_시간이_지난_뒤_승인되면_결제를_취소() throws Exception {
+        Order order = createOrder(1);
+        Long modelId = modelIdOf(order);
+        expireHold(order);
+        stockReservationService.sweepExpired();
+
+        String paymentKey = "pay-" + UUID.randomUUID();
+        String outcome = paymentConfirmService.confirm(paymentKey, order.getOrderId(), String.valueOf(PRICE))
+                .get(10, TimeUnit.SECONDS);
+
+        assertTrue(outcome.startsWith("redirect:/fail"), outcome);
+        assertEquals(OrderStatus.CANCEL, statusOf(order));
+        assertEquals(STOCK, stockOf(modelId)); // 재고는 만료 정리 때 한 번만 복구
+        assertEquals(List.of("STAY->CANCEL/reservation-expiry"), historyOf(order));
+        assertTrue(outboxEventRepository.findAll().stream().anyMatch(event ->
+                event.getEventType() == OutboxEventType.PAYMENT_REFUND
+                        && event.getAggregateId().equals(order.getOrderId())));
+
+        // 커밋 후 디스패처가 결제사 취소 API 호출
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!stubPaymentGateway.isCancelled(paymentKey) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(stubPaymentGateway.isCancelled(paymentKey));
+    }
+}